@@ -0,0 +1,14 @@
+package com.epam.training.ticketservice.core.booking.dedup;
+
+import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingResponse;
+import com.epam.training.ticketservice.core.booking.exception.MultiSeatBookingNotPossibleException;
+
+import java.util.Optional;
+
+public interface BookingRequestDeduplicator {
+
+    Optional<MultiSeatBookingResponse> findResponse(String username, String requestId, String fingerprint)
+            throws MultiSeatBookingNotPossibleException;
+
+    void remember(String username, String requestId, String fingerprint, MultiSeatBookingResponse response);
+}
@@ -0,0 +1,25 @@
+package com.epam.training.ticketservice.core.booking.dedup;
+
+import com.epam.training.ticketservice.core.booking.dto.Seat;
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class BookingRequestFingerprint {
+
+    private BookingRequestFingerprint() {
+    }
+
+    // Seats are sorted, a retry listing them in another order is still the same request
+    public static String of(ScreeningId screeningId, List<Seat> seats) {
+        var canonical = screeningId.getMovieId() + "|" + screeningId.getRoomId() + "|" + screeningId.getStartDateTime()
+                + "|" + seats.stream()
+                .sorted()
+                .map(seat -> seat.getRow() + "," + seat.getColumn())
+                .collect(Collectors.joining(" "));
+        return DigestUtils.md5DigestAsHex(canonical.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,158 @@
+package com.epam.training.ticketservice.core.booking.dedup;
+
+import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingResponse;
+import com.epam.training.ticketservice.core.booking.dto.Seat;
+import com.epam.training.ticketservice.core.booking.entity.ProcessedBookingRequest;
+import com.epam.training.ticketservice.core.booking.exception.MultiSeatBookingNotPossibleException;
+import com.epam.training.ticketservice.core.booking.exception.RequestIdReusedException;
+import com.epam.training.ticketservice.core.booking.entity.ProcessedBookingRequestId;
+import com.epam.training.ticketservice.core.booking.repository.ProcessedBookingRequestRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static com.epam.training.ticketservice.core.transaction.TransactionCallbacks.afterCommit;
+
+@Service
+public class DefaultBookingRequestDeduplicator implements BookingRequestDeduplicator {
+
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(1);
+
+    private final ProcessedBookingRequestRepository processedBookingRequestRepository;
+
+    private final Duration timeToLive;
+
+    private final Clock clock;
+
+    private final Map<ProcessedBookingRequestId, CachedResponse> cache;
+
+    private LocalDateTime lastPurge = LocalDateTime.MIN;
+
+    @Autowired
+    public DefaultBookingRequestDeduplicator(ProcessedBookingRequestRepository processedBookingRequestRepository,
+                                             @Value("${app.booking.dedup.max-entries:10000}") int maxEntries,
+                                             @Value("${app.booking.dedup.ttl-seconds:3600}") long timeToLiveSeconds) {
+        this(processedBookingRequestRepository, maxEntries, Duration.ofSeconds(timeToLiveSeconds),
+                Clock.systemDefaultZone());
+    }
+
+    DefaultBookingRequestDeduplicator(ProcessedBookingRequestRepository processedBookingRequestRepository,
+                                      int maxEntries,
+                                      Duration timeToLive,
+                                      Clock clock) {
+        this.processedBookingRequestRepository = processedBookingRequestRepository;
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+        // Access ordered, so the least recently used request id goes first once the cache is full
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ProcessedBookingRequestId, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Optional<MultiSeatBookingResponse> findResponse(String username, String requestId, String fingerprint)
+            throws MultiSeatBookingNotPossibleException {
+        var id = new ProcessedBookingRequestId(username, requestId);
+        CachedResponse cached;
+        synchronized (cache) {
+            cached = cache.get(id);
+        }
+        if (cached == null) {
+            // Misses are not cached, the first attempt of a retried request may still be committing
+            cached = processedBookingRequestRepository.findById(id)
+                    .map(this::toCachedResponse)
+                    .orElse(null);
+            if (cached != null) {
+                cache(id, cached);
+            }
+        }
+        if (cached == null || isExpired(cached.createdAt)) {
+            return Optional.empty();
+        }
+        // Rows stored before fingerprints existed have none and are replayed as before
+        if (cached.fingerprint != null && !Objects.equals(cached.fingerprint, fingerprint)) {
+            throw new RequestIdReusedException(requestId);
+        }
+        return Optional.of(cached.response);
+    }
+
+    @Override
+    public void remember(String username, String requestId, String fingerprint, MultiSeatBookingResponse response) {
+        var id = new ProcessedBookingRequestId(username, requestId);
+        var now = LocalDateTime.now(clock);
+        // An expired row for the same id may not be purged yet, it is reused instead of clashing on insert
+        var processed = processedBookingRequestRepository.findById(id)
+                .orElseGet(() -> ProcessedBookingRequest.builder().id(id).build());
+        processed.setSeats(response.getSeats()
+                .stream()
+                .map(seat -> seat.getRow() + "," + seat.getColumn())
+                .collect(Collectors.joining(" ")));
+        processed.setSumPrice(response.getSumPrice());
+        processed.setFingerprint(fingerprint);
+        processed.setCreatedAt(now);
+        processedBookingRequestRepository.save(processed);
+        purgeExpired(now);
+        afterCommit(() -> cache(id, new CachedResponse(response, fingerprint, now)));
+    }
+
+    private void purgeExpired(LocalDateTime now) {
+        synchronized (cache) {
+            if (lastPurge.plus(PURGE_INTERVAL).isAfter(now)) {
+                return;
+            }
+            lastPurge = now;
+            cache.values().removeIf(cached -> isExpired(cached.createdAt));
+        }
+        processedBookingRequestRepository.deleteAllCreatedBefore(now.minus(timeToLive));
+    }
+
+    private void cache(ProcessedBookingRequestId id, CachedResponse cached) {
+        synchronized (cache) {
+            cache.put(id, cached);
+        }
+    }
+
+    private boolean isExpired(LocalDateTime createdAt) {
+        return createdAt.plus(timeToLive).isBefore(LocalDateTime.now(clock));
+    }
+
+    private CachedResponse toCachedResponse(ProcessedBookingRequest processed) {
+        var seats = Arrays.stream(processed.getSeats().split(" "))
+                .map(seat -> seat.split(","))
+                .map(rowAndColumn -> Seat.of(Integer.parseInt(rowAndColumn[0]), Integer.parseInt(rowAndColumn[1])))
+                .collect(Collectors.toList());
+        var response = MultiSeatBookingResponse.builder()
+                .sumPrice(processed.getSumPrice())
+                .seats(seats)
+                .build();
+        return new CachedResponse(response, processed.getFingerprint(), processed.getCreatedAt());
+    }
+
+    private static final class CachedResponse {
+
+        private final MultiSeatBookingResponse response;
+
+        private final String fingerprint;
+
+        private final LocalDateTime createdAt;
+
+        private CachedResponse(MultiSeatBookingResponse response, String fingerprint, LocalDateTime createdAt) {
+            this.response = response;
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+        }
+    }
+}
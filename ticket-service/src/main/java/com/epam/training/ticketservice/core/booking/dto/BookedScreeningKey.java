@@ -0,0 +1,20 @@
+package com.epam.training.ticketservice.core.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// The keyset the bookings of an account are paged by, in the order they are listed
+@Data
+@Builder
+@AllArgsConstructor
+public class BookedScreeningKey {
+
+    private final LocalDateTime startDateTime;
+
+    private final String roomName;
+
+    private final String movieTitle;
+}
@@ -0,0 +1,19 @@
+package com.epam.training.ticketservice.core.booking.dto;
+
+import java.time.LocalDateTime;
+
+// One booked seat flattened with the screening details it is listed with
+public interface BookedSeatView {
+
+    String getMovieTitle();
+
+    String getRoomName();
+
+    LocalDateTime getStartDateTime();
+
+    int getSeatRow();
+
+    int getSeatColumn();
+
+    int getPrice();
+}
@@ -0,0 +1,16 @@
+package com.epam.training.ticketservice.core.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BookingPage {
+
+    private final List<String> bookings;
+
+    // Null on the last page
+    private final String nextCursor;
+}
@@ -19,4 +19,7 @@ public class MultiSeatBookingRequest {
     private final LocalDateTime startDateTime;
 
     private final List<Seat> seats;
+
+    // Optional, a retried request with the same id gets the original response
+    private final String requestId;
 }
@@ -0,0 +1,25 @@
+package com.epam.training.ticketservice.core.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class MultiSeatBookingResult {
+
+    private final MultiSeatBookingResponse response;
+
+    private final RuntimeException error;
+
+    public static MultiSeatBookingResult success(MultiSeatBookingResponse response) {
+        return MultiSeatBookingResult.builder()
+                .response(response)
+                .build();
+    }
+
+    public static MultiSeatBookingResult failure(RuntimeException error) {
+        return MultiSeatBookingResult.builder()
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.epam.training.ticketservice.core.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@Builder
+public class SeatHoldResponse {
+
+    private final List<Seat> seats;
+
+    private final Duration timeToLive;
+}
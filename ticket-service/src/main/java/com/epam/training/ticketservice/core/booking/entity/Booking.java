@@ -1,6 +1,7 @@
 package com.epam.training.ticketservice.core.booking.entity;
 
 import com.epam.training.ticketservice.core.account.entity.Account;
+import com.epam.training.ticketservice.core.entity.AssignedIdEntity;
 import com.epam.training.ticketservice.core.screening.entity.Screening;
 import lombok.Builder;
 import lombok.Getter;
@@ -14,13 +15,22 @@ import javax.persistence.FetchType;
 import javax.persistence.ManyToOne;
 import javax.persistence.MapsId;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings",
+        uniqueConstraints = @UniqueConstraint(name = "uk_bookings_screening_seat",
+                columnNames = {
+                        "screening_movie_id",
+                        "screening_room_id",
+                        "screening_start_date_time",
+                        "seat_row",
+                        "seat_column"
+                }))
 @NoArgsConstructor
 @Getter
 @Setter
-public class Booking {
+public class Booking extends AssignedIdEntity<BookingId> {
 
     @EmbeddedId
     private BookingId id;
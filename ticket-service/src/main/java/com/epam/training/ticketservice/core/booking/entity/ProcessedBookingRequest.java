@@ -0,0 +1,53 @@
+package com.epam.training.ticketservice.core.booking.entity;
+
+import com.epam.training.ticketservice.core.entity.AssignedIdEntity;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "processed_booking_requests",
+        indexes = @Index(name = "ix_processed_booking_requests_created_at", columnList = "created_at"))
+@NoArgsConstructor
+@Getter
+@Setter
+public class ProcessedBookingRequest extends AssignedIdEntity<ProcessedBookingRequestId> {
+
+    @EmbeddedId
+    private ProcessedBookingRequestId id;
+
+    // The booked seats in the same "row,column row,column" form the book command takes
+    @Column(name = "seats")
+    private String seats;
+
+    @Column(name = "sum_price")
+    private int sumPrice;
+
+    // Of the requested screening and seats, a reused request id with different ones is rejected
+    @Column(name = "fingerprint")
+    private String fingerprint;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Builder
+    public ProcessedBookingRequest(ProcessedBookingRequestId id,
+                                   String seats,
+                                   int sumPrice,
+                                   String fingerprint,
+                                   LocalDateTime createdAt) {
+        this.id = id;
+        this.seats = seats;
+        this.sumPrice = sumPrice;
+        this.fingerprint = fingerprint;
+        this.createdAt = createdAt;
+    }
+}
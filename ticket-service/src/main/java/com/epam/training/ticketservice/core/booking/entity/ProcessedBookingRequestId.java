@@ -0,0 +1,31 @@
+package com.epam.training.ticketservice.core.booking.entity;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.Transient;
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+public class ProcessedBookingRequestId implements Serializable {
+
+    @Transient
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "username")
+    private String username;
+
+    @Column(name = "request_id")
+    private String requestId;
+
+    @Builder
+    public ProcessedBookingRequestId(String username, String requestId) {
+        this.username = username;
+        this.requestId = requestId;
+    }
+}
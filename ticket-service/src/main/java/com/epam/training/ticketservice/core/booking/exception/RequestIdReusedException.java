@@ -0,0 +1,10 @@
+package com.epam.training.ticketservice.core.booking.exception;
+
+import java.util.List;
+
+public class RequestIdReusedException extends MultiSeatBookingNotPossibleException {
+
+    public RequestIdReusedException(String requestId) {
+        super(List.of(String.format("The request id %s was already used for a different booking", requestId)));
+    }
+}
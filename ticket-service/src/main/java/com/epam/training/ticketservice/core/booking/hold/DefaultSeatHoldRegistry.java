@@ -0,0 +1,171 @@
+package com.epam.training.ticketservice.core.booking.hold;
+
+import com.epam.training.ticketservice.core.booking.dto.Seat;
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+@Service
+public class DefaultSeatHoldRegistry implements SeatHoldRegistry {
+
+    private static final int SLOTS = 512;
+
+    private static final long TICK_MILLIS = 100;
+
+    private final Duration timeToLive;
+
+    private final LongSupplier clock;
+
+    private final TimingWheel<SeatHold> timingWheel;
+
+    private final Map<ScreeningId, Map<Seat, SeatHold>> holdsByScreening = new HashMap<>();
+
+    @Autowired
+    public DefaultSeatHoldRegistry(@Value("${app.booking.hold-seconds:600}") long holdSeconds) {
+        this(Duration.ofSeconds(holdSeconds), () -> System.nanoTime() / 1_000_000);
+    }
+
+    DefaultSeatHoldRegistry(Duration timeToLive, LongSupplier clock) {
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+        this.timingWheel = new TimingWheel<>(SLOTS, TICK_MILLIS, clock.getAsLong());
+    }
+
+    @Override
+    public synchronized boolean isHeldByOther(ScreeningId screeningId, Seat seat, String username) {
+        expireHolds();
+        var hold = holdsByScreening.getOrDefault(screeningId, Map.of()).get(seat);
+        return hold != null && !hold.username.equals(username);
+    }
+
+    @Override
+    public synchronized List<Seat> findHeldByOthers(ScreeningId screeningId, String username) {
+        expireHolds();
+        return holdsByScreening.getOrDefault(screeningId, Map.of())
+                .entrySet()
+                .stream()
+                .filter(entry -> !entry.getValue().username.equals(username))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized void hold(ScreeningId screeningId, String username, List<Seat> seats) {
+        expireHolds();
+        var holds = holdsByScreening.computeIfAbsent(screeningId, id -> new HashMap<>());
+        var heldByOther = seats.stream()
+                .map(holds::get)
+                .anyMatch(previous -> previous != null && !previous.username.equals(username));
+        if (heldByOther) {
+            throw new IllegalStateException("A seat is held by another account");
+        }
+        var hold = new SeatHold(screeningId, username);
+        for (var seat : seats) {
+            var previous = holds.put(seat, hold);
+            if (previous != null && previous != hold) {
+                // Holding a seat again moves it to the new hold, which restarts its time to live
+                previous.seats.remove(seat);
+                if (previous.seats.isEmpty()) {
+                    timingWheel.cancel(previous.timeout);
+                }
+            }
+            hold.seats.add(seat);
+        }
+        hold.timeout = timingWheel.schedule(hold, clock.getAsLong() + timeToLive.toMillis());
+    }
+
+    @Override
+    public synchronized int release(ScreeningId screeningId, String username) {
+        expireHolds();
+        var holds = holdsByScreening.get(screeningId);
+        if (holds == null) {
+            return 0;
+        }
+        var released = 0;
+        var iterator = holds.values().iterator();
+        while (iterator.hasNext()) {
+            var hold = iterator.next();
+            if (hold.username.equals(username)) {
+                timingWheel.cancel(hold.timeout);
+                iterator.remove();
+                released++;
+            }
+        }
+        if (holds.isEmpty()) {
+            holdsByScreening.remove(screeningId);
+        }
+        return released;
+    }
+
+    // The account's other seats on the screening stay held until they expire
+    @Override
+    public synchronized int release(ScreeningId screeningId, String username, List<Seat> seats) {
+        expireHolds();
+        var holds = holdsByScreening.get(screeningId);
+        if (holds == null) {
+            return 0;
+        }
+        var released = 0;
+        for (var seat : seats) {
+            var hold = holds.get(seat);
+            if (hold != null && hold.username.equals(username)) {
+                holds.remove(seat);
+                hold.seats.remove(seat);
+                if (hold.seats.isEmpty()) {
+                    timingWheel.cancel(hold.timeout);
+                }
+                released++;
+            }
+        }
+        if (holds.isEmpty()) {
+            holdsByScreening.remove(screeningId);
+        }
+        return released;
+    }
+
+    @Override
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    private void expireHolds() {
+        timingWheel.advanceTo(clock.getAsLong(), this::remove);
+    }
+
+    private void remove(SeatHold hold) {
+        var holds = holdsByScreening.get(hold.screeningId);
+        if (holds == null) {
+            return;
+        }
+        hold.seats.forEach(seat -> holds.remove(seat, hold));
+        if (holds.isEmpty()) {
+            holdsByScreening.remove(hold.screeningId);
+        }
+    }
+
+    private static final class SeatHold {
+
+        private final ScreeningId screeningId;
+
+        private final String username;
+
+        private final Set<Seat> seats = new HashSet<>();
+
+        private TimingWheel.Timeout<SeatHold> timeout;
+
+        private SeatHold(ScreeningId screeningId, String username) {
+            this.screeningId = screeningId;
+            this.username = username;
+        }
+    }
+}
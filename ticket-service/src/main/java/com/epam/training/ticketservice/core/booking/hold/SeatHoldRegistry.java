@@ -0,0 +1,22 @@
+package com.epam.training.ticketservice.core.booking.hold;
+
+import com.epam.training.ticketservice.core.booking.dto.Seat;
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
+
+import java.time.Duration;
+import java.util.List;
+
+public interface SeatHoldRegistry {
+
+    boolean isHeldByOther(ScreeningId screeningId, Seat seat, String username);
+
+    List<Seat> findHeldByOthers(ScreeningId screeningId, String username);
+
+    void hold(ScreeningId screeningId, String username, List<Seat> seats);
+
+    int release(ScreeningId screeningId, String username);
+
+    int release(ScreeningId screeningId, String username, List<Seat> seats);
+
+    Duration getTimeToLive();
+}
@@ -0,0 +1,120 @@
+package com.epam.training.ticketservice.core.booking.hold;
+
+import java.util.function.Consumer;
+
+// Hashed timing wheel: scheduling and cancelling are O(1), expiry is O(1) per expired entry.
+// Not thread-safe, the owner has to guard it.
+class TimingWheel<T> {
+
+    static final class Timeout<T> {
+
+        private final T value;
+
+        private long rounds;
+
+        private int slot = -1;
+
+        private Timeout<T> previous;
+
+        private Timeout<T> next;
+
+        private Timeout(T value) {
+            this.value = value;
+        }
+
+        boolean isScheduled() {
+            return slot >= 0;
+        }
+    }
+
+    private final Timeout<T>[] slots;
+
+    private final long tickMillis;
+
+    private final long startMillis;
+
+    private long currentTick;
+
+    private int size;
+
+    TimingWheel(int slotCount, long tickMillis, long startMillis) {
+        if (Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("The number of slots must be a power of two");
+        }
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("The tick must be at least one millisecond");
+        }
+        this.slots = newSlots(slotCount);
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+    }
+
+    // Arrays of a generic type can only be created with a wildcard, every slot only ever holds a Timeout<T>
+    @SuppressWarnings("unchecked")
+    private static <T> Timeout<T>[] newSlots(int slotCount) {
+        return (Timeout<T>[]) new Timeout<?>[slotCount];
+    }
+
+    Timeout<T> schedule(T value, long deadlineMillis) {
+        var timeout = new Timeout<>(value);
+        // Rounded up, so nothing expires before its deadline
+        var deadlineTick = Math.max(Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis),
+                currentTick);
+        timeout.rounds = (deadlineTick - currentTick) / slots.length;
+        timeout.slot = (int) (deadlineTick & (slots.length - 1));
+        var head = slots[timeout.slot];
+        timeout.next = head;
+        if (head != null) {
+            head.previous = timeout;
+        }
+        slots[timeout.slot] = timeout;
+        size++;
+        return timeout;
+    }
+
+    void cancel(Timeout<T> timeout) {
+        if (!timeout.isScheduled()) {
+            return;
+        }
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.slot = -1;
+        size--;
+    }
+
+    // Processes every tick that has fully elapsed by nowMillis
+    void advanceTo(long nowMillis, Consumer<T> onExpiry) {
+        var lastElapsedTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        if (size == 0) {
+            currentTick = Math.max(currentTick, lastElapsedTick + 1);
+            return;
+        }
+        while (currentTick <= lastElapsedTick && size > 0) {
+            var timeout = slots[(int) (currentTick & (slots.length - 1))];
+            while (timeout != null) {
+                var next = timeout.next;
+                if (timeout.rounds > 0) {
+                    timeout.rounds--;
+                } else {
+                    cancel(timeout);
+                    onExpiry.accept(timeout.value);
+                }
+                timeout = next;
+            }
+            currentTick++;
+        }
+        currentTick = Math.max(currentTick, lastElapsedTick + 1);
+    }
+
+    int size() {
+        return size;
+    }
+}
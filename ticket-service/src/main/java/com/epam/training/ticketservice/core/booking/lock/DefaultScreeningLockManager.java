@@ -0,0 +1,89 @@
+package com.epam.training.ticketservice.core.booking.lock;
+
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class DefaultScreeningLockManager implements ScreeningLockManager {
+
+    private final ReentrantLock[] locks;
+
+    private final LongAdder[] acquisitions;
+
+    private final LongAdder[] contentions;
+
+    public DefaultScreeningLockManager(@Value("${app.booking.lock-stripes:64}") int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("The number of lock stripes must be positive");
+        }
+        // A power of two lets the stripe be picked with a mask
+        var size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        locks = new ReentrantLock[size];
+        acquisitions = new LongAdder[size];
+        contentions = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+            acquisitions[i] = new LongAdder();
+            contentions[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void lockUntilCompletion(ScreeningId screeningId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Screening locks can only be taken inside a transaction");
+        }
+        var stripe = stripeOf(screeningId);
+        var lock = locks[stripe];
+        if (!lock.tryLock()) {
+            contentions[stripe].increment();
+            lock.lock();
+        }
+        acquisitions[stripe].increment();
+        // Held until commit so the next booking for the screening sees the seats this one saved
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    @Override
+    public ScreeningLockStatistics getStatistics() {
+        long totalAcquisitions = 0;
+        long totalContentions = 0;
+        int busiestStripe = 0;
+        long busiestStripeContentions = 0;
+        for (int i = 0; i < locks.length; i++) {
+            var stripeContentions = contentions[i].sum();
+            totalAcquisitions += acquisitions[i].sum();
+            totalContentions += stripeContentions;
+            if (stripeContentions > busiestStripeContentions) {
+                busiestStripe = i;
+                busiestStripeContentions = stripeContentions;
+            }
+        }
+        return ScreeningLockStatistics.builder()
+                .stripes(locks.length)
+                .acquisitions(totalAcquisitions)
+                .contendedAcquisitions(totalContentions)
+                .busiestStripe(busiestStripe)
+                .busiestStripeContentions(busiestStripeContentions)
+                .build();
+    }
+
+    int stripeOf(ScreeningId screeningId) {
+        var hash = screeningId.hashCode();
+        return (hash ^ (hash >>> 16)) & (locks.length - 1);
+    }
+}
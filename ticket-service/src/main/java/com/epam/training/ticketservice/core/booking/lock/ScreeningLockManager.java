@@ -0,0 +1,10 @@
+package com.epam.training.ticketservice.core.booking.lock;
+
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
+
+public interface ScreeningLockManager {
+
+    void lockUntilCompletion(ScreeningId screeningId);
+
+    ScreeningLockStatistics getStatistics();
+}
@@ -0,0 +1,19 @@
+package com.epam.training.ticketservice.core.booking.lock;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ScreeningLockStatistics {
+
+    private final int stripes;
+
+    private final long acquisitions;
+
+    private final long contendedAcquisitions;
+
+    private final int busiestStripe;
+
+    private final long busiestStripeContentions;
+}
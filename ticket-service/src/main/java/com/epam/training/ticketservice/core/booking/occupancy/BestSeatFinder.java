@@ -0,0 +1,12 @@
+package com.epam.training.ticketservice.core.booking.occupancy;
+
+import com.epam.training.ticketservice.core.booking.dto.Seat;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BestSeatFinder {
+
+    Optional<List<Seat>> findBestBlock(SeatOccupancy occupancy, Collection<Seat> unavailableSeats, int count);
+}
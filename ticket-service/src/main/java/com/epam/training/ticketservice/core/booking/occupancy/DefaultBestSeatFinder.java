@@ -0,0 +1,130 @@
+package com.epam.training.ticketservice.core.booking.occupancy;
+
+import com.epam.training.ticketservice.core.booking.dto.Seat;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class DefaultBestSeatFinder implements BestSeatFinder {
+
+    private static final int WORD_SIZE = Long.SIZE;
+
+    // Distances are measured on doubled coordinates so the centre of an even room or block stays an integer
+    @Override
+    public Optional<List<Seat>> findBestBlock(SeatOccupancy occupancy, Collection<Seat> unavailableSeats, int count) {
+        var rows = occupancy.getRows();
+        var columns = occupancy.getColumns();
+        if (count < 1 || count > columns) {
+            return Optional.empty();
+        }
+        var unavailableByRow = groupByRow(unavailableSeats);
+        var free = new long[occupancy.getWordsPerRow()];
+        var centreRow = rows + 1;
+        var centreColumn = columns + 1;
+        var bestScore = Long.MAX_VALUE;
+        var bestRow = 0;
+        var bestStart = 0;
+        // Rows are visited outwards from the centre, so the search stops as soon as no row can beat the best block
+        var lower = (rows + 1) / 2;
+        var upper = lower + 1;
+        while (lower >= 1 || upper <= rows) {
+            int row;
+            if (upper > rows || (lower >= 1 && centreRow - 2L * lower <= 2L * upper - centreRow)) {
+                row = lower--;
+            } else {
+                row = upper++;
+            }
+            long rowDistance = 2L * row - centreRow;
+            if (rowDistance * rowDistance >= bestScore) {
+                break;
+            }
+            occupancy.copyFreeSeats(row, free);
+            clearUnavailable(free, unavailableByRow.get(row));
+            var column = 0;
+            while (column < columns) {
+                var runStart = nextFreeSeat(free, column);
+                if (runStart < 0 || runStart >= columns) {
+                    break;
+                }
+                var runEnd = nextTakenSeat(free, runStart, columns);
+                if (runEnd - runStart >= count) {
+                    // The ideal start centres the block, the run bounds where it can actually go
+                    var idealStart = (centreColumn + 1 - count) / 2;
+                    var start = Math.max(runStart + 1, Math.min(idealStart, runEnd - count + 1));
+                    long columnDistance = 2L * start + count - 1 - centreColumn;
+                    var score = rowDistance * rowDistance + columnDistance * columnDistance;
+                    if (score < bestScore || (score == bestScore && isBefore(row, start, bestRow, bestStart))) {
+                        bestScore = score;
+                        bestRow = row;
+                        bestStart = start;
+                    }
+                }
+                column = runEnd;
+            }
+        }
+        if (bestRow == 0) {
+            return Optional.empty();
+        }
+        var seats = new ArrayList<Seat>(count);
+        for (int i = 0; i < count; i++) {
+            seats.add(Seat.of(bestRow, bestStart + i));
+        }
+        return Optional.of(seats);
+    }
+
+    private Map<Integer, List<Seat>> groupByRow(Collection<Seat> seats) {
+        var seatsByRow = new HashMap<Integer, List<Seat>>();
+        seats.forEach(seat -> seatsByRow.computeIfAbsent(seat.getRow(), row -> new ArrayList<>()).add(seat));
+        return seatsByRow;
+    }
+
+    private void clearUnavailable(long[] free, List<Seat> seats) {
+        if (seats == null) {
+            return;
+        }
+        for (var seat : seats) {
+            var index = seat.getColumn() - 1;
+            if (index >= 0 && index / WORD_SIZE < free.length) {
+                free[index / WORD_SIZE] &= ~(1L << (index % WORD_SIZE));
+            }
+        }
+    }
+
+    // Both scans work on 0 based bit positions and skip whole words at a time
+    private int nextFreeSeat(long[] free, int from) {
+        var wordIndex = from / WORD_SIZE;
+        if (wordIndex >= free.length) {
+            return -1;
+        }
+        var word = free[wordIndex] & (-1L << (from % WORD_SIZE));
+        while (word == 0) {
+            if (++wordIndex == free.length) {
+                return -1;
+            }
+            word = free[wordIndex];
+        }
+        return wordIndex * WORD_SIZE + Long.numberOfTrailingZeros(word);
+    }
+
+    private int nextTakenSeat(long[] free, int from, int columns) {
+        var wordIndex = from / WORD_SIZE;
+        var word = ~free[wordIndex] & (-1L << (from % WORD_SIZE));
+        while (word == 0) {
+            if (++wordIndex == free.length) {
+                return columns;
+            }
+            word = ~free[wordIndex];
+        }
+        return Math.min(columns, wordIndex * WORD_SIZE + Long.numberOfTrailingZeros(word));
+    }
+
+    private boolean isBefore(int row, int start, int otherRow, int otherStart) {
+        return row < otherRow || (row == otherRow && start < otherStart);
+    }
+}
@@ -0,0 +1,81 @@
+package com.epam.training.ticketservice.core.booking.occupancy;
+
+import com.epam.training.ticketservice.core.booking.dto.Seat;
+import com.epam.training.ticketservice.core.booking.repository.BookingRepository;
+import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import static com.epam.training.ticketservice.core.transaction.TransactionCallbacks.afterCommit;
+import static com.epam.training.ticketservice.core.transaction.TransactionCallbacks.nowAndAfterCompletion;
+
+@Service
+@RequiredArgsConstructor
+public class DefaultSeatOccupancyIndex implements SeatOccupancyIndex {
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<ScreeningId, SeatOccupancy> occupancies = new ConcurrentHashMap<>();
+
+    @Override
+    public SeatOccupancy get(Screening screening) {
+        var rows = screening.getRoom().getRows();
+        var columns = screening.getRoom().getColumns();
+        // Loading inside compute keeps a concurrent occupy() from slipping in between the query and the put
+        return occupancies.compute(screening.getId(), (screeningId, occupancy) ->
+                occupancy != null && occupancy.hasSize(rows, columns) ? occupancy : load(screening, rows, columns));
+    }
+
+    @Override
+    public void occupy(ScreeningId screeningId, List<Seat> seats) {
+        afterCommit(() -> occupancies.computeIfPresent(screeningId, (id, occupancy) -> {
+            seats.stream()
+                    .filter(seat -> occupancy.contains(seat.getRow(), seat.getColumn()))
+                    .forEach(seat -> occupancy.take(seat.getRow(), seat.getColumn()));
+            return occupancy;
+        }));
+    }
+
+    @Override
+    public void release(ScreeningId screeningId, List<Seat> seats) {
+        afterCommit(() -> occupancies.computeIfPresent(screeningId, (id, occupancy) -> {
+            seats.forEach(seat -> occupancy.release(seat.getRow(), seat.getColumn()));
+            return occupancy;
+        }));
+    }
+
+    @Override
+    public void evict(ScreeningId screeningId) {
+        evictAllMatching(screeningId::equals);
+    }
+
+    @Override
+    public void evictAllByMovieId(Long movieId) {
+        evictAllMatching(screeningId -> Objects.equals(screeningId.getMovieId(), movieId));
+    }
+
+    @Override
+    public void evictAllByRoomId(Long roomId) {
+        evictAllMatching(screeningId -> Objects.equals(screeningId.getRoomId(), roomId));
+    }
+
+    private void evictAllMatching(Predicate<ScreeningId> predicate) {
+        nowAndAfterCompletion(() -> occupancies.keySet().removeIf(predicate));
+    }
+
+    private SeatOccupancy load(Screening screening, int rows, int columns) {
+        var occupancy = new SeatOccupancy(rows, columns);
+        bookingRepository.findAllIdsByScreening(screening)
+                .stream()
+                .filter(bookingId -> occupancy.contains(bookingId.getRow(), bookingId.getColumn()))
+                .forEach(bookingId -> occupancy.take(bookingId.getRow(), bookingId.getColumn()));
+        return occupancy;
+    }
+}
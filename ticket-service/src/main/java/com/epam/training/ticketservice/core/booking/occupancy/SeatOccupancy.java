@@ -0,0 +1,99 @@
+package com.epam.training.ticketservice.core.booking.occupancy;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Seats are packed row by row, every row starts on a new 64 bit word
+public class SeatOccupancy {
+
+    private static final int WORD_SIZE = Long.SIZE;
+
+    private final int rows;
+
+    private final int columns;
+
+    private final int wordsPerRow;
+
+    private final AtomicLongArray words;
+
+    public SeatOccupancy(int rows, int columns) {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException("Occupancy needs at least one row and one column");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.wordsPerRow = (columns + WORD_SIZE - 1) / WORD_SIZE;
+        this.words = new AtomicLongArray(rows * wordsPerRow);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    public boolean hasSize(int rows, int columns) {
+        return this.rows == rows && this.columns == columns;
+    }
+
+    public boolean contains(int row, int column) {
+        return row >= 1 && row <= rows && column >= 1 && column <= columns;
+    }
+
+    public boolean isTaken(int row, int column) {
+        if (!contains(row, column)) {
+            return false;
+        }
+        return (words.get(wordIndex(row, column)) & bitMask(column)) != 0;
+    }
+
+    public void take(int row, int column) {
+        if (!contains(row, column)) {
+            throw new IndexOutOfBoundsException(String.format("Seat (%d,%d) is outside of %dx%d",
+                    row, column, rows, columns));
+        }
+        var index = wordIndex(row, column);
+        var mask = bitMask(column);
+        long word;
+        do {
+            word = words.get(index);
+        } while (!words.compareAndSet(index, word, word | mask));
+    }
+
+    public void release(int row, int column) {
+        if (!contains(row, column)) {
+            return;
+        }
+        var index = wordIndex(row, column);
+        var mask = bitMask(column);
+        long word;
+        do {
+            word = words.get(index);
+        } while (!words.compareAndSet(index, word, word & ~mask));
+    }
+
+    // Bit i of word w stands for column w * 64 + i + 1, bits past the last column are never free
+    public void copyFreeSeats(int row, long[] target) {
+        var offset = (row - 1) * wordsPerRow;
+        for (int i = 0; i < wordsPerRow; i++) {
+            target[i] = ~words.get(offset + i);
+        }
+        var usedBits = columns % WORD_SIZE;
+        if (usedBits != 0) {
+            target[wordsPerRow - 1] &= (1L << usedBits) - 1;
+        }
+    }
+
+    private int wordIndex(int row, int column) {
+        return (row - 1) * wordsPerRow + (column - 1) / WORD_SIZE;
+    }
+
+    private long bitMask(int column) {
+        return 1L << ((column - 1) % WORD_SIZE);
+    }
+}
@@ -0,0 +1,22 @@
+package com.epam.training.ticketservice.core.booking.occupancy;
+
+import com.epam.training.ticketservice.core.booking.dto.Seat;
+import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
+
+import java.util.List;
+
+public interface SeatOccupancyIndex {
+
+    SeatOccupancy get(Screening screening);
+
+    void occupy(ScreeningId screeningId, List<Seat> seats);
+
+    void release(ScreeningId screeningId, List<Seat> seats);
+
+    void evict(ScreeningId screeningId);
+
+    void evictAllByMovieId(Long movieId);
+
+    void evictAllByRoomId(Long roomId);
+}
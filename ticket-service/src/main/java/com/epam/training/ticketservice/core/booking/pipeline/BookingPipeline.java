@@ -0,0 +1,11 @@
+package com.epam.training.ticketservice.core.booking.pipeline;
+
+import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingRequest;
+import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingResponse;
+import com.epam.training.ticketservice.core.booking.exception.MultiSeatBookingNotPossibleException;
+
+public interface BookingPipeline {
+
+    MultiSeatBookingResponse submit(MultiSeatBookingRequest multiSeatBookingRequest)
+            throws MultiSeatBookingNotPossibleException;
+}
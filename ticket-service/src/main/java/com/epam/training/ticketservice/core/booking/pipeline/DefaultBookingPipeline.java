@@ -0,0 +1,145 @@
+package com.epam.training.ticketservice.core.booking.pipeline;
+
+import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingRequest;
+import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingResponse;
+import com.epam.training.ticketservice.core.booking.exception.MultiSeatBookingNotPossibleException;
+import com.epam.training.ticketservice.core.booking.service.BookingService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+public class DefaultBookingPipeline implements BookingPipeline {
+
+    private final BookingService bookingService;
+
+    private final int maxWindowSize;
+
+    private final long maxWaitNanos;
+
+    private final BlockingQueue<PendingBooking> queue = new LinkedBlockingQueue<>();
+
+    private Thread drainer;
+
+    public DefaultBookingPipeline(BookingService bookingService,
+                                  @Value("${app.booking.pipeline.max-window-size:64}") int maxWindowSize,
+                                  @Value("${app.booking.pipeline.max-wait-millis:5}") long maxWaitMillis) {
+        this.bookingService = bookingService;
+        this.maxWindowSize = maxWindowSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        drainer = new Thread(this::drain, "booking-pipeline");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        drainer.interrupt();
+        drainer.join();
+        var abandoned = new ArrayList<PendingBooking>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.future.completeExceptionally(
+                new IllegalStateException("The booking pipeline was stopped")));
+    }
+
+    @Override
+    public MultiSeatBookingResponse submit(MultiSeatBookingRequest request)
+            throws MultiSeatBookingNotPossibleException {
+        try {
+            return enqueue(request).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the booking", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    CompletableFuture<MultiSeatBookingResponse> enqueue(MultiSeatBookingRequest request) {
+        var pending = new PendingBooking(request);
+        queue.add(pending);
+        return pending.future;
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                process(nextWindow());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // A window closes when it is full or when the first request in it has waited long enough
+    List<PendingBooking> nextWindow() throws InterruptedException {
+        var window = new ArrayList<PendingBooking>(maxWindowSize);
+        window.add(queue.take());
+        var deadline = System.nanoTime() + maxWaitNanos;
+        while (window.size() < maxWindowSize) {
+            var next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            window.add(next);
+        }
+        return window;
+    }
+
+    void process(List<PendingBooking> window) {
+        var requests = window.stream()
+                .map(pending -> pending.request)
+                .collect(Collectors.toList());
+        try {
+            var results = bookingService.bookAll(requests);
+            for (int i = 0; i < window.size(); i++) {
+                var result = results.get(i);
+                if (result.getError() != null) {
+                    window.get(i).future.completeExceptionally(result.getError());
+                } else {
+                    window.get(i).future.complete(result.getResponse());
+                }
+            }
+        } catch (RuntimeException e) {
+            // Another instance took one of the seats, a lock timed out or one request broke the flush.
+            // The window is retried request by request, so only the requests that fail on their own fail
+            window.forEach(this::processAlone);
+        }
+    }
+
+    private void processAlone(PendingBooking pending) {
+        try {
+            pending.future.complete(bookingService.book(pending.request));
+        } catch (RuntimeException e) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    static final class PendingBooking {
+
+        private final MultiSeatBookingRequest request;
+
+        private final CompletableFuture<MultiSeatBookingResponse> future = new CompletableFuture<>();
+
+        private PendingBooking(MultiSeatBookingRequest request) {
+            this.request = request;
+        }
+    }
+}
@@ -1,15 +1,129 @@
 package com.epam.training.ticketservice.core.booking.repository;
 
+import com.epam.training.ticketservice.core.account.entity.Account;
+import com.epam.training.ticketservice.core.booking.dto.BookedScreeningKey;
+import com.epam.training.ticketservice.core.booking.dto.BookedSeatView;
+import com.epam.training.ticketservice.core.booking.dto.Seat;
 import com.epam.training.ticketservice.core.booking.entity.Booking;
 import com.epam.training.ticketservice.core.booking.entity.BookingId;
 import com.epam.training.ticketservice.core.screening.entity.Screening;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public interface BookingRepository extends JpaRepository<Booking, BookingId> {
 
     @Transactional(readOnly = true)
     List<Booking> findAllByScreeningAndIdRowAndIdColumn(Screening screening, int row, int column);
+
+    @Transactional(readOnly = true)
+    @Query("select b.id from Booking b where b.screening = ?1")
+    List<BookingId> findAllIdsByScreening(Screening screening);
+
+    @Transactional(readOnly = true)
+    @Query("select b.id from Booking b where b.screening = ?1 and b.id.row in ?2 and b.id.column in ?3")
+    List<BookingId> findAllIdsByScreeningAndRowInAndColumnIn(Screening screening,
+                                                             Collection<Integer> rows,
+                                                             Collection<Integer> columns);
+
+    @Transactional(readOnly = true)
+    @Query("select distinct new com.epam.training.ticketservice.core.booking.dto.BookedScreeningKey("
+            + "s.id.startDateTime, r.name, m.title) "
+            + "from Booking b join b.screening s join s.movie m join s.room r "
+            + "where b.owner = ?1 "
+            + "order by s.id.startDateTime, r.name, m.title")
+    List<BookedScreeningKey> findBookedScreeningKeysByOwner(Account owner, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("select distinct new com.epam.training.ticketservice.core.booking.dto.BookedScreeningKey("
+            + "s.id.startDateTime, r.name, m.title) "
+            + "from Booking b join b.screening s join s.movie m join s.room r "
+            + "where b.owner = ?1 "
+            + "and (s.id.startDateTime > ?2 or (s.id.startDateTime = ?2 "
+            + "and (r.name > ?3 or (r.name = ?3 and m.title > ?4)))) "
+            + "order by s.id.startDateTime, r.name, m.title")
+    List<BookedScreeningKey> findBookedScreeningKeysByOwnerAfter(Account owner,
+                                                                 LocalDateTime startDateTime,
+                                                                 String roomName,
+                                                                 String movieTitle,
+                                                                 Pageable pageable);
+
+    // Both bounds are inclusive, ordered so that the seats of one screening come in a single run
+    @Transactional(readOnly = true)
+    @Query("select m.title as movieTitle, r.name as roomName, s.id.startDateTime as startDateTime, "
+            + "b.id.row as seatRow, b.id.column as seatColumn, b.price as price "
+            + "from Booking b join b.screening s join s.movie m join s.room r "
+            + "where b.owner = ?1 "
+            + "and (s.id.startDateTime > ?2 or (s.id.startDateTime = ?2 "
+            + "and (r.name > ?3 or (r.name = ?3 and m.title >= ?4)))) "
+            + "and (s.id.startDateTime < ?5 or (s.id.startDateTime = ?5 "
+            + "and (r.name < ?6 or (r.name = ?6 and m.title <= ?7)))) "
+            + "order by s.id.startDateTime, r.name, m.title, b.id.row, b.id.column")
+    List<BookedSeatView> findAllBookedSeatsByOwnerBetween(Account owner,
+                                                          LocalDateTime fromStartDateTime,
+                                                          String fromRoomName,
+                                                          String fromMovieTitle,
+                                                          LocalDateTime toStartDateTime,
+                                                          String toRoomName,
+                                                          String toMovieTitle);
+
+    @Transactional(readOnly = true)
+    default List<BookedSeatView> findAllBookedSeatsByOwnerBetween(Account owner,
+                                                                  BookedScreeningKey from,
+                                                                  BookedScreeningKey to) {
+        return findAllBookedSeatsByOwnerBetween(owner,
+                from.getStartDateTime(),
+                from.getRoomName(),
+                from.getMovieTitle(),
+                to.getStartDateTime(),
+                to.getRoomName(),
+                to.getMovieTitle());
+    }
+
+    @Transactional(readOnly = true)
+    @Query("select b from Booking b where b.screening = ?1 and b.owner = ?2 and b.id.row in ?3 and b.id.column in ?4")
+    List<Booking> findAllByScreeningAndOwnerAndRowInAndColumnIn(Screening screening,
+                                                                Account owner,
+                                                                Collection<Integer> rows,
+                                                                Collection<Integer> columns);
+
+    @Transactional(readOnly = true)
+    default List<Booking> findAllByScreeningAndOwnerAndSeatIn(Screening screening, Account owner, List<Seat> seats) {
+        if (seats.isEmpty()) {
+            return List.of();
+        }
+        var requestedSeats = new HashSet<>(seats);
+        var rows = seats.stream().map(Seat::getRow).collect(Collectors.toSet());
+        var columns = seats.stream().map(Seat::getColumn).collect(Collectors.toSet());
+        return findAllByScreeningAndOwnerAndRowInAndColumnIn(screening, owner, rows, columns)
+                .stream()
+                .filter(booking -> requestedSeats.contains(Seat.of(booking.getId().getRow(),
+                        booking.getId().getColumn())))
+                .collect(Collectors.toList());
+    }
+
+    // One statement for the whole seat list, the rows x columns superset is narrowed down in memory
+    @Transactional(readOnly = true)
+    default List<Seat> findTakenSeats(Screening screening, List<Seat> seats) {
+        if (seats.isEmpty()) {
+            return List.of();
+        }
+        var requestedSeats = new HashSet<>(seats);
+        var rows = seats.stream().map(Seat::getRow).collect(Collectors.toSet());
+        var columns = seats.stream().map(Seat::getColumn).collect(Collectors.toSet());
+        return findAllIdsByScreeningAndRowInAndColumnIn(screening, rows, columns)
+                .stream()
+                .map(bookingId -> Seat.of(bookingId.getRow(), bookingId.getColumn()))
+                .filter(requestedSeats::contains)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,17 @@
+package com.epam.training.ticketservice.core.booking.repository;
+
+import com.epam.training.ticketservice.core.booking.entity.ProcessedBookingRequest;
+import com.epam.training.ticketservice.core.booking.entity.ProcessedBookingRequestId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+public interface ProcessedBookingRequestRepository
+        extends JpaRepository<ProcessedBookingRequest, ProcessedBookingRequestId> {
+
+    @Modifying
+    @Query("delete from ProcessedBookingRequest r where r.createdAt < ?1")
+    int deleteAllCreatedBefore(LocalDateTime createdAt);
+}
@@ -1,15 +1,39 @@
 package com.epam.training.ticketservice.core.booking.service;
 
+import com.epam.training.ticketservice.core.booking.dto.BookingPage;
 import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingRequest;
 import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingResponse;
+import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingResult;
+import com.epam.training.ticketservice.core.booking.dto.SeatHoldResponse;
 import com.epam.training.ticketservice.core.booking.exception.MultiSeatBookingNotPossibleException;
+import com.epam.training.ticketservice.core.booking.lock.ScreeningLockStatistics;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
 
-    List<String> listBookingsByAccount(String username);
+    BookingPage listBookingsByAccount(String username, String after, int pageSize);
 
     MultiSeatBookingResponse book(MultiSeatBookingRequest multiSeatBookingRequest)
             throws MultiSeatBookingNotPossibleException;
+
+    List<MultiSeatBookingResult> bookAll(List<MultiSeatBookingRequest> multiSeatBookingRequests);
+
+    MultiSeatBookingResponse bookBest(String username,
+                                      String movieTitle,
+                                      String roomName,
+                                      LocalDateTime startDateTime,
+                                      int numberOfSeats)
+            throws MultiSeatBookingNotPossibleException;
+
+    MultiSeatBookingResponse cancel(MultiSeatBookingRequest multiSeatBookingRequest)
+            throws MultiSeatBookingNotPossibleException;
+
+    SeatHoldResponse hold(MultiSeatBookingRequest multiSeatBookingRequest)
+            throws MultiSeatBookingNotPossibleException;
+
+    int releaseHold(String username, String movieTitle, String roomName, LocalDateTime startDateTime);
+
+    ScreeningLockStatistics getLockStatistics();
 }
@@ -8,6 +8,9 @@ import java.util.List;
 
 public interface BookingValidator {
 
-    void validate(Screening screening, List<Seat> seats)
+    void validate(Screening screening, List<Seat> seats, String username)
+            throws MultiSeatBookingNotPossibleException;
+
+    void validateAgainstStoredBookings(Screening screening, List<Seat> seats)
             throws MultiSeatBookingNotPossibleException;
 }
@@ -2,110 +2,403 @@ package com.epam.training.ticketservice.core.booking.service;
 
 import com.epam.training.ticketservice.core.account.entity.Account;
 import com.epam.training.ticketservice.core.account.repository.AccountRepository;
+import com.epam.training.ticketservice.core.booking.dedup.BookingRequestDeduplicator;
+import com.epam.training.ticketservice.core.booking.dedup.BookingRequestFingerprint;
+import com.epam.training.ticketservice.core.booking.dto.BookedScreeningKey;
+import com.epam.training.ticketservice.core.booking.dto.BookedSeatView;
+import com.epam.training.ticketservice.core.booking.dto.BookingPage;
 import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingRequest;
 import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingResponse;
+import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingResult;
 import com.epam.training.ticketservice.core.booking.dto.Seat;
+import com.epam.training.ticketservice.core.booking.dto.SeatHoldResponse;
 import com.epam.training.ticketservice.core.booking.entity.Booking;
 import com.epam.training.ticketservice.core.booking.entity.BookingId;
+import com.epam.training.ticketservice.core.booking.entity.ProcessedBookingRequestId;
 import com.epam.training.ticketservice.core.booking.exception.MultiSeatBookingNotPossibleException;
+import com.epam.training.ticketservice.core.booking.exception.RequestIdReusedException;
+import com.epam.training.ticketservice.core.booking.hold.SeatHoldRegistry;
+import com.epam.training.ticketservice.core.booking.lock.ScreeningLockManager;
+import com.epam.training.ticketservice.core.booking.lock.ScreeningLockStatistics;
+import com.epam.training.ticketservice.core.booking.occupancy.BestSeatFinder;
+import com.epam.training.ticketservice.core.booking.occupancy.SeatOccupancyIndex;
+import com.epam.training.ticketservice.core.booking.repository.BookingRepository;
 import com.epam.training.ticketservice.core.price.service.PriceService;
 import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
 import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Collection;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static com.epam.training.ticketservice.core.transaction.TransactionCallbacks.afterCommit;
 import static java.util.stream.Collectors.groupingBy;
 
 @Service
 @RequiredArgsConstructor
 public class DefaultBookingService implements BookingService {
 
+    private static final String CURSOR_SEPARATOR = "\n";
+
     private final AccountRepository accountRepository;
 
     private final ScreeningRepository screeningRepository;
 
+    private final BookingRepository bookingRepository;
+
     private final PriceService priceService;
 
     private final BookingValidator bookingValidator;
 
+    private final SeatOccupancyIndex seatOccupancyIndex;
+
+    private final ScreeningLockManager screeningLockManager;
+
+    private final SeatHoldRegistry seatHoldRegistry;
+
+    private final BestSeatFinder bestSeatFinder;
+
+    private final BookingRequestDeduplicator bookingRequestDeduplicator;
+
     private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
     @Override
     @Transactional(readOnly = true)
-    public List<String> listBookingsByAccount(String username) {
-        var owner = accountRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("The user does not exist"));
-        Map<Screening, List<Booking>> map = owner.getBookings()
-                .stream()
-                .collect(groupingBy(Booking::getScreening));
-        return map.entrySet()
-                .stream()
-                .map(entry -> bookingsGroupedByScreeningsToString(entry.getKey(), entry.getValue()))
-                .collect(Collectors.toList());
+    public BookingPage listBookingsByAccount(String username, String after, int pageSize) {
+        var owner = findOwner(username);
+        // One extra key tells whether there is a next page without counting the rest
+        var pageable = PageRequest.of(0, pageSize + 1);
+        List<BookedScreeningKey> keys;
+        if (after == null) {
+            keys = bookingRepository.findBookedScreeningKeysByOwner(owner, pageable);
+        } else {
+            var afterKey = decodeCursor(after);
+            keys = bookingRepository.findBookedScreeningKeysByOwnerAfter(owner,
+                    afterKey.getStartDateTime(),
+                    afterKey.getRoomName(),
+                    afterKey.getMovieTitle(),
+                    pageable);
+        }
+        if (keys.isEmpty()) {
+            return BookingPage.builder()
+                    .bookings(List.of())
+                    .build();
+        }
+        var hasNextPage = keys.size() > pageSize;
+        var pageKeys = hasNextPage ? keys.subList(0, pageSize) : keys;
+        var lastKey = pageKeys.get(pageKeys.size() - 1);
+        var bookedSeats = bookingRepository.findAllBookedSeatsByOwnerBetween(owner, pageKeys.get(0), lastKey);
+        return BookingPage.builder()
+                .bookings(groupByScreening(bookedSeats))
+                .nextCursor(hasNextPage ? encodeCursor(lastKey) : null)
+                .build();
     }
 
-    private String bookingsGroupedByScreeningsToString(Screening screening, List<Booking> bookings) {
-        var seatsAsString = bookingSeatsAsString(bookings);
-        var sumPrice = sumPriceOfBookings(bookings);
+    private List<String> groupByScreening(List<BookedSeatView> bookedSeats) {
+        var descriptions = new ArrayList<String>();
+        var group = new ArrayList<BookedSeatView>();
+        for (var bookedSeat : bookedSeats) {
+            if (!group.isEmpty() && !isSameScreening(group.get(0), bookedSeat)) {
+                descriptions.add(bookedSeatsToString(group));
+                group.clear();
+            }
+            group.add(bookedSeat);
+        }
+        if (!group.isEmpty()) {
+            descriptions.add(bookedSeatsToString(group));
+        }
+        return descriptions;
+    }
+
+    private String encodeCursor(BookedScreeningKey key) {
+        var plain = String.join(CURSOR_SEPARATOR,
+                key.getStartDateTime().toString(),
+                key.getRoomName(),
+                key.getMovieTitle());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private BookedScreeningKey decodeCursor(String cursor) {
+        var parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split(CURSOR_SEPARATOR, 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed booking cursor");
+        }
+        try {
+            return new BookedScreeningKey(LocalDateTime.parse(parts[0]), parts[1], parts[2]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed booking cursor", e);
+        }
+    }
+
+    private boolean isSameScreening(BookedSeatView first, BookedSeatView second) {
+        return first.getStartDateTime().equals(second.getStartDateTime())
+                && first.getMovieTitle().equals(second.getMovieTitle())
+                && first.getRoomName().equals(second.getRoomName());
+    }
+
+    private String bookedSeatsToString(List<BookedSeatView> bookedSeats) {
+        var screening = bookedSeats.get(0);
+        var seatsAsString = bookedSeats.stream()
+                .map(bookedSeat -> String.format("(%d,%d)", bookedSeat.getSeatRow(), bookedSeat.getSeatColumn()))
+                .collect(Collectors.joining(", "));
+        var sumPrice = bookedSeats.stream()
+                .mapToInt(BookedSeatView::getPrice)
+                .sum();
         return String.format("Seats %s on %s in room %s starting at %s for %d HUF",
                 seatsAsString,
-                screening.getMovie().getTitle(),
-                screening.getRoom().getName(),
-                screening.getId().getStartDateTime().format(dateTimeFormatter),
+                screening.getMovieTitle(),
+                screening.getRoomName(),
+                screening.getStartDateTime().format(dateTimeFormatter),
                 sumPrice);
     }
 
-    private String bookingSeatsAsString(Collection<Booking> bookings) {
-        return bookings.stream()
-                .map(Booking::getId)
-                .map(bookingId -> Seat.builder().row(bookingId.getRow()).column(bookingId.getColumn()).build())
-                .sorted()
-                .map(bookingId -> String.format("(%d,%d)", bookingId.getRow(), bookingId.getColumn()))
-                .collect(Collectors.joining(", "));
+    @Override
+    @Transactional(rollbackFor = { MultiSeatBookingNotPossibleException.class })
+    public MultiSeatBookingResponse book(MultiSeatBookingRequest request)
+            throws MultiSeatBookingNotPossibleException {
+        var owner = findOwner(request.getUsername());
+        var screening = findScreening(request.getMovieTitle(), request.getRoomName(), request.getStartDateTime());
+        screeningLockManager.lockUntilCompletion(screening.getId());
+        var requestId = request.getRequestId();
+        var fingerprint = BookingRequestFingerprint.of(screening.getId(), request.getSeats());
+        if (requestId != null) {
+            var originalResponse = bookingRequestDeduplicator.findResponse(owner.getUsername(), requestId, fingerprint);
+            if (originalResponse.isPresent()) {
+                return originalResponse.get();
+            }
+        }
+        var response = bookSeats(owner, screening, request.getSeats());
+        if (requestId != null) {
+            bookingRequestDeduplicator.remember(owner.getUsername(), requestId, fingerprint, response);
+        }
+        return response;
     }
 
-    private int sumPriceOfBookings(Collection<Booking> bookings) {
-        return bookings.stream()
-                .mapToInt(Booking::getPrice)
-                .sum();
+    @Override
+    @Transactional(rollbackFor = { MultiSeatBookingNotPossibleException.class })
+    public MultiSeatBookingResponse bookBest(String username,
+                                             String movieTitle,
+                                             String roomName,
+                                             LocalDateTime startDateTime,
+                                             int numberOfSeats)
+            throws MultiSeatBookingNotPossibleException {
+        if (numberOfSeats < 1) {
+            throw new MultiSeatBookingNotPossibleException(List.of("The number of seats must be at least 1"));
+        }
+        var owner = findOwner(username);
+        var screening = findScreening(movieTitle, roomName, startDateTime);
+        screeningLockManager.lockUntilCompletion(screening.getId());
+        var occupancy = seatOccupancyIndex.get(screening);
+        var heldByOthers = seatHoldRegistry.findHeldByOthers(screening.getId(), owner.getUsername());
+        var seats = bestSeatFinder.findBestBlock(occupancy, heldByOthers, numberOfSeats)
+                .orElseThrow(() -> new MultiSeatBookingNotPossibleException(List.of(
+                        String.format("There are no %d adjacent free seats in a row", numberOfSeats))));
+        return bookSeats(owner, screening, seats);
+    }
+
+    private MultiSeatBookingResponse bookSeats(Account owner, Screening screening, List<Seat> seats)
+            throws MultiSeatBookingNotPossibleException {
+        bookingValidator.validate(screening, seats, owner.getUsername());
+        var perSeatPrice = priceService.getPerSeatPriceBy(screening);
+        var bookings = createBookings(screening, owner, seats, perSeatPrice);
+        try {
+            bookingRepository.saveAll(bookings);
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            // Somebody else got there between validation and insert, report which seats were lost
+            bookingValidator.validateAgainstStoredBookings(screening, seats);
+            throw e;
+        }
+        screeningRepository.addSales(screening.getId(), seats.size(), (long) perSeatPrice * seats.size());
+        markAsBooked(screening, owner, seats);
+        return createResponse(perSeatPrice, seats);
+    }
+
+    @Override
+    @Transactional
+    public List<MultiSeatBookingResult> bookAll(List<MultiSeatBookingRequest> requests) {
+        var results = new ArrayList<MultiSeatBookingResult>(requests.size());
+        var bookings = new ArrayList<Booking>();
+        var seatsBookedInWindow = new HashMap<ScreeningId, Set<Seat>>();
+        var responsesInWindow = new HashMap<ProcessedBookingRequestId, MultiSeatBookingResponse>();
+        var fingerprintsInWindow = new HashMap<ProcessedBookingRequestId, String>();
+        for (var request : requests) {
+            try {
+                var owner = findOwner(request.getUsername());
+                var screening = findScreening(request.getMovieTitle(),
+                        request.getRoomName(),
+                        request.getStartDateTime());
+                var seats = request.getSeats();
+                screeningLockManager.lockUntilCompletion(screening.getId());
+                var requestId = request.getRequestId() == null
+                        ? null
+                        : new ProcessedBookingRequestId(owner.getUsername(), request.getRequestId());
+                var fingerprint = BookingRequestFingerprint.of(screening.getId(), seats);
+                if (requestId != null) {
+                    // A retry can land in the same window as its first attempt
+                    if (responsesInWindow.containsKey(requestId)
+                            && !fingerprintsInWindow.get(requestId).equals(fingerprint)) {
+                        throw new RequestIdReusedException(request.getRequestId());
+                    }
+                    var originalResponse = Optional.ofNullable(responsesInWindow.get(requestId))
+                            .or(() -> bookingRequestDeduplicator.findResponse(owner.getUsername(),
+                                    request.getRequestId(),
+                                    fingerprint));
+                    if (originalResponse.isPresent()) {
+                        results.add(MultiSeatBookingResult.success(originalResponse.get()));
+                        continue;
+                    }
+                }
+                bookingValidator.validate(screening, seats, owner.getUsername());
+                var windowSeats = seatsBookedInWindow.computeIfAbsent(screening.getId(), id -> new HashSet<>());
+                // The sales counter is only updated after the window, so occupancy pricing adds what it booked
+                var seatsSoldInWindow = windowSeats.size();
+                // The occupancy index only learns about this window after commit
+                validateAgainstWindow(windowSeats, seats);
+                var perSeatPrice = priceService.getPerSeatPriceBy(screening, seatsSoldInWindow);
+                bookings.addAll(createBookings(screening, owner, seats, perSeatPrice));
+                markAsBooked(screening, owner, seats);
+                var response = createResponse(perSeatPrice, seats);
+                if (requestId != null) {
+                    responsesInWindow.put(requestId, response);
+                    fingerprintsInWindow.put(requestId, fingerprint);
+                    bookingRequestDeduplicator.remember(owner.getUsername(),
+                            request.getRequestId(),
+                            fingerprint,
+                            response);
+                }
+                results.add(MultiSeatBookingResult.success(response));
+            } catch (MultiSeatBookingNotPossibleException | EntityNotFoundException e) {
+                results.add(MultiSeatBookingResult.failure(e));
+            }
+        }
+        // A single flush for the whole window, so the inserts go out as JDBC batches
+        bookingRepository.saveAll(bookings);
+        bookingRepository.flush();
+        // One counter update per screening of the window rather than per request
+        bookings.stream()
+                .collect(groupingBy(booking -> booking.getScreening().getId()))
+                .forEach((screeningId, screeningBookings) -> screeningRepository.addSales(screeningId,
+                        screeningBookings.size(),
+                        screeningBookings.stream().mapToLong(Booking::getPrice).sum()));
+        return results;
     }
 
     @Override
     @Transactional(rollbackFor = { MultiSeatBookingNotPossibleException.class })
-    public MultiSeatBookingResponse book(MultiSeatBookingRequest request)
+    public MultiSeatBookingResponse cancel(MultiSeatBookingRequest request)
             throws MultiSeatBookingNotPossibleException {
-        var owner = accountRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new EntityNotFoundException("The user does not exist"));
-        var screening = screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(
-                request.getMovieTitle(),
-                request.getRoomName(),
-                request.getStartDateTime())
-                .orElseThrow(() -> new EntityNotFoundException("The screening does not exist"));
+        var owner = findOwner(request.getUsername());
+        var screening = findScreening(request.getMovieTitle(), request.getRoomName(), request.getStartDateTime());
         var seats = request.getSeats();
-        bookingValidator.validate(screening, seats);
-        var perSeatPrice = priceService.getPerSeatPriceBy(screening);
-        saveAllBookings(screening, owner, seats, perSeatPrice);
+        screeningLockManager.lockUntilCompletion(screening.getId());
+        // Only the requested seats are read, the screening's booking set stays untouched
+        var bookings = bookingRepository.findAllByScreeningAndOwnerAndSeatIn(screening, owner, seats);
+        var bookedSeats = bookings.stream()
+                .map(booking -> Seat.of(booking.getId().getRow(), booking.getId().getColumn()))
+                .collect(Collectors.toSet());
+        var errors = seats.stream()
+                .filter(seat -> !bookedSeats.contains(seat))
+                .map(seat -> String.format("Seat (%d,%d) is not booked by you", seat.getRow(), seat.getColumn()))
+                .collect(Collectors.toList());
+        if (!errors.isEmpty()) {
+            throw new MultiSeatBookingNotPossibleException(errors);
+        }
+        var refund = bookings.stream().mapToInt(Booking::getPrice).sum();
+        bookingRepository.deleteAllInBatch(bookings);
+        screeningRepository.addSales(screening.getId(), -bookings.size(), -refund);
+        seatOccupancyIndex.release(screening.getId(), seats);
         return MultiSeatBookingResponse.builder()
-                .sumPrice(perSeatPrice * seats.size())
+                .sumPrice(refund)
+                .seats(seats)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true, rollbackFor = { MultiSeatBookingNotPossibleException.class })
+    public SeatHoldResponse hold(MultiSeatBookingRequest request) throws MultiSeatBookingNotPossibleException {
+        var owner = findOwner(request.getUsername());
+        var screening = findScreening(request.getMovieTitle(), request.getRoomName(), request.getStartDateTime());
+        var seats = request.getSeats();
+        // The same lock as book(), so a hold and a booking can't both win a seat
+        screeningLockManager.lockUntilCompletion(screening.getId());
+        bookingValidator.validate(screening, seats, owner.getUsername());
+        seatHoldRegistry.hold(screening.getId(), owner.getUsername(), seats);
+        return SeatHoldResponse.builder()
                 .seats(seats)
+                .timeToLive(seatHoldRegistry.getTimeToLive())
                 .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int releaseHold(String username, String movieTitle, String roomName, LocalDateTime startDateTime) {
+        var screening = findScreening(movieTitle, roomName, startDateTime);
+        return seatHoldRegistry.release(screening.getId(), username);
+    }
+
+    @Override
+    public ScreeningLockStatistics getLockStatistics() {
+        return screeningLockManager.getStatistics();
+    }
 
+    private void validateAgainstWindow(Set<Seat> seatsBookedInWindow, List<Seat> seats)
+            throws MultiSeatBookingNotPossibleException {
+        var errors = seats.stream()
+                .filter(seatsBookedInWindow::contains)
+                .map(seat -> String.format("Seat (%d,%d) is already taken", seat.getRow(), seat.getColumn()))
+                .collect(Collectors.toList());
+        if (!errors.isEmpty()) {
+            throw new MultiSeatBookingNotPossibleException(errors);
+        }
+        seatsBookedInWindow.addAll(seats);
     }
 
-    private void saveAllBookings(Screening screening, Account owner, List<Seat> seats, int perSeatPrice) {
-        var bookings = screening.getBookings();
-        seats.stream()
+    // Bookings are persisted on their own, the screening's lazy booking set is never initialized
+    private List<Booking> createBookings(Screening screening, Account owner, List<Seat> seats, int perSeatPrice) {
+        return seats.stream()
                 .map(seat -> createBooking(screening, seat.getRow(), seat.getColumn(), owner, perSeatPrice))
-                .forEach(bookings::add);
-        screeningRepository.save(screening);
+                .collect(Collectors.toList());
+    }
+
+    // The holds only go once the bookings are committed, a window that rolls back is retried with them in place
+    private void markAsBooked(Screening screening, Account owner, List<Seat> seats) {
+        seatOccupancyIndex.occupy(screening.getId(), seats);
+        afterCommit(() -> seatHoldRegistry.release(screening.getId(), owner.getUsername(), seats));
+    }
+
+    private MultiSeatBookingResponse createResponse(int perSeatPrice, List<Seat> seats) {
+        return MultiSeatBookingResponse.builder()
+                .sumPrice(perSeatPrice * seats.size())
+                .seats(seats)
+                .build();
+    }
+
+    private Account findOwner(String username) {
+        return accountRepository.findByUsername(username)
+                .orElseThrow(() -> new EntityNotFoundException("The user does not exist"));
+    }
+
+    private Screening findScreening(String movieTitle, String roomName, LocalDateTime startDateTime) {
+        return screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime)
+                .orElseThrow(() -> new EntityNotFoundException("The screening does not exist"));
     }
 
     private Booking createBooking(Screening screening, int row, int col, Account owner, int perSeatPrice) {
@@ -2,26 +2,35 @@ package com.epam.training.ticketservice.core.booking.service;
 
 import com.epam.training.ticketservice.core.booking.dto.Seat;
 import com.epam.training.ticketservice.core.booking.exception.MultiSeatBookingNotPossibleException;
+import com.epam.training.ticketservice.core.booking.hold.SeatHoldRegistry;
+import com.epam.training.ticketservice.core.booking.occupancy.SeatOccupancyIndex;
 import com.epam.training.ticketservice.core.booking.repository.BookingRepository;
 import com.epam.training.ticketservice.core.screening.entity.Screening;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DefaultBookingValidator implements BookingValidator {
 
+    private final SeatOccupancyIndex seatOccupancyIndex;
+
     private final BookingRepository bookingRepository;
 
+    private final SeatHoldRegistry seatHoldRegistry;
+
     @Override
-    @Transactional(rollbackFor = { MultiSeatBookingNotPossibleException.class })
-    public void validate(Screening screening, List<Seat> seats) throws MultiSeatBookingNotPossibleException {
+    public void validate(Screening screening, List<Seat> seats, String username)
+            throws MultiSeatBookingNotPossibleException {
         var rows = screening.getRoom().getRows();
         var columns = screening.getRoom().getColumns();
+        var occupancy = seatOccupancyIndex.get(screening);
         var errors = new ArrayList<String>();
         for (var seat : seats) {
             var row = seat.getRow();
@@ -29,10 +38,8 @@ public class DefaultBookingValidator implements BookingValidator {
             if (row > rows || col > columns) {
                 errors.add(String.format("Seat (%d,%d) is invalid, room has %d rows and %d columns",
                         row, col, rows, columns));
-            }
-            var existingBookings = bookingRepository
-                    .findAllByScreeningAndIdRowAndIdColumn(screening, row, col);
-            if (!existingBookings.isEmpty()) {
+            } else if (occupancy.isTaken(row, col)
+                    || seatHoldRegistry.isHeldByOther(screening.getId(), seat, username)) {
                 errors.add(String.format("Seat (%d,%d) is already taken", row, col));
             }
         }
@@ -41,4 +48,20 @@ public class DefaultBookingValidator implements BookingValidator {
         }
         throw new MultiSeatBookingNotPossibleException(errors);
     }
+
+    // Called after the unique seat constraint was violated, so the caller's transaction is already doomed
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void validateAgainstStoredBookings(Screening screening, List<Seat> seats)
+            throws MultiSeatBookingNotPossibleException {
+        var takenSeats = bookingRepository.findTakenSeats(screening, seats);
+        if (takenSeats.isEmpty()) {
+            return;
+        }
+        seatOccupancyIndex.evict(screening.getId());
+        var errors = takenSeats.stream()
+                .map(seat -> String.format("Seat (%d,%d) is already taken", seat.getRow(), seat.getColumn()))
+                .collect(Collectors.toList());
+        throw new MultiSeatBookingNotPossibleException(errors);
+    }
 }
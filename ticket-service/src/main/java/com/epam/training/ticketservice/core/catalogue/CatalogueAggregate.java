@@ -0,0 +1,7 @@
+package com.epam.training.ticketservice.core.catalogue;
+
+public enum CatalogueAggregate {
+    MOVIE,
+    ROOM,
+    SCREENING
+}
@@ -0,0 +1,8 @@
+package com.epam.training.ticketservice.core.catalogue;
+
+public interface CatalogueVersions {
+
+    long current(CatalogueAggregate... aggregates);
+
+    void bump(CatalogueAggregate aggregate);
+}
@@ -0,0 +1,36 @@
+package com.epam.training.ticketservice.core.catalogue;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.epam.training.ticketservice.core.transaction.TransactionCallbacks.afterCompletion;
+
+@Service
+public class DefaultCatalogueVersions implements CatalogueVersions {
+
+    private final Map<CatalogueAggregate, AtomicLong> versions = new EnumMap<>(CatalogueAggregate.class);
+
+    public DefaultCatalogueVersions() {
+        Arrays.stream(CatalogueAggregate.values())
+                .forEach(aggregate -> versions.put(aggregate, new AtomicLong()));
+    }
+
+    // Versions only grow, so the sum changes whenever any of the given aggregates changes
+    @Override
+    public long current(CatalogueAggregate... aggregates) {
+        return Arrays.stream(aggregates)
+                .mapToLong(aggregate -> versions.get(aggregate).get())
+                .sum();
+    }
+
+    // Bumped once the change is visible to other transactions, a list loaded earlier can't be cached as current
+    @Override
+    public void bump(CatalogueAggregate aggregate) {
+        var version = versions.get(aggregate);
+        afterCompletion(version::incrementAndGet);
+    }
+}
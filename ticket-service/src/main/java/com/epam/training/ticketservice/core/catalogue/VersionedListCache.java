@@ -0,0 +1,38 @@
+package com.epam.training.ticketservice.core.catalogue;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public class VersionedListCache {
+
+    private volatile Entry entry;
+
+    // Callers keep list() out of a transaction, so a cache hit does not even borrow a connection;
+    // the loader's repository call opens its own
+    public List<String> get(long version, Supplier<List<String>> loader) {
+        var cached = entry;
+        if (cached != null && cached.version == version) {
+            return cached.lines;
+        }
+        var lines = List.copyOf(loader.get());
+        synchronized (this) {
+            // A slow loader must not replace what a newer version already stored
+            if (entry == null || entry.version <= version) {
+                entry = new Entry(version, lines);
+            }
+        }
+        return lines;
+    }
+
+    private static final class Entry {
+
+        private final long version;
+
+        private final List<String> lines;
+
+        private Entry(long version, List<String> lines) {
+            this.version = version;
+            this.lines = lines;
+        }
+    }
+}
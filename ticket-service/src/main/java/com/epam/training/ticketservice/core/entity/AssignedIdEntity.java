@@ -0,0 +1,27 @@
+package com.epam.training.ticketservice.core.entity;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.MappedSuperclass;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Transient;
+
+// For entities whose id is assigned up front, without the flag save() would merge and select every row first
+@MappedSuperclass
+public abstract class AssignedIdEntity<I> implements Persistable<I> {
+
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -0,0 +1,50 @@
+package com.epam.training.ticketservice.core.migration;
+
+import com.epam.training.ticketservice.core.migration.entity.AppliedMigration;
+import com.epam.training.ticketservice.core.migration.repository.AppliedMigrationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class DefaultSchemaMigrator implements SchemaMigrator {
+
+    private final List<SchemaMigration> migrations;
+
+    private final AppliedMigrationRepository appliedMigrationRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // ddl-auto only adds tables and columns, whatever existing rows need is filled in here before the shell starts
+    @Override
+    @EventListener(ContextRefreshedEvent.class)
+    public void migrate() {
+        migrations.stream()
+                .sorted(Comparator.comparing(SchemaMigration::getName))
+                .filter(migration -> !appliedMigrationRepository.existsById(migration.getName()))
+                .forEach(this::applyOnce);
+    }
+
+    private void applyOnce(SchemaMigration migration) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Recorded first, an instance starting at the same time blocks on the key and then skips it
+                appliedMigrationRepository.saveAndFlush(AppliedMigration.builder()
+                        .name(migration.getName())
+                        .appliedAt(LocalDateTime.now())
+                        .build());
+                migration.apply();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Applied by another instance in the meantime
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.epam.training.ticketservice.core.migration;
+
+public interface SchemaMigration {
+
+    // Recorded once the migration is applied, so it must never change
+    String getName();
+
+    void apply();
+}
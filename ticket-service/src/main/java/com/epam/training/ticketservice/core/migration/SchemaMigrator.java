@@ -0,0 +1,6 @@
+package com.epam.training.ticketservice.core.migration;
+
+public interface SchemaMigrator {
+
+    void migrate();
+}
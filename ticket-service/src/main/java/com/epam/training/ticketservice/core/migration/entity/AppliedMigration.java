@@ -0,0 +1,27 @@
+package com.epam.training.ticketservice.core.migration.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "applied_migrations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppliedMigration {
+
+    @Id
+    private String name;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt;
+}
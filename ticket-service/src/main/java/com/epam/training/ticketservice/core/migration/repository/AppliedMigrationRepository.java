@@ -0,0 +1,7 @@
+package com.epam.training.ticketservice.core.migration.repository;
+
+import com.epam.training.ticketservice.core.migration.entity.AppliedMigration;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AppliedMigrationRepository extends JpaRepository<AppliedMigration, String> {
+}
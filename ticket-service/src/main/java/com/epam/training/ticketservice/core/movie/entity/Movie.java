@@ -61,6 +61,11 @@ public class Movie implements Priceable {
     )
     private Set<PriceComponent> priceComponents = new HashSet<>();
 
+    // Sum of the attached price components' fees, kept by PriceService so a quote needs no join.
+    // Maintained only through the repository's bulk updates, entity updates never write it back
+    @Column(name = "price_component_total", nullable = false, updatable = false)
+    private int priceComponentTotal;
+
     @Builder
     public Movie(Long id,
                  @NotNull @NotEmpty String title,
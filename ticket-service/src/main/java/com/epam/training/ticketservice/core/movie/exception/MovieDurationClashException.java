@@ -0,0 +1,16 @@
+package com.epam.training.ticketservice.core.movie.exception;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MovieDurationClashException extends RuntimeException {
+
+    private List<String> errors;
+
+    public MovieDurationClashException(List<String> errors) {
+        super();
+        this.errors = errors;
+    }
+}
@@ -1,7 +1,10 @@
 package com.epam.training.ticketservice.core.movie.repository;
 
 import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.price.entity.PriceComponent;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
@@ -10,4 +13,24 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
 
     @Transactional(readOnly = true)
     Optional<Movie> findByTitle(String title);
+
+    @Transactional(readOnly = true)
+    @Query("select max(m.durationInMinutes) from Movie m")
+    Optional<Integer> findLongestDurationInMinutes();
+
+    // Relative to the stored value, so concurrent attachments can't overwrite each other
+    @Modifying
+    @Query("update Movie m set m.priceComponentTotal = m.priceComponentTotal + ?2 where m.id = ?1")
+    int addToPriceComponentTotal(Long id, int amount);
+
+    @Modifying
+    @Query("update Movie m set m.priceComponentTotal = "
+            + "(select coalesce(sum(p.price), 0) from PriceComponent p where p member of m.priceComponents) "
+            + "where ?1 member of m.priceComponents")
+    int recomputePriceComponentTotalsContaining(PriceComponent priceComponent);
+
+    @Modifying
+    @Query("update Movie m set m.priceComponentTotal = "
+            + "(select coalesce(sum(p.price), 0) from PriceComponent p where p member of m.priceComponents)")
+    int recomputeAllPriceComponentTotals();
 }
@@ -1,13 +1,25 @@
 package com.epam.training.ticketservice.core.movie.service;
 
+import com.epam.training.ticketservice.core.booking.occupancy.SeatOccupancyIndex;
+import com.epam.training.ticketservice.core.catalogue.CatalogueAggregate;
+import com.epam.training.ticketservice.core.catalogue.CatalogueVersions;
+import com.epam.training.ticketservice.core.catalogue.VersionedListCache;
 import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.movie.exception.MovieDurationClashException;
 import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.exception.ScreeningTimeClashException;
+import com.epam.training.ticketservice.core.screening.service.ScreeningTimeClashService;
+import com.epam.training.ticketservice.core.screening.timeline.ScreeningTimeline;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,13 +29,24 @@ public class DefaultMovieService implements MovieService {
 
     private final MovieRepository movieRepository;
 
+    private final SeatOccupancyIndex seatOccupancyIndex;
+
+    private final ScreeningTimeline screeningTimeline;
+
+    private final ScreeningTimeClashService screeningTimeClashService;
+
+    private final CatalogueVersions catalogueVersions;
+
+    private final VersionedListCache listCache = new VersionedListCache();
+
+    private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     @Override
-    @Transactional(readOnly = true)
     public List<String> list() {
-        return movieRepository.findAll()
+        return listCache.get(catalogueVersions.current(CatalogueAggregate.MOVIE), () -> movieRepository.findAll()
                 .stream()
                 .map(this::describe)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
@@ -39,19 +62,41 @@ public class DefaultMovieService implements MovieService {
                 .durationInMinutes(durationInMinutes)
                 .build();
         movieRepository.save(movie);
+        catalogueVersions.bump(CatalogueAggregate.MOVIE);
     }
 
     @Override
-    @Transactional(rollbackFor = EntityNotFoundException.class)
-    public void updateByTitle(String title, String genre, int durationInMinutes) throws EntityNotFoundException {
+    @Transactional(rollbackFor = {EntityNotFoundException.class, MovieDurationClashException.class})
+    public void updateByTitle(String title, String genre, int durationInMinutes)
+            throws EntityNotFoundException, MovieDurationClashException {
         var result = movieRepository.findByTitle(title);
         if (result.isEmpty()) {
             throw new EntityNotFoundException(title);
         }
         var movie = result.get();
+        var previousDuration = movie.getDurationInMinutes();
+        // Only a longer cut can run into the next screening. Checked before the movie changes, loading a room's
+        // timeline flushes first and must not cache the new duration of an update that is then rejected
+        if (durationInMinutes > previousDuration) {
+            var clashes = findClashes(movie, durationInMinutes);
+            if (!clashes.isEmpty()) {
+                throw new MovieDurationClashException(clashes);
+            }
+        }
         movie.setGenre(genre);
         movie.setDurationInMinutes(durationInMinutes);
+        if (previousDuration != durationInMinutes) {
+            movie.getScreenings().forEach(Screening::recomputeEndDateTime);
+        }
         movieRepository.save(movie);
+        catalogueVersions.bump(CatalogueAggregate.MOVIE);
+        if (previousDuration != durationInMinutes) {
+            // Swapped slot by slot, so the other screenings of the rooms stay indexed
+            movie.getScreenings().forEach(screening -> {
+                screeningTimeline.remove(screening.getId());
+                screeningTimeline.add(screening);
+            });
+        }
     }
 
     @Override
@@ -63,6 +108,41 @@ public class DefaultMovieService implements MovieService {
         }
         var movie = result.get();
         movieRepository.delete(movie);
+        catalogueVersions.bump(CatalogueAggregate.MOVIE);
+        seatOccupancyIndex.evictAllByMovieId(movie.getId());
+        screeningTimeline.evictAll();
+    }
+
+    // Each screening of the movie is checked against its neighbours in the room's timeline only. Of two
+    // screenings of this movie the earlier one checks the pair, its window already reaches the later one
+    private List<String> findClashes(Movie movie, int durationInMinutes) {
+        var clashes = new ArrayList<String>();
+        for (var screening : movie.getScreenings()) {
+            var start = screening.getId().getStartDateTime();
+            var end = start.plusMinutes(durationInMinutes);
+            var candidates = screeningTimeline.findClashCandidates(screening.getRoom(), start, end);
+            for (var candidate : candidates) {
+                var sameMovie = candidate.getMovieId().equals(movie.getId());
+                if (sameMovie && !candidate.getStartDateTime().isAfter(start)) {
+                    continue;
+                }
+                var duration = sameMovie ? durationInMinutes : candidate.getDurationInMinutes();
+                try {
+                    screeningTimeClashService.check(start,
+                            end,
+                            candidate.getStartDateTime(),
+                            duration);
+                } catch (ScreeningTimeClashException e) {
+                    clashes.add(String.format("The screening in room %s at %s would clash with the one at %s",
+                            screening.getRoom().getName(),
+                            start.format(dateTimeFormatter),
+                            candidate.getStartDateTime().format(dateTimeFormatter)));
+                }
+            }
+        }
+        // The screenings come from a set, sorted so the report is stable
+        Collections.sort(clashes);
+        return clashes;
     }
 
     private String describe(Movie movie) {
@@ -1,5 +1,7 @@
 package com.epam.training.ticketservice.core.movie.service;
 
+import com.epam.training.ticketservice.core.movie.exception.MovieDurationClashException;
+
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
 import java.util.List;
@@ -10,7 +12,8 @@ public interface MovieService {
 
     void create(String title, String genre, int durationInMinutes) throws EntityExistsException;
 
-    void updateByTitle(String title, String genre, int durationInMinutes) throws EntityNotFoundException;
+    void updateByTitle(String title, String genre, int durationInMinutes)
+            throws EntityNotFoundException, MovieDurationClashException;
 
     void deleteByTitle(String title) throws EntityNotFoundException;
 }
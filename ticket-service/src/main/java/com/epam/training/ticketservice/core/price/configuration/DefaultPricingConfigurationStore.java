@@ -0,0 +1,161 @@
+package com.epam.training.ticketservice.core.price.configuration;
+
+import com.epam.training.ticketservice.core.price.dto.PricingSnapshot;
+import com.epam.training.ticketservice.core.price.entity.PricingConfiguration;
+import com.epam.training.ticketservice.core.price.entity.PricingRule;
+import com.epam.training.ticketservice.core.price.exception.PricingRuleNotValidException;
+import com.epam.training.ticketservice.core.price.repository.PricingConfigurationRepository;
+import com.epam.training.ticketservice.core.price.repository.PricingRuleRepository;
+import com.epam.training.ticketservice.core.price.rule.PricingRuleTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityNotFoundException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.epam.training.ticketservice.core.transaction.TransactionCallbacks.afterCommit;
+
+@Slf4j
+@Service
+public class DefaultPricingConfigurationStore implements PricingConfigurationStore {
+
+    private final PricingConfigurationRepository pricingConfigurationRepository;
+
+    private final PricingRuleRepository pricingRuleRepository;
+
+    private final long pollMillis;
+
+    // Readers only ever dereference this, writers replace the snapshot as a whole
+    private final AtomicReference<PricingSnapshot> current = new AtomicReference<>();
+
+    private ScheduledExecutorService poller;
+
+    @Autowired
+    public DefaultPricingConfigurationStore(PricingConfigurationRepository pricingConfigurationRepository,
+                                            PricingRuleRepository pricingRuleRepository,
+                                            @Value("${app.price.configuration.poll-millis:5000}") long pollMillis) {
+        this.pricingConfigurationRepository = pricingConfigurationRepository;
+        this.pricingRuleRepository = pricingRuleRepository;
+        this.pollMillis = pollMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        var configuration = pricingConfigurationRepository.findById(PricingConfiguration.ID)
+                .orElseGet(() -> pricingConfigurationRepository.save(PricingConfiguration.builder()
+                        .id(PricingConfiguration.ID)
+                        .basePrice(PricingConfiguration.DEFAULT_BASE_PRICE)
+                        .build()));
+        publish(toSnapshot(configuration));
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "pricing-configuration-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollSafely, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+    }
+
+    @Override
+    public PricingSnapshot current() {
+        return current.get();
+    }
+
+    @Override
+    @Transactional
+    public void updateBasePrice(int basePrice) {
+        var configuration = pricingConfigurationRepository.findById(PricingConfiguration.ID)
+                .orElseGet(() -> PricingConfiguration.builder()
+                        .id(PricingConfiguration.ID)
+                        .build());
+        configuration.setBasePrice(basePrice);
+        // Flushed here so the snapshot carries the version the database ends up with
+        var saved = pricingConfigurationRepository.saveAndFlush(configuration);
+        var snapshot = toSnapshot(saved);
+        afterCommit(() -> publish(snapshot));
+    }
+
+    @Override
+    @Transactional
+    public void saveRule(PricingRule rule) {
+        // Checked here as well, a rule that can never apply must not reach any instance's snapshot
+        var errors = PricingRuleTable.findErrors(rule);
+        if (!errors.isEmpty()) {
+            throw new PricingRuleNotValidException(errors);
+        }
+        changeVersion(() -> pricingRuleRepository.save(rule));
+    }
+
+    @Override
+    @Transactional
+    public void deleteRule(PricingRule rule) {
+        changeVersion(() -> pricingRuleRepository.delete(rule));
+    }
+
+    // Price component fees are not part of the snapshot, but every instance drops the prices it cached from them
+    // along with its snapshot, so a component change only has to move the version
+    @Override
+    @Transactional
+    public void incrementVersion() {
+        changeVersion(() -> { });
+    }
+
+    // The rules are part of the snapshot, so changing them has to move the version like any other change
+    private void changeVersion(Runnable change) {
+        var configuration = pricingConfigurationRepository.findAndIncrementVersionById(PricingConfiguration.ID)
+                .orElseThrow(() -> new EntityNotFoundException("Pricing configuration was not found"));
+        change.run();
+        pricingRuleRepository.flush();
+        var snapshot = toSnapshot(configuration);
+        afterCommit(() -> publish(snapshot));
+    }
+
+    // Changes made by other instances only cost a single-column select until the version moves
+    void poll() {
+        var known = current.get();
+        pricingConfigurationRepository.findVersionById(PricingConfiguration.ID)
+                .filter(version -> known == null || version > known.getVersion())
+                .flatMap(version -> pricingConfigurationRepository.findById(PricingConfiguration.ID))
+                .map(this::toSnapshot)
+                .ifPresent(this::publish);
+    }
+
+    // A failed poll must not cancel the ones after it, the next one simply tries again
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            // Keeps serving the last snapshot until the database answers again
+            log.warn("Polling the pricing configuration failed, still serving version {}",
+                    current.get().getVersion(),
+                    e);
+        }
+    }
+
+    // A poll that read an older version can't replace a newer snapshot
+    private void publish(PricingSnapshot snapshot) {
+        current.accumulateAndGet(snapshot, (known, candidate) ->
+                known == null || candidate.getVersion() > known.getVersion() ? candidate : known);
+    }
+
+    // Compiling happens only here, once per version, never while quoting
+    private PricingSnapshot toSnapshot(PricingConfiguration configuration) {
+        return PricingSnapshot.builder()
+                .version(configuration.getVersion())
+                .basePrice(configuration.getBasePrice())
+                .rules(PricingRuleTable.compile(pricingRuleRepository.findAll()))
+                .build();
+    }
+}
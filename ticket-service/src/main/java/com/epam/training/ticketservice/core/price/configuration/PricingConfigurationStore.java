@@ -0,0 +1,17 @@
+package com.epam.training.ticketservice.core.price.configuration;
+
+import com.epam.training.ticketservice.core.price.dto.PricingSnapshot;
+import com.epam.training.ticketservice.core.price.entity.PricingRule;
+
+public interface PricingConfigurationStore {
+
+    PricingSnapshot current();
+
+    void updateBasePrice(int basePrice);
+
+    void saveRule(PricingRule rule);
+
+    void deleteRule(PricingRule rule);
+
+    void incrementVersion();
+}
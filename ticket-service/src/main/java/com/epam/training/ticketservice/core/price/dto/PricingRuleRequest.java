@@ -0,0 +1,26 @@
+package com.epam.training.ticketservice.core.price.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Set;
+
+@Data
+@Builder
+public class PricingRuleRequest {
+
+    private final String name;
+
+    private final int adjustment;
+
+    // Every day when empty
+    private final Set<DayOfWeek> days;
+
+    private final LocalTime startsFrom;
+
+    private final LocalTime startsBefore;
+
+    private final Integer occupancyAbovePercent;
+}
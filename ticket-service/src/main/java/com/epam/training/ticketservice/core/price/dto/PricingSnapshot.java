@@ -0,0 +1,18 @@
+package com.epam.training.ticketservice.core.price.dto;
+
+import com.epam.training.ticketservice.core.price.rule.PricingRuleTable;
+import lombok.Builder;
+import lombok.Data;
+
+// Immutable, a new snapshot is published for every version of the pricing configuration
+@Data
+@Builder
+public class PricingSnapshot {
+
+    private final long version;
+
+    private final int basePrice;
+
+    @Builder.Default
+    private final PricingRuleTable rules = PricingRuleTable.EMPTY;
+}
@@ -0,0 +1,19 @@
+package com.epam.training.ticketservice.core.price.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ScreeningPrice {
+
+    private final String movieTitle;
+
+    private final String roomName;
+
+    private final LocalDateTime startDateTime;
+
+    private final int perSeatPrice;
+}
@@ -0,0 +1,27 @@
+package com.epam.training.ticketservice.core.price.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// A screening with its movie's, room's and own price component totals already summed by the database, and what
+// the occupancy rules need
+@Data
+@Builder
+@AllArgsConstructor
+public class ScreeningPriceQuote {
+
+    private final String movieTitle;
+
+    private final String roomName;
+
+    private final LocalDateTime startDateTime;
+
+    private final int priceComponentTotal;
+
+    private final int seatsSold;
+
+    private final int capacity;
+}
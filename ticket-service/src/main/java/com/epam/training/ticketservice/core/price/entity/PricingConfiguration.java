@@ -0,0 +1,40 @@
+package com.epam.training.ticketservice.core.price.entity;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+@Entity
+@Table(name = "pricing_configuration")
+@Data
+@NoArgsConstructor
+public class PricingConfiguration {
+
+    // A single row, shared by every instance using the database
+    public static final long ID = 1L;
+
+    public static final int DEFAULT_BASE_PRICE = 1500;
+
+    @Id
+    private Long id;
+
+    @Column(name = "base_price", nullable = false)
+    private int basePrice;
+
+    // Incremented on every change, other instances poll only this column
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @Builder
+    public PricingConfiguration(Long id, int basePrice) {
+        this.id = id;
+        this.basePrice = basePrice;
+    }
+}
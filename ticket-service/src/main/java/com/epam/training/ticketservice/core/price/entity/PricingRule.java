@@ -0,0 +1,85 @@
+package com.epam.training.ticketservice.core.price.entity;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Collection;
+
+@Entity
+@Table(name = "pricing_rules")
+@Data
+@NoArgsConstructor
+public class PricingRule {
+
+    public static final int EVERY_DAY = 0b1111111;
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @NotNull
+    @NotEmpty
+    @Column(unique = true)
+    private String name;
+
+    // Added to the per-seat price when the rule applies, negative for discounts
+    @Column(nullable = false)
+    private int adjustment;
+
+    // One bit per day, Monday being the lowest
+    @Column(name = "days_of_week", nullable = false)
+    private int daysOfWeek;
+
+    // The screening has to start at or after this time, no lower bound when null
+    @Column(name = "starts_from")
+    private LocalTime startsFrom;
+
+    // The screening has to start before this time, no upper bound when null. Earlier than startsFrom means
+    // the window wraps past midnight
+    @Column(name = "starts_before")
+    private LocalTime startsBefore;
+
+    // Applies only while more than this share of the room's seats is sold, regardless of occupancy when null
+    @Column(name = "occupancy_above_percent")
+    private Integer occupancyAbovePercent;
+
+    @Builder
+    public PricingRule(Long id,
+                       @NotNull @NotEmpty String name,
+                       int adjustment,
+                       int daysOfWeek,
+                       LocalTime startsFrom,
+                       LocalTime startsBefore,
+                       Integer occupancyAbovePercent) {
+        this.id = id;
+        this.name = name;
+        this.adjustment = adjustment;
+        this.daysOfWeek = daysOfWeek;
+        this.startsFrom = startsFrom;
+        this.startsBefore = startsBefore;
+        this.occupancyAbovePercent = occupancyAbovePercent;
+    }
+
+    public static int daysOfWeekOf(Collection<DayOfWeek> days) {
+        if (days == null || days.isEmpty()) {
+            return EVERY_DAY;
+        }
+        return days.stream()
+                .mapToInt(day -> 1 << (day.getValue() - 1))
+                .reduce(0, (mask, bit) -> mask | bit);
+    }
+
+    public boolean appliesOn(DayOfWeek day) {
+        return (daysOfWeek & (1 << (day.getValue() - 1))) != 0;
+    }
+}
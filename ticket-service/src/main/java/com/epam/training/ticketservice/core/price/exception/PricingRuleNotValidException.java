@@ -0,0 +1,16 @@
+package com.epam.training.ticketservice.core.price.exception;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PricingRuleNotValidException extends RuntimeException {
+
+    private List<String> errors;
+
+    public PricingRuleNotValidException(List<String> errors) {
+        super();
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,32 @@
+package com.epam.training.ticketservice.core.price.migration;
+
+import com.epam.training.ticketservice.core.migration.SchemaMigration;
+import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.room.repository.RoomRepository;
+import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PriceComponentTotalsMigration implements SchemaMigration {
+
+    private final MovieRepository movieRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final ScreeningRepository screeningRepository;
+
+    @Override
+    public String getName() {
+        return "price-component-totals";
+    }
+
+    // Totals stored before the columns existed default to zero, from then on PriceService keeps them current
+    @Override
+    public void apply() {
+        movieRepository.recomputeAllPriceComponentTotals();
+        roomRepository.recomputeAllPriceComponentTotals();
+        screeningRepository.recomputeAllPriceComponentTotals();
+    }
+}
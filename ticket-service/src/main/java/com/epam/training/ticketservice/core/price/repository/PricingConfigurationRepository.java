@@ -0,0 +1,23 @@
+package com.epam.training.ticketservice.core.price.repository;
+
+import com.epam.training.ticketservice.core.price.entity.PricingConfiguration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+public interface PricingConfigurationRepository extends JpaRepository<PricingConfiguration, Long> {
+
+    @Transactional(readOnly = true)
+    @Query("select c.version from PricingConfiguration c where c.id = ?1")
+    Optional<Long> findVersionById(Long id);
+
+    // Bumps the version right away, so changes stored elsewhere reach the other instances, and holds the row
+    // lock until commit, so concurrent changes are applied one after the other
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    @Query("select c from PricingConfiguration c where c.id = ?1")
+    Optional<PricingConfiguration> findAndIncrementVersionById(Long id);
+}
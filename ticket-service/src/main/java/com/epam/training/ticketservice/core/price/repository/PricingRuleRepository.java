@@ -0,0 +1,17 @@
+package com.epam.training.ticketservice.core.price.repository;
+
+import com.epam.training.ticketservice.core.price.entity.PricingRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PricingRuleRepository extends JpaRepository<PricingRule, Long> {
+
+    @Transactional(readOnly = true)
+    Optional<PricingRule> findByName(String name);
+
+    @Transactional(readOnly = true)
+    List<PricingRule> findAllByOrderByName();
+}
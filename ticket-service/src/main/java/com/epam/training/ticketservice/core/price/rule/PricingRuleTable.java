@@ -0,0 +1,142 @@
+package com.epam.training.ticketservice.core.price.rule;
+
+import com.epam.training.ticketservice.core.price.entity.PricingRule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Compiled from the pricing rules whenever they change and never modified afterwards. Rules depending only on
+// when a screening starts are summed into a single adjustment per weekday and minute, occupancy rules are kept
+// in parallel arrays, so neither lookup allocates
+public final class PricingRuleTable {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    public static final PricingRuleTable EMPTY = new PricingRuleTable(List.of());
+
+    // Indexed by day of the week (Monday is 0) * MINUTES_PER_DAY + minute of the day
+    private final int[] startAdjustments;
+
+    private final int[] occupancyDaysOfWeek;
+
+    private final int[] occupancyStartsFrom;
+
+    private final int[] occupancyStartsBefore;
+
+    private final int[] occupancyThresholds;
+
+    private final int[] occupancyAdjustments;
+
+    private PricingRuleTable(Collection<PricingRule> rules) {
+        startAdjustments = new int[DayOfWeek.values().length * MINUTES_PER_DAY];
+        for (var rule : rules) {
+            if (rule.getOccupancyAbovePercent() == null) {
+                addStartAdjustment(rule);
+            }
+        }
+        var occupancyRules = rules.stream()
+                .filter(rule -> rule.getOccupancyAbovePercent() != null)
+                .collect(Collectors.toList());
+        var count = occupancyRules.size();
+        occupancyDaysOfWeek = new int[count];
+        occupancyStartsFrom = new int[count];
+        occupancyStartsBefore = new int[count];
+        occupancyThresholds = new int[count];
+        occupancyAdjustments = new int[count];
+        for (int i = 0; i < count; i++) {
+            var rule = occupancyRules.get(i);
+            occupancyDaysOfWeek[i] = rule.getDaysOfWeek();
+            occupancyStartsFrom[i] = startsFromMinute(rule);
+            occupancyStartsBefore[i] = startsBeforeMinute(rule);
+            occupancyThresholds[i] = rule.getOccupancyAbovePercent();
+            occupancyAdjustments[i] = rule.getAdjustment();
+        }
+    }
+
+    public static PricingRuleTable compile(Collection<PricingRule> rules) {
+        return rules.isEmpty() ? EMPTY : new PricingRuleTable(rules);
+    }
+
+    // Empty, otherwise never applying rules are rejected before they are stored rather than silently compiled
+    public static List<String> findErrors(PricingRule rule) {
+        var errors = new ArrayList<String>();
+        if (startsFromMinute(rule) == startsBeforeMinute(rule)) {
+            errors.add("The start window of a pricing rule can't be empty");
+        }
+        var occupancy = rule.getOccupancyAbovePercent();
+        if (occupancy != null && (occupancy < 0 || occupancy > 99)) {
+            errors.add("The occupancy of a pricing rule must be between 0 and 99 percent");
+        }
+        return errors;
+    }
+
+    // Fixed for a screening, so the result can be cached along with the rest of its price
+    public int startAdjustmentFor(LocalDateTime startDateTime) {
+        return startAdjustments[dayIndex(startDateTime) * MINUTES_PER_DAY + minuteOfDay(startDateTime)];
+    }
+
+    public boolean hasOccupancyRules() {
+        return occupancyAdjustments.length > 0;
+    }
+
+    public int occupancyAdjustmentFor(LocalDateTime startDateTime, int seatsSold, int capacity) {
+        var day = dayIndex(startDateTime);
+        var minute = minuteOfDay(startDateTime);
+        var adjustment = 0;
+        for (int i = 0; i < occupancyAdjustments.length; i++) {
+            if (matches(occupancyDaysOfWeek[i], occupancyStartsFrom[i], occupancyStartsBefore[i], day, minute)
+                    && (long) seatsSold * 100 > (long) occupancyThresholds[i] * capacity) {
+                adjustment += occupancyAdjustments[i];
+            }
+        }
+        return adjustment;
+    }
+
+    private void addStartAdjustment(PricingRule rule) {
+        var startsFrom = startsFromMinute(rule);
+        var startsBefore = startsBeforeMinute(rule);
+        for (int day = 0; day < DayOfWeek.values().length; day++) {
+            for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+                if (matches(rule.getDaysOfWeek(), startsFrom, startsBefore, day, minute)) {
+                    startAdjustments[day * MINUTES_PER_DAY + minute] += rule.getAdjustment();
+                }
+            }
+        }
+    }
+
+    private static boolean matches(int daysOfWeek, int startsFrom, int startsBefore, int day, int minute) {
+        if ((daysOfWeek & (1 << day)) == 0) {
+            return false;
+        }
+        if (startsFrom <= startsBefore) {
+            return minute >= startsFrom && minute < startsBefore;
+        }
+        // The window wraps past midnight
+        return minute >= startsFrom || minute < startsBefore;
+    }
+
+    private static int startsFromMinute(PricingRule rule) {
+        return rule.getStartsFrom() == null ? 0 : minuteOfDay(rule.getStartsFrom());
+    }
+
+    private static int startsBeforeMinute(PricingRule rule) {
+        return rule.getStartsBefore() == null ? MINUTES_PER_DAY : minuteOfDay(rule.getStartsBefore());
+    }
+
+    private static int dayIndex(LocalDateTime dateTime) {
+        return dateTime.getDayOfWeek().getValue() - 1;
+    }
+
+    private static int minuteOfDay(LocalDateTime dateTime) {
+        return dateTime.getHour() * 60 + dateTime.getMinute();
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
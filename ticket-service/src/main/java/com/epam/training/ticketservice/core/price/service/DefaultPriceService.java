@@ -1,25 +1,48 @@
 package com.epam.training.ticketservice.core.price.service;
 
 import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.price.configuration.PricingConfigurationStore;
+import com.epam.training.ticketservice.core.price.dto.PricingRuleRequest;
+import com.epam.training.ticketservice.core.price.dto.PricingSnapshot;
+import com.epam.training.ticketservice.core.price.dto.ScreeningPrice;
+import com.epam.training.ticketservice.core.price.dto.ScreeningPriceQuote;
 import com.epam.training.ticketservice.core.price.entity.PriceComponent;
+import com.epam.training.ticketservice.core.price.entity.PricingRule;
+import com.epam.training.ticketservice.core.price.exception.PricingRuleNotValidException;
 import com.epam.training.ticketservice.core.price.repository.PriceComponentRepository;
+import com.epam.training.ticketservice.core.price.repository.PricingRuleRepository;
+import com.epam.training.ticketservice.core.price.rule.PricingRuleTable;
 import com.epam.training.ticketservice.core.room.repository.RoomRepository;
 import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
 import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.stream.Stream;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static com.epam.training.ticketservice.core.transaction.TransactionCallbacks.afterCompletion;
+import static com.epam.training.ticketservice.core.transaction.TransactionCallbacks.nowAndAfterCompletion;
 
 @Service
 @RequiredArgsConstructor
 public class DefaultPriceService implements PriceService {
 
-    private int basePrice = 1500;
-
     private final MovieRepository movieRepository;
 
     private final RoomRepository roomRepository;
@@ -28,6 +51,15 @@ public class DefaultPriceService implements PriceService {
 
     private final PriceComponentRepository priceComponentRepository;
 
+    private final PricingConfigurationStore pricingConfigurationStore;
+
+    private final PricingRuleRepository pricingRuleRepository;
+
+    private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+
+    // Final per-seat prices, each table only holds prices computed from the pricing snapshot it belongs to
+    private volatile PriceTable priceTable = new PriceTable(null);
+
     @Override
     @Transactional(readOnly = true)
     public int getPerSeatPriceBy(String movieTitle, String roomName, LocalDateTime startDateTime) {
@@ -42,17 +74,81 @@ public class DefaultPriceService implements PriceService {
     @Override
     @Transactional(readOnly = true)
     public int getPerSeatPriceBy(Screening screening) {
-        var screeningPrices = screening.getPriceComponents().stream();
-        var moviePrices = screening.getMovie().getPriceComponents().stream();
-        var roomPrices =  screening.getRoom().getPriceComponents().stream();
-        return Stream.concat(roomPrices, Stream.concat(screeningPrices, moviePrices))
-                .mapToInt(PriceComponent::getPrice)
-                .reduce(basePrice, Integer::sum);
+        return getPerSeatPriceBy(screening, 0);
+    }
+
+    // Seats booked after the screening was loaded are not in its counter yet, the caller passes them on
+    @Override
+    @Transactional(readOnly = true)
+    public int getPerSeatPriceBy(Screening screening, int seatsSoldSinceLoad) {
+        var table = currentPriceTable();
+        // A plain lookup first, a capturing lambda would be allocated on every call, hit or miss
+        var cached = table.prices.get(screening.getId());
+        int price = cached != null
+                ? cached
+                : table.prices.computeIfAbsent(screening.getId(), id -> computePerSeatPrice(table.pricing, screening));
+        // Occupancy changes with every booking, so that part is looked up from the rule table on each call
+        var rules = table.pricing.getRules();
+        if (rules.hasOccupancyRules()) {
+            var room = screening.getRoom();
+            price += rules.occupancyAdjustmentFor(screening.getId().getStartDateTime(),
+                    screening.getSeatsSold() + seatsSoldSinceLoad,
+                    room.getRows() * room.getColumns());
+        }
+        return Math.max(0, price);
+    }
+
+    @Override
+    public List<ScreeningPrice> getPerSeatPricesByMovie(String movieTitle) {
+        return toScreeningPrices(screeningRepository.findAllPriceQuotesByMovieTitle(movieTitle));
+    }
+
+    @Override
+    public List<ScreeningPrice> getPerSeatPricesByRoom(String roomName) {
+        return toScreeningPrices(screeningRepository.findAllPriceQuotesByRoomName(roomName));
+    }
+
+    @Override
+    public List<ScreeningPrice> getPerSeatPricesOn(LocalDate date) {
+        return toScreeningPrices(screeningRepository.findAllPriceQuotesStartingBetween(date.atStartOfDay(),
+                date.plusDays(1).atStartOfDay()));
+    }
+
+    // Every quote of a batch uses the same snapshot, so one grid never mixes two base prices
+    private List<ScreeningPrice> toScreeningPrices(List<ScreeningPriceQuote> quotes) {
+        var pricing = pricingConfigurationStore.current();
+        return quotes.stream()
+                .map(quote -> ScreeningPrice.builder()
+                        .movieTitle(quote.getMovieTitle())
+                        .roomName(quote.getRoomName())
+                        .startDateTime(quote.getStartDateTime())
+                        .perSeatPrice(Math.max(0, pricing.getBasePrice()
+                                + quote.getPriceComponentTotal()
+                                + pricing.getRules().startAdjustmentFor(quote.getStartDateTime())
+                                + pricing.getRules().occupancyAdjustmentFor(quote.getStartDateTime(),
+                                        quote.getSeatsSold(),
+                                        quote.getCapacity())))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void evictPerSeatPrice(ScreeningId screeningId) {
+        evictAllMatching(id -> id.equals(screeningId));
+    }
+
+    private int computePerSeatPrice(PricingSnapshot pricing, Screening screening) {
+        return pricing.getBasePrice()
+                + screening.getPriceComponentTotal()
+                + screening.getMovie().getPriceComponentTotal()
+                + screening.getRoom().getPriceComponentTotal()
+                + pricing.getRules().startAdjustmentFor(screening.getId().getStartDateTime());
     }
 
     @Override
     public void updateBasePrice(int newBasePrice) {
-        basePrice = newBasePrice;
+        // The cached prices go once the new snapshot is published, on this and every other instance
+        pricingConfigurationStore.updateBasePrice(newBasePrice);
     }
 
     @Override
@@ -65,14 +161,92 @@ public class DefaultPriceService implements PriceService {
         priceComponentRepository.save(priceComponent);
     }
 
+    @Override
+    @Transactional
+    public void updatePriceComponent(String name, int price) {
+        var priceComponent = findPriceComponentByName(name);
+        priceComponent.setPrice(price);
+        // Flushed first, the recomputing updates read the new fee from the table
+        priceComponentRepository.saveAndFlush(priceComponent);
+        movieRepository.recomputePriceComponentTotalsContaining(priceComponent);
+        roomRepository.recomputePriceComponentTotalsContaining(priceComponent);
+        screeningRepository.recomputePriceComponentTotalsContaining(priceComponent);
+        afterCompletion(() -> priceTable = new PriceTable(priceTable.pricing));
+        // Other instances drop their cached prices once they poll the new version
+        pricingConfigurationStore.incrementVersion();
+    }
+
+    @Override
+    @Transactional(rollbackFor = PricingRuleNotValidException.class)
+    public void createPricingRule(PricingRuleRequest request) throws PricingRuleNotValidException {
+        var rule = PricingRule.builder()
+                .name(request.getName())
+                .adjustment(request.getAdjustment())
+                .daysOfWeek(PricingRule.daysOfWeekOf(request.getDays()))
+                .startsFrom(request.getStartsFrom())
+                .startsBefore(request.getStartsBefore())
+                .occupancyAbovePercent(request.getOccupancyAbovePercent())
+                .build();
+        var errors = new ArrayList<String>();
+        if (pricingRuleRepository.findByName(request.getName()).isPresent()) {
+            errors.add(String.format("Pricing rule %s already exists", request.getName()));
+        }
+        errors.addAll(PricingRuleTable.findErrors(rule));
+        if (!errors.isEmpty()) {
+            throw new PricingRuleNotValidException(errors);
+        }
+        // The cached prices go once the new snapshot is published, on this and every other instance
+        pricingConfigurationStore.saveRule(rule);
+    }
+
+    @Override
+    @Transactional
+    public void deletePricingRule(String name) {
+        var rule = pricingRuleRepository.findByName(name)
+                .orElseThrow(() -> new EntityNotFoundException("Pricing rule was not found"));
+        pricingConfigurationStore.deleteRule(rule);
+    }
+
+    @Override
+    public List<String> listPricingRules() {
+        return pricingRuleRepository.findAllByOrderByName()
+                .stream()
+                .map(this::describe)
+                .collect(Collectors.toList());
+    }
+
+    private String describe(PricingRule rule) {
+        var description = new StringBuilder(String.format("%s: %+d HUF", rule.getName(), rule.getAdjustment()));
+        if (rule.getDaysOfWeek() != PricingRule.EVERY_DAY) {
+            description.append(Arrays.stream(DayOfWeek.values())
+                    .filter(rule::appliesOn)
+                    .map(day -> day.getDisplayName(TextStyle.SHORT, Locale.ENGLISH))
+                    .collect(Collectors.joining(", ", " on ", "")));
+        }
+        if (rule.getStartsFrom() != null) {
+            description.append(" starting from ").append(rule.getStartsFrom().format(timeFormatter));
+        }
+        if (rule.getStartsBefore() != null) {
+            description.append(" starting before ").append(rule.getStartsBefore().format(timeFormatter));
+        }
+        if (rule.getOccupancyAbovePercent() != null) {
+            description.append(String.format(" above %d%% occupancy", rule.getOccupancyAbovePercent()));
+        }
+        return description.toString();
+    }
+
     @Override
     @Transactional
     public void attachPriceComponentToMovie(String priceName, String movieTitle) {
         var priceComponent = findPriceComponentByName(priceName);
         var movie = movieRepository.findByTitle(movieTitle)
                 .orElseThrow(() -> new EntityNotFoundException("Movie was not found"));
-        movie.getPriceComponents().add(priceComponent);
-        movieRepository.save(movie);
+        if (movie.getPriceComponents().add(priceComponent)) {
+            movieRepository.save(movie);
+            movieRepository.addToPriceComponentTotal(movie.getId(), priceComponent.getPrice());
+            pricingConfigurationStore.incrementVersion();
+        }
+        evictAllMatching(id -> Objects.equals(id.getMovieId(), movie.getId()));
     }
 
     @Override
@@ -81,8 +255,12 @@ public class DefaultPriceService implements PriceService {
         var priceComponent = findPriceComponentByName(priceName);
         var room = roomRepository.findByName(roomName)
                 .orElseThrow(() -> new EntityNotFoundException("Room was not found"));
-        room.getPriceComponents().add(priceComponent);
-        roomRepository.save(room);
+        if (room.getPriceComponents().add(priceComponent)) {
+            roomRepository.save(room);
+            roomRepository.addToPriceComponentTotal(room.getId(), priceComponent.getPrice());
+            pricingConfigurationStore.incrementVersion();
+        }
+        evictAllMatching(id -> Objects.equals(id.getRoomId(), room.getId()));
     }
 
     @Override
@@ -96,12 +274,42 @@ public class DefaultPriceService implements PriceService {
                 roomName,
                 startDateTime)
                 .orElseThrow(() -> new EntityNotFoundException("Screening was not found"));
-        screening.getPriceComponents().add(priceComponent);
-        screeningRepository.save(screening);
+        if (screening.getPriceComponents().add(priceComponent)) {
+            screeningRepository.save(screening);
+            screeningRepository.addToPriceComponentTotal(screening.getId(), priceComponent.getPrice());
+            pricingConfigurationStore.incrementVersion();
+        }
+        evictPerSeatPrice(screening.getId());
     }
 
     private PriceComponent findPriceComponentByName(String priceName) {
         return priceComponentRepository.findByName(priceName)
                 .orElseThrow(() -> new EntityNotFoundException("Price component was not found"));
     }
+
+    private void evictAllMatching(Predicate<ScreeningId> predicate) {
+        nowAndAfterCompletion(() -> priceTable.prices.keySet().removeIf(predicate));
+    }
+
+    // Snapshots are replaced, never changed, so comparing references tells whether the table is outdated
+    private PriceTable currentPriceTable() {
+        var pricing = pricingConfigurationStore.current();
+        var table = priceTable;
+        if (table.pricing != pricing) {
+            table = new PriceTable(pricing);
+            priceTable = table;
+        }
+        return table;
+    }
+
+    private static class PriceTable {
+
+        private final PricingSnapshot pricing;
+
+        private final Map<ScreeningId, Integer> prices = new ConcurrentHashMap<>();
+
+        PriceTable(PricingSnapshot pricing) {
+            this.pricing = pricing;
+        }
+    }
 }
@@ -1,8 +1,14 @@
 package com.epam.training.ticketservice.core.price.service;
 
+import com.epam.training.ticketservice.core.price.dto.PricingRuleRequest;
+import com.epam.training.ticketservice.core.price.dto.ScreeningPrice;
+import com.epam.training.ticketservice.core.price.exception.PricingRuleNotValidException;
 import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public interface PriceService {
 
@@ -10,10 +16,28 @@ public interface PriceService {
 
     int getPerSeatPriceBy(Screening screening);
 
+    int getPerSeatPriceBy(Screening screening, int seatsSoldSinceLoad);
+
+    List<ScreeningPrice> getPerSeatPricesByMovie(String movieTitle);
+
+    List<ScreeningPrice> getPerSeatPricesByRoom(String roomName);
+
+    List<ScreeningPrice> getPerSeatPricesOn(LocalDate date);
+
+    void evictPerSeatPrice(ScreeningId screeningId);
+
     void updateBasePrice(int newBasePrice);
 
     void createPriceComponent(String name, int newBasePrice);
 
+    void updatePriceComponent(String name, int price);
+
+    void createPricingRule(PricingRuleRequest request) throws PricingRuleNotValidException;
+
+    void deletePricingRule(String name);
+
+    List<String> listPricingRules();
+
     void attachPriceComponentToMovie(String priceComponent, String movieTitle);
 
     void attachPriceComponentToRoom(String priceComponent, String roomName);
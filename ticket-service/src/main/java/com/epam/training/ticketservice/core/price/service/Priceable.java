@@ -7,4 +7,6 @@ import java.util.Set;
 public interface Priceable {
 
     Set<PriceComponent> getPriceComponents();
+
+    int getPriceComponentTotal();
 }
@@ -63,6 +63,11 @@ public class Room implements Priceable {
     )
     private Set<PriceComponent> priceComponents = new HashSet<>();
 
+    // Sum of the attached price components' fees, kept by PriceService so a quote needs no join.
+    // Maintained only through the repository's bulk updates, entity updates never write it back
+    @Column(name = "price_component_total", nullable = false, updatable = false)
+    private int priceComponentTotal;
+
     @Builder
     public Room(Long id,
                 @NotNull @NotEmpty String name,
@@ -1,7 +1,10 @@
 package com.epam.training.ticketservice.core.room.repository;
 
+import com.epam.training.ticketservice.core.price.entity.PriceComponent;
 import com.epam.training.ticketservice.core.room.entity.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
@@ -10,4 +13,20 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
 
     @Transactional(readOnly = true)
     Optional<Room> findByName(String name);
+
+    // Relative to the stored value, so concurrent attachments can't overwrite each other
+    @Modifying
+    @Query("update Room r set r.priceComponentTotal = r.priceComponentTotal + ?2 where r.id = ?1")
+    int addToPriceComponentTotal(Long id, int amount);
+
+    @Modifying
+    @Query("update Room r set r.priceComponentTotal = "
+            + "(select coalesce(sum(p.price), 0) from PriceComponent p where p member of r.priceComponents) "
+            + "where ?1 member of r.priceComponents")
+    int recomputePriceComponentTotalsContaining(PriceComponent priceComponent);
+
+    @Modifying
+    @Query("update Room r set r.priceComponentTotal = "
+            + "(select coalesce(sum(p.price), 0) from PriceComponent p where p member of r.priceComponents)")
+    int recomputeAllPriceComponentTotals();
 }
@@ -1,7 +1,12 @@
 package com.epam.training.ticketservice.core.room.service;
 
+import com.epam.training.ticketservice.core.booking.occupancy.SeatOccupancyIndex;
+import com.epam.training.ticketservice.core.catalogue.CatalogueAggregate;
+import com.epam.training.ticketservice.core.catalogue.CatalogueVersions;
+import com.epam.training.ticketservice.core.catalogue.VersionedListCache;
 import com.epam.training.ticketservice.core.room.entity.Room;
 import com.epam.training.ticketservice.core.room.repository.RoomRepository;
+import com.epam.training.ticketservice.core.screening.timeline.ScreeningTimeline;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,13 +22,20 @@ public class DefaultRoomService implements RoomService {
 
     private final RoomRepository roomRepository;
 
+    private final SeatOccupancyIndex seatOccupancyIndex;
+
+    private final ScreeningTimeline screeningTimeline;
+
+    private final CatalogueVersions catalogueVersions;
+
+    private final VersionedListCache listCache = new VersionedListCache();
+
     @Override
-    @Transactional(readOnly = true)
     public List<String> list() {
-        return roomRepository.findAll()
+        return listCache.get(catalogueVersions.current(CatalogueAggregate.ROOM), () -> roomRepository.findAll()
                 .stream()
                 .map(this::describe)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
@@ -39,6 +51,7 @@ public class DefaultRoomService implements RoomService {
                 .columns(colums)
                 .build();
         roomRepository.save(room);
+        catalogueVersions.bump(CatalogueAggregate.ROOM);
     }
 
     @Override
@@ -52,6 +65,7 @@ public class DefaultRoomService implements RoomService {
         room.setRows(rows);
         room.setColumns(colums);
         roomRepository.save(room);
+        catalogueVersions.bump(CatalogueAggregate.ROOM);
     }
 
     @Override
@@ -63,6 +77,9 @@ public class DefaultRoomService implements RoomService {
         }
         var room = result.get();
         roomRepository.delete(room);
+        catalogueVersions.bump(CatalogueAggregate.ROOM);
+        seatOccupancyIndex.evictAllByRoomId(room.getId());
+        screeningTimeline.evictAllByRoomId(room.getId());
     }
 
     private String describe(Room room) {
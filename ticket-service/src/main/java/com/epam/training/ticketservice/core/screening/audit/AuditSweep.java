@@ -0,0 +1,61 @@
+package com.epam.training.ticketservice.core.screening.audit;
+
+import com.epam.training.ticketservice.core.screening.dto.RoomScreeningSlot;
+import com.epam.training.ticketservice.core.screening.service.ScreeningTimeClashService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Sweep over the slots of one room sorted by start. Every slot still blocking the room when the next one
+// starts clashes with it; a clash-free room keeps at most one slot active, so this stays linear
+class AuditSweep {
+
+    private AuditSweep() {
+    }
+
+    static List<SlotClash> findClashes(List<RoomScreeningSlot> slotsByStart) {
+        var clashes = new ArrayList<SlotClash>();
+        var active = new ArrayList<RoomScreeningSlot>();
+        for (var slot : slotsByStart) {
+            active.removeIf(earlier -> !slot.getStartDateTime().isBefore(blockedUntil(earlier)));
+            for (var earlier : active) {
+                var overlapping = slot.getStartDateTime().isBefore(earlier.getEndDateTime());
+                clashes.add(new SlotClash(earlier, slot, overlapping));
+            }
+            active.add(slot);
+        }
+        return clashes;
+    }
+
+    private static LocalDateTime blockedUntil(RoomScreeningSlot slot) {
+        return slot.getEndDateTime().plusMinutes(ScreeningTimeClashService.BREAK_MINUTES);
+    }
+
+    static class SlotClash {
+
+        private final RoomScreeningSlot earlier;
+
+        private final RoomScreeningSlot later;
+
+        private final boolean overlapping;
+
+        SlotClash(RoomScreeningSlot earlier, RoomScreeningSlot later, boolean overlapping) {
+            this.earlier = earlier;
+            this.later = later;
+            this.overlapping = overlapping;
+        }
+
+        RoomScreeningSlot getEarlier() {
+            return earlier;
+        }
+
+        RoomScreeningSlot getLater() {
+            return later;
+        }
+
+        boolean isOverlapping() {
+            return overlapping;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.epam.training.ticketservice.core.screening.audit;
+
+import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.room.repository.RoomRepository;
+import com.epam.training.ticketservice.core.screening.dto.RoomScreeningSlot;
+import com.epam.training.ticketservice.core.screening.dto.ScheduleAudit;
+import com.epam.training.ticketservice.core.screening.dto.ScheduleClash;
+import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+@Service
+public class DefaultScheduleAuditor implements ScheduleAuditor {
+
+    private final ScreeningRepository screeningRepository;
+
+    private final MovieRepository movieRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public DefaultScheduleAuditor(ScreeningRepository screeningRepository,
+                                  MovieRepository movieRepository,
+                                  RoomRepository roomRepository,
+                                  @Value("${app.screening.audit.parallelism:0}") int parallelism) {
+        this(screeningRepository,
+                movieRepository,
+                roomRepository,
+                new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors()));
+    }
+
+    DefaultScheduleAuditor(ScreeningRepository screeningRepository,
+                           MovieRepository movieRepository,
+                           RoomRepository roomRepository,
+                           ForkJoinPool pool) {
+        this.screeningRepository = screeningRepository;
+        this.movieRepository = movieRepository;
+        this.roomRepository = roomRepository;
+        this.pool = pool;
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ScheduleAudit audit() {
+        var sweeps = new ArrayList<ForkJoinTask<List<AuditSweep.SlotClash>>>();
+        long screeningsChecked = 0;
+        // Rows arrive ordered by room, so each room is handed to the pool as soon as the next one starts
+        // and the sweeps run while the rest is still being read
+        try (var slots = screeningRepository.streamAllSlotsOrderedByRoom()) {
+            var room = new ArrayList<RoomScreeningSlot>();
+            var iterator = slots.iterator();
+            while (iterator.hasNext()) {
+                var slot = iterator.next();
+                screeningsChecked++;
+                if (!room.isEmpty() && !room.get(0).getRoomId().equals(slot.getRoomId())) {
+                    sweeps.add(submit(room));
+                    room = new ArrayList<>();
+                }
+                room.add(slot);
+            }
+            if (!room.isEmpty()) {
+                sweeps.add(submit(room));
+            }
+        }
+        var slotClashes = sweeps.stream()
+                .map(ForkJoinTask::join)
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        return ScheduleAudit.builder()
+                .clashes(describe(slotClashes))
+                .screeningsChecked(screeningsChecked)
+                .roomsChecked(sweeps.size())
+                .build();
+    }
+
+    private ForkJoinTask<List<AuditSweep.SlotClash>> submit(List<RoomScreeningSlot> room) {
+        return pool.submit(() -> AuditSweep.findClashes(room));
+    }
+
+    // Names are only looked up for the screenings that clash, a clean schedule needs no further query
+    private List<ScheduleClash> describe(List<AuditSweep.SlotClash> slotClashes) {
+        if (slotClashes.isEmpty()) {
+            return List.of();
+        }
+        var movieIds = new HashSet<Long>();
+        var roomIds = new HashSet<Long>();
+        slotClashes.forEach(clash -> {
+            movieIds.add(clash.getEarlier().getMovieId());
+            movieIds.add(clash.getLater().getMovieId());
+            roomIds.add(clash.getEarlier().getRoomId());
+        });
+        Map<Long, String> titles = movieRepository.findAllById(movieIds)
+                .stream()
+                .collect(Collectors.toMap(Movie::getId, Movie::getTitle));
+        Map<Long, String> roomNames = roomRepository.findAllById(roomIds)
+                .stream()
+                .collect(Collectors.toMap(Room::getId, Room::getName));
+        return slotClashes.stream()
+                .map(clash -> ScheduleClash.builder()
+                        .roomName(roomNames.get(clash.getEarlier().getRoomId()))
+                        .movieTitle(titles.get(clash.getEarlier().getMovieId()))
+                        .startDateTime(clash.getEarlier().getStartDateTime())
+                        .clashingMovieTitle(titles.get(clash.getLater().getMovieId()))
+                        .clashingStartDateTime(clash.getLater().getStartDateTime())
+                        .overlapping(clash.isOverlapping())
+                        .build())
+                .sorted(Comparator.comparing(ScheduleClash::getRoomName)
+                        .thenComparing(ScheduleClash::getStartDateTime)
+                        .thenComparing(ScheduleClash::getClashingStartDateTime))
+                .collect(Collectors.toList());
+    }
+}
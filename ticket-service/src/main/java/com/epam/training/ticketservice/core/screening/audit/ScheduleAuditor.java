@@ -0,0 +1,8 @@
+package com.epam.training.ticketservice.core.screening.audit;
+
+import com.epam.training.ticketservice.core.screening.dto.ScheduleAudit;
+
+public interface ScheduleAuditor {
+
+    ScheduleAudit audit();
+}
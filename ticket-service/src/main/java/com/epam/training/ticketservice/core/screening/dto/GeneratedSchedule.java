@@ -0,0 +1,19 @@
+package com.epam.training.ticketservice.core.screening.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class GeneratedSchedule {
+
+    private final List<ScheduledScreening> screenings;
+
+    // Minutes of the opening hours spent showing movies, breaks not counted
+    private final long usedMinutes;
+
+    // Minutes of the opening hours not taken by screenings that existed before
+    private final long freeMinutes;
+}
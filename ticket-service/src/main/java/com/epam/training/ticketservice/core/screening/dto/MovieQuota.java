@@ -0,0 +1,14 @@
+package com.epam.training.ticketservice.core.screening.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+// How many screenings of a movie a generated schedule should hold at most
+@Data
+@Builder
+public class MovieQuota {
+
+    private final String movieTitle;
+
+    private final int count;
+}
@@ -0,0 +1,22 @@
+package com.epam.training.ticketservice.core.screening.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// A screening slot that also knows its room, for reading the slots of every room in one pass
+@Data
+@Builder
+@AllArgsConstructor
+public class RoomScreeningSlot {
+
+    private final Long roomId;
+
+    private final Long movieId;
+
+    private final LocalDateTime startDateTime;
+
+    private final LocalDateTime endDateTime;
+}
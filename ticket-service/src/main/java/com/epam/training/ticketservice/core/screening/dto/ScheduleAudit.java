@@ -0,0 +1,17 @@
+package com.epam.training.ticketservice.core.screening.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ScheduleAudit {
+
+    private final List<ScheduleClash> clashes;
+
+    private final long screeningsChecked;
+
+    private final int roomsChecked;
+}
@@ -0,0 +1,25 @@
+package com.epam.training.ticketservice.core.screening.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ScheduleClash {
+
+    private final String roomName;
+
+    private final String movieTitle;
+
+    private final LocalDateTime startDateTime;
+
+    // The screening starting later, or at the same time
+    private final String clashingMovieTitle;
+
+    private final LocalDateTime clashingStartDateTime;
+
+    // False when the clashing screening only starts within the break after the other one
+    private final boolean overlapping;
+}
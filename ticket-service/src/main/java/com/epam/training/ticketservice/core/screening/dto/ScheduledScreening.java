@@ -0,0 +1,17 @@
+package com.epam.training.ticketservice.core.screening.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ScheduledScreening {
+
+    private final String movieTitle;
+
+    private final LocalDateTime startDateTime;
+
+    private final LocalDateTime endDateTime;
+}
@@ -0,0 +1,24 @@
+package com.epam.training.ticketservice.core.screening.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// The part of a screening that decides when its room is occupied
+@Data
+@Builder
+@AllArgsConstructor
+public class ScreeningSlot {
+
+    private final Long movieId;
+
+    private final LocalDateTime startDateTime;
+
+    private final int durationInMinutes;
+
+    public LocalDateTime getEndDateTime() {
+        return startDateTime.plusMinutes(durationInMinutes);
+    }
+}
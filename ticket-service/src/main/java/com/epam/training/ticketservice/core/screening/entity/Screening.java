@@ -1,6 +1,7 @@
 package com.epam.training.ticketservice.core.screening.entity;
 
 import com.epam.training.ticketservice.core.booking.entity.Booking;
+import com.epam.training.ticketservice.core.entity.AssignedIdEntity;
 import com.epam.training.ticketservice.core.movie.entity.Movie;
 import com.epam.training.ticketservice.core.price.entity.PriceComponent;
 import com.epam.training.ticketservice.core.price.service.Priceable;
@@ -11,9 +12,11 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
@@ -26,11 +29,12 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "screenings")
+@Table(name = "screenings",
+        indexes = @Index(name = "ix_screenings_room_start", columnList = "room_id, start_date_time"))
 @Getter
 @NoArgsConstructor
-@EqualsAndHashCode(exclude = {"movie", "room"})
-public class Screening implements Priceable {
+@EqualsAndHashCode(callSuper = false, exclude = {"movie", "room"})
+public class Screening extends AssignedIdEntity<ScreeningId> implements Priceable {
 
     @EmbeddedId
     private ScreeningId id;
@@ -43,6 +47,19 @@ public class Screening implements Priceable {
     @MapsId("roomId")
     private Room room;
 
+    // Derived from the movie's duration, stored so clash checks can range over it in the database.
+    // Mapped nullable so ddl-auto can add it to existing rows, ScreeningEndDateTimeMigration enforces NOT NULL
+    @Column(name = "end_date_time")
+    private LocalDateTime endDateTime;
+
+    // Maintained only through ScreeningRepository.addSales, entity updates never write them back.
+    // Counted from the bookings once by ScreeningSalesMigration for rows stored before the columns existed
+    @Column(name = "seats_sold", nullable = false, updatable = false)
+    private int seatsSold;
+
+    @Column(name = "gross_revenue", nullable = false, updatable = false)
+    private long grossRevenue;
+
     @OneToMany(mappedBy = "screening",
             cascade = CascadeType.ALL,
             orphanRemoval = true)
@@ -62,10 +79,25 @@ public class Screening implements Priceable {
     )
     private Set<PriceComponent> priceComponents = new HashSet<>();
 
+    // Sum of the attached price components' fees, kept by PriceService so a quote needs no join.
+    // Maintained only through the repository's bulk updates, entity updates never write it back
+    @Column(name = "price_component_total", nullable = false, updatable = false)
+    private int priceComponentTotal;
+
+    // Callers that already know the end time pass it, so a lazy movie reference is not loaded for its duration
     @Builder
-    public Screening(Movie movie, Room room, LocalDateTime startDateTime) {
+    public Screening(Movie movie, Room room, LocalDateTime startDateTime, LocalDateTime endDateTime) {
         this.movie = movie;
         this.room = room;
         this.id = new ScreeningId(movie.getId(), room.getId(), startDateTime);
+        if (endDateTime == null) {
+            recomputeEndDateTime();
+        } else {
+            this.endDateTime = endDateTime;
+        }
+    }
+
+    public void recomputeEndDateTime() {
+        this.endDateTime = id.getStartDateTime().plusMinutes(movie.getDurationInMinutes());
     }
 }
@@ -0,0 +1,16 @@
+package com.epam.training.ticketservice.core.screening.exception;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ScreeningImportException extends RuntimeException {
+
+    private List<String> errors;
+
+    public ScreeningImportException(List<String> errors) {
+        super();
+        this.errors = errors;
+    }
+}
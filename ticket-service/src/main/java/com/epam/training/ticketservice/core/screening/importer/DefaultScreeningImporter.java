@@ -0,0 +1,211 @@
+package com.epam.training.ticketservice.core.screening.importer;
+
+import com.epam.training.ticketservice.core.catalogue.CatalogueAggregate;
+import com.epam.training.ticketservice.core.catalogue.CatalogueVersions;
+import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.room.repository.RoomRepository;
+import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.exception.ScreeningImportException;
+import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import com.epam.training.ticketservice.core.screening.service.ScreeningTimeClashService;
+import com.epam.training.ticketservice.core.screening.timeline.ScreeningTimeline;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+public class DefaultScreeningImporter implements ScreeningImporter {
+
+    private final MovieRepository movieRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final ScreeningRepository screeningRepository;
+
+    private final ScreeningTimeline screeningTimeline;
+
+    private final CatalogueVersions catalogueVersions;
+
+    private final EntityManager entityManager;
+
+    private final int chunkSize;
+
+    private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    @Autowired
+    public DefaultScreeningImporter(MovieRepository movieRepository,
+                                    RoomRepository roomRepository,
+                                    ScreeningRepository screeningRepository,
+                                    ScreeningTimeline screeningTimeline,
+                                    CatalogueVersions catalogueVersions,
+                                    EntityManager entityManager,
+                                    @Value("${app.screening.import.chunk-size:512}") int chunkSize) {
+        this.movieRepository = movieRepository;
+        this.roomRepository = roomRepository;
+        this.screeningRepository = screeningRepository;
+        this.screeningTimeline = screeningTimeline;
+        this.catalogueVersions = catalogueVersions;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    // Nothing is written unless every line is valid and clash free
+    @Override
+    @Transactional(rollbackFor = {IOException.class, ScreeningImportException.class})
+    public int importScreenings(BufferedReader reader) throws IOException, ScreeningImportException {
+        var errors = new TreeMap<Integer, String>();
+        var screeningsByRoom = read(reader, errors);
+        var longestDuration = movieRepository.findLongestDurationInMinutes().orElse(0);
+        screeningsByRoom.values().forEach(screenings -> findClashes(screenings, longestDuration, errors));
+        if (!errors.isEmpty()) {
+            throw new ScreeningImportException(errors.entrySet()
+                    .stream()
+                    .map(error -> String.format("Line %d: %s", error.getKey(), error.getValue()))
+                    .collect(Collectors.toList()));
+        }
+
+        var imported = insert(screeningsByRoom);
+        if (imported > 0) {
+            screeningsByRoom.keySet().forEach(screeningTimeline::evictAllByRoomId);
+            catalogueVersions.bump(CatalogueAggregate.SCREENING);
+        }
+        return imported;
+    }
+
+    // Lines are parsed as they are read, only the resolved screenings are kept
+    private Map<Long, List<ImportedScreening>> read(BufferedReader reader, Map<Integer, String> errors)
+            throws IOException {
+        var movies = new HashMap<String, Optional<Movie>>();
+        var rooms = new HashMap<String, Optional<Room>>();
+        var screeningsByRoom = new HashMap<Long, List<ImportedScreening>>();
+        var lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            var fields = splitCsvLine(line);
+            if (fields.size() != 3) {
+                errors.put(lineNumber, "expected a movie title, a room name and a start time");
+                continue;
+            }
+            var movie = movies.computeIfAbsent(fields.get(0), movieRepository::findByTitle);
+            if (movie.isEmpty()) {
+                errors.put(lineNumber, "movie " + fields.get(0) + " does not exist");
+                continue;
+            }
+            var room = rooms.computeIfAbsent(fields.get(1), roomRepository::findByName);
+            if (room.isEmpty()) {
+                errors.put(lineNumber, "room " + fields.get(1) + " does not exist");
+                continue;
+            }
+            LocalDateTime startDateTime;
+            try {
+                startDateTime = LocalDateTime.parse(fields.get(2), dateTimeFormatter);
+            } catch (DateTimeParseException e) {
+                errors.put(lineNumber, "start time " + fields.get(2) + " is not in yyyy-MM-dd HH:mm format");
+                continue;
+            }
+            screeningsByRoom.computeIfAbsent(room.get().getId(), roomId -> new ArrayList<>())
+                    .add(ImportedScreening.builder()
+                            .lineNumber(lineNumber)
+                            .movie(movie.get())
+                            .room(room.get())
+                            .startDateTime(startDateTime)
+                            .build());
+        }
+        return screeningsByRoom;
+    }
+
+    // One query per room for the existing screenings around the imported ones, then a single sweep
+    private void findClashes(List<ImportedScreening> screenings, int longestDuration, Map<Integer, String> errors) {
+        var windowStart = screenings.stream()
+                .map(ImportedScreening::getStartDateTime)
+                .min(Comparator.naturalOrder())
+                .orElseThrow()
+                .minusMinutes(ScreeningTimeClashService.BREAK_MINUTES);
+        var windowEnd = screenings.stream()
+                .map(ImportedScreening::getEndDateTime)
+                .max(Comparator.naturalOrder())
+                .orElseThrow()
+                .plusMinutes(ScreeningTimeClashService.BREAK_MINUTES);
+        var existing = screeningRepository.findAllSlotsByRoomIdOverlapping(screenings.get(0).getRoom().getId(),
+                windowStart.minusMinutes(longestDuration),
+                windowStart,
+                windowEnd);
+        RoomSweep.findClashes(screenings, existing, errors);
+    }
+
+    // Flushing and clearing per chunk lets the JDBC batches go out while the persistence context stays small.
+    // The movie and room loaded while validating are detached by the first clear, so only references to their ids
+    // are attached. The end time is already known, which keeps the movie reference from being loaded
+    private int insert(Map<Long, List<ImportedScreening>> screeningsByRoom) {
+        var inserted = 0;
+        for (var screenings : screeningsByRoom.values()) {
+            for (var imported : screenings) {
+                entityManager.persist(Screening.builder()
+                        .movie(entityManager.getReference(Movie.class, imported.getMovie().getId()))
+                        .room(entityManager.getReference(Room.class, imported.getRoom().getId()))
+                        .startDateTime(imported.getStartDateTime())
+                        .endDateTime(imported.getEndDateTime())
+                        .build());
+                inserted++;
+                if (inserted % chunkSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return inserted;
+    }
+
+    // Fields may be quoted to hold commas, a doubled quote inside quotes stands for one quote
+    static List<String> splitCsvLine(String line) {
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        var quoted = false;
+        for (var i = 0; i < line.length(); i++) {
+            var c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
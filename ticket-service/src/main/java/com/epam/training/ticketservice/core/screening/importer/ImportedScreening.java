@@ -0,0 +1,26 @@
+package com.epam.training.ticketservice.core.screening.importer;
+
+import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.room.entity.Room;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One line of the file once its movie and room are resolved
+@Data
+@Builder
+class ImportedScreening {
+
+    private final int lineNumber;
+
+    private final Movie movie;
+
+    private final Room room;
+
+    private final LocalDateTime startDateTime;
+
+    public LocalDateTime getEndDateTime() {
+        return startDateTime.plusMinutes(movie.getDurationInMinutes());
+    }
+}
@@ -0,0 +1,81 @@
+package com.epam.training.ticketservice.core.screening.importer;
+
+import com.epam.training.ticketservice.core.screening.dto.ScreeningSlot;
+import com.epam.training.ticketservice.core.screening.service.ScreeningTimeClashService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+// Sort-and-sweep over one room: after sorting by start, an interval clashes with an earlier one
+// exactly when it starts within the break after the latest end seen so far
+class RoomSweep {
+
+    private RoomSweep() {
+    }
+
+    // Existing screenings are only compared against imported ones, never against each other
+    static void findClashes(List<ImportedScreening> imported,
+                            List<ScreeningSlot> existing,
+                            Map<Integer, String> errors) {
+        var intervals = new ArrayList<Interval>(imported.size() + existing.size());
+        existing.forEach(slot -> intervals.add(new Interval(slot.getStartDateTime(), slot.getEndDateTime(), 0)));
+        imported.forEach(screening -> intervals.add(new Interval(screening.getStartDateTime(),
+                screening.getEndDateTime(),
+                screening.getLineNumber())));
+        intervals.sort(Comparator.comparing((Interval interval) -> interval.start)
+                .thenComparingInt(interval -> interval.lineNumber));
+
+        Interval latestEnding = null;
+        Interval latestEndingImported = null;
+        for (var interval : intervals) {
+            if (interval.isImported()) {
+                if (latestEnding != null && interval.start.isBefore(latestEnding.blockedUntil())) {
+                    errors.putIfAbsent(interval.lineNumber, clashMessage(latestEnding));
+                }
+            } else if (latestEndingImported != null
+                    && interval.start.isBefore(latestEndingImported.blockedUntil())) {
+                errors.putIfAbsent(latestEndingImported.lineNumber, clashMessage(interval));
+            }
+            if (latestEnding == null || interval.end.isAfter(latestEnding.end)) {
+                latestEnding = interval;
+            }
+            if (interval.isImported()
+                    && (latestEndingImported == null || interval.end.isAfter(latestEndingImported.end))) {
+                latestEndingImported = interval;
+            }
+        }
+    }
+
+    private static String clashMessage(Interval other) {
+        return other.isImported()
+                ? "clashes with the screening on line " + other.lineNumber
+                : "clashes with an existing screening";
+    }
+
+    private static class Interval {
+
+        private final LocalDateTime start;
+
+        private final LocalDateTime end;
+
+        // Zero for screenings already in the database
+        private final int lineNumber;
+
+        Interval(LocalDateTime start, LocalDateTime end, int lineNumber) {
+            this.start = start;
+            this.end = end;
+            this.lineNumber = lineNumber;
+        }
+
+        boolean isImported() {
+            return lineNumber > 0;
+        }
+
+        LocalDateTime blockedUntil() {
+            return end.plusMinutes(ScreeningTimeClashService.BREAK_MINUTES);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.epam.training.ticketservice.core.screening.importer;
+
+import com.epam.training.ticketservice.core.screening.exception.ScreeningImportException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+public interface ScreeningImporter {
+
+    int importScreenings(BufferedReader reader) throws IOException, ScreeningImportException;
+}
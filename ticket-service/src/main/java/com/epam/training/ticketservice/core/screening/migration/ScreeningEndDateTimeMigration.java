@@ -0,0 +1,36 @@
+package com.epam.training.ticketservice.core.screening.migration;
+
+import com.epam.training.ticketservice.core.migration.SchemaMigration;
+import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ScreeningEndDateTimeMigration implements SchemaMigration {
+
+    private final ScreeningRepository screeningRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public String getName() {
+        return "screening-end-date-time";
+    }
+
+    // The column is added nullable, screenings stored before it existed get their end before it's enforced
+    @Override
+    public void apply() {
+        screeningRepository.backfillEndDateTimes();
+        var product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData()
+                .getDatabaseProductName());
+        if ("MySQL".equals(product)) {
+            // The type MySQL5InnoDBDialect maps LocalDateTime to
+            jdbcTemplate.execute("alter table screenings modify end_date_time datetime not null");
+        } else {
+            jdbcTemplate.execute("alter table screenings alter column end_date_time set not null");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.epam.training.ticketservice.core.screening.migration;
+
+import com.epam.training.ticketservice.core.migration.SchemaMigration;
+import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ScreeningSalesMigration implements SchemaMigration {
+
+    private final ScreeningRepository screeningRepository;
+
+    @Override
+    public String getName() {
+        return "screening-sales";
+    }
+
+    // The counters were added with existing bookings in place, addSales only ever adds on top of them
+    @Override
+    public void apply() {
+        screeningRepository.recomputeAllSales();
+    }
+}
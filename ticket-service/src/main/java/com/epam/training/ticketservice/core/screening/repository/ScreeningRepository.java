@@ -1,19 +1,39 @@
 package com.epam.training.ticketservice.core.screening.repository;
 
+import com.epam.training.ticketservice.core.price.dto.ScreeningPriceQuote;
+import com.epam.training.ticketservice.core.price.entity.PriceComponent;
 import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.screening.dto.RoomScreeningSlot;
+import com.epam.training.ticketservice.core.screening.dto.ScreeningSlot;
 import com.epam.training.ticketservice.core.screening.entity.Screening;
 import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ScreeningRepository extends JpaRepository<Screening, ScreeningId> {
 
+    String PRICE_QUOTE_SELECT = "select new com.epam.training.ticketservice.core.price.dto.ScreeningPriceQuote("
+            + "m.title, r.name, s.id.startDateTime, "
+            + "s.priceComponentTotal + m.priceComponentTotal + r.priceComponentTotal, "
+            + "s.seatsSold, r.rows * r.columns) "
+            + "from Screening s join s.movie m join s.room r ";
+
+    String BOOKINGS_OF_SCREENING = "where b.screening_movie_id = s.movie_id and b.screening_room_id = s.room_id "
+            + "and b.screening_start_date_time = s.start_date_time";
+
+    // The movie and room are joined for the condition anyway, fetching them saves two selects per quote
     @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = {"movie", "room"})
     Optional<Screening> findByMovieTitleAndRoomNameAndIdStartDateTime(String movieTitle,
                                                                       String roomName,
                                                                       LocalDateTime startDateTime);
@@ -21,8 +41,99 @@ public interface ScreeningRepository extends JpaRepository<Screening, ScreeningI
     @Transactional(readOnly = true)
     List<Screening> findAllByRoom(Room room);
 
+    @Transactional(readOnly = true)
+    @Query("select new com.epam.training.ticketservice.core.screening.dto.ScreeningSlot("
+            + "s.id.movieId, s.id.startDateTime, m.durationInMinutes) "
+            + "from Screening s join s.movie m where s.id.roomId = ?1")
+    List<ScreeningSlot> findAllSlotsByRoomId(Long roomId);
+
+    // The lower bound on the start keeps the (room_id, start_date_time) index range short,
+    // the stored end then filters out what finished before the window
+    @Transactional(readOnly = true)
+    @Query("select new com.epam.training.ticketservice.core.screening.dto.ScreeningSlot("
+            + "s.id.movieId, s.id.startDateTime, m.durationInMinutes) "
+            + "from Screening s join s.movie m "
+            + "where s.id.roomId = ?1 and s.id.startDateTime >= ?2 and s.id.startDateTime < ?4 "
+            + "and s.endDateTime > ?3 "
+            + "order by s.id.startDateTime")
+    List<ScreeningSlot> findAllSlotsByRoomIdOverlapping(Long roomId,
+                                                        LocalDateTime earliestStartDateTime,
+                                                        LocalDateTime windowStartDateTime,
+                                                        LocalDateTime windowEndDateTime);
+
+    // Rows are fetched from the cursor in batches while the stream is consumed, the caller has to keep a
+    // transaction open and close the stream. MySQL only honours the fetch size with useCursorFetch=true, which the
+    // datasource is configured with
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.epam.training.ticketservice.core.screening.dto.RoomScreeningSlot("
+            + "s.id.roomId, s.id.movieId, s.id.startDateTime, s.endDateTime) "
+            + "from Screening s "
+            + "order by s.id.roomId, s.id.startDateTime")
+    Stream<RoomScreeningSlot> streamAllSlotsOrderedByRoom();
+
+    // Quotes only need the stored totals, so a whole grid is a single select without touching the join tables
+    @Transactional(readOnly = true)
+    @Query(PRICE_QUOTE_SELECT
+            + "where m.title = ?1 "
+            + "order by s.id.startDateTime, r.name")
+    List<ScreeningPriceQuote> findAllPriceQuotesByMovieTitle(String movieTitle);
+
+    @Transactional(readOnly = true)
+    @Query(PRICE_QUOTE_SELECT
+            + "where r.name = ?1 "
+            + "order by s.id.startDateTime")
+    List<ScreeningPriceQuote> findAllPriceQuotesByRoomName(String roomName);
+
+    @Transactional(readOnly = true)
+    @Query(PRICE_QUOTE_SELECT
+            + "where s.id.startDateTime >= ?1 and s.id.startDateTime < ?2 "
+            + "order by s.id.startDateTime, r.name")
+    List<ScreeningPriceQuote> findAllPriceQuotesStartingBetween(LocalDateTime from, LocalDateTime to);
+
+    @Transactional(readOnly = true)
+    @Query("select s from Screening s join fetch s.movie join fetch s.room")
+    List<Screening> findAllWithMovieAndRoom();
+
+    // Native, JPQL has no date arithmetic. TIMESTAMPADD is understood by both MySQL and H2
+    @Modifying
+    @Query(value = "update screenings set end_date_time = timestampadd(minute, "
+            + "(select m.duration_in_minutes from movies m where m.id = screenings.movie_id), start_date_time) "
+            + "where end_date_time is null",
+            nativeQuery = true)
+    int backfillEndDateTimes();
+
+    // Relative to the stored values, so concurrent bookings of different windows can't overwrite each other
+    @Modifying
+    @Query("update Screening s set s.seatsSold = s.seatsSold + ?2, s.grossRevenue = s.grossRevenue + ?3 "
+            + "where s.id = ?1")
+    int addSales(ScreeningId screeningId, int seats, long revenue);
+
+    // Absolute, for rows stored before the counters existed
+    @Modifying
+    @Query(value = "update screenings s set "
+            + "seats_sold = (select count(*) from bookings b " + BOOKINGS_OF_SCREENING + "), "
+            + "gross_revenue = (select coalesce(sum(b.price), 0) from bookings b " + BOOKINGS_OF_SCREENING + ")",
+            nativeQuery = true)
+    int recomputeAllSales();
+
+    @Modifying
+    List<Screening> deleteByMovieTitleAndRoomNameAndIdStartDateTime(String movieTitle,
+                                                                    String roomName,
+                                                                    LocalDateTime startDateTime);
+
+    // Relative to the stored value, so concurrent attachments can't overwrite each other
+    @Modifying
+    @Query("update Screening s set s.priceComponentTotal = s.priceComponentTotal + ?2 where s.id = ?1")
+    int addToPriceComponentTotal(ScreeningId id, int amount);
+
+    @Modifying
+    @Query("update Screening s set s.priceComponentTotal = "
+            + "(select coalesce(sum(p.price), 0) from PriceComponent p where p member of s.priceComponents) "
+            + "where ?1 member of s.priceComponents")
+    int recomputePriceComponentTotalsContaining(PriceComponent priceComponent);
+
     @Modifying
-    int deleteByMovieTitleAndRoomNameAndIdStartDateTime(String movieTitle,
-                                                        String roomName,
-                                                        LocalDateTime startDateTime);
+    @Query("update Screening s set s.priceComponentTotal = "
+            + "(select coalesce(sum(p.price), 0) from PriceComponent p where p member of s.priceComponents)")
+    int recomputeAllPriceComponentTotals();
 }
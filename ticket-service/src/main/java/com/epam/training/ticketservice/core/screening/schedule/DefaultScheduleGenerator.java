@@ -0,0 +1,151 @@
+package com.epam.training.ticketservice.core.screening.schedule;
+
+import com.epam.training.ticketservice.core.catalogue.CatalogueAggregate;
+import com.epam.training.ticketservice.core.catalogue.CatalogueVersions;
+import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.room.repository.RoomRepository;
+import com.epam.training.ticketservice.core.screening.dto.GeneratedSchedule;
+import com.epam.training.ticketservice.core.screening.dto.MovieQuota;
+import com.epam.training.ticketservice.core.screening.dto.ScheduledScreening;
+import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import com.epam.training.ticketservice.core.screening.service.ScreeningTimeClashService;
+import com.epam.training.ticketservice.core.screening.timeline.ScreeningTimeline;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityNotFoundException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class DefaultScheduleGenerator implements ScheduleGenerator {
+
+    private final MovieRepository movieRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final ScreeningRepository screeningRepository;
+
+    private final ScreeningTimeline screeningTimeline;
+
+    private final CatalogueVersions catalogueVersions;
+
+    // A closing time not after the opening means the room closes after midnight
+    @Override
+    @Transactional(rollbackFor = {EntityNotFoundException.class, IllegalArgumentException.class})
+    public GeneratedSchedule generate(String roomName,
+                                      LocalDate date,
+                                      LocalTime opening,
+                                      LocalTime closing,
+                                      List<MovieQuota> quotas) throws EntityNotFoundException {
+        if (quotas.stream().anyMatch(quota -> quota.getCount() < 1)) {
+            throw new IllegalArgumentException("Every movie must be asked for at least once");
+        }
+        var room = roomRepository.findByName(roomName)
+                .orElseThrow(() -> new EntityNotFoundException("Room " + roomName + " does not exist"));
+        var movies = new ArrayList<Movie>(quotas.size());
+        for (var quota : quotas) {
+            movies.add(movieRepository.findByTitle(quota.getMovieTitle())
+                    .orElseThrow(() -> new EntityNotFoundException("Movie " + quota.getMovieTitle()
+                            + " does not exist")));
+        }
+        var openingDateTime = date.atTime(opening);
+        var closingDateTime = closing.isAfter(opening) ? date.atTime(closing) : date.plusDays(1).atTime(closing);
+
+        var durations = movies.stream().mapToInt(Movie::getDurationInMinutes).toArray();
+        var remaining = quotas.stream().mapToInt(MovieQuota::getCount).toArray();
+        var gaps = findGaps(room.getId(), openingDateTime, closingDateTime);
+        // Largest gaps first, they can take the long movies the small ones can't
+        gaps.sort(Comparator.comparing((Gap gap) -> gap.minutes()).reversed());
+
+        var screenings = new ArrayList<Screening>();
+        var scheduled = new ArrayList<ScheduledScreening>();
+        var usedMinutes = 0L;
+        for (var gap : gaps) {
+            var picked = SchedulePacker.pack(gap.minutes(), durations, remaining);
+            var start = gap.start;
+            for (var index : SchedulePacker.arrange(picked)) {
+                var movie = movies.get(index);
+                var screening = Screening.builder()
+                        .movie(movie)
+                        .room(room)
+                        .startDateTime(start)
+                        .build();
+                screenings.add(screening);
+                scheduled.add(ScheduledScreening.builder()
+                        .movieTitle(movie.getTitle())
+                        .startDateTime(start)
+                        .endDateTime(screening.getEndDateTime())
+                        .build());
+                usedMinutes += durations[index];
+                remaining[index]--;
+                start = screening.getEndDateTime().plusMinutes(ScreeningTimeClashService.BREAK_MINUTES);
+            }
+        }
+
+        // Ids are assigned, so saveAll persists without selecting and the inserts go out as one JDBC batch
+        if (!screenings.isEmpty()) {
+            screeningRepository.saveAll(screenings);
+            screeningTimeline.evictAllByRoomId(room.getId());
+            catalogueVersions.bump(CatalogueAggregate.SCREENING);
+        }
+        scheduled.sort(Comparator.comparing(ScheduledScreening::getStartDateTime));
+        return GeneratedSchedule.builder()
+                .screenings(scheduled)
+                .usedMinutes(usedMinutes)
+                .freeMinutes(gaps.stream().mapToLong(Gap::minutes).sum())
+                .build();
+    }
+
+    // The stretches of the opening hours that keep the break to the screenings already in the room
+    private List<Gap> findGaps(Long roomId, LocalDateTime opening, LocalDateTime closing) {
+        var longestDuration = movieRepository.findLongestDurationInMinutes().orElse(0);
+        var windowStart = opening.minusMinutes(ScreeningTimeClashService.BREAK_MINUTES);
+        var existing = screeningRepository.findAllSlotsByRoomIdOverlapping(roomId,
+                windowStart.minusMinutes(longestDuration),
+                windowStart,
+                closing.plusMinutes(ScreeningTimeClashService.BREAK_MINUTES));
+        var gaps = new ArrayList<Gap>();
+        var free = opening;
+        for (var slot : existing) {
+            var blockedFrom = slot.getStartDateTime().minusMinutes(ScreeningTimeClashService.BREAK_MINUTES);
+            var gapEnd = blockedFrom.isBefore(closing) ? blockedFrom : closing;
+            if (gapEnd.isAfter(free)) {
+                gaps.add(new Gap(free, gapEnd));
+            }
+            var blockedUntil = slot.getEndDateTime().plusMinutes(ScreeningTimeClashService.BREAK_MINUTES);
+            if (blockedUntil.isAfter(free)) {
+                free = blockedUntil;
+            }
+        }
+        if (closing.isAfter(free)) {
+            gaps.add(new Gap(free, closing));
+        }
+        return gaps;
+    }
+
+    private static class Gap {
+
+        private final LocalDateTime start;
+
+        private final LocalDateTime end;
+
+        Gap(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        long minutes() {
+            return Duration.between(start, end).toMinutes();
+        }
+    }
+}
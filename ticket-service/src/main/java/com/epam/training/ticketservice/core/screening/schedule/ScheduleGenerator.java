@@ -0,0 +1,18 @@
+package com.epam.training.ticketservice.core.screening.schedule;
+
+import com.epam.training.ticketservice.core.screening.dto.GeneratedSchedule;
+import com.epam.training.ticketservice.core.screening.dto.MovieQuota;
+
+import javax.persistence.EntityNotFoundException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public interface ScheduleGenerator {
+
+    GeneratedSchedule generate(String roomName,
+                               LocalDate date,
+                               LocalTime opening,
+                               LocalTime closing,
+                               List<MovieQuota> quotas) throws EntityNotFoundException;
+}
@@ -0,0 +1,80 @@
+package com.epam.training.ticketservice.core.screening.schedule;
+
+import com.epam.training.ticketservice.core.screening.service.ScreeningTimeClashService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Picks how many screenings of each movie fit into one free gap of a room so that the most minutes are
+// spent showing movies. Each screening costs its duration plus the break, and the gap gets one break back
+// as the last screening needs none after it. That is a bounded knapsack; counts are split into powers of two
+// so it runs as a 0/1 knapsack in O(gap minutes * sum of log counts).
+class SchedulePacker {
+
+    private SchedulePacker() {
+    }
+
+    static int[] pack(long gapMinutes, int[] durations, int[] counts) {
+        var picked = new int[durations.length];
+        var capacity = (int) (gapMinutes + ScreeningTimeClashService.BREAK_MINUTES);
+        if (capacity <= ScreeningTimeClashService.BREAK_MINUTES) {
+            return picked;
+        }
+
+        var itemMovies = new ArrayList<Integer>();
+        var itemCounts = new ArrayList<Integer>();
+        for (var movie = 0; movie < durations.length; movie++) {
+            var remaining = counts[movie];
+            for (var part = 1; remaining > 0; part *= 2) {
+                var count = Math.min(part, remaining);
+                itemMovies.add(movie);
+                itemCounts.add(count);
+                remaining -= count;
+            }
+        }
+
+        var best = new long[capacity + 1];
+        var taken = new boolean[itemMovies.size()][capacity + 1];
+        for (var item = 0; item < itemMovies.size(); item++) {
+            var duration = durations[itemMovies.get(item)];
+            var count = itemCounts.get(item);
+            var weight = (long) count * (duration + ScreeningTimeClashService.BREAK_MINUTES);
+            var value = (long) count * duration;
+            for (var c = capacity; c >= weight; c--) {
+                var candidate = best[(int) (c - weight)] + value;
+                if (candidate > best[c]) {
+                    best[c] = candidate;
+                    taken[item][c] = true;
+                }
+            }
+        }
+
+        var c = capacity;
+        for (var item = itemMovies.size() - 1; item >= 0; item--) {
+            if (taken[item][c]) {
+                var movie = itemMovies.get(item);
+                picked[movie] += itemCounts.get(item);
+                c -= itemCounts.get(item) * (durations[movie] + ScreeningTimeClashService.BREAK_MINUTES);
+            }
+        }
+        return picked;
+    }
+
+    // Round robin over the movies in the order they were given, so the same movie doesn't run back to back
+    static List<Integer> arrange(int[] picked) {
+        var remaining = picked.clone();
+        var order = new ArrayList<Integer>();
+        var left = true;
+        while (left) {
+            left = false;
+            for (var movie = 0; movie < remaining.length; movie++) {
+                if (remaining[movie] > 0) {
+                    order.add(movie);
+                    remaining[movie]--;
+                    left = true;
+                }
+            }
+        }
+        return order;
+    }
+}
@@ -1,10 +1,16 @@
 package com.epam.training.ticketservice.core.screening.service;
 
+import com.epam.training.ticketservice.core.booking.occupancy.SeatOccupancyIndex;
+import com.epam.training.ticketservice.core.catalogue.CatalogueAggregate;
+import com.epam.training.ticketservice.core.catalogue.CatalogueVersions;
+import com.epam.training.ticketservice.core.catalogue.VersionedListCache;
 import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.price.service.PriceService;
 import com.epam.training.ticketservice.core.room.repository.RoomRepository;
 import com.epam.training.ticketservice.core.screening.entity.Screening;
 import com.epam.training.ticketservice.core.screening.exception.ScreeningTimeClashException;
 import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import com.epam.training.ticketservice.core.screening.timeline.ScreeningTimeline;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,14 +33,36 @@ public class DefaultScreeningService implements ScreeningService {
 
     private final ScreeningTimeClashService screeningTimeClashService;
 
+    private final ScreeningTimeline screeningTimeline;
+
+    private final SeatOccupancyIndex seatOccupancyIndex;
+
+    private final PriceService priceService;
+
+    private final CatalogueVersions catalogueVersions;
+
+    private final VersionedListCache listCache = new VersionedListCache();
+
     private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
+    // Movie and room changes show up in the lines too, so their versions are part of the key
     @Override
-    @Transactional(readOnly = true)
     public List<String> list() {
-        return screeningRepository.findAll()
+        var version = catalogueVersions.current(CatalogueAggregate.MOVIE,
+                CatalogueAggregate.ROOM,
+                CatalogueAggregate.SCREENING);
+        return listCache.get(version, () -> screeningRepository.findAllWithMovieAndRoom()
                 .stream()
                 .map(this::describe)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> listWithSales() {
+        return screeningRepository.findAllWithMovieAndRoom()
+                .stream()
+                .map(screening -> describe(screening) + ", " + describeSales(screening))
                 .collect(Collectors.toList());
     }
 
@@ -47,11 +75,13 @@ public class DefaultScreeningService implements ScreeningService {
         var room = roomRepository.findByName(roomName)
                 .orElseThrow(() -> new EntityNotFoundException("Room " + roomName + " does not exist"));
         LocalDateTime endDateTime = startDateTime.plusMinutes(movie.getDurationInMinutes());
-        var screenings = screeningRepository.findAllByRoom(room);
-        for (var screening : screenings) {
-            var existingStart = screening.getId().getStartDateTime();
-            var existingDuration = screening.getMovie().getDurationInMinutes();
-            screeningTimeClashService.check(startDateTime, endDateTime, existingStart, existingDuration);
+        // Only the screenings reaching into the break around the new one are looked at
+        var candidates = screeningTimeline.findClashCandidates(room, startDateTime, endDateTime);
+        for (var candidate : candidates) {
+            screeningTimeClashService.check(startDateTime,
+                    endDateTime,
+                    candidate.getStartDateTime(),
+                    candidate.getDurationInMinutes());
         }
 
         var screening = Screening.builder()
@@ -61,17 +91,26 @@ public class DefaultScreeningService implements ScreeningService {
                 .build();
         movie.getScreenings().add(screening);
         movieRepository.save(movie);
+        screeningTimeline.add(screening);
+        catalogueVersions.bump(CatalogueAggregate.SCREENING);
     }
 
     @Override
     @Transactional(rollbackFor = EntityNotFoundException.class)
     public void deleteScreening(String movieTitle, String roomName, LocalDateTime startDateTime) {
-        int deletedRows = screeningRepository.deleteByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle,
+        var deletedScreenings = screeningRepository.deleteByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle,
                 roomName,
                 startDateTime);
-        if (deletedRows != 1) {
+        if (deletedScreenings.size() != 1) {
             throw new EntityNotFoundException("Failed to delete");
         }
+        deletedScreenings.forEach(screening -> {
+            seatOccupancyIndex.evict(screening.getId());
+            screeningTimeline.remove(screening.getId());
+            // A screening created again at the same time starts without price components
+            priceService.evictPerSeatPrice(screening.getId());
+        });
+        catalogueVersions.bump(CatalogueAggregate.SCREENING);
     }
 
     private String describe(Screening screening) {
@@ -88,4 +127,14 @@ public class DefaultScreeningService implements ScreeningService {
                 roomName,
                 startDateTimeString);
     }
+
+    // Read from the counters kept on the screening row, the bookings table isn't touched
+    private String describeSales(Screening screening) {
+        var room = screening.getRoom();
+        var seatsFree = room.getRows() * room.getColumns() - screening.getSeatsSold();
+        return String.format("%d seats sold, %d seats free, %d HUF gross revenue",
+                screening.getSeatsSold(),
+                seatsFree,
+                screening.getGrossRevenue());
+    }
 }
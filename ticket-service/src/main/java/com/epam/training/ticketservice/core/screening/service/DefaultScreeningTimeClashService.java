@@ -15,8 +15,8 @@ public class DefaultScreeningTimeClashService implements ScreeningTimeClashServi
                       LocalDateTime movieStart,
                       int existingDuration) throws ScreeningTimeClashException {
         var movieEnd = movieStart.plusMinutes(existingDuration);
-        var timeSlotStart = movieStart.minusMinutes(10);
-        var timeSlotEnd = movieEnd.plusMinutes(10);
+        var timeSlotStart = movieStart.minusMinutes(BREAK_MINUTES);
+        var timeSlotEnd = movieEnd.plusMinutes(BREAK_MINUTES);
         if (end.compareTo(timeSlotStart) <= 0) {
             // No collision. Finishes before reserved time slot.
             return;
@@ -10,6 +10,8 @@ public interface ScreeningService {
 
     List<String> list();
 
+    List<String> listWithSales();
+
     void createScreening(String movieTitle, String roomName, LocalDateTime startDateTime)
             throws EntityNotFoundException, ScreeningTimeClashException;
 
@@ -6,6 +6,9 @@ import java.time.LocalDateTime;
 
 public interface ScreeningTimeClashService {
 
+    // Kept free between two screenings of the same room
+    long BREAK_MINUTES = 10;
+
     void check(LocalDateTime start,
           LocalDateTime end,
           LocalDateTime existingStart,
@@ -0,0 +1,64 @@
+package com.epam.training.ticketservice.core.screening.timeline;
+
+import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.screening.dto.ScreeningSlot;
+import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
+import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import com.epam.training.ticketservice.core.screening.service.ScreeningTimeClashService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+// Asks the database for the candidates on every check, nothing is kept between calls,
+// so several application instances can schedule into the same rooms
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.screening.timeline", havingValue = "database")
+public class DatabaseScreeningTimeline implements ScreeningTimeline {
+
+    private final MovieRepository movieRepository;
+
+    private final ScreeningRepository screeningRepository;
+
+    @Override
+    public List<ScreeningSlot> findClashCandidates(Room room,
+                                                   LocalDateTime startDateTime,
+                                                   LocalDateTime endDateTime) {
+        var longestDuration = movieRepository.findLongestDurationInMinutes();
+        if (longestDuration.isEmpty()) {
+            return Collections.emptyList();
+        }
+        var windowStart = startDateTime.minusMinutes(ScreeningTimeClashService.BREAK_MINUTES);
+        var windowEnd = endDateTime.plusMinutes(ScreeningTimeClashService.BREAK_MINUTES);
+        return screeningRepository.findAllSlotsByRoomIdOverlapping(room.getId(),
+                windowStart.minusMinutes(longestDuration.get()),
+                windowStart,
+                windowEnd);
+    }
+
+    @Override
+    public void add(Screening screening) {
+        // The row itself is the index
+    }
+
+    @Override
+    public void remove(ScreeningId screeningId) {
+        // The row itself is the index
+    }
+
+    @Override
+    public void evictAll() {
+        // Nothing is cached
+    }
+
+    @Override
+    public void evictAllByRoomId(Long roomId) {
+        // Nothing is cached
+    }
+}
@@ -0,0 +1,73 @@
+package com.epam.training.ticketservice.core.screening.timeline;
+
+import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.screening.dto.ScreeningSlot;
+import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
+import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import static com.epam.training.ticketservice.core.transaction.TransactionCallbacks.afterCommit;
+import static com.epam.training.ticketservice.core.transaction.TransactionCallbacks.nowAndAfterCompletion;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.screening.timeline", havingValue = "memory", matchIfMissing = true)
+public class DefaultScreeningTimeline implements ScreeningTimeline {
+
+    private final ScreeningRepository screeningRepository;
+
+    private final Map<Long, RoomTimeline> timelines = new ConcurrentHashMap<>();
+
+    @Override
+    public List<ScreeningSlot> findClashCandidates(Room room,
+                                                   LocalDateTime startDateTime,
+                                                   LocalDateTime endDateTime) {
+        // Loading inside computeIfAbsent keeps a concurrent add() from slipping in between the query and the put
+        return timelines.computeIfAbsent(room.getId(), roomId ->
+                new RoomTimeline(screeningRepository.findAllSlotsByRoomId(roomId)))
+                .findOverlapping(startDateTime, endDateTime);
+    }
+
+    @Override
+    public void add(Screening screening) {
+        var slot = new ScreeningSlot(screening.getId().getMovieId(),
+                screening.getId().getStartDateTime(),
+                screening.getMovie().getDurationInMinutes());
+        afterCommit(() -> timelines.computeIfPresent(screening.getId().getRoomId(), (roomId, timeline) -> {
+            timeline.add(slot);
+            return timeline;
+        }));
+    }
+
+    @Override
+    public void remove(ScreeningId screeningId) {
+        afterCommit(() -> timelines.computeIfPresent(screeningId.getRoomId(), (roomId, timeline) -> {
+            timeline.remove(screeningId.getMovieId(), screeningId.getStartDateTime());
+            return timeline;
+        }));
+    }
+
+    @Override
+    public void evictAll() {
+        evictAllMatching(roomId -> true);
+    }
+
+    @Override
+    public void evictAllByRoomId(Long roomId) {
+        evictAllMatching(id -> Objects.equals(id, roomId));
+    }
+
+    private void evictAllMatching(Predicate<Long> predicate) {
+        nowAndAfterCompletion(() -> timelines.keySet().removeIf(predicate));
+    }
+}
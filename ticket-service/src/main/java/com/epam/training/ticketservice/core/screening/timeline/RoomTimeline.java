@@ -0,0 +1,53 @@
+package com.epam.training.ticketservice.core.screening.timeline;
+
+import com.epam.training.ticketservice.core.screening.dto.ScreeningSlot;
+import com.epam.training.ticketservice.core.screening.service.ScreeningTimeClashService;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// The screenings of one room ordered by start, each blocking the room for its duration plus the break around it
+class RoomTimeline {
+
+    private static final Comparator<ScreeningSlot> BY_START_AND_MOVIE = Comparator
+            .comparing(ScreeningSlot::getStartDateTime)
+            .thenComparing(ScreeningSlot::getMovieId);
+
+    private final NavigableSet<ScreeningSlot> slots = new TreeSet<>(BY_START_AND_MOVIE);
+
+    // Only grows, removing the longest screening just makes lookups look back a bit further than needed
+    private int longestDurationInMinutes;
+
+    RoomTimeline(List<ScreeningSlot> slots) {
+        slots.forEach(this::add);
+    }
+
+    synchronized void add(ScreeningSlot slot) {
+        slots.add(slot);
+        longestDurationInMinutes = Math.max(longestDurationInMinutes, slot.getDurationInMinutes());
+    }
+
+    synchronized void remove(Long movieId, LocalDateTime startDateTime) {
+        slots.remove(new ScreeningSlot(movieId, startDateTime, 0));
+    }
+
+    synchronized int size() {
+        return slots.size();
+    }
+
+    // Anything starting earlier than the longest screening before the padded window can't reach into it
+    synchronized List<ScreeningSlot> findOverlapping(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        var windowStart = startDateTime.minusMinutes(ScreeningTimeClashService.BREAK_MINUTES);
+        var windowEnd = endDateTime.plusMinutes(ScreeningTimeClashService.BREAK_MINUTES);
+        var from = new ScreeningSlot(Long.MIN_VALUE, windowStart.minusMinutes(longestDurationInMinutes), 0);
+        var to = new ScreeningSlot(Long.MIN_VALUE, windowEnd, 0);
+        return slots.subSet(from, true, to, false)
+                .stream()
+                .filter(slot -> slot.getEndDateTime().isAfter(windowStart))
+                .collect(Collectors.toList());
+    }
+}
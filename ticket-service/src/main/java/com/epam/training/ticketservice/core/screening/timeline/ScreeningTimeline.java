@@ -0,0 +1,22 @@
+package com.epam.training.ticketservice.core.screening.timeline;
+
+import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.screening.dto.ScreeningSlot;
+import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ScreeningTimeline {
+
+    List<ScreeningSlot> findClashCandidates(Room room, LocalDateTime startDateTime, LocalDateTime endDateTime);
+
+    void add(Screening screening);
+
+    void remove(ScreeningId screeningId);
+
+    void evictAll();
+
+    void evictAllByRoomId(Long roomId);
+}
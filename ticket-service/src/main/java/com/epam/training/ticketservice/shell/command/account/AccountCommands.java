@@ -1,5 +1,6 @@
 package com.epam.training.ticketservice.shell.command.account;
 
+import com.epam.training.ticketservice.core.booking.dto.BookingPage;
 import com.epam.training.ticketservice.core.booking.service.BookingService;
 import com.epam.training.ticketservice.core.security.exception.AccountAlreadyExistsException;
 import com.epam.training.ticketservice.core.security.service.SecurityService;
@@ -11,6 +12,7 @@ import org.springframework.shell.standard.ShellCommandGroup;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellMethodAvailability;
+import org.springframework.shell.standard.ShellOption;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -78,12 +80,17 @@ public class AccountCommands extends SecuredCommand {
 
     @ShellMethod(
             key = {"describe account"},
-            value = "Describes the currently signed in user")
-    public List<String> describeAccount() {
+            value = "Describes the currently signed in user, listing bookings of at most --page screenings "
+                    + "and continuing after the screening given by --after")
+    public List<String> describeAccount(@ShellOption(defaultValue = "20") int page,
+                                        @ShellOption(defaultValue = ShellOption.NULL) String after) {
         var usernameOptional = getSecurityService().username();
         if (usernameOptional.isEmpty()) {
             return List.of("You are not signed in");
         }
+        if (page < 1) {
+            return List.of("The page size must be at least 1");
+        }
         var lines = new ArrayList<String>();
         var username = usernameOptional.get();
         if (getSecurityService().isPrivileged()) {
@@ -91,13 +98,22 @@ public class AccountCommands extends SecuredCommand {
         } else {
             lines.add(String.format("Signed in with account '%s'", username));
         }
-        var bookings = bookingService.listBookingsByAccount(username);
-        if (bookings.isEmpty()) {
-            lines.add("You have not booked any tickets yet");
+        BookingPage bookingPage;
+        try {
+            bookingPage = bookingService.listBookingsByAccount(username, after, page);
+        } catch (IllegalArgumentException e) {
+            lines.add("The --after value is not a valid position in the booking list");
+            return lines;
+        }
+        if (bookingPage.getBookings().isEmpty()) {
+            lines.add(after == null ? "You have not booked any tickets yet" : "You have no more bookings");
             return lines;
         }
         lines.add("Your previous bookings are");
-        lines.addAll(bookings);
+        lines.addAll(bookingPage.getBookings());
+        if (bookingPage.getNextCursor() != null) {
+            lines.add(String.format("There are more bookings, list them with --after %s", bookingPage.getNextCursor()));
+        }
         return lines;
     }
 }
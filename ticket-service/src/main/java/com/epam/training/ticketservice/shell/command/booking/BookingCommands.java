@@ -1,8 +1,10 @@
 package com.epam.training.ticketservice.shell.command.booking;
 
 import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingRequest;
+import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingResponse;
 import com.epam.training.ticketservice.core.booking.dto.Seat;
 import com.epam.training.ticketservice.core.booking.exception.MultiSeatBookingNotPossibleException;
+import com.epam.training.ticketservice.core.booking.pipeline.BookingPipeline;
 import com.epam.training.ticketservice.core.booking.service.BookingService;
 import com.epam.training.ticketservice.core.security.service.SecurityService;
 import com.epam.training.ticketservice.shell.command.SecuredCommand;
@@ -10,8 +12,10 @@ import org.springframework.shell.standard.ShellCommandGroup;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellMethodAvailability;
+import org.springframework.shell.standard.ShellOption;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,17 +25,25 @@ public class BookingCommands extends SecuredCommand {
 
     private final BookingService bookingService;
 
+    private final BookingPipeline bookingPipeline;
+
     public BookingCommands(SecurityService securityService,
-                           BookingService bookingService) {
+                           BookingService bookingService,
+                           BookingPipeline bookingPipeline) {
         super(securityService);
         this.bookingService = bookingService;
+        this.bookingPipeline = bookingPipeline;
     }
 
     @ShellMethod(
             key = {"book"},
             value = "Books tickets for the specified screening and seats (specified by row and column pairs)")
     @ShellMethodAvailability("isAuthenticated")
-    public List<String> book(String movieTitle, String roomName, LocalDateTime startDateTime, List<Seat> seats) {
+    public List<String> book(String movieTitle,
+                             String roomName,
+                             LocalDateTime startDateTime,
+                             List<Seat> seats,
+                             @ShellOption(defaultValue = ShellOption.NULL) String requestId) {
         var usernameOptional = getSecurityService().username();
         if (usernameOptional.isEmpty()) {
             throw new IllegalStateException("Current username was null");
@@ -44,21 +56,153 @@ public class BookingCommands extends SecuredCommand {
                     .roomName(roomName)
                     .startDateTime(startDateTime)
                     .seats(seats)
+                    .requestId(requestId)
+                    .build();
+            var response = bookingPipeline.submit(request);
+            return List.of(bookedSeatsAsString(response));
+        } catch (MultiSeatBookingNotPossibleException e) {
+            return e.getErrors();
+        } catch (Exception e) {
+            return List.of("Booking seats failed due to general error");
+        }
+    }
+
+    @ShellMethod(
+            key = {"book best"},
+            value = "Books the given number of adjacent seats closest to the centre of the room")
+    @ShellMethodAvailability("isAuthenticated")
+    public List<String> bookBest(String movieTitle, String roomName, LocalDateTime startDateTime, int numberOfSeats) {
+        var usernameOptional = getSecurityService().username();
+        if (usernameOptional.isEmpty()) {
+            throw new IllegalStateException("Current username was null");
+        }
+        try {
+            var response = bookingService.bookBest(usernameOptional.get(),
+                    movieTitle,
+                    roomName,
+                    startDateTime,
+                    numberOfSeats);
+            return List.of(bookedSeatsAsString(response));
+        } catch (MultiSeatBookingNotPossibleException e) {
+            return e.getErrors();
+        } catch (Exception e) {
+            return List.of("Booking seats failed due to general error");
+        }
+    }
+
+    @ShellMethod(
+            key = {"cancel booking"},
+            value = "Cancels the booking of the specified seats of a screening")
+    @ShellMethodAvailability("isAuthenticated")
+    public List<String> cancelBooking(String movieTitle,
+                                      String roomName,
+                                      LocalDateTime startDateTime,
+                                      List<Seat> seats) {
+        var usernameOptional = getSecurityService().username();
+        if (usernameOptional.isEmpty()) {
+            throw new IllegalStateException("Current username was null");
+        }
+        try {
+            var request = MultiSeatBookingRequest.builder()
+                    .username(usernameOptional.get())
+                    .movieTitle(movieTitle)
+                    .roomName(roomName)
+                    .startDateTime(startDateTime)
+                    .seats(seats)
                     .build();
-            var response = bookingService.book(request);
+            var response = bookingService.cancel(request);
             var seatsAsString = response.getSeats()
                     .stream()
                     .sorted()
                     .map(seat -> String.format("(%d,%d)", seat.getRow(), seat.getColumn()))
                     .collect(Collectors.joining(", "));
-            var outputString = String.format("Seats booked: %s; the price for this booking is %d HUF",
+            return List.of(String.format("Seats cancelled: %s; %d HUF is refunded",
                     seatsAsString,
-                    response.getSumPrice());
+                    response.getSumPrice()));
+        } catch (MultiSeatBookingNotPossibleException e) {
+            return e.getErrors();
+        } catch (Exception e) {
+            return List.of("Cancelling booking failed due to general error");
+        }
+    }
+
+    @ShellMethod(
+            key = {"hold"},
+            value = "Holds seats of the specified screening for a short time so they can be booked later")
+    @ShellMethodAvailability("isAuthenticated")
+    public List<String> hold(String movieTitle, String roomName, LocalDateTime startDateTime, List<Seat> seats) {
+        var usernameOptional = getSecurityService().username();
+        if (usernameOptional.isEmpty()) {
+            throw new IllegalStateException("Current username was null");
+        }
+        var username = usernameOptional.get();
+        try {
+            var request = MultiSeatBookingRequest.builder()
+                    .username(username)
+                    .movieTitle(movieTitle)
+                    .roomName(roomName)
+                    .startDateTime(startDateTime)
+                    .seats(seats)
+                    .build();
+            var response = bookingService.hold(request);
+            var seatsAsString = response.getSeats()
+                    .stream()
+                    .sorted()
+                    .map(seat -> String.format("(%d,%d)", seat.getRow(), seat.getColumn()))
+                    .collect(Collectors.joining(", "));
+            var outputString = String.format("Seats held: %s; the hold expires in %d seconds",
+                    seatsAsString,
+                    response.getTimeToLive().toSeconds());
             return List.of(outputString);
         } catch (MultiSeatBookingNotPossibleException e) {
             return e.getErrors();
         } catch (Exception e) {
-            return List.of("Booking seats failed due to general error");
+            return List.of("Holding seats failed due to general error");
         }
     }
+
+    @ShellMethod(
+            key = {"release hold"},
+            value = "Releases the seats held for the specified screening")
+    @ShellMethodAvailability("isAuthenticated")
+    public List<String> releaseHold(String movieTitle, String roomName, LocalDateTime startDateTime) {
+        var usernameOptional = getSecurityService().username();
+        if (usernameOptional.isEmpty()) {
+            throw new IllegalStateException("Current username was null");
+        }
+        try {
+            var released = bookingService.releaseHold(usernameOptional.get(), movieTitle, roomName, startDateTime);
+            if (released == 0) {
+                return List.of("You have no seats held for this screening");
+            }
+            return Collections.emptyList();
+        } catch (Exception e) {
+            return List.of("Releasing held seats failed due to general error");
+        }
+    }
+
+    @ShellMethod(
+            key = {"show booking lock statistics"},
+            value = "Shows how often bookings had to wait for another booking of the same screening")
+    @ShellMethodAvailability("isPrivileged")
+    public List<String> showBookingLockStatistics() {
+        var statistics = bookingService.getLockStatistics();
+        return List.of(String.format("%d stripes, %d acquisitions, %d contended; busiest stripe %d with %d contended",
+                statistics.getStripes(),
+                statistics.getAcquisitions(),
+                statistics.getContendedAcquisitions(),
+                statistics.getBusiestStripe(),
+                statistics.getBusiestStripeContentions()));
+    }
+
+    private String bookedSeatsAsString(MultiSeatBookingResponse response) {
+        var seatsAsString = response.getSeats()
+                .stream()
+                .sorted()
+                .map(seat -> String.format("(%d,%d)", seat.getRow(), seat.getColumn()))
+                .collect(Collectors.joining(", "));
+        return String.format("Seats booked: %s; the price for this booking is %d HUF",
+                seatsAsString,
+                response.getSumPrice());
+    }
 }
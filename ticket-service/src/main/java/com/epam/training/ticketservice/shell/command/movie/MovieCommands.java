@@ -1,5 +1,6 @@
 package com.epam.training.ticketservice.shell.command.movie;
 
+import com.epam.training.ticketservice.core.movie.exception.MovieDurationClashException;
 import com.epam.training.ticketservice.core.movie.service.MovieService;
 import com.epam.training.ticketservice.core.security.service.SecurityService;
 import com.epam.training.ticketservice.shell.command.SecuredCommand;
@@ -62,6 +63,8 @@ public class MovieCommands extends SecuredCommand {
             return Collections.emptyList();
         } catch (EntityNotFoundException e) {
             return List.of(String.format("Movie by title '%s' does not exists", title));
+        } catch (MovieDurationClashException e) {
+            return e.getErrors();
         } catch (Exception e) {
             return List.of("Failed to update movie due to general error");
         }
@@ -1,6 +1,9 @@
 package com.epam.training.ticketservice.shell.command.price;
 
 import com.epam.training.ticketservice.core.booking.dto.Seat;
+import com.epam.training.ticketservice.core.price.dto.PricingRuleRequest;
+import com.epam.training.ticketservice.core.price.dto.ScreeningPrice;
+import com.epam.training.ticketservice.core.price.exception.PricingRuleNotValidException;
 import com.epam.training.ticketservice.core.price.service.PriceService;
 import com.epam.training.ticketservice.core.security.service.SecurityService;
 import com.epam.training.ticketservice.shell.command.SecuredCommand;
@@ -8,10 +11,19 @@ import org.springframework.shell.standard.ShellCommandGroup;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellMethodAvailability;
+import org.springframework.shell.standard.ShellOption;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @ShellComponent
 @ShellCommandGroup("price")
@@ -19,6 +31,8 @@ public class PriceCommands extends SecuredCommand {
 
     private final PriceService priceService;
 
+    private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     public PriceCommands(SecurityService securityService,
                          PriceService priceService) {
         super(securityService);
@@ -30,8 +44,12 @@ public class PriceCommands extends SecuredCommand {
             value = "changes the base per seat price")
     @ShellMethodAvailability("isPrivileged")
     public List<String> updateBasePrice(int newBasePrice) {
-        priceService.updateBasePrice(newBasePrice);
-        return Collections.emptyList();
+        try {
+            priceService.updateBasePrice(newBasePrice);
+            return Collections.emptyList();
+        } catch (Exception e) {
+            return List.of("Updating base price failed");
+        }
     }
 
     @ShellMethod(
@@ -50,6 +68,39 @@ public class PriceCommands extends SecuredCommand {
         }
     }
 
+    @ShellMethod(
+            key = {"show prices for movie"},
+            value = "Shows the per seat price of every screening of the movie")
+    public List<String> showPricesForMovie(String movieTitle) {
+        try {
+            return screeningPricesAsStrings(priceService.getPerSeatPricesByMovie(movieTitle));
+        } catch (Exception e) {
+            return List.of("Showing prices failed");
+        }
+    }
+
+    @ShellMethod(
+            key = {"show prices in room"},
+            value = "Shows the per seat price of every screening in the room")
+    public List<String> showPricesInRoom(String roomName) {
+        try {
+            return screeningPricesAsStrings(priceService.getPerSeatPricesByRoom(roomName));
+        } catch (Exception e) {
+            return List.of("Showing prices failed");
+        }
+    }
+
+    @ShellMethod(
+            key = {"show prices on"},
+            value = "Shows the per seat price of every screening starting on the given day")
+    public List<String> showPricesOn(LocalDate date) {
+        try {
+            return screeningPricesAsStrings(priceService.getPerSeatPricesOn(date));
+        } catch (Exception e) {
+            return List.of("Showing prices failed");
+        }
+    }
+
     @ShellMethod(
             key = {"create price component"},
             value = "Creates a price component")
@@ -63,6 +114,74 @@ public class PriceCommands extends SecuredCommand {
         }
     }
 
+    @ShellMethod(
+            key = {"update price component"},
+            value = "Changes the fee of a price component")
+    @ShellMethodAvailability("isPrivileged")
+    public List<String> updatePriceComponent(String priceComponent, int fee) {
+        try {
+            priceService.updatePriceComponent(priceComponent, fee);
+            return Collections.emptyList();
+        } catch (Exception e) {
+            return List.of("Updating price component failed");
+        }
+    }
+
+    @ShellMethod(
+            key = {"create pricing rule"},
+            value = "Creates a rule adjusting the per seat price by the day, start time and occupancy of a screening")
+    @ShellMethodAvailability("isPrivileged")
+    public List<String> createPricingRule(String name,
+                                          int adjustment,
+                                          @ShellOption(defaultValue = ShellOption.NULL) String days,
+                                          @ShellOption(defaultValue = ShellOption.NULL) LocalTime from,
+                                          @ShellOption(defaultValue = ShellOption.NULL) LocalTime before,
+                                          @ShellOption(defaultValue = ShellOption.NULL) Integer occupancyAbove) {
+        try {
+            var request = PricingRuleRequest.builder()
+                    .name(name)
+                    .adjustment(adjustment)
+                    .days(parseDays(days))
+                    .startsFrom(from)
+                    .startsBefore(before)
+                    .occupancyAbovePercent(occupancyAbove)
+                    .build();
+            priceService.createPricingRule(request);
+            return Collections.emptyList();
+        } catch (PricingRuleNotValidException e) {
+            return e.getErrors();
+        } catch (IllegalArgumentException e) {
+            return List.of(e.getMessage());
+        } catch (Exception e) {
+            return List.of("Creating pricing rule failed");
+        }
+    }
+
+    @ShellMethod(
+            key = {"delete pricing rule"},
+            value = "Deletes the pricing rule by the specified name")
+    @ShellMethodAvailability("isPrivileged")
+    public List<String> deletePricingRule(String name) {
+        try {
+            priceService.deletePricingRule(name);
+            return Collections.emptyList();
+        } catch (Exception e) {
+            return List.of("Deleting pricing rule failed");
+        }
+    }
+
+    @ShellMethod(
+            key = {"list pricing rules"},
+            value = "Lists the pricing rules")
+    public List<String> listPricingRules() {
+        try {
+            var rules = priceService.listPricingRules();
+            return rules.isEmpty() ? List.of("There are no pricing rules") : rules;
+        } catch (Exception e) {
+            return List.of("Listing pricing rules failed");
+        }
+    }
+
     @ShellMethod(
             key = {"attach price component to movie"},
             value = "Adds a new price component by the specified name to the movie")
@@ -104,4 +223,32 @@ public class PriceCommands extends SecuredCommand {
             return List.of("Attaching price component to screening failed");
         }
     }
+
+    private List<String> screeningPricesAsStrings(List<ScreeningPrice> prices) {
+        if (prices.isEmpty()) {
+            return List.of("There are no screenings");
+        }
+        return prices.stream()
+                .map(price -> String.format("%s, screened in room %s, at %s: %d HUF per seat",
+                        price.getMovieTitle(),
+                        price.getRoomName(),
+                        price.getStartDateTime().format(dateTimeFormatter),
+                        price.getPerSeatPrice()))
+                .collect(Collectors.toList());
+    }
+
+    // Comma separated days, each given by at least its first three letters, e.g. "mon,tue,wed"
+    private Set<DayOfWeek> parseDays(String days) {
+        if (days == null) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(days.split(","))
+                .map(String::trim)
+                .map(day -> Arrays.stream(DayOfWeek.values())
+                        .filter(candidate -> day.length() >= 3
+                                && candidate.name().startsWith(day.toUpperCase(Locale.ROOT)))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("Unknown day: " + day)))
+                .collect(Collectors.toSet());
+    }
 }
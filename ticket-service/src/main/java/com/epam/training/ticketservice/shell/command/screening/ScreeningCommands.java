@@ -1,6 +1,11 @@
 package com.epam.training.ticketservice.shell.command.screening;
 
+import com.epam.training.ticketservice.core.screening.audit.ScheduleAuditor;
+import com.epam.training.ticketservice.core.screening.dto.MovieQuota;
+import com.epam.training.ticketservice.core.screening.exception.ScreeningImportException;
 import com.epam.training.ticketservice.core.screening.exception.ScreeningTimeClashException;
+import com.epam.training.ticketservice.core.screening.importer.ScreeningImporter;
+import com.epam.training.ticketservice.core.screening.schedule.ScheduleGenerator;
 import com.epam.training.ticketservice.core.screening.service.ScreeningService;
 import com.epam.training.ticketservice.core.security.service.SecurityService;
 import com.epam.training.ticketservice.shell.command.SecuredCommand;
@@ -8,10 +13,20 @@ import org.springframework.shell.standard.ShellCommandGroup;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellMethodAvailability;
+import org.springframework.shell.standard.ShellOption;
 
+import javax.persistence.EntityNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 
 @ShellComponent
@@ -20,18 +35,35 @@ public class ScreeningCommands  extends SecuredCommand {
 
     private final ScreeningService screeningService;
 
+    private final ScreeningImporter screeningImporter;
+
+    private final ScheduleGenerator scheduleGenerator;
+
+    private final ScheduleAuditor scheduleAuditor;
+
+    private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     public ScreeningCommands(SecurityService securityService,
-                             ScreeningService screeningService) {
+                             ScreeningService screeningService,
+                             ScreeningImporter screeningImporter,
+                             ScheduleGenerator scheduleGenerator,
+                             ScheduleAuditor scheduleAuditor) {
         super(securityService);
         this.screeningService = screeningService;
+        this.screeningImporter = screeningImporter;
+        this.scheduleGenerator = scheduleGenerator;
+        this.scheduleAuditor = scheduleAuditor;
     }
 
     @ShellMethod(
             key = {"list screenings"},
-            value = "Lists all screenings")
-    public List<String> listScreenings() {
+            value = "Lists all screenings, with --sales also the seats sold and the gross revenue")
+    public List<String> listScreenings(@ShellOption(defaultValue = "false") boolean sales) {
+        if (sales && !isPrivileged().isAvailable()) {
+            return List.of("You must have privileges to list sales");
+        }
         try {
-            var list = screeningService.list();
+            var list = sales ? screeningService.listWithSales() : screeningService.list();
             return list.isEmpty() ? Collections.singletonList("There are no screenings") : list;
         } catch (Exception e) {
             return List.of("Failed due to general error");
@@ -65,4 +97,82 @@ public class ScreeningCommands  extends SecuredCommand {
             return List.of("Failed to delete screening due to general error");
         }
     }
+
+    @ShellMethod(
+            key = {"import screenings"},
+            value = "Creates the screenings listed in a CSV file of movie title, room name and start date time lines")
+    @ShellMethodAvailability("isPrivileged")
+    public List<String> importScreenings(String fileName) {
+        try (var reader = Files.newBufferedReader(Path.of(fileName), StandardCharsets.UTF_8)) {
+            var imported = screeningImporter.importScreenings(reader);
+            return List.of(String.format("%d screenings imported", imported));
+        } catch (ScreeningImportException e) {
+            return e.getErrors();
+        } catch (IOException e) {
+            return List.of("Failed to read " + fileName);
+        } catch (Exception e) {
+            return List.of("Failed to import screenings due to general error");
+        }
+    }
+
+    @ShellMethod(
+            key = {"generate schedule"},
+            value = "Fills the opening hours of a room on a day with screenings of the given movies, "
+                    + "listed as title:count pairs separated by semicolons")
+    @ShellMethodAvailability("isPrivileged")
+    public List<String> generateSchedule(String roomName,
+                                         LocalDate date,
+                                         LocalTime opening,
+                                         LocalTime closing,
+                                         List<MovieQuota> movies) {
+        try {
+            var schedule = scheduleGenerator.generate(roomName, date, opening, closing, movies);
+            if (schedule.getScreenings().isEmpty()) {
+                return List.of("No screening fits into the opening hours");
+            }
+            var lines = schedule.getScreenings()
+                    .stream()
+                    .map(screening -> String.format("%s from %s to %s",
+                            screening.getMovieTitle(),
+                            screening.getStartDateTime().format(dateTimeFormatter),
+                            screening.getEndDateTime().format(dateTimeFormatter)))
+                    .collect(Collectors.toList());
+            lines.add(String.format("%d screenings scheduled, %d of %d free minutes used",
+                    schedule.getScreenings().size(),
+                    schedule.getUsedMinutes(),
+                    schedule.getFreeMinutes()));
+            return lines;
+        } catch (EntityNotFoundException | IllegalArgumentException e) {
+            return List.of(e.getMessage());
+        } catch (Exception e) {
+            return List.of("Failed to generate schedule due to general error");
+        }
+    }
+
+    @ShellMethod(
+            key = {"audit schedule"},
+            value = "Lists every pair of screenings that overlap or start within the break after another one")
+    @ShellMethodAvailability("isPrivileged")
+    public List<String> auditSchedule() {
+        try {
+            var audit = scheduleAuditor.audit();
+            var lines = audit.getClashes()
+                    .stream()
+                    .map(clash -> String.format("Room %s: %s at %s %s %s at %s",
+                            clash.getRoomName(),
+                            clash.getMovieTitle(),
+                            clash.getStartDateTime().format(dateTimeFormatter),
+                            clash.isOverlapping() ? "overlaps" : "leaves no break before",
+                            clash.getClashingMovieTitle(),
+                            clash.getClashingStartDateTime().format(dateTimeFormatter)))
+                    .collect(Collectors.toList());
+            lines.add(String.format("%d clashes found among %d screenings in %d rooms",
+                    audit.getClashes().size(),
+                    audit.getScreeningsChecked(),
+                    audit.getRoomsChecked()));
+            return lines;
+        } catch (Exception e) {
+            return List.of("Failed to audit schedule due to general error");
+        }
+    }
 }
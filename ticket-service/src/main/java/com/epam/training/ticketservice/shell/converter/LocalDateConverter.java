@@ -0,0 +1,18 @@
+package com.epam.training.ticketservice.shell.converter;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+@Component
+public class LocalDateConverter implements Converter<String, LocalDate> {
+
+    private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    @Override
+    public LocalDate convert(String s) {
+        return LocalDate.parse(s, dateFormatter);
+    }
+}
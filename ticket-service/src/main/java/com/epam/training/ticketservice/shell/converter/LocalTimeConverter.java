@@ -0,0 +1,18 @@
+package com.epam.training.ticketservice.shell.converter;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+@Component
+public class LocalTimeConverter implements Converter<String, LocalTime> {
+
+    private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+
+    @Override
+    public LocalTime convert(String s) {
+        return LocalTime.parse(s, timeFormatter);
+    }
+}
@@ -0,0 +1,30 @@
+package com.epam.training.ticketservice.shell.converter;
+
+import com.epam.training.ticketservice.core.screening.dto.MovieQuota;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// "Title A:3;Title B:2", the count follows the last colon so titles may hold colons themselves
+@Component
+public class MovieQuotaConverter implements Converter<String, List<MovieQuota>> {
+
+    @Override
+    public List<MovieQuota> convert(String movieQuotaListExpression) {
+        return Arrays.stream(movieQuotaListExpression.split(";"))
+                .map(movieQuotaExpression -> {
+                    var separator = movieQuotaExpression.lastIndexOf(':');
+                    if (separator < 1) {
+                        throw new RuntimeException("Invalid string expression was given for movie list");
+                    }
+                    return MovieQuota.builder()
+                            .movieTitle(movieQuotaExpression.substring(0, separator).trim())
+                            .count(Integer.parseInt(movieQuotaExpression.substring(separator + 1).trim()))
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -1,11 +1,15 @@
 package com.epam.training.ticketservice;
 
 import com.epam.training.ticketservice.core.account.repository.AccountRepository;
+import com.zaxxer.hikari.HikariDataSource;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
@@ -15,6 +19,9 @@ class TicketApplicationTest {
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private DataSource dataSource;
+
     @Test
     void contextLoads(){
 
@@ -26,4 +33,11 @@ class TicketApplicationTest {
         assertTrue(result.isPresent());
         assertTrue(result.get().isPrivileged());
     }
-}
\ No newline at end of file
+
+    // Without it MySQL buffers the whole result of a streamed query such as the schedule audit's
+    @Test
+    void cursorFetchIsEnabledForStreamedQueries(){
+        var properties = ((HikariDataSource) dataSource).getDataSourceProperties();
+        assertEquals("true", properties.getProperty("useCursorFetch"));
+    }
+}
@@ -0,0 +1,239 @@
+package com.epam.training.ticketservice.core.booking.dedup;
+
+import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingResponse;
+import com.epam.training.ticketservice.core.booking.dto.Seat;
+import com.epam.training.ticketservice.core.booking.entity.ProcessedBookingRequest;
+import com.epam.training.ticketservice.core.booking.entity.ProcessedBookingRequestId;
+import com.epam.training.ticketservice.core.booking.exception.RequestIdReusedException;
+import com.epam.training.ticketservice.core.booking.repository.ProcessedBookingRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultBookingRequestDeduplicatorTest {
+
+    private static final Instant START = Instant.parse("2000-01-01T10:00:00Z");
+
+    private static final ProcessedBookingRequestId ID = new ProcessedBookingRequestId("user", "r-1");
+
+    private static final String FINGERPRINT = "fingerprint";
+
+    @Mock
+    private ProcessedBookingRequestRepository processedBookingRequestRepository;
+
+    @Mock
+    private Clock clock;
+
+    private DefaultBookingRequestDeduplicator bookingRequestDeduplicator;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clock.getZone())
+                .thenReturn(ZoneOffset.UTC);
+        lenient().when(clock.instant())
+                .thenReturn(START);
+        bookingRequestDeduplicator = new DefaultBookingRequestDeduplicator(processedBookingRequestRepository,
+                2, Duration.ofHours(1), clock);
+    }
+
+    @Test
+    void givenRequestWasRemembered_whenFindResponse_thenReturnItWithoutQueryingAgain() {
+        // given
+        var response = createResponse();
+        when(processedBookingRequestRepository.findById(ID))
+                .thenReturn(Optional.empty());
+        bookingRequestDeduplicator.remember("user", "r-1", FINGERPRINT, response);
+        // when
+        var found = bookingRequestDeduplicator.findResponse("user", "r-1", FINGERPRINT);
+        // then
+        assertSame(response, found.orElseThrow());
+        verify(processedBookingRequestRepository, times(1))
+                .findById(ID);
+        verify(processedBookingRequestRepository, times(1))
+                .save(any(ProcessedBookingRequest.class));
+        verify(processedBookingRequestRepository, times(1))
+                .deleteAllCreatedBefore(LocalDateTime.of(2000, 1, 1, 9, 0));
+        verifyNoMoreInteractions(processedBookingRequestRepository);
+    }
+
+    @Test
+    void givenRequestIsOnlyStored_whenFindResponse_thenReadItFromRepository() {
+        // given
+        var processed = ProcessedBookingRequest.builder()
+                .id(ID)
+                .seats("5,5 5,6")
+                .sumPrice(3000)
+                .fingerprint(FINGERPRINT)
+                .createdAt(LocalDateTime.of(2000, 1, 1, 9, 30))
+                .build();
+        when(processedBookingRequestRepository.findById(ID))
+                .thenReturn(Optional.of(processed));
+        // when
+        var first = bookingRequestDeduplicator.findResponse("user", "r-1", FINGERPRINT);
+        var second = bookingRequestDeduplicator.findResponse("user", "r-1", FINGERPRINT);
+        // then
+        assertEquals(createResponse(), first.orElseThrow());
+        assertEquals(first, second);
+        verify(processedBookingRequestRepository, times(1))
+                .findById(ID);
+        verifyNoMoreInteractions(processedBookingRequestRepository);
+    }
+
+    @Test
+    void givenRequestIdWasUsedForOtherSeats_whenFindResponse_thenThrow() {
+        // given
+        when(processedBookingRequestRepository.findById(ID))
+                .thenReturn(Optional.empty());
+        bookingRequestDeduplicator.remember("user", "r-1", FINGERPRINT, createResponse());
+        // when
+        var actual = assertThrows(RequestIdReusedException.class,
+                () -> bookingRequestDeduplicator.findResponse("user", "r-1", "other fingerprint"));
+        // then
+        assertEquals(List.of("The request id r-1 was already used for a different booking"), actual.getErrors());
+    }
+
+    @Test
+    void givenStoredRequestHasNoFingerprint_whenFindResponse_thenReturnIt() {
+        // given
+        var processed = ProcessedBookingRequest.builder()
+                .id(ID)
+                .seats("5,5 5,6")
+                .sumPrice(3000)
+                .createdAt(LocalDateTime.of(2000, 1, 1, 9, 30))
+                .build();
+        when(processedBookingRequestRepository.findById(ID))
+                .thenReturn(Optional.of(processed));
+        // when
+        var found = bookingRequestDeduplicator.findResponse("user", "r-1", "any fingerprint");
+        // then
+        assertEquals(createResponse(), found.orElseThrow());
+    }
+
+    @Test
+    void givenRequestIsUnknown_whenFindResponse_thenReturnEmptyAndQueryAgainNextTime() {
+        // given
+        when(processedBookingRequestRepository.findById(ID))
+                .thenReturn(Optional.empty());
+        // when
+        var first = bookingRequestDeduplicator.findResponse("user", "r-1", FINGERPRINT);
+        var second = bookingRequestDeduplicator.findResponse("user", "r-1", FINGERPRINT);
+        // then
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        verify(processedBookingRequestRepository, times(2))
+                .findById(ID);
+        verifyNoMoreInteractions(processedBookingRequestRepository);
+    }
+
+    @Test
+    void givenTimeToLiveElapsed_whenFindResponse_thenReturnEmpty() {
+        // given
+        when(processedBookingRequestRepository.findById(ID))
+                .thenReturn(Optional.empty());
+        bookingRequestDeduplicator.remember("user", "r-1", FINGERPRINT, createResponse());
+        when(clock.instant())
+                .thenReturn(START.plus(Duration.ofHours(1)).plusSeconds(1));
+        // when
+        var found = bookingRequestDeduplicator.findResponse("user", "r-1", FINGERPRINT);
+        // then
+        assertTrue(found.isEmpty());
+    }
+
+    @Test
+    void givenSameRequestIdOfAnotherAccount_whenFindResponse_thenReturnEmpty() {
+        // given
+        when(processedBookingRequestRepository.findById(ID))
+                .thenReturn(Optional.empty());
+        bookingRequestDeduplicator.remember("user", "r-1", FINGERPRINT, createResponse());
+        var otherId = new ProcessedBookingRequestId("other", "r-1");
+        when(processedBookingRequestRepository.findById(otherId))
+                .thenReturn(Optional.empty());
+        // when
+        var found = bookingRequestDeduplicator.findResponse("other", "r-1", FINGERPRINT);
+        // then
+        assertTrue(found.isEmpty());
+    }
+
+    @Test
+    void givenExpiredRowIsNotPurgedYet_whenRemember_thenReuseIt() {
+        // given
+        var expired = ProcessedBookingRequest.builder()
+                .id(ID)
+                .seats("1,1")
+                .sumPrice(1500)
+                .createdAt(LocalDateTime.of(1999, 1, 1, 0, 0))
+                .build();
+        when(processedBookingRequestRepository.findById(ID))
+                .thenReturn(Optional.of(expired));
+        // when
+        bookingRequestDeduplicator.remember("user", "r-1", FINGERPRINT, createResponse());
+        // then
+        var captor = ArgumentCaptor.forClass(ProcessedBookingRequest.class);
+        verify(processedBookingRequestRepository, times(1))
+                .save(captor.capture());
+        assertSame(expired, captor.getValue());
+        assertEquals("5,5 5,6", expired.getSeats());
+        assertEquals(3000, expired.getSumPrice());
+        assertEquals(FINGERPRINT, expired.getFingerprint());
+        assertEquals(LocalDateTime.of(2000, 1, 1, 10, 0), expired.getCreatedAt());
+    }
+
+    @Test
+    void givenPurgeRanRecently_whenRemember_thenDoNotPurgeAgain() {
+        // given
+        when(processedBookingRequestRepository.findById(any()))
+                .thenReturn(Optional.empty());
+        bookingRequestDeduplicator.remember("user", "r-1", FINGERPRINT, createResponse());
+        when(clock.instant())
+                .thenReturn(START.plusSeconds(30));
+        // when
+        bookingRequestDeduplicator.remember("user", "r-2", FINGERPRINT, createResponse());
+        // then
+        verify(processedBookingRequestRepository, times(1))
+                .deleteAllCreatedBefore(any());
+    }
+
+    @Test
+    void givenCacheIsFull_whenRemember_thenEvictLeastRecentlyUsed() {
+        // given
+        when(processedBookingRequestRepository.findById(any()))
+                .thenReturn(Optional.empty());
+        bookingRequestDeduplicator.remember("user", "r-1", FINGERPRINT, createResponse());
+        bookingRequestDeduplicator.remember("user", "r-2", FINGERPRINT, createResponse());
+        bookingRequestDeduplicator.findResponse("user", "r-1", FINGERPRINT);
+        // when
+        bookingRequestDeduplicator.remember("user", "r-3", FINGERPRINT, createResponse());
+        bookingRequestDeduplicator.findResponse("user", "r-1", FINGERPRINT);
+        bookingRequestDeduplicator.findResponse("user", "r-2", FINGERPRINT);
+        // then
+        verify(processedBookingRequestRepository, times(1))
+                .findById(new ProcessedBookingRequestId("user", "r-1"));
+        verify(processedBookingRequestRepository, times(2))
+                .findById(new ProcessedBookingRequestId("user", "r-2"));
+    }
+
+    private MultiSeatBookingResponse createResponse() {
+        return MultiSeatBookingResponse.builder()
+                .seats(List.of(Seat.of(5, 5), Seat.of(5, 6)))
+                .sumPrice(3000)
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.epam.training.ticketservice.core.booking.hold;
+
+import com.epam.training.ticketservice.core.booking.dto.Seat;
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultSeatHoldRegistryTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    private final DefaultSeatHoldRegistry seatHoldRegistry =
+            new DefaultSeatHoldRegistry(Duration.ofSeconds(60), now::get);
+
+    private final ScreeningId screeningId = new ScreeningId(1L, 2L, LocalDateTime.of(2000, 1, 1, 10, 0));
+
+    @Test
+    void givenSeatIsHeld_whenIsHeldByOther_thenOnlyOtherAccountsSeeItHeld() {
+        // given
+        seatHoldRegistry.hold(screeningId, "sanyi", List.of(Seat.of(5, 5)));
+        // when
+        // then
+        assertTrue(seatHoldRegistry.isHeldByOther(screeningId, Seat.of(5, 5), "laci"));
+        assertFalse(seatHoldRegistry.isHeldByOther(screeningId, Seat.of(5, 5), "sanyi"));
+        assertFalse(seatHoldRegistry.isHeldByOther(screeningId, Seat.of(5, 6), "laci"));
+    }
+
+    @Test
+    void givenTimeToLiveElapsed_whenIsHeldByOther_thenReturnFalse() {
+        // given
+        seatHoldRegistry.hold(screeningId, "sanyi", List.of(Seat.of(5, 5)));
+        now.addAndGet(59_999);
+        assertTrue(seatHoldRegistry.isHeldByOther(screeningId, Seat.of(5, 5), "laci"));
+        // when
+        now.addAndGet(1);
+        // then
+        assertFalse(seatHoldRegistry.isHeldByOther(screeningId, Seat.of(5, 5), "laci"));
+    }
+
+    @Test
+    void givenSeatIsHeldAgain_whenFirstHoldExpires_thenSeatStaysHeld() {
+        // given
+        seatHoldRegistry.hold(screeningId, "sanyi", List.of(Seat.of(5, 5), Seat.of(5, 6)));
+        now.addAndGet(30_000);
+        seatHoldRegistry.hold(screeningId, "sanyi", List.of(Seat.of(5, 6)));
+        // when
+        now.addAndGet(30_000);
+        // then
+        assertFalse(seatHoldRegistry.isHeldByOther(screeningId, Seat.of(5, 5), "laci"));
+        assertTrue(seatHoldRegistry.isHeldByOther(screeningId, Seat.of(5, 6), "laci"));
+    }
+
+    @Test
+    void givenSeatIsHeldByAnotherAccount_whenHold_thenThrowAndHoldNothing() {
+        // given
+        seatHoldRegistry.hold(screeningId, "sanyi", List.of(Seat.of(5, 5)));
+        // when
+        assertThrows(IllegalStateException.class,
+                () -> seatHoldRegistry.hold(screeningId, "laci", List.of(Seat.of(5, 6), Seat.of(5, 5))));
+        // then
+        assertFalse(seatHoldRegistry.isHeldByOther(screeningId, Seat.of(5, 6), "sanyi"));
+    }
+
+    @Test
+    void givenAccountHoldsSeats_whenRelease_thenReleaseOnlyItsSeats() {
+        // given
+        seatHoldRegistry.hold(screeningId, "sanyi", List.of(Seat.of(5, 5), Seat.of(5, 6)));
+        seatHoldRegistry.hold(screeningId, "laci", List.of(Seat.of(6, 6)));
+        // when
+        var released = seatHoldRegistry.release(screeningId, "sanyi");
+        // then
+        assertEquals(2, released);
+        assertFalse(seatHoldRegistry.isHeldByOther(screeningId, Seat.of(5, 5), "laci"));
+        assertTrue(seatHoldRegistry.isHeldByOther(screeningId, Seat.of(6, 6), "sanyi"));
+        assertEquals(0, seatHoldRegistry.release(screeningId, "sanyi"));
+    }
+
+    @Test
+    void givenAccountHoldsSeats_whenReleaseSomeOfThem_thenKeepHoldingTheRest() {
+        // given
+        seatHoldRegistry.hold(screeningId, "sanyi", List.of(Seat.of(5, 5), Seat.of(5, 6), Seat.of(5, 7)));
+        seatHoldRegistry.hold(screeningId, "laci", List.of(Seat.of(6, 6)));
+        // when
+        var released = seatHoldRegistry.release(screeningId, "sanyi", List.of(Seat.of(5, 5), Seat.of(6, 6)));
+        // then
+        assertEquals(1, released);
+        assertFalse(seatHoldRegistry.isHeldByOther(screeningId, Seat.of(5, 5), "laci"));
+        assertTrue(seatHoldRegistry.isHeldByOther(screeningId, Seat.of(5, 6), "laci"));
+        assertTrue(seatHoldRegistry.isHeldByOther(screeningId, Seat.of(6, 6), "sanyi"));
+        now.addAndGet(60_000);
+        assertFalse(seatHoldRegistry.isHeldByOther(screeningId, Seat.of(5, 6), "laci"));
+    }
+
+    @Test
+    void givenSeatsAreHeldByManyAccounts_whenFindHeldByOthers_thenReturnOnlyOtherAccountsSeats() {
+        // given
+        seatHoldRegistry.hold(screeningId, "sanyi", List.of(Seat.of(5, 5)));
+        seatHoldRegistry.hold(screeningId, "laci", List.of(Seat.of(6, 6)));
+        // when
+        var heldByOthers = seatHoldRegistry.findHeldByOthers(screeningId, "laci");
+        // then
+        assertEquals(List.of(Seat.of(5, 5)), heldByOthers);
+    }
+}
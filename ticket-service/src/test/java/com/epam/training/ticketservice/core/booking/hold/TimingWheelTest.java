@@ -0,0 +1,92 @@
+package com.epam.training.ticketservice.core.booking.hold;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void givenSlotCountIsNotAPowerOfTwo_whenCreate_thenThrowIllegalArgumentException() {
+        // given
+        // when
+        // then
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(10, 100, 0));
+    }
+
+    @Test
+    void givenDeadlineNotReached_whenAdvanceTo_thenNothingExpires() {
+        // given
+        var timingWheel = new TimingWheel<String>(8, 100, 0);
+        var expired = new ArrayList<String>();
+        timingWheel.schedule("a", 250);
+        // when
+        timingWheel.advanceTo(299, expired::add);
+        // then
+        assertEquals(List.of(), expired);
+        assertEquals(1, timingWheel.size());
+    }
+
+    @Test
+    void givenDeadlineReached_whenAdvanceTo_thenExpireOnce() {
+        // given
+        var timingWheel = new TimingWheel<String>(8, 100, 0);
+        var expired = new ArrayList<String>();
+        timingWheel.schedule("a", 250);
+        // when
+        timingWheel.advanceTo(300, expired::add);
+        timingWheel.advanceTo(400, expired::add);
+        // then
+        assertEquals(List.of("a"), expired);
+        assertEquals(0, timingWheel.size());
+    }
+
+    @Test
+    void givenDeadlineIsSeveralRotationsAway_whenAdvanceTo_thenExpireOnlyInLastRotation() {
+        // given
+        var timingWheel = new TimingWheel<String>(4, 100, 0);
+        var expired = new ArrayList<String>();
+        timingWheel.schedule("late", 1000);
+        timingWheel.schedule("early", 200);
+        // when
+        timingWheel.advanceTo(900, expired::add);
+        // then
+        assertEquals(List.of("early"), expired);
+        timingWheel.advanceTo(1000, expired::add);
+        assertEquals(List.of("early", "late"), expired);
+    }
+
+    @Test
+    void givenTimeoutIsCancelled_whenAdvanceTo_thenNothingExpires() {
+        // given
+        var timingWheel = new TimingWheel<String>(8, 100, 0);
+        var expired = new ArrayList<String>();
+        var first = timingWheel.schedule("a", 100);
+        timingWheel.schedule("b", 100);
+        // when
+        timingWheel.cancel(first);
+        timingWheel.cancel(first);
+        timingWheel.advanceTo(100, expired::add);
+        // then
+        assertEquals(List.of("b"), expired);
+        assertFalse(first.isScheduled());
+    }
+
+    @Test
+    void givenWheelWasIdle_whenScheduleAfterwards_thenDeadlineIsRelativeToNow() {
+        // given
+        var timingWheel = new TimingWheel<String>(4, 100, 0);
+        var expired = new ArrayList<String>();
+        timingWheel.advanceTo(10_000, expired::add);
+        timingWheel.schedule("a", 10_200);
+        // when
+        timingWheel.advanceTo(10_100, expired::add);
+        // then
+        assertEquals(List.of(), expired);
+        timingWheel.advanceTo(10_200, expired::add);
+        assertEquals(List.of("a"), expired);
+    }
+}
@@ -0,0 +1,109 @@
+package com.epam.training.ticketservice.core.booking.lock;
+
+import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultScreeningLockManagerTest {
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void givenStripeCountIsNotAPowerOfTwo_whenCreate_thenRoundUp() {
+        // given
+        // when
+        var lockManager = new DefaultScreeningLockManager(10);
+        // then
+        assertEquals(16, lockManager.getStatistics().getStripes());
+    }
+
+    @Test
+    void givenStripeCountIsNotPositive_whenCreate_thenThrowIllegalArgumentException() {
+        // given
+        // when
+        // then
+        assertThrows(IllegalArgumentException.class, () -> new DefaultScreeningLockManager(0));
+    }
+
+    @Test
+    void givenNoTransaction_whenLockUntilCompletion_thenThrowIllegalStateException() {
+        // given
+        var lockManager = new DefaultScreeningLockManager(4);
+        var screeningId = new ScreeningId(1L, 2L, LocalDateTime.of(2000, 1, 1, 10, 0));
+        // when
+        // then
+        assertThrows(IllegalStateException.class, () -> lockManager.lockUntilCompletion(screeningId));
+    }
+
+    @Test
+    void givenScreeningIsLockedByAnotherTransaction_whenLockUntilCompletion_thenWaitAndCountContention()
+            throws InterruptedException {
+        // given
+        var lockManager = new DefaultScreeningLockManager(4);
+        var screeningId = new ScreeningId(1L, 2L, LocalDateTime.of(2000, 1, 1, 10, 0));
+        TransactionSynchronizationManager.initSynchronization();
+        lockManager.lockUntilCompletion(screeningId);
+        var acquired = new AtomicBoolean();
+        var finished = new CountDownLatch(1);
+        var other = new Thread(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            lockManager.lockUntilCompletion(screeningId);
+            acquired.set(true);
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_COMMITTED);
+            TransactionSynchronizationManager.clearSynchronization();
+            finished.countDown();
+        });
+        // when
+        other.start();
+        assertFalse(finished.await(100, TimeUnit.MILLISECONDS));
+        assertFalse(acquired.get());
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+        // then
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertTrue(acquired.get());
+        var statistics = lockManager.getStatistics();
+        assertEquals(2, statistics.getAcquisitions());
+        assertEquals(1, statistics.getContendedAcquisitions());
+        assertEquals(lockManager.stripeOf(screeningId), statistics.getBusiestStripe());
+        assertEquals(1, statistics.getBusiestStripeContentions());
+    }
+
+    @Test
+    void givenTransactionCompleted_whenLockUntilCompletionAgain_thenNoContention() {
+        // given
+        var lockManager = new DefaultScreeningLockManager(4);
+        var screeningId = new ScreeningId(1L, 2L, LocalDateTime.of(2000, 1, 1, 10, 0));
+        TransactionSynchronizationManager.initSynchronization();
+        lockManager.lockUntilCompletion(screeningId);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        // when
+        lockManager.lockUntilCompletion(screeningId);
+        // then
+        var statistics = lockManager.getStatistics();
+        assertEquals(2, statistics.getAcquisitions());
+        assertEquals(0, statistics.getContendedAcquisitions());
+    }
+}
@@ -0,0 +1,63 @@
+package com.epam.training.ticketservice.core.booking.occupancy;
+
+import com.epam.training.ticketservice.core.booking.dto.Seat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Excluded from the default build, timings depend on the machine. Run it with
+// mvn -pl ticket-service test -Dgroups=benchmark -Dsurefire.excluded-groups= -Dtest=DefaultBestSeatFinderBenchmarkTest
+@Tag("benchmark")
+class DefaultBestSeatFinderBenchmarkTest {
+
+    private static final int WARM_UP_ITERATIONS = 20_000;
+
+    private static final int MEASURED_ITERATIONS = 20_000;
+
+    private final DefaultBestSeatFinder bestSeatFinder = new DefaultBestSeatFinder();
+
+    @Test
+    void givenLargeRoomIsAlmostOrCompletelyFull_whenFindBestBlockRepeatedly_thenReportNanosPerSearch() {
+        // given
+        var random = new Random(42);
+        var almostFull = new SeatOccupancy(100, 100);
+        var full = new SeatOccupancy(100, 100);
+        for (int row = 1; row <= 100; row++) {
+            for (int column = 1; column <= 100; column++) {
+                full.take(row, column);
+                if (random.nextInt(100) < 85) {
+                    almostFull.take(row, column);
+                }
+            }
+        }
+        var unavailable = List.of(Seat.of(50, 50), Seat.of(51, 51));
+        measure(almostFull, unavailable, 4, WARM_UP_ITERATIONS);
+        measure(full, unavailable, 2, WARM_UP_ITERATIONS);
+        // when
+        var almostFullNanos = measure(almostFull, unavailable, 4, MEASURED_ITERATIONS);
+        var fullNanos = measure(full, unavailable, 2, MEASURED_ITERATIONS);
+        // then
+        System.out.printf("Best block of 4 in an almost full 100x100 room: %d ns per search%n", almostFullNanos);
+        System.out.printf("Best block of 2 in a full 100x100 room: %d ns per search%n", fullNanos);
+        assertTrue(bestSeatFinder.findBestBlock(almostFull, unavailable, 4).isPresent());
+        assertTrue(bestSeatFinder.findBestBlock(full, unavailable, 2).isEmpty());
+    }
+
+    // The found blocks are counted, so the searches cannot be optimised away
+    private long measure(SeatOccupancy occupancy, List<Seat> unavailable, int count, int iterations) {
+        var found = 0;
+        var start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (bestSeatFinder.findBestBlock(occupancy, unavailable, count).isPresent()) {
+                found++;
+            }
+        }
+        var nanosPerSearch = (System.nanoTime() - start) / iterations;
+        assertTrue(found == 0 || found == iterations);
+        return nanosPerSearch;
+    }
+}
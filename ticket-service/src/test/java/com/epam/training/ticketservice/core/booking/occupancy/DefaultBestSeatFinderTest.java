@@ -0,0 +1,113 @@
+package com.epam.training.ticketservice.core.booking.occupancy;
+
+import com.epam.training.ticketservice.core.booking.dto.Seat;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultBestSeatFinderTest {
+
+    private final DefaultBestSeatFinder bestSeatFinder = new DefaultBestSeatFinder();
+
+    @Test
+    void givenRoomIsEmpty_whenFindBestBlock_thenReturnCentreBlock() {
+        // given
+        var occupancy = new SeatOccupancy(10, 10);
+        // when
+        var block = bestSeatFinder.findBestBlock(occupancy, Collections.emptyList(), 2);
+        // then
+        assertEquals(Optional.of(List.of(Seat.of(5, 5), Seat.of(5, 6))), block);
+    }
+
+    @Test
+    void givenCentreSeatIsTaken_whenFindBestBlock_thenReturnClosestFreeBlock() {
+        // given
+        var occupancy = new SeatOccupancy(10, 10);
+        occupancy.take(5, 5);
+        // when
+        var block = bestSeatFinder.findBestBlock(occupancy, Collections.emptyList(), 2);
+        // then
+        assertEquals(Optional.of(List.of(Seat.of(6, 5), Seat.of(6, 6))), block);
+    }
+
+    @Test
+    void givenCentreSeatIsUnavailable_whenFindBestBlock_thenSkipIt() {
+        // given
+        var occupancy = new SeatOccupancy(10, 10);
+        // when
+        var block = bestSeatFinder.findBestBlock(occupancy, List.of(Seat.of(5, 5)), 2);
+        // then
+        assertEquals(Optional.of(List.of(Seat.of(6, 5), Seat.of(6, 6))), block);
+    }
+
+    @Test
+    void givenRunCrossesWordBoundary_whenFindBestBlock_thenFindIt() {
+        // given
+        var occupancy = new SeatOccupancy(1, 130);
+        for (int column = 1; column <= 130; column++) {
+            if (column < 60 || column > 70) {
+                occupancy.take(1, column);
+            }
+        }
+        // when
+        var block = bestSeatFinder.findBestBlock(occupancy, Collections.emptyList(), 11);
+        // then
+        assertEquals(Optional.of(List.of(Seat.of(1, 60), Seat.of(1, 61), Seat.of(1, 62), Seat.of(1, 63),
+                Seat.of(1, 64), Seat.of(1, 65), Seat.of(1, 66), Seat.of(1, 67), Seat.of(1, 68), Seat.of(1, 69),
+                Seat.of(1, 70))), block);
+    }
+
+    @Test
+    void givenNoRunIsLongEnough_whenFindBestBlock_thenReturnEmpty() {
+        // given
+        var occupancy = new SeatOccupancy(3, 10);
+        for (int row = 1; row <= 3; row++) {
+            occupancy.take(row, 4);
+            occupancy.take(row, 8);
+        }
+        // when
+        var block = bestSeatFinder.findBestBlock(occupancy, Collections.emptyList(), 4);
+        // then
+        assertEquals(Optional.empty(), block);
+    }
+
+    @Test
+    void givenCountIsNotPositiveOrWiderThanRoom_whenFindBestBlock_thenReturnEmpty() {
+        // given
+        var occupancy = new SeatOccupancy(3, 10);
+        // when
+        // then
+        assertEquals(Optional.empty(), bestSeatFinder.findBestBlock(occupancy, Collections.emptyList(), 0));
+        assertEquals(Optional.empty(), bestSeatFinder.findBestBlock(occupancy, Collections.emptyList(), 11));
+    }
+
+    @Test
+    void givenLargeRoomIsAlmostOrCompletelyFull_whenFindBestBlock_thenFindRemainingBlockOrNone() {
+        // given
+        var random = new Random(42);
+        var almostFull = new SeatOccupancy(100, 100);
+        var full = new SeatOccupancy(100, 100);
+        for (int row = 1; row <= 100; row++) {
+            for (int column = 1; column <= 100; column++) {
+                full.take(row, column);
+                if (random.nextInt(100) < 85) {
+                    almostFull.take(row, column);
+                }
+            }
+        }
+        var unavailable = List.of(Seat.of(50, 50), Seat.of(51, 51));
+        // when
+        var almostFullBlock = bestSeatFinder.findBestBlock(almostFull, unavailable, 4);
+        var fullBlock = bestSeatFinder.findBestBlock(full, unavailable, 2);
+        // then
+        assertTrue(almostFullBlock.isPresent());
+        assertTrue(almostFullBlock.get().stream()
+                .noneMatch(seat -> almostFull.isTaken(seat.getRow(), seat.getColumn())));
+        assertTrue(fullBlock.isEmpty());
+    }
+}
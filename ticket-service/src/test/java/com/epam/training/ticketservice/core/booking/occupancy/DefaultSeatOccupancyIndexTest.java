@@ -0,0 +1,156 @@
+package com.epam.training.ticketservice.core.booking.occupancy;
+
+import com.epam.training.ticketservice.core.booking.dto.Seat;
+import com.epam.training.ticketservice.core.booking.entity.BookingId;
+import com.epam.training.ticketservice.core.booking.repository.BookingRepository;
+import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.screening.entity.Screening;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultSeatOccupancyIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private DefaultSeatOccupancyIndex seatOccupancyIndex;
+
+    @Test
+    void givenScreeningIsNotLoaded_whenGet_thenLoadBookedSeatsOnce() {
+        // given
+        var room = createRoom(10, 20);
+        var screening = createScreening(room);
+        var bookingId = BookingId.builder()
+                .screeningId(screening.getId())
+                .row(5)
+                .column(6)
+                .build();
+        when(bookingRepository.findAllIdsByScreening(screening))
+                .thenReturn(List.of(bookingId));
+        // when
+        var first = seatOccupancyIndex.get(screening);
+        var second = seatOccupancyIndex.get(screening);
+        // then
+        assertSame(first, second);
+        assertTrue(first.isTaken(5, 6));
+        assertFalse(first.isTaken(6, 5));
+        verify(bookingRepository, times(1))
+                .findAllIdsByScreening(screening);
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void givenScreeningIsLoaded_whenOccupy_thenSeatsAreTakenWithoutQuery() {
+        // given
+        var room = createRoom(10, 20);
+        var screening = createScreening(room);
+        when(bookingRepository.findAllIdsByScreening(screening))
+                .thenReturn(Collections.emptyList());
+        seatOccupancyIndex.get(screening);
+        // when
+        seatOccupancyIndex.occupy(screening.getId(), List.of(Seat.of(1, 1), Seat.of(10, 20)));
+        // then
+        var occupancy = seatOccupancyIndex.get(screening);
+        assertTrue(occupancy.isTaken(1, 1));
+        assertTrue(occupancy.isTaken(10, 20));
+        verify(bookingRepository, times(1))
+                .findAllIdsByScreening(screening);
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void givenScreeningIsLoaded_whenRelease_thenSeatsAreFreeWithoutQuery() {
+        // given
+        var room = createRoom(10, 20);
+        var screening = createScreening(room);
+        var bookingId = BookingId.builder()
+                .screeningId(screening.getId())
+                .row(5)
+                .column(6)
+                .build();
+        when(bookingRepository.findAllIdsByScreening(screening))
+                .thenReturn(List.of(bookingId));
+        seatOccupancyIndex.get(screening);
+        // when
+        seatOccupancyIndex.release(screening.getId(), List.of(Seat.of(5, 6)));
+        // then
+        var occupancy = seatOccupancyIndex.get(screening);
+        assertFalse(occupancy.isTaken(5, 6));
+        verify(bookingRepository, times(1))
+                .findAllIdsByScreening(screening);
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void givenRoomWasResized_whenGet_thenReload() {
+        // given
+        var room = createRoom(10, 20);
+        var screening = createScreening(room);
+        when(bookingRepository.findAllIdsByScreening(screening))
+                .thenReturn(Collections.emptyList());
+        seatOccupancyIndex.get(screening);
+        room.setRows(30);
+        // when
+        var occupancy = seatOccupancyIndex.get(screening);
+        // then
+        assertTrue(occupancy.hasSize(30, 20));
+        verify(bookingRepository, times(2))
+                .findAllIdsByScreening(screening);
+    }
+
+    @Test
+    void givenScreeningIsEvicted_whenGet_thenReload() {
+        // given
+        var room = createRoom(10, 20);
+        var screening = createScreening(room);
+        when(bookingRepository.findAllIdsByScreening(screening))
+                .thenReturn(Collections.emptyList());
+        seatOccupancyIndex.get(screening);
+        // when
+        seatOccupancyIndex.evictAllByRoomId(room.getId());
+        seatOccupancyIndex.get(screening);
+        seatOccupancyIndex.evictAllByMovieId(screening.getId().getMovieId());
+        seatOccupancyIndex.get(screening);
+        seatOccupancyIndex.evict(screening.getId());
+        seatOccupancyIndex.get(screening);
+        // then
+        verify(bookingRepository, times(4))
+                .findAllIdsByScreening(screening);
+    }
+
+    private Room createRoom(int rows, int columns) {
+        return Room.builder()
+                .id(2L)
+                .name("roomA")
+                .rows(rows)
+                .columns(columns)
+                .build();
+    }
+
+    private Screening createScreening(Room room) {
+        var movie = Movie.builder()
+                .id(1L)
+                .title("movieA")
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build();
+        return Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(LocalDateTime.of(2000, 12, 10, 1, 2))
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.epam.training.ticketservice.core.booking.occupancy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatOccupancyTest {
+
+    @ParameterizedTest
+    @CsvSource({"1,1", "1,64", "1,65", "3,100", "100,100"})
+    void givenSeatIsTaken_whenIsTaken_thenReturnTrueOnlyForThatSeat(int row, int column) {
+        // given
+        var occupancy = new SeatOccupancy(100, 100);
+        // when
+        occupancy.take(row, column);
+        // then
+        assertTrue(occupancy.isTaken(row, column));
+        for (int r = 1; r <= 100; r++) {
+            for (int c = 1; c <= 100; c++) {
+                if (r != row || c != column) {
+                    assertFalse(occupancy.isTaken(r, c));
+                }
+            }
+        }
+    }
+
+    @Test
+    void givenSeatIsTaken_whenRelease_thenSeatIsFree() {
+        // given
+        var occupancy = new SeatOccupancy(10, 10);
+        occupancy.take(5, 5);
+        occupancy.take(5, 6);
+        // when
+        occupancy.release(5, 5);
+        // then
+        assertFalse(occupancy.isTaken(5, 5));
+        assertTrue(occupancy.isTaken(5, 6));
+    }
+
+    @Test
+    void givenSeatIsOutsideOfRoom_whenIsTaken_thenReturnFalse() {
+        // given
+        var occupancy = new SeatOccupancy(10, 20);
+        // when
+        // then
+        assertFalse(occupancy.isTaken(11, 1));
+        assertFalse(occupancy.isTaken(1, 21));
+        assertFalse(occupancy.isTaken(0, 1));
+    }
+
+    @Test
+    void givenSeatIsOutsideOfRoom_whenTake_thenThrow() {
+        // given
+        var occupancy = new SeatOccupancy(10, 20);
+        // when
+        // then
+        assertThrows(IndexOutOfBoundsException.class, () -> occupancy.take(1, 21));
+    }
+
+    @Test
+    void givenInvalidSize_whenCreate_thenThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new SeatOccupancy(0, 10));
+    }
+
+    @Test
+    void givenSeatsAreTaken_whenCopyFreeSeats_thenOnlyFreeSeatsInsideTheRowAreSet() {
+        // given
+        var occupancy = new SeatOccupancy(2, 70);
+        occupancy.take(2, 1);
+        occupancy.take(2, 65);
+        var free = new long[occupancy.getWordsPerRow()];
+        // when
+        occupancy.copyFreeSeats(2, free);
+        // then
+        assertEquals(2, free.length);
+        assertEquals(~1L, free[0]);
+        assertEquals(0b111110L, free[1]);
+    }
+}
@@ -0,0 +1,162 @@
+package com.epam.training.ticketservice.core.booking.pipeline;
+
+import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingRequest;
+import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingResponse;
+import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingResult;
+import com.epam.training.ticketservice.core.booking.dto.Seat;
+import com.epam.training.ticketservice.core.booking.exception.MultiSeatBookingNotPossibleException;
+import com.epam.training.ticketservice.core.booking.service.BookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultBookingPipelineTest {
+
+    @Mock
+    private BookingService bookingService;
+
+    private DefaultBookingPipeline bookingPipeline;
+
+    @BeforeEach
+    void setUp() {
+        bookingPipeline = new DefaultBookingPipeline(bookingService, 2, 5);
+    }
+
+    @Test
+    void givenMoreRequestsThanWindowSize_whenNextWindow_thenWindowIsCapped() throws InterruptedException {
+        // given
+        bookingPipeline.enqueue(createRequest("a", 1));
+        bookingPipeline.enqueue(createRequest("b", 2));
+        bookingPipeline.enqueue(createRequest("c", 3));
+        // when
+        var first = bookingPipeline.nextWindow();
+        var second = bookingPipeline.nextWindow();
+        // then
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+    }
+
+    @Test
+    void givenWindowIsBooked_whenProcess_thenEveryCallerGetsItsOwnResult() throws Exception {
+        // given
+        var first = createRequest("a", 1);
+        var second = createRequest("b", 1);
+        var firstResponse = MultiSeatBookingResponse.builder()
+                .sumPrice(1500)
+                .seats(first.getSeats())
+                .build();
+        var error = new MultiSeatBookingNotPossibleException(List.of("Seat (1,1) is already taken"));
+        when(bookingService.bookAll(List.of(first, second)))
+                .thenReturn(List.of(MultiSeatBookingResult.success(firstResponse), MultiSeatBookingResult.failure(error)));
+        var firstFuture = bookingPipeline.enqueue(first);
+        var secondFuture = bookingPipeline.enqueue(second);
+        // when
+        bookingPipeline.process(bookingPipeline.nextWindow());
+        // then
+        assertEquals(firstResponse, firstFuture.get());
+        var exception = assertThrows(ExecutionException.class, secondFuture::get);
+        assertSame(error, exception.getCause());
+        verify(bookingService, times(1))
+                .bookAll(List.of(first, second));
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    void givenWindowViolatesConstraint_whenProcess_thenBookRequestsOneByOne() throws Exception {
+        // given
+        var first = createRequest("a", 1);
+        var second = createRequest("b", 2);
+        var secondResponse = MultiSeatBookingResponse.builder()
+                .sumPrice(1500)
+                .seats(second.getSeats())
+                .build();
+        var error = new MultiSeatBookingNotPossibleException(List.of("Seat (1,1) is already taken"));
+        doThrow(DataIntegrityViolationException.class)
+                .when(bookingService)
+                .bookAll(List.of(first, second));
+        doThrow(error)
+                .when(bookingService)
+                .book(first);
+        when(bookingService.book(second))
+                .thenReturn(secondResponse);
+        var firstFuture = bookingPipeline.enqueue(first);
+        var secondFuture = bookingPipeline.enqueue(second);
+        // when
+        bookingPipeline.process(bookingPipeline.nextWindow());
+        // then
+        var exception = assertThrows(ExecutionException.class, firstFuture::get);
+        assertSame(error, exception.getCause());
+        assertEquals(secondResponse, secondFuture.get());
+    }
+
+    @Test
+    void givenWindowFailsForAnotherReason_whenProcess_thenBookRequestsOneByOne() throws Exception {
+        // given
+        var first = createRequest("a", 1);
+        var second = createRequest("b", 2);
+        var secondResponse = MultiSeatBookingResponse.builder()
+                .sumPrice(1500)
+                .seats(second.getSeats())
+                .build();
+        var error = new IllegalStateException("Could not flush the booking");
+        doThrow(CannotAcquireLockException.class)
+                .when(bookingService)
+                .bookAll(List.of(first, second));
+        doThrow(error)
+                .when(bookingService)
+                .book(first);
+        when(bookingService.book(second))
+                .thenReturn(secondResponse);
+        var firstFuture = bookingPipeline.enqueue(first);
+        var secondFuture = bookingPipeline.enqueue(second);
+        // when
+        assertDoesNotThrow(() -> bookingPipeline.process(bookingPipeline.nextWindow()));
+        // then
+        var exception = assertThrows(ExecutionException.class, firstFuture::get);
+        assertSame(error, exception.getCause());
+        assertEquals(secondResponse, secondFuture.get());
+    }
+
+    @Test
+    void givenPipelineIsRunning_whenSubmit_thenReturnResponse() throws InterruptedException {
+        // given
+        var request = createRequest("a", 1);
+        var response = MultiSeatBookingResponse.builder()
+                .sumPrice(1500)
+                .seats(request.getSeats())
+                .build();
+        when(bookingService.bookAll(List.of(request)))
+                .thenReturn(List.of(MultiSeatBookingResult.success(response)));
+        bookingPipeline.start();
+        try {
+            // when
+            var result = bookingPipeline.submit(request);
+            // then
+            assertEquals(response, result);
+        } finally {
+            bookingPipeline.stop();
+        }
+    }
+
+    private MultiSeatBookingRequest createRequest(String username, int row) {
+        return MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle("movie")
+                .roomName("room")
+                .startDateTime(LocalDateTime.of(2000, 1, 1, 10, 0))
+                .seats(List.of(Seat.of(row, 1)))
+                .build();
+    }
+}
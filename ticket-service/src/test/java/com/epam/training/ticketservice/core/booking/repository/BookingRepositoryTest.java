@@ -1,20 +1,28 @@
 package com.epam.training.ticketservice.core.booking.repository;
 
 import com.epam.training.ticketservice.core.account.entity.Account;
+import com.epam.training.ticketservice.core.booking.dto.BookedScreeningKey;
+import com.epam.training.ticketservice.core.booking.dto.Seat;
 import com.epam.training.ticketservice.core.booking.entity.Booking;
 import com.epam.training.ticketservice.core.booking.entity.BookingId;
 import com.epam.training.ticketservice.core.movie.entity.Movie;
 import com.epam.training.ticketservice.core.room.entity.Room;
 import com.epam.training.ticketservice.core.screening.entity.Screening;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -110,4 +118,336 @@ class BookingRepositoryTest {
         // then
         assertTrue(existingBookings.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenBookingsExist_whenFindAllIdsByScreening_thenReturnIdsOfThatScreeningOnly() {
+        // given
+        var account = Account.builder()
+                .username("someUsername")
+                .password("somePassword")
+                .build();
+        account = testEntityManager.persist(account);
+        var movie = Movie.builder()
+                .title("movieA")
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build();
+        movie = testEntityManager.persist(movie);
+        var room = Room.builder()
+                .name("roomA")
+                .rows(100)
+                .columns(100)
+                .build();
+        room = testEntityManager.persist(room);
+        var screening = Screening.builder()
+                .room(room)
+                .movie(movie)
+                .startDateTime(LocalDateTime.of(2000,12,1, 1,1))
+                .build();
+        screening = testEntityManager.persist(screening);
+        var otherScreening = Screening.builder()
+                .room(room)
+                .movie(movie)
+                .startDateTime(LocalDateTime.of(2000,12,2, 1,1))
+                .build();
+        otherScreening = testEntityManager.persist(otherScreening);
+        var booking = testEntityManager.persist(createBooking(screening, account, 10, 15));
+        testEntityManager.persist(createBooking(otherScreening, account, 1, 1));
+        // when
+        var ids = bookingRepository.findAllIdsByScreening(screening);
+        // then
+        assertEquals(List.of(booking.getId()), ids);
+    }
+
+    @Test
+    void givenSomeSeatsAreTaken_whenFindTakenSeats_thenReturnOnlyRequestedTakenSeats() {
+        // given
+        var account = Account.builder()
+                .username("someUsername")
+                .password("somePassword")
+                .build();
+        account = testEntityManager.persist(account);
+        var movie = Movie.builder()
+                .title("movieA")
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build();
+        movie = testEntityManager.persist(movie);
+        var room = Room.builder()
+                .name("roomA")
+                .rows(100)
+                .columns(100)
+                .build();
+        room = testEntityManager.persist(room);
+        var screening = Screening.builder()
+                .room(room)
+                .movie(movie)
+                .startDateTime(LocalDateTime.of(2000,12,1, 1,1))
+                .build();
+        screening = testEntityManager.persist(screening);
+        testEntityManager.persist(createBooking(screening, account, 10, 15));
+        testEntityManager.persist(createBooking(screening, account, 11, 16));
+        var seats = List.of(Seat.of(10, 16), Seat.of(10, 15), Seat.of(11, 15));
+        // when
+        var takenSeats = bookingRepository.findTakenSeats(screening, seats);
+        // then
+        assertEquals(List.of(Seat.of(10, 15)), takenSeats);
+    }
+
+    @Test
+    void givenBookingsOfSeveralAccounts_whenFindAllByScreeningAndOwnerAndSeatIn_thenReturnOwnRequestedSeatsOnly() {
+        // given
+        var account = testEntityManager.persist(Account.builder()
+                .username("someUsername")
+                .password("somePassword")
+                .build());
+        var otherAccount = testEntityManager.persist(Account.builder()
+                .username("otherUsername")
+                .password("somePassword")
+                .build());
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("movieA")
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build());
+        var room = testEntityManager.persist(Room.builder()
+                .name("roomA")
+                .rows(100)
+                .columns(100)
+                .build());
+        var screening = testEntityManager.persist(Screening.builder()
+                .room(room)
+                .movie(movie)
+                .startDateTime(LocalDateTime.of(2000,12,1, 1,1))
+                .build());
+        var booking = testEntityManager.persist(createBooking(screening, account, 10, 15));
+        testEntityManager.persist(createBooking(screening, account, 11, 16));
+        testEntityManager.persist(createBooking(screening, otherAccount, 10, 16));
+        var seats = List.of(Seat.of(10, 15), Seat.of(10, 16), Seat.of(11, 15));
+        // when
+        var bookings = bookingRepository.findAllByScreeningAndOwnerAndSeatIn(screening, account, seats);
+        // then
+        assertEquals(List.of(booking), bookings);
+    }
+
+    @Test
+    void givenBookingsExist_whenDeleteAllInBatch_thenDeleteOnlyThoseBookings() {
+        // given
+        var account = testEntityManager.persist(Account.builder()
+                .username("someUsername")
+                .password("somePassword")
+                .build());
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("movieA")
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build());
+        var room = testEntityManager.persist(Room.builder()
+                .name("roomA")
+                .rows(100)
+                .columns(100)
+                .build());
+        var screening = testEntityManager.persist(Screening.builder()
+                .room(room)
+                .movie(movie)
+                .startDateTime(LocalDateTime.of(2000,12,1, 1,1))
+                .build());
+        var first = testEntityManager.persist(createBooking(screening, account, 1, 1));
+        var second = testEntityManager.persist(createBooking(screening, account, 1, 2));
+        var kept = testEntityManager.persist(createBooking(screening, account, 1, 3));
+        testEntityManager.flush();
+        // when
+        bookingRepository.deleteAllInBatch(List.of(first, second));
+        // then
+        assertEquals(List.of(kept.getId()), bookingRepository.findAllIdsByScreening(screening));
+    }
+
+    @Test
+    void givenBookingsOfSeveralScreenings_whenFindBookedScreeningKeys_thenReturnPagesInKeysetOrder() {
+        // given
+        var account = testEntityManager.persist(Account.builder()
+                .username("someUsername")
+                .password("somePassword")
+                .build());
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("movieA")
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build());
+        var roomA = testEntityManager.persist(Room.builder()
+                .name("roomA")
+                .rows(100)
+                .columns(100)
+                .build());
+        var roomB = testEntityManager.persist(Room.builder()
+                .name("roomB")
+                .rows(100)
+                .columns(100)
+                .build());
+        var start = LocalDateTime.of(2000,12,1, 1,1);
+        var later = testEntityManager.persist(Screening.builder()
+                .room(roomA)
+                .movie(movie)
+                .startDateTime(start.plusDays(1))
+                .build());
+        var inRoomB = testEntityManager.persist(Screening.builder()
+                .room(roomB)
+                .movie(movie)
+                .startDateTime(start)
+                .build());
+        var inRoomA = testEntityManager.persist(Screening.builder()
+                .room(roomA)
+                .movie(movie)
+                .startDateTime(start)
+                .build());
+        testEntityManager.persist(createBooking(later, account, 3, 3));
+        testEntityManager.persist(createBooking(inRoomB, account, 1, 1));
+        testEntityManager.persist(createBooking(inRoomA, account, 2, 1));
+        testEntityManager.persist(createBooking(inRoomA, account, 1, 2));
+        testEntityManager.flush();
+        testEntityManager.clear();
+        // when
+        var firstPage = bookingRepository.findBookedScreeningKeysByOwner(account, PageRequest.of(0, 2));
+        var secondPage = bookingRepository.findBookedScreeningKeysByOwnerAfter(account,
+                start, "roomB", "movieA", PageRequest.of(0, 2));
+        // then
+        assertEquals(List.of(new BookedScreeningKey(start, "roomA", "movieA"),
+                new BookedScreeningKey(start, "roomB", "movieA")), firstPage);
+        assertEquals(List.of(new BookedScreeningKey(start.plusDays(1), "roomA", "movieA")), secondPage);
+    }
+
+    @Test
+    void givenBookingsOfSeveralAccounts_whenFindAllBookedSeatsByOwnerBetween_thenReturnOwnSeatsInRange() {
+        // given
+        var account = testEntityManager.persist(Account.builder()
+                .username("someUsername")
+                .password("somePassword")
+                .build());
+        var otherAccount = testEntityManager.persist(Account.builder()
+                .username("otherUsername")
+                .password("somePassword")
+                .build());
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("movieA")
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build());
+        var room = testEntityManager.persist(Room.builder()
+                .name("roomA")
+                .rows(100)
+                .columns(100)
+                .build());
+        var earlier = testEntityManager.persist(Screening.builder()
+                .room(room)
+                .movie(movie)
+                .startDateTime(LocalDateTime.of(2000,12,1, 1,1))
+                .build());
+        var later = testEntityManager.persist(Screening.builder()
+                .room(room)
+                .movie(movie)
+                .startDateTime(LocalDateTime.of(2000,12,2, 1,1))
+                .build());
+        testEntityManager.persist(createBooking(later, account, 3, 3));
+        testEntityManager.persist(createBooking(earlier, account, 2, 1));
+        testEntityManager.persist(createBooking(earlier, account, 1, 2));
+        testEntityManager.persist(createBooking(earlier, otherAccount, 1, 1));
+        testEntityManager.flush();
+        testEntityManager.clear();
+        var key = new BookedScreeningKey(LocalDateTime.of(2000,12,1, 1,1), "roomA", "movieA");
+        // when
+        var bookedSeats = bookingRepository.findAllBookedSeatsByOwnerBetween(account, key, key);
+        // then
+        assertEquals(List.of(Seat.of(1, 2), Seat.of(2, 1)), bookedSeats.stream()
+                .map(bookedSeat -> Seat.of(bookedSeat.getSeatRow(), bookedSeat.getSeatColumn()))
+                .collect(Collectors.toList()));
+        assertEquals(LocalDateTime.of(2000,12,1, 1,1), bookedSeats.get(0).getStartDateTime());
+        assertEquals("movieA", bookedSeats.get(0).getMovieTitle());
+        assertEquals("roomA", bookedSeats.get(0).getRoomName());
+        assertEquals(1000, bookedSeats.get(0).getPrice());
+    }
+
+    @Test
+    void givenSeatIsTakenByAnotherAccount_whenSaveAndFlush_thenThrowDataIntegrityViolationException() {
+        // given
+        var account = testEntityManager.persist(Account.builder()
+                .username("someUsername")
+                .password("somePassword")
+                .build());
+        var otherAccount = testEntityManager.persist(Account.builder()
+                .username("otherUsername")
+                .password("somePassword")
+                .build());
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("movieA")
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build());
+        var room = testEntityManager.persist(Room.builder()
+                .name("roomA")
+                .rows(100)
+                .columns(100)
+                .build());
+        var screening = testEntityManager.persist(Screening.builder()
+                .room(room)
+                .movie(movie)
+                .startDateTime(LocalDateTime.of(2000,12,1, 1,1))
+                .build());
+        bookingRepository.saveAndFlush(createBooking(screening, account, 10, 15));
+        var conflictingBooking = createBooking(screening, otherAccount, 10, 15);
+        // when
+        // then
+        assertThrows(DataIntegrityViolationException.class, () -> bookingRepository.saveAndFlush(conflictingBooking));
+    }
+
+    @Test
+    void givenScreeningHasBookings_whenSaveAllNewBookings_thenInsertWithoutLoadingScreeningBookings() {
+        // given
+        var account = testEntityManager.persist(Account.builder()
+                .username("someUsername")
+                .password("somePassword")
+                .build());
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("movieA")
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build());
+        var room = testEntityManager.persist(Room.builder()
+                .name("roomA")
+                .rows(100)
+                .columns(100)
+                .build());
+        var screeningId = testEntityManager.persist(Screening.builder()
+                .room(room)
+                .movie(movie)
+                .startDateTime(LocalDateTime.of(2000,12,1, 1,1))
+                .build()).getId();
+        testEntityManager.persist(createBooking(testEntityManager.find(Screening.class, screeningId), account, 1, 1));
+        testEntityManager.flush();
+        testEntityManager.clear();
+        var screening = testEntityManager.find(Screening.class, screeningId);
+        var owner = testEntityManager.find(Account.class, account.getId());
+        var newBooking = createBooking(screening, owner, 1, 2);
+        // when
+        bookingRepository.saveAll(List.of(newBooking));
+        bookingRepository.flush();
+        // then
+        assertFalse(newBooking.isNew());
+        assertFalse(Hibernate.isInitialized(screening.getBookings()));
+        assertEquals(2, bookingRepository.findAllIdsByScreening(screening).size());
+    }
+
+    private Booking createBooking(Screening screening, Account account, int row, int column) {
+        var bookingId = BookingId.builder()
+                .screeningId(screening.getId())
+                .accountId(account.getId())
+                .row(row)
+                .column(column)
+                .build();
+        return Booking.builder()
+                .id(bookingId)
+                .owner(account)
+                .screening(screening)
+                .price(1000)
+                .build();
+    }
+}
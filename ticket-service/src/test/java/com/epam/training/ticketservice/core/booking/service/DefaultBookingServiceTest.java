@@ -2,11 +2,23 @@ package com.epam.training.ticketservice.core.booking.service;
 
 import com.epam.training.ticketservice.core.account.entity.Account;
 import com.epam.training.ticketservice.core.account.repository.AccountRepository;
+import com.epam.training.ticketservice.core.booking.dedup.BookingRequestDeduplicator;
+import com.epam.training.ticketservice.core.booking.dedup.BookingRequestFingerprint;
+import com.epam.training.ticketservice.core.booking.dto.BookedScreeningKey;
+import com.epam.training.ticketservice.core.booking.dto.BookedSeatView;
 import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingRequest;
+import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingResponse;
 import com.epam.training.ticketservice.core.booking.dto.Seat;
 import com.epam.training.ticketservice.core.booking.entity.Booking;
 import com.epam.training.ticketservice.core.booking.entity.BookingId;
 import com.epam.training.ticketservice.core.booking.exception.MultiSeatBookingNotPossibleException;
+import com.epam.training.ticketservice.core.booking.hold.SeatHoldRegistry;
+import com.epam.training.ticketservice.core.booking.lock.ScreeningLockManager;
+import com.epam.training.ticketservice.core.booking.lock.ScreeningLockStatistics;
+import com.epam.training.ticketservice.core.booking.occupancy.BestSeatFinder;
+import com.epam.training.ticketservice.core.booking.occupancy.SeatOccupancy;
+import com.epam.training.ticketservice.core.booking.occupancy.SeatOccupancyIndex;
+import com.epam.training.ticketservice.core.booking.repository.BookingRepository;
 import com.epam.training.ticketservice.core.movie.entity.Movie;
 import com.epam.training.ticketservice.core.price.service.PriceService;
 import com.epam.training.ticketservice.core.room.entity.Room;
@@ -14,17 +26,25 @@ import com.epam.training.ticketservice.core.screening.entity.Screening;
 import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.persistence.EntityNotFoundException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,12 +56,30 @@ class DefaultBookingServiceTest {
     @Mock
     ScreeningRepository screeningRepository;
 
+    @Mock
+    BookingRepository bookingRepository;
+
     @Mock
     BookingValidator bookingValidator;
 
     @Mock
     PriceService priceService;
 
+    @Mock
+    SeatOccupancyIndex seatOccupancyIndex;
+
+    @Mock
+    ScreeningLockManager screeningLockManager;
+
+    @Mock
+    SeatHoldRegistry seatHoldRegistry;
+
+    @Mock
+    BestSeatFinder bestSeatFinder;
+
+    @Mock
+    BookingRequestDeduplicator bookingRequestDeduplicator;
+
     @InjectMocks
     DefaultBookingService bookingService;
 
@@ -154,7 +192,7 @@ class DefaultBookingServiceTest {
         var errors = List.of("error 1", "error 2");
         doThrow(new MultiSeatBookingNotPossibleException(errors))
                 .when(bookingValidator)
-                .validate(screening, seats);
+                .validate(screening, seats, username);
         // when
         var exception = assertThrows(MultiSeatBookingNotPossibleException.class, () -> bookingService.book(request));
         // then
@@ -164,7 +202,7 @@ class DefaultBookingServiceTest {
         verify(screeningRepository, times(1))
                 .findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime);
         verify(bookingValidator, times(1))
-                .validate(screening, seats);
+                .validate(screening, seats, username);
         verifyNoMoreInteractions(accountRepository);
         verifyNoMoreInteractions(screeningRepository);
         verifyNoMoreInteractions(bookingValidator);
@@ -172,7 +210,7 @@ class DefaultBookingServiceTest {
     }
 
     @Test
-    void givenScreeningRepositoryThrowsAnyRuntimeException_whenBook_thenThrowSameException() {
+    void givenBookingRepositoryThrowsAnyRuntimeException_whenBook_thenThrowSameException() {
         // given
         var username = "user";
         var movieTitle = "MovieA";
@@ -214,8 +252,8 @@ class DefaultBookingServiceTest {
         when(priceService.getPerSeatPriceBy(screening))
                 .thenReturn(1500);
         doThrow(RuntimeException.class)
-                .when(screeningRepository)
-                .save(screening);
+                .when(bookingRepository)
+                .flush();
         // when
          assertThrows(RuntimeException.class, () -> bookingService.book(request));
         // then;
@@ -224,13 +262,17 @@ class DefaultBookingServiceTest {
         verify(screeningRepository, times(1))
                 .findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime);
         verify(bookingValidator, times(1))
-                .validate(screening, seats);
-        verify(screeningRepository, times(1))
-                .save(screening);
+                .validate(screening, seats, username);
+        verify(bookingRepository, times(1))
+                .saveAll(anyList());
+        verify(bookingRepository, times(1))
+                .flush();
         verifyNoMoreInteractions(accountRepository);
         verifyNoMoreInteractions(screeningRepository);
+        verifyNoMoreInteractions(bookingRepository);
         verifyNoMoreInteractions(bookingValidator);
         verifyNoMoreInteractions(priceService);
+        verifyNoInteractions(seatOccupancyIndex);
     }
 
     @Test
@@ -277,51 +319,1113 @@ class DefaultBookingServiceTest {
                 .thenReturn(Optional.of(screening));
         when(priceService.getPerSeatPriceBy(screening))
                 .thenReturn(1500);
-        var bookingId = BookingId.builder()
-                .screeningId(screening.getId())
-                .accountId(account.getId())
-                .row(1)
-                .column(1)
-                .build();
-        var booking = Booking.builder()
-                .id(bookingId)
-                .owner(account)
-                .screening(screening)
-                .price(1500)
-                .build();
-        var screeningWithNewBookings = Screening.builder()
-                .startDateTime(startDateTime)
-                .room(room)
-                .movie(movie)
-                .build();
-        screeningWithNewBookings.getBookings().add(booking);
-        when(screeningRepository.save(screening))
-            .thenReturn(screeningWithNewBookings);
         // when
         bookingService.book(request);
         // then;
+        var bookingsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(bookingRepository, times(1))
+                .saveAll(bookingsCaptor.capture());
+        List<Booking> savedBookings = bookingsCaptor.getValue();
+        assertEquals(1, savedBookings.size());
+        assertEquals(1, savedBookings.get(0).getId().getRow());
+        assertEquals(1, savedBookings.get(0).getId().getColumn());
+        assertEquals(screening, savedBookings.get(0).getScreening());
+        assertEquals(account, savedBookings.get(0).getOwner());
+        assertEquals(1500, savedBookings.get(0).getPrice());
+        assertTrue(savedBookings.get(0).isNew());
+        assertTrue(screening.getBookings().isEmpty());
         verify(accountRepository, times(1))
                 .findByUsername(username);
         verify(screeningRepository, times(1))
                 .findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime);
+        verify(screeningLockManager, times(1))
+                .lockUntilCompletion(screening.getId());
         verify(bookingValidator, times(1))
-                .validate(screening, seats);
+                .validate(screening, seats, username);
+        verify(bookingRepository, times(1))
+                .flush();
         verify(screeningRepository, times(1))
-                .save(screening);
+                .addSales(screening.getId(), 1, 1500L);
+        verify(seatOccupancyIndex, times(1))
+                .occupy(screening.getId(), seats);
+        verify(seatHoldRegistry, times(1))
+                .release(screening.getId(), username, seats);
+        // Only the booked seats, the account may still hold others on the screening
+        verify(seatHoldRegistry, never())
+                .release(screening.getId(), username);
         verifyNoMoreInteractions(accountRepository);
         verifyNoMoreInteractions(screeningRepository);
+        verifyNoMoreInteractions(bookingRepository);
         verifyNoMoreInteractions(bookingValidator);
         verifyNoMoreInteractions(priceService);
+        verifyNoMoreInteractions(seatOccupancyIndex);
+        verifyNoMoreInteractions(screeningLockManager);
+        verifyNoMoreInteractions(seatHoldRegistry);
     }
 
     @Test
-    void givenAccountByUsernameDoesNotExist_whenListBookingsByAccount_thenThrow() {
+    void givenRequestIdWasAlreadyProcessed_whenBook_thenReturnOriginalResponse() {
+        // given
+        var username = "user";
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var seats = List.of(Seat.of(1,1));
+        var request = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .requestId("r-1")
+                .build();
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(Room.builder().id(2L).name(roomName).rows(10).columns(10).build())
+                .movie(Movie.builder().id(3L).title(movieTitle).genre("genreA").durationInMinutes(100).build())
+                .build();
+        var fingerprint = BookingRequestFingerprint.of(screening.getId(), seats);
+        var originalResponse = MultiSeatBookingResponse.builder()
+                .seats(seats)
+                .sumPrice(1500)
+                .build();
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        when(bookingRequestDeduplicator.findResponse(username, "r-1", fingerprint))
+                .thenReturn(Optional.of(originalResponse));
+        // when
+        var response = bookingService.book(request);
+        // then
+        assertEquals(originalResponse, response);
+        verify(screeningLockManager, times(1))
+                .lockUntilCompletion(screening.getId());
+        verify(bookingRequestDeduplicator, times(1))
+                .findResponse(username, "r-1", fingerprint);
+        verifyNoMoreInteractions(bookingRequestDeduplicator);
+        verifyNoInteractions(bookingValidator);
+        verifyNoInteractions(bookingRepository);
+        verifyNoInteractions(priceService);
+        verifyNoInteractions(seatOccupancyIndex);
+    }
+
+    @Test
+    void givenNewRequestId_whenBook_thenRememberResponse() {
+        // given
+        var username = "user";
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var seats = List.of(Seat.of(1,1));
+        var request = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .requestId("r-1")
+                .build();
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(Room.builder().id(2L).name(roomName).rows(10).columns(10).build())
+                .movie(Movie.builder().id(3L).title(movieTitle).genre("genreA").durationInMinutes(100).build())
+                .build();
+        var fingerprint = BookingRequestFingerprint.of(screening.getId(), seats);
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        when(bookingRequestDeduplicator.findResponse(username, "r-1", fingerprint))
+                .thenReturn(Optional.empty());
+        when(priceService.getPerSeatPriceBy(screening))
+                .thenReturn(1500);
+        // when
+        var response = bookingService.book(request);
+        // then
+        assertEquals(1500, response.getSumPrice());
+        assertEquals(seats, response.getSeats());
+        var inOrder = inOrder(bookingValidator, bookingRepository, bookingRequestDeduplicator);
+        inOrder.verify(bookingRequestDeduplicator, times(1))
+                .findResponse(username, "r-1", fingerprint);
+        inOrder.verify(bookingValidator, times(1))
+                .validate(screening, seats, username);
+        inOrder.verify(bookingRepository, times(1))
+                .saveAll(anyList());
+        inOrder.verify(bookingRequestDeduplicator, times(1))
+                .remember(username, "r-1", fingerprint, response);
+        verifyNoMoreInteractions(bookingRequestDeduplicator);
+    }
+
+    @Test
+    void givenRequestIdIsReusedForOtherSeatsInOneWindow_whenBookAll_thenRejectTheSecond() {
+        // given
+        var username = "user";
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var first = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(List.of(Seat.of(1,1)))
+                .requestId("r-1")
+                .build();
+        var second = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(List.of(Seat.of(2,2)))
+                .requestId("r-1")
+                .build();
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(Room.builder().id(2L).name(roomName).rows(10).columns(10).build())
+                .movie(Movie.builder().id(3L).title(movieTitle).genre("genreA").durationInMinutes(100).build())
+                .build();
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        when(bookingRequestDeduplicator.findResponse(username,
+                "r-1",
+                BookingRequestFingerprint.of(screening.getId(), first.getSeats())))
+                .thenReturn(Optional.empty());
+        when(priceService.getPerSeatPriceBy(screening, 0))
+                .thenReturn(1500);
+        // when
+        var results = bookingService.bookAll(List.of(first, second));
+        // then
+        assertEquals(1500, results.get(0).getResponse().getSumPrice());
+        assertNull(results.get(1).getResponse());
+        assertEquals(List.of("The request id r-1 was already used for a different booking"),
+                ((MultiSeatBookingNotPossibleException) results.get(1).getError()).getErrors());
+        verify(seatOccupancyIndex, times(1))
+                .occupy(screening.getId(), first.getSeats());
+        verifyNoMoreInteractions(seatOccupancyIndex);
+    }
+
+    @Test
+    void givenTwoRequestsForTheSameSeatInOneWindow_whenBookAll_thenOnlyTheFirstSucceeds() {
+        // given
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var seats = List.of(Seat.of(1,1));
+        var first = MultiSeatBookingRequest.builder()
+                .username("first")
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .build();
+        var second = MultiSeatBookingRequest.builder()
+                .username("second")
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .build();
+        var firstAccount = Account.builder()
+                .id(1L)
+                .username("first")
+                .password("pass")
+                .privileged(false)
+                .build();
+        var secondAccount = Account.builder()
+                .id(2L)
+                .username("second")
+                .password("pass")
+                .privileged(false)
+                .build();
+        var room = Room.builder()
+                .id(2L)
+                .name(roomName)
+                .rows(10)
+                .columns(10)
+                .build();
+        var movie = Movie.builder()
+                .id(3L)
+                .title(movieTitle)
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(room)
+                .movie(movie)
+                .build();
+        when(accountRepository.findByUsername("first"))
+                .thenReturn(Optional.of(firstAccount));
+        when(accountRepository.findByUsername("second"))
+                .thenReturn(Optional.of(secondAccount));
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        when(priceService.getPerSeatPriceBy(screening, 0))
+                .thenReturn(1500);
+        // when
+        var results = bookingService.bookAll(List.of(first, second));
+        // then
+        assertEquals(2, results.size());
+        assertEquals(1500, results.get(0).getResponse().getSumPrice());
+        assertNull(results.get(0).getError());
+        assertNull(results.get(1).getResponse());
+        assertEquals(List.of("Seat (1,1) is already taken"),
+                ((MultiSeatBookingNotPossibleException) results.get(1).getError()).getErrors());
+        var bookingsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(bookingRepository, times(1))
+                .saveAll(bookingsCaptor.capture());
+        assertEquals(1, bookingsCaptor.getValue().size());
+        assertTrue(screening.getBookings().isEmpty());
+        verify(screeningLockManager, times(2))
+                .lockUntilCompletion(screening.getId());
+        verify(bookingRepository, times(1))
+                .flush();
+        verify(screeningRepository, times(1))
+                .addSales(screening.getId(), 1, 1500L);
+        verify(seatOccupancyIndex, times(1))
+                .occupy(screening.getId(), seats);
+        verify(seatHoldRegistry, times(1))
+                .release(screening.getId(), "first", seats);
+        verifyNoMoreInteractions(seatOccupancyIndex);
+        verifyNoMoreInteractions(seatHoldRegistry);
+    }
+
+    @Test
+    void givenTwoRequestsForOneScreeningInOneWindow_whenBookAll_thenPriceTheSecondWithTheFirstsSeats() {
         // given
         var username = "user";
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var first = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(List.of(Seat.of(1,1), Seat.of(1,2)))
+                .build();
+        var second = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(List.of(Seat.of(2,2)))
+                .build();
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(Room.builder().id(2L).name(roomName).rows(10).columns(10).build())
+                .movie(Movie.builder().id(3L).title(movieTitle).genre("genreA").durationInMinutes(100).build())
+                .build();
         when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        when(priceService.getPerSeatPriceBy(screening, 0))
+                .thenReturn(1500);
+        when(priceService.getPerSeatPriceBy(screening, 2))
+                .thenReturn(2000);
+        // when
+        var results = bookingService.bookAll(List.of(first, second));
+        // then
+        assertEquals(3000, results.get(0).getResponse().getSumPrice());
+        assertEquals(2000, results.get(1).getResponse().getSumPrice());
+        verify(screeningRepository, times(1))
+                .addSales(screening.getId(), 3, 5000L);
+    }
+
+    @Test
+    void givenWindowFailsToFlush_whenBookAll_thenKeepTheHolds() {
+        // given
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var request = MultiSeatBookingRequest.builder()
+                .username("first")
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(List.of(Seat.of(1,1)))
+                .build();
+        var account = Account.builder()
+                .id(1L)
+                .username("first")
+                .password("pass")
+                .privileged(false)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(Room.builder()
+                        .id(2L)
+                        .name(roomName)
+                        .rows(10)
+                        .columns(10)
+                        .build())
+                .movie(Movie.builder()
+                        .id(3L)
+                        .title(movieTitle)
+                        .genre("genreA")
+                        .durationInMinutes(100)
+                        .build())
+                .build();
+        when(accountRepository.findByUsername("first"))
+                .thenReturn(Optional.of(account));
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        when(priceService.getPerSeatPriceBy(screening, 0))
+                .thenReturn(1500);
+        doThrow(DataIntegrityViolationException.class)
+                .when(bookingRepository)
+                .flush();
+        // Stands in for the window's transaction, which the failed flush rolls back
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when
+            assertThrows(DataIntegrityViolationException.class, () -> bookingService.bookAll(List.of(request)));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(
+                            TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        // then
+        verify(seatHoldRegistry, never())
+                .release(screening.getId(), "first", request.getSeats());
+    }
+
+    @Test
+    void givenOneRequestHasUnknownAccount_whenBookAll_thenOnlyThatRequestFails() {
+        // given
+        var request = MultiSeatBookingRequest.builder()
+                .username("ghost")
+                .movieTitle("MovieA")
+                .roomName("roomA")
+                .startDateTime(LocalDateTime.of(2000,12,1,1,0))
+                .seats(List.of(Seat.of(1,1)))
+                .build();
+        when(accountRepository.findByUsername("ghost"))
                 .thenReturn(Optional.empty());
         // when
-        assertThrows(EntityNotFoundException.class, () -> bookingService.listBookingsByAccount(username));
+        var results = bookingService.bookAll(List.of(request));
         // then
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).getError() instanceof EntityNotFoundException);
+        verify(bookingRepository, times(1))
+                .saveAll(List.of());
+        verify(bookingRepository, times(1))
+                .flush();
+        verifyNoMoreInteractions(bookingRepository);
+        verifyNoInteractions(screeningRepository);
+        verifyNoInteractions(bookingValidator);
+    }
+
+    @Test
+    void givenFreeBlockExists_whenBookBest_thenBookFoundSeats() {
+        // given
+        var username = "user";
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        var room = Room.builder()
+                .id(2L)
+                .name(roomName)
+                .rows(10)
+                .columns(10)
+                .build();
+        var movie = Movie.builder()
+                .id(3L)
+                .title(movieTitle)
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(room)
+                .movie(movie)
+                .build();
+        var occupancy = new SeatOccupancy(10, 10);
+        var heldByOthers = List.of(Seat.of(5, 5));
+        var seats = List.of(Seat.of(6, 5), Seat.of(6, 6));
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        when(seatOccupancyIndex.get(screening))
+                .thenReturn(occupancy);
+        when(seatHoldRegistry.findHeldByOthers(screening.getId(), username))
+                .thenReturn(heldByOthers);
+        when(bestSeatFinder.findBestBlock(occupancy, heldByOthers, 2))
+                .thenReturn(Optional.of(seats));
+        when(priceService.getPerSeatPriceBy(screening))
+                .thenReturn(1500);
+        // when
+        var response = bookingService.bookBest(username, movieTitle, roomName, startDateTime, 2);
+        // then
+        assertEquals(seats, response.getSeats());
+        assertEquals(3000, response.getSumPrice());
+        verify(screeningLockManager, times(1))
+                .lockUntilCompletion(screening.getId());
+        verify(bookingValidator, times(1))
+                .validate(screening, seats, username);
+        verify(bookingRepository, times(1))
+                .saveAll(anyList());
+        verify(bookingRepository, times(1))
+                .flush();
+        verify(screeningRepository, times(1))
+                .addSales(screening.getId(), 2, 3000L);
+        verify(seatOccupancyIndex, times(1))
+                .occupy(screening.getId(), seats);
+        verify(seatHoldRegistry, times(1))
+                .release(screening.getId(), username, seats);
+    }
+
+    @Test
+    void givenNoFreeBlockExists_whenBookBest_thenThrowMultiSeatBookingNotPossibleException() {
+        // given
+        var username = "user";
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        var room = Room.builder()
+                .id(2L)
+                .name(roomName)
+                .rows(10)
+                .columns(10)
+                .build();
+        var movie = Movie.builder()
+                .id(3L)
+                .title(movieTitle)
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(room)
+                .movie(movie)
+                .build();
+        var occupancy = new SeatOccupancy(10, 10);
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        when(seatOccupancyIndex.get(screening))
+                .thenReturn(occupancy);
+        when(seatHoldRegistry.findHeldByOthers(screening.getId(), username))
+                .thenReturn(List.of());
+        when(bestSeatFinder.findBestBlock(occupancy, List.of(), 11))
+                .thenReturn(Optional.empty());
+        // when
+        var exception = assertThrows(MultiSeatBookingNotPossibleException.class,
+                () -> bookingService.bookBest(username, movieTitle, roomName, startDateTime, 11));
+        // then
+        assertEquals(List.of("There are no 11 adjacent free seats in a row"), exception.getErrors());
+        verifyNoInteractions(bookingValidator);
+        verifyNoInteractions(priceService);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void givenNumberOfSeatsIsNotPositive_whenBookBest_thenThrowMultiSeatBookingNotPossibleException() {
+        // when
+        var exception = assertThrows(MultiSeatBookingNotPossibleException.class,
+                () -> bookingService.bookBest("user", "MovieA", "roomA", LocalDateTime.of(2000,12,1,1,0), 0));
+        // then
+        assertEquals(List.of("The number of seats must be at least 1"), exception.getErrors());
+        verifyNoInteractions(accountRepository);
+        verifyNoInteractions(screeningRepository);
+        verifyNoInteractions(bestSeatFinder);
+    }
+
+    @Test
+    void givenSeatsAreBookedByAccount_whenCancel_thenDeleteThemAndReleaseSeats() {
+        // given
+        var username = "user";
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var seats = List.of(Seat.of(1,1), Seat.of(1,2));
+        var request = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .build();
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(Room.builder().id(2L).name(roomName).rows(10).columns(10).build())
+                .movie(Movie.builder().id(3L).title(movieTitle).genre("genreA").durationInMinutes(100).build())
+                .build();
+        var firstBooking = Booking.builder()
+                .id(BookingId.builder().screeningId(screening.getId()).accountId(1L).row(1).column(1).build())
+                .screening(screening)
+                .owner(account)
+                .price(1500)
+                .build();
+        var secondBooking = Booking.builder()
+                .id(BookingId.builder().screeningId(screening.getId()).accountId(1L).row(1).column(2).build())
+                .screening(screening)
+                .owner(account)
+                .price(2000)
+                .build();
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        when(bookingRepository.findAllByScreeningAndOwnerAndSeatIn(screening, account, seats))
+                .thenReturn(List.of(firstBooking, secondBooking));
+        // when
+        var response = bookingService.cancel(request);
+        // then
+        assertEquals(seats, response.getSeats());
+        assertEquals(3500, response.getSumPrice());
+        verify(screeningLockManager, times(1))
+                .lockUntilCompletion(screening.getId());
+        verify(bookingRepository, times(1))
+                .findAllByScreeningAndOwnerAndSeatIn(screening, account, seats);
+        verify(bookingRepository, times(1))
+                .deleteAllInBatch(List.of(firstBooking, secondBooking));
+        verify(screeningRepository, times(1))
+                .addSales(screening.getId(), -2, -3500L);
+        verify(seatOccupancyIndex, times(1))
+                .release(screening.getId(), seats);
+        verifyNoMoreInteractions(bookingRepository);
+        verifyNoMoreInteractions(seatOccupancyIndex);
+        verifyNoInteractions(priceService);
+    }
+
+    @Test
+    void givenSeatIsNotBookedByAccount_whenCancel_thenThrowAndDeleteNothing() {
+        // given
+        var username = "user";
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var seats = List.of(Seat.of(1,1), Seat.of(1,2));
+        var request = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .build();
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(Room.builder().id(2L).name(roomName).rows(10).columns(10).build())
+                .movie(Movie.builder().id(3L).title(movieTitle).genre("genreA").durationInMinutes(100).build())
+                .build();
+        var booking = Booking.builder()
+                .id(BookingId.builder().screeningId(screening.getId()).accountId(1L).row(1).column(1).build())
+                .screening(screening)
+                .owner(account)
+                .price(1500)
+                .build();
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        when(bookingRepository.findAllByScreeningAndOwnerAndSeatIn(screening, account, seats))
+                .thenReturn(List.of(booking));
+        // when
+        var exception = assertThrows(MultiSeatBookingNotPossibleException.class, () -> bookingService.cancel(request));
+        // then
+        assertEquals(List.of("Seat (1,2) is not booked by you"), exception.getErrors());
+        verify(bookingRepository, times(1))
+                .findAllByScreeningAndOwnerAndSeatIn(screening, account, seats);
+        verifyNoMoreInteractions(bookingRepository);
+        verifyNoInteractions(seatOccupancyIndex);
+    }
+
+    @Test
+    void givenValidRequest_whenHold_thenHoldSeats() {
+        // given
+        var username = "user";
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var seats = List.of(Seat.of(1,1), Seat.of(1,2));
+        var request = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .build();
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        var room = Room.builder()
+                .id(2L)
+                .name(roomName)
+                .rows(10)
+                .columns(10)
+                .build();
+        var movie = Movie.builder()
+                .id(3L)
+                .title(movieTitle)
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(room)
+                .movie(movie)
+                .build();
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        when(seatHoldRegistry.getTimeToLive())
+                .thenReturn(Duration.ofMinutes(10));
+        // when
+        var response = bookingService.hold(request);
+        // then
+        assertEquals(seats, response.getSeats());
+        assertEquals(Duration.ofMinutes(10), response.getTimeToLive());
+        var inOrder = inOrder(screeningLockManager, bookingValidator, seatHoldRegistry);
+        inOrder.verify(screeningLockManager, times(1))
+                .lockUntilCompletion(screening.getId());
+        inOrder.verify(bookingValidator, times(1))
+                .validate(screening, seats, username);
+        inOrder.verify(seatHoldRegistry, times(1))
+                .hold(screening.getId(), username, seats);
+        verify(seatHoldRegistry, times(1))
+                .getTimeToLive();
+        verifyNoMoreInteractions(screeningLockManager);
+        verifyNoMoreInteractions(bookingValidator);
+        verifyNoMoreInteractions(seatHoldRegistry);
+        verifyNoInteractions(priceService);
+        verifyNoInteractions(seatOccupancyIndex);
+    }
+
+    @Test
+    void givenValidatorFindsCollisions_whenHold_thenThrowAndHoldNothing() {
+        // given
+        var username = "user";
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var seats = List.of(Seat.of(1,1));
+        var request = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .build();
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        var room = Room.builder()
+                .id(2L)
+                .name(roomName)
+                .rows(10)
+                .columns(10)
+                .build();
+        var movie = Movie.builder()
+                .id(3L)
+                .title(movieTitle)
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(room)
+                .movie(movie)
+                .build();
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        var errors = List.of("Seat (1,1) is already taken");
+        doThrow(new MultiSeatBookingNotPossibleException(errors))
+                .when(bookingValidator)
+                .validate(screening, seats, username);
+        // when
+        var exception = assertThrows(MultiSeatBookingNotPossibleException.class, () -> bookingService.hold(request));
+        // then
+        assertEquals(errors, exception.getErrors());
+        verifyNoInteractions(seatHoldRegistry);
+    }
+
+    @Test
+    void givenScreeningExists_whenReleaseHold_thenReturnReleasedSeatCount() {
+        // given
+        var username = "user";
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var room = Room.builder()
+                .id(2L)
+                .name(roomName)
+                .rows(10)
+                .columns(10)
+                .build();
+        var movie = Movie.builder()
+                .id(3L)
+                .title(movieTitle)
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(room)
+                .movie(movie)
+                .build();
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        when(seatHoldRegistry.release(screening.getId(), username))
+                .thenReturn(2);
+        // when
+        var released = bookingService.releaseHold(username, movieTitle, roomName, startDateTime);
+        // then
+        assertEquals(2, released);
+        verify(seatHoldRegistry, times(1))
+                .release(screening.getId(), username);
+        verifyNoMoreInteractions(seatHoldRegistry);
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void givenLockManagerHasStatistics_whenGetLockStatistics_thenReturnThem() {
+        // given
+        var statistics = ScreeningLockStatistics.builder()
+                .stripes(64)
+                .acquisitions(10)
+                .contendedAcquisitions(2)
+                .busiestStripe(3)
+                .busiestStripeContentions(2)
+                .build();
+        when(screeningLockManager.getStatistics())
+                .thenReturn(statistics);
+        // when
+        var result = bookingService.getLockStatistics();
+        // then
+        assertEquals(statistics, result);
+        verify(screeningLockManager, times(1))
+                .getStatistics();
+        verifyNoMoreInteractions(screeningLockManager);
+    }
+
+    @Test
+    void givenSeatWasTakenConcurrently_whenBook_thenThrowMultiSeatBookingNotPossibleException() {
+        // given
+        var username = "user";
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var seats = List.of(Seat.of(1,1));
+        var request = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .build();
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        var room = Room.builder()
+                .id(2L)
+                .name(roomName)
+                .rows(10)
+                .columns(10)
+                .build();
+        var movie = Movie.builder()
+                .id(3L)
+                .title(movieTitle)
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(room)
+                .movie(movie)
+                .build();
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        when(priceService.getPerSeatPriceBy(screening))
+                .thenReturn(1500);
+        doThrow(DataIntegrityViolationException.class)
+                .when(bookingRepository)
+                .flush();
+        var errors = List.of("Seat (1,1) is already taken");
+        doThrow(new MultiSeatBookingNotPossibleException(errors))
+                .when(bookingValidator)
+                .validateAgainstStoredBookings(screening, seats);
+        // when
+        var exception = assertThrows(MultiSeatBookingNotPossibleException.class, () -> bookingService.book(request));
+        // then
+        assertEquals(errors, exception.getErrors());
+        verify(bookingValidator, times(1))
+                .validate(screening, seats, username);
+        verify(bookingValidator, times(1))
+                .validateAgainstStoredBookings(screening, seats);
+        verifyNoMoreInteractions(bookingValidator);
+        verifyNoInteractions(seatOccupancyIndex);
+    }
+
+    @Test
+    void givenConstraintViolationIsNotASeatConflict_whenBook_thenThrowSameException() {
+        // given
+        var username = "user";
+        var movieTitle = "MovieA";
+        var roomName = "roomA";
+        var startDateTime = LocalDateTime.of(2000,12,1,1,0);
+        var seats = List.of(Seat.of(1,1));
+        var request = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .build();
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        var room = Room.builder()
+                .id(2L)
+                .name(roomName)
+                .rows(10)
+                .columns(10)
+                .build();
+        var movie = Movie.builder()
+                .id(3L)
+                .title(movieTitle)
+                .genre("genreA")
+                .durationInMinutes(100)
+                .build();
+        var screening = Screening.builder()
+                .startDateTime(startDateTime)
+                .room(room)
+                .movie(movie)
+                .build();
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
+                .thenReturn(Optional.of(screening));
+        when(priceService.getPerSeatPriceBy(screening))
+                .thenReturn(1500);
+        doThrow(DataIntegrityViolationException.class)
+                .when(bookingRepository)
+                .flush();
+        // when
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.book(request));
+        // then
+        verify(bookingValidator, times(1))
+                .validate(screening, seats, username);
+        verify(bookingValidator, times(1))
+                .validateAgainstStoredBookings(screening, seats);
+        verifyNoMoreInteractions(bookingValidator);
+        verifyNoInteractions(seatOccupancyIndex);
+    }
+
+    @Test
+    void givenAccountByUsernameDoesNotExist_whenListBookingsByAccount_thenThrow() {
+        // given
+        var username = "user";
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.empty());
+        // when
+        assertThrows(EntityNotFoundException.class, () -> bookingService.listBookingsByAccount(username, null, 20));
+        // then
+    }
+
+    @Test
+    void givenAccountHasBookings_whenListBookingsByAccount_thenGroupConsecutiveSeatsByScreening() {
+        // given
+        var username = "user";
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        var first = LocalDateTime.of(2000,12,1,1,0);
+        var second = LocalDateTime.of(2000,12,2,1,0);
+        var firstKey = new BookedScreeningKey(first, "roomA", "MovieA");
+        var secondKey = new BookedScreeningKey(second, "roomA", "MovieA");
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        when(bookingRepository.findBookedScreeningKeysByOwner(account, PageRequest.of(0, 21)))
+                .thenReturn(List.of(firstKey, secondKey));
+        when(bookingRepository.findAllBookedSeatsByOwnerBetween(account, firstKey, secondKey))
+                .thenReturn(List.of(
+                        createBookedSeat("MovieA", "roomA", first, 1, 1, 1500),
+                        createBookedSeat("MovieA", "roomA", first, 1, 2, 1500),
+                        createBookedSeat("MovieA", "roomA", second, 5, 5, 2000)));
+        // when
+        var page = bookingService.listBookingsByAccount(username, null, 20);
+        // then
+        assertEquals(List.of(
+                "Seats (1,1), (1,2) on MovieA in room roomA starting at 2000-12-01 01:00 for 3000 HUF",
+                "Seats (5,5) on MovieA in room roomA starting at 2000-12-02 01:00 for 2000 HUF"),
+                page.getBookings());
+        assertNull(page.getNextCursor());
+        verify(accountRepository, times(1))
+                .findByUsername(username);
+        verify(bookingRepository, times(1))
+                .findBookedScreeningKeysByOwner(account, PageRequest.of(0, 21));
+        verify(bookingRepository, times(1))
+                .findAllBookedSeatsByOwnerBetween(account, firstKey, secondKey);
+        verifyNoMoreInteractions(accountRepository);
+        verifyNoMoreInteractions(bookingRepository);
+        verifyNoInteractions(screeningRepository);
+    }
+
+    @Test
+    void givenMoreScreeningsThanPageSize_whenListBookingsByAccount_thenReturnCursorThatContinuesAfterPage() {
+        // given
+        var username = "user";
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        var firstKey = new BookedScreeningKey(LocalDateTime.of(2000,12,1,1,0), "roomA", "MovieA");
+        var secondKey = new BookedScreeningKey(LocalDateTime.of(2000,12,2,1,0), "roomA", "MovieA");
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        when(bookingRepository.findBookedScreeningKeysByOwner(account, PageRequest.of(0, 2)))
+                .thenReturn(List.of(firstKey, secondKey));
+        when(bookingRepository.findAllBookedSeatsByOwnerBetween(account, firstKey, firstKey))
+                .thenReturn(List.of(createBookedSeat("MovieA", "roomA", firstKey.getStartDateTime(), 1, 1, 1500)));
+        var firstPage = bookingService.listBookingsByAccount(username, null, 1);
+        when(bookingRepository.findBookedScreeningKeysByOwnerAfter(account,
+                firstKey.getStartDateTime(), "roomA", "MovieA", PageRequest.of(0, 2)))
+                .thenReturn(List.of(secondKey));
+        when(bookingRepository.findAllBookedSeatsByOwnerBetween(account, secondKey, secondKey))
+                .thenReturn(List.of(createBookedSeat("MovieA", "roomA", secondKey.getStartDateTime(), 5, 5, 2000)));
+        // when
+        var secondPage = bookingService.listBookingsByAccount(username, firstPage.getNextCursor(), 1);
+        // then
+        assertEquals(List.of("Seats (1,1) on MovieA in room roomA starting at 2000-12-01 01:00 for 1500 HUF"),
+                firstPage.getBookings());
+        assertEquals(List.of("Seats (5,5) on MovieA in room roomA starting at 2000-12-02 01:00 for 2000 HUF"),
+                secondPage.getBookings());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void givenCursorIsMalformed_whenListBookingsByAccount_thenThrowIllegalArgumentException() {
+        // given
+        var username = "user";
+        var account = Account.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .privileged(false)
+                .build();
+        when(accountRepository.findByUsername(username))
+                .thenReturn(Optional.of(account));
+        // when
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.listBookingsByAccount(username, "garbage!", 20));
+        // then
+        verifyNoInteractions(bookingRepository);
+    }
+
+    private BookedSeatView createBookedSeat(String movieTitle,
+                                            String roomName,
+                                            LocalDateTime startDateTime,
+                                            int row,
+                                            int column,
+                                            int price) {
+        return new BookedSeatView() {
+            @Override
+            public String getMovieTitle() {
+                return movieTitle;
+            }
+
+            @Override
+            public String getRoomName() {
+                return roomName;
+            }
+
+            @Override
+            public LocalDateTime getStartDateTime() {
+                return startDateTime;
+            }
+
+            @Override
+            public int getSeatRow() {
+                return row;
+            }
+
+            @Override
+            public int getSeatColumn() {
+                return column;
+            }
+
+            @Override
+            public int getPrice() {
+                return price;
+            }
+        };
     }
 }
\ No newline at end of file
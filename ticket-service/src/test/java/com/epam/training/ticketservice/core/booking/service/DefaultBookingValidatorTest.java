@@ -1,9 +1,10 @@
 package com.epam.training.ticketservice.core.booking.service;
 
 import com.epam.training.ticketservice.core.booking.dto.Seat;
-import com.epam.training.ticketservice.core.booking.entity.Booking;
-import com.epam.training.ticketservice.core.booking.entity.BookingId;
 import com.epam.training.ticketservice.core.booking.exception.MultiSeatBookingNotPossibleException;
+import com.epam.training.ticketservice.core.booking.hold.SeatHoldRegistry;
+import com.epam.training.ticketservice.core.booking.occupancy.SeatOccupancy;
+import com.epam.training.ticketservice.core.booking.occupancy.SeatOccupancyIndex;
 import com.epam.training.ticketservice.core.booking.repository.BookingRepository;
 import com.epam.training.ticketservice.core.movie.entity.Movie;
 import com.epam.training.ticketservice.core.room.entity.Room;
@@ -18,15 +19,22 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class DefaultBookingValidatorTest {
 
+    @Mock
+    private SeatOccupancyIndex seatOccupancyIndex;
+
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private SeatHoldRegistry seatHoldRegistry;
+
     @InjectMocks
     private DefaultBookingValidator bookingValidator;
 
@@ -40,13 +48,13 @@ class DefaultBookingValidatorTest {
         var room = createRoom(10, 20);
         var startDateTime = LocalDateTime.of(2000, 12, 10, 1, 2);
         var screening = createScreening(room, movie, startDateTime);
-        when(bookingRepository.findAllByScreeningAndIdRowAndIdColumn(screening, row, column))
-                .thenReturn(Collections.emptyList());
+        when(seatOccupancyIndex.get(screening))
+                .thenReturn(new SeatOccupancy(10, 20));
         // when
-        assertThrows(MultiSeatBookingNotPossibleException.class, () -> bookingValidator.validate(screening, seats));
+        assertThrows(MultiSeatBookingNotPossibleException.class, () -> bookingValidator.validate(screening, seats, "user"));
         // then
-        verify(bookingRepository, times(1))
-            .findAllByScreeningAndIdRowAndIdColumn(screening, row, column);
+        verify(seatOccupancyIndex, times(1))
+                .get(screening);
     }
 
     @Test
@@ -59,13 +67,13 @@ class DefaultBookingValidatorTest {
         var room = createRoom(10, 20);
         var startDateTime = LocalDateTime.of(2000, 12, 10, 1, 2);
         var screening = createScreening(room, movie, startDateTime);
-        when(bookingRepository.findAllByScreeningAndIdRowAndIdColumn(screening, row, column))
-                .thenReturn(Collections.emptyList());
+        when(seatOccupancyIndex.get(screening))
+                .thenReturn(new SeatOccupancy(10, 20));
         // when
-        assertThrows(MultiSeatBookingNotPossibleException.class, () -> bookingValidator.validate(screening, seats));
+        assertThrows(MultiSeatBookingNotPossibleException.class, () -> bookingValidator.validate(screening, seats, "user"));
         // then
-        verify(bookingRepository, times(1))
-                .findAllByScreeningAndIdRowAndIdColumn(screening, row, column);
+        verify(seatOccupancyIndex, times(1))
+                .get(screening);
     }
 
     @Test
@@ -78,15 +86,45 @@ class DefaultBookingValidatorTest {
         var room = createRoom(10, 20);
         var startDateTime = LocalDateTime.of(2000, 12, 10, 1, 2);
         var screening = createScreening(room, movie, startDateTime);
-        var booking = createBooking(row, column);
-        when(bookingRepository.findAllByScreeningAndIdRowAndIdColumn(screening, row, column))
-                .thenReturn(List.of(booking));
+        var occupancy = new SeatOccupancy(10, 20);
+        occupancy.take(row, column);
+        when(seatOccupancyIndex.get(screening))
+                .thenReturn(occupancy);
         // when
-        assertThrows(MultiSeatBookingNotPossibleException.class, () -> bookingValidator.validate(screening, seats));
+        assertThrows(MultiSeatBookingNotPossibleException.class, () -> bookingValidator.validate(screening, seats, "user"));
         // then
-        verify(bookingRepository, times(1))
-                .findAllByScreeningAndIdRowAndIdColumn(screening, row, column);
-        verifyNoMoreInteractions(bookingRepository);
+        verify(seatOccupancyIndex, times(1))
+                .get(screening);
+        verifyNoMoreInteractions(seatOccupancyIndex);
+        verifyNoInteractions(bookingRepository);
+        verifyNoInteractions(seatHoldRegistry);
+    }
+
+    @Test
+    void givenSeatIsHeldByAnotherAccount_whenValidate_thenThrow() {
+        // given
+        var seat = Seat.of(10, 20);
+        var seats = List.of(seat);
+        var movie = createMovie();
+        var room = createRoom(10, 20);
+        var startDateTime = LocalDateTime.of(2000, 12, 10, 1, 2);
+        var screening = createScreening(room, movie, startDateTime);
+        when(seatOccupancyIndex.get(screening))
+                .thenReturn(new SeatOccupancy(10, 20));
+        when(seatHoldRegistry.isHeldByOther(screening.getId(), seat, "user"))
+                .thenReturn(true);
+        // when
+        var exception = assertThrows(MultiSeatBookingNotPossibleException.class,
+                () -> bookingValidator.validate(screening, seats, "user"));
+        // then
+        assertEquals(List.of("Seat (10,20) is already taken"), exception.getErrors());
+        verify(seatOccupancyIndex, times(1))
+                .get(screening);
+        verify(seatHoldRegistry, times(1))
+                .isHeldByOther(screening.getId(), seat, "user");
+        verifyNoMoreInteractions(seatOccupancyIndex);
+        verifyNoMoreInteractions(seatHoldRegistry);
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
@@ -99,14 +137,60 @@ class DefaultBookingValidatorTest {
         var room = createRoom(10, 20);
         var startDateTime = LocalDateTime.of(2000, 12, 10, 1, 2);
         var screening = createScreening(room, movie, startDateTime);
-        when(bookingRepository.findAllByScreeningAndIdRowAndIdColumn(screening, row, column))
+        when(seatOccupancyIndex.get(screening))
+                .thenReturn(new SeatOccupancy(10, 20));
+        // when
+        bookingValidator.validate(screening, seats, "user");
+        // then
+        verify(seatOccupancyIndex, times(1))
+                .get(screening);
+        verify(seatHoldRegistry, times(1))
+                .isHeldByOther(screening.getId(), Seat.of(row, column), "user");
+        verifyNoMoreInteractions(seatOccupancyIndex);
+        verifyNoMoreInteractions(seatHoldRegistry);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void givenSeatsAreStoredAsTaken_whenValidateAgainstStoredBookings_thenThrowAndEvict() {
+        // given
+        var seats = List.of(Seat.of(1, 1), Seat.of(1, 2));
+        var movie = createMovie();
+        var room = createRoom(10, 20);
+        var startDateTime = LocalDateTime.of(2000, 12, 10, 1, 2);
+        var screening = createScreening(room, movie, startDateTime);
+        when(bookingRepository.findTakenSeats(screening, seats))
+                .thenReturn(List.of(Seat.of(1, 2)));
+        // when
+        var exception = assertThrows(MultiSeatBookingNotPossibleException.class,
+                () -> bookingValidator.validateAgainstStoredBookings(screening, seats));
+        // then
+        assertEquals(List.of("Seat (1,2) is already taken"), exception.getErrors());
+        verify(seatOccupancyIndex, times(1))
+                .evict(screening.getId());
+        verify(bookingRepository, times(1))
+                .findTakenSeats(screening, seats);
+        verifyNoMoreInteractions(seatOccupancyIndex);
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void givenNoSeatIsStoredAsTaken_whenValidateAgainstStoredBookings_thenReturn() {
+        // given
+        var seats = List.of(Seat.of(1, 1));
+        var movie = createMovie();
+        var room = createRoom(10, 20);
+        var startDateTime = LocalDateTime.of(2000, 12, 10, 1, 2);
+        var screening = createScreening(room, movie, startDateTime);
+        when(bookingRepository.findTakenSeats(screening, seats))
                 .thenReturn(Collections.emptyList());
         // when
-        bookingValidator.validate(screening, seats);
+        bookingValidator.validateAgainstStoredBookings(screening, seats);
         // then
         verify(bookingRepository, times(1))
-                .findAllByScreeningAndIdRowAndIdColumn(screening, row, column);
+                .findTakenSeats(screening, seats);
         verifyNoMoreInteractions(bookingRepository);
+        verifyNoInteractions(seatOccupancyIndex);
     }
 
 
@@ -133,16 +217,4 @@ class DefaultBookingValidatorTest {
                 .columns(cols)
                 .build();
     }
-
-    private Booking createBooking(int row, int column) {
-        var bookingId = BookingId.builder()
-                .row(row)
-                .column(column)
-                .build();
-        var booking = Booking.builder()
-                .id(bookingId)
-                .price(1500)
-                .build();
-        return booking;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.epam.training.ticketservice.core.catalogue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultCatalogueVersionsTest {
+
+    private final DefaultCatalogueVersions catalogueVersions = new DefaultCatalogueVersions();
+
+    @Test
+    void givenNoTransaction_whenBump_thenOnlyThatAggregateChanges() {
+        // given
+        var movie = catalogueVersions.current(CatalogueAggregate.MOVIE);
+        var room = catalogueVersions.current(CatalogueAggregate.ROOM);
+        // when
+        catalogueVersions.bump(CatalogueAggregate.MOVIE);
+        // then
+        assertEquals(movie + 1, catalogueVersions.current(CatalogueAggregate.MOVIE));
+        assertEquals(room, catalogueVersions.current(CatalogueAggregate.ROOM));
+    }
+
+    @Test
+    void givenAnyDependencyIsBumped_whenCurrentOfSeveral_thenVersionChanges() {
+        // given
+        var before = catalogueVersions.current(CatalogueAggregate.MOVIE,
+                CatalogueAggregate.ROOM,
+                CatalogueAggregate.SCREENING);
+        // when
+        catalogueVersions.bump(CatalogueAggregate.ROOM);
+        // then
+        assertNotEquals(before, catalogueVersions.current(CatalogueAggregate.MOVIE,
+                CatalogueAggregate.ROOM,
+                CatalogueAggregate.SCREENING));
+    }
+
+    @Test
+    void givenTransactionIsActive_whenBump_thenVersionChangesOnlyAfterCompletion() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            var before = catalogueVersions.current(CatalogueAggregate.SCREENING);
+            // when
+            catalogueVersions.bump(CatalogueAggregate.SCREENING);
+            // then
+            assertEquals(before, catalogueVersions.current(CatalogueAggregate.SCREENING));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(
+                            TransactionSynchronization.STATUS_COMMITTED));
+            assertEquals(before + 1, catalogueVersions.current(CatalogueAggregate.SCREENING));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
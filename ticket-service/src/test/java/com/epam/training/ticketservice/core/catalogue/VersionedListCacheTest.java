@@ -0,0 +1,55 @@
+package com.epam.training.ticketservice.core.catalogue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedListCacheTest {
+
+    private final VersionedListCache listCache = new VersionedListCache();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void givenVersionIsUnchanged_whenGet_thenLoadOnce() {
+        // given
+        listCache.get(1L, () -> load("a"));
+        // when
+        var lines = listCache.get(1L, () -> load("b"));
+        // then
+        assertEquals(List.of("a"), lines);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void givenVersionChanged_whenGet_thenLoadAgain() {
+        // given
+        listCache.get(1L, () -> load("a"));
+        // when
+        var lines = listCache.get(2L, () -> load("b"));
+        // then
+        assertEquals(List.of("b"), lines);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void givenNewerVersionIsCached_whenOlderVersionIsLoaded_thenKeepNewerEntry() {
+        // given
+        listCache.get(2L, () -> load("new"));
+        // when
+        var stale = listCache.get(1L, () -> load("old"));
+        var lines = listCache.get(2L, () -> load("other"));
+        // then
+        assertEquals(List.of("old"), stale);
+        assertEquals(List.of("new"), lines);
+        assertEquals(2, loads.get());
+    }
+
+    private List<String> load(String line) {
+        loads.incrementAndGet();
+        return List.of(line);
+    }
+}
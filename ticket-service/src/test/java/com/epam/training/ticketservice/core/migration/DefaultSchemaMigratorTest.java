@@ -0,0 +1,84 @@
+package com.epam.training.ticketservice.core.migration;
+
+import com.epam.training.ticketservice.core.migration.entity.AppliedMigration;
+import com.epam.training.ticketservice.core.migration.repository.AppliedMigrationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultSchemaMigratorTest {
+
+    @Mock
+    private SchemaMigration migration;
+
+    @Mock
+    private AppliedMigrationRepository appliedMigrationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DefaultSchemaMigrator schemaMigrator;
+
+    @BeforeEach
+    void setUp() {
+        schemaMigrator = new DefaultSchemaMigrator(List.of(migration),
+                appliedMigrationRepository,
+                new TransactionTemplate(transactionManager));
+        when(migration.getName())
+                .thenReturn("migration");
+    }
+
+    @Test
+    void givenMigrationIsNotApplied_whenMigrate_thenApplyAndRecordIt() {
+        // given
+        when(appliedMigrationRepository.existsById("migration"))
+                .thenReturn(false);
+        // when
+        schemaMigrator.migrate();
+        // then
+        verify(appliedMigrationRepository, times(1))
+                .saveAndFlush(any(AppliedMigration.class));
+        verify(migration, times(1))
+                .apply();
+    }
+
+    @Test
+    void givenMigrationIsApplied_whenMigrate_thenSkipIt() {
+        // given
+        when(appliedMigrationRepository.existsById("migration"))
+                .thenReturn(true);
+        // when
+        schemaMigrator.migrate();
+        // then
+        verify(migration, never())
+                .apply();
+        verify(appliedMigrationRepository, never())
+                .saveAndFlush(any(AppliedMigration.class));
+    }
+
+    @Test
+    void givenAnotherInstanceRecordsMigrationFirst_whenMigrate_thenSkipIt() {
+        // given
+        when(appliedMigrationRepository.existsById("migration"))
+                .thenReturn(false);
+        when(appliedMigrationRepository.saveAndFlush(any(AppliedMigration.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        // when
+        assertDoesNotThrow(() -> schemaMigrator.migrate());
+        // then
+        verify(migration, never())
+                .apply();
+    }
+}
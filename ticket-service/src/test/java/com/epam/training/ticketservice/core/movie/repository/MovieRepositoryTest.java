@@ -1,12 +1,14 @@
 package com.epam.training.ticketservice.core.movie.repository;
 
 import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.price.entity.PriceComponent;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
 import javax.validation.ConstraintViolationException;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -195,4 +197,83 @@ class MovieRepositoryTest {
         // then
         assertTrue(movieViewProjectionResult.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenEntitiesExist_whenFindLongestDurationInMinutes_thenReturnLongest() {
+        // given
+        movieRepository.save(Movie.builder()
+                .title("short")
+                .genre("some genre")
+                .durationInMinutes(10)
+                .build());
+        movieRepository.save(Movie.builder()
+                .title("long")
+                .genre("some genre")
+                .durationInMinutes(450)
+                .build());
+        // when
+        var result = movieRepository.findLongestDurationInMinutes();
+        // then
+        assertEquals(Optional.of(450), result);
+    }
+
+    @Test
+    void givenNoEntityExists_whenFindLongestDurationInMinutes_thenReturnEmpty() {
+        // when
+        var result = movieRepository.findLongestDurationInMinutes();
+        // then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void givenEntityExists_whenAddToPriceComponentTotal_thenTotalIsIncrementedInPlace() {
+        // given
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("title")
+                .genre("genre")
+                .durationInMinutes(10)
+                .build());
+        // when
+        movieRepository.addToPriceComponentTotal(movie.getId(), 100);
+        movieRepository.addToPriceComponentTotal(movie.getId(), 250);
+        testEntityManager.clear();
+        // then
+        assertEquals(350, testEntityManager.find(Movie.class, movie.getId()).getPriceComponentTotal());
+    }
+
+    @Test
+    void givenComponentsAttached_whenRecomputePriceComponentTotalsContaining_thenOnlyThoseMoviesAreRecomputed() {
+        // given
+        var fee = testEntityManager.persist(PriceComponent.builder()
+                .name("fee")
+                .price(300)
+                .build());
+        var other = testEntityManager.persist(PriceComponent.builder()
+                .name("other")
+                .price(20)
+                .build());
+        var withFee = Movie.builder()
+                .title("with fee")
+                .genre("genre")
+                .durationInMinutes(10)
+                .build();
+        withFee.getPriceComponents().add(fee);
+        withFee.getPriceComponents().add(other);
+        withFee = testEntityManager.persist(withFee);
+        var withoutFee = Movie.builder()
+                .title("without fee")
+                .genre("genre")
+                .durationInMinutes(10)
+                .build();
+        withoutFee.getPriceComponents().add(other);
+        withoutFee = testEntityManager.persist(withoutFee);
+        testEntityManager.flush();
+        // when
+        var updated = movieRepository.recomputePriceComponentTotalsContaining(fee);
+        testEntityManager.clear();
+        // then
+        assertEquals(1, updated);
+        assertEquals(320, testEntityManager.find(Movie.class, withFee.getId()).getPriceComponentTotal());
+        assertEquals(0, testEntityManager.find(Movie.class, withoutFee.getId()).getPriceComponentTotal());
+    }
+}
@@ -1,7 +1,17 @@
 package com.epam.training.ticketservice.core.movie.service;
 
+import com.epam.training.ticketservice.core.booking.occupancy.SeatOccupancyIndex;
+import com.epam.training.ticketservice.core.catalogue.CatalogueAggregate;
+import com.epam.training.ticketservice.core.catalogue.CatalogueVersions;
 import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.movie.exception.MovieDurationClashException;
 import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.screening.dto.ScreeningSlot;
+import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.exception.ScreeningTimeClashException;
+import com.epam.training.ticketservice.core.screening.service.ScreeningTimeClashService;
+import com.epam.training.ticketservice.core.screening.timeline.ScreeningTimeline;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -10,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +34,18 @@ class DefaultMovieServiceTest {
     @Mock
     private MovieRepository movieRepository;
 
+    @Mock
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Mock
+    private ScreeningTimeline screeningTimeline;
+
+    @Mock
+    private ScreeningTimeClashService screeningTimeClashService;
+
+    @Mock
+    private CatalogueVersions catalogueVersions;
+
     @InjectMocks
     private DefaultMovieService movieService;
 
@@ -88,6 +111,46 @@ class DefaultMovieServiceTest {
         verifyNoMoreInteractions(movieRepository);
     }
 
+    @Test
+    void givenVersionIsUnchanged_whenListTwice_thenQueryOnce(){
+        // given
+        var movie = Movie.builder()
+                .id(1L)
+                .title("title")
+                .genre("genre")
+                .durationInMinutes(10)
+                .build();
+        when(catalogueVersions.current(CatalogueAggregate.MOVIE))
+                .thenReturn(3L);
+        when(movieRepository.findAll())
+                .thenReturn(List.of(movie));
+        // when
+        var first = movieService.list();
+        var second = movieService.list();
+        // then
+        assertEquals(List.of("title (genre, 10 minutes)"), first);
+        assertEquals(first, second);
+        verify(movieRepository, times(1))
+                .findAll();
+        verifyNoMoreInteractions(movieRepository);
+    }
+
+    @Test
+    void givenVersionChanged_whenList_thenQueryAgain(){
+        // given
+        when(catalogueVersions.current(CatalogueAggregate.MOVIE))
+                .thenReturn(3L, 4L);
+        when(movieRepository.findAll())
+                .thenReturn(Collections.emptyList());
+        // when
+        movieService.list();
+        movieService.list();
+        // then
+        verify(movieRepository, times(2))
+                .findAll();
+        verifyNoMoreInteractions(movieRepository);
+    }
+
     @Test
     void givenMovieByTitleDoesNotExist_whenCreate_thenSaveNewEntity(){
         // given
@@ -116,6 +179,8 @@ class DefaultMovieServiceTest {
                 .findByTitle(title);
         verify(movieRepository, times(1))
                 .save(moviePreSave);
+        verify(catalogueVersions, times(1))
+                .bump(CatalogueAggregate.MOVIE);
         verifyNoMoreInteractions(movieRepository);
     }
 
@@ -200,6 +265,144 @@ class DefaultMovieServiceTest {
         verify(movieRepository, times(1))
                 .save(movieAfterUpdate);
         verifyNoMoreInteractions(movieRepository);
+        verifyNoInteractions(screeningTimeline);
+    }
+
+    @Test
+    void givenDurationChanges_whenUpdate_thenRecomputeEndOfScreenings(){
+        // given
+        var title = "some title";
+        var movie = Movie.builder()
+                .id(1L)
+                .title(title)
+                .genre("some genre")
+                .durationInMinutes(10)
+                .build();
+        var room = Room.builder()
+                .id(2L)
+                .name("some room")
+                .rows(10)
+                .columns(10)
+                .build();
+        var startDateTime = LocalDateTime.of(2021, 3, 1, 12, 0);
+        var screening = Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(startDateTime)
+                .build();
+        movie.getScreenings().add(screening);
+        when(movieRepository.findByTitle(title))
+                .thenReturn(Optional.of(movie));
+        // when
+        movieService.updateByTitle(title, "some genre", 95);
+        // then
+        assertEquals(startDateTime.plusMinutes(95), screening.getEndDateTime());
+        verify(movieRepository, times(1))
+                .findByTitle(title);
+        verify(movieRepository, times(1))
+                .save(movie);
+        verifyNoMoreInteractions(movieRepository);
+        verify(screeningTimeline, times(1))
+                .findClashCandidates(room, startDateTime, startDateTime.plusMinutes(95));
+        verify(screeningTimeline, times(1))
+                .remove(screening.getId());
+        verify(screeningTimeline, times(1))
+                .add(screening);
+        verifyNoMoreInteractions(screeningTimeline);
+        verifyNoInteractions(screeningTimeClashService);
+    }
+
+    @Test
+    void givenLongerDurationClashesWithNeighbour_whenUpdate_thenThrowAndDoNotSave(){
+        // given
+        var title = "some title";
+        var movie = Movie.builder()
+                .id(1L)
+                .title(title)
+                .genre("some genre")
+                .durationInMinutes(60)
+                .build();
+        var room = Room.builder()
+                .id(2L)
+                .name("some room")
+                .rows(10)
+                .columns(10)
+                .build();
+        var startDateTime = LocalDateTime.of(2021, 3, 1, 12, 0);
+        var screening = Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(startDateTime)
+                .build();
+        movie.getScreenings().add(screening);
+        var newEndDateTime = startDateTime.plusMinutes(90);
+        var ownSlot = new ScreeningSlot(1L, startDateTime, 60);
+        var neighbourStart = startDateTime.plusMinutes(80);
+        var neighbourSlot = new ScreeningSlot(3L, neighbourStart, 100);
+        when(movieRepository.findByTitle(title))
+                .thenReturn(Optional.of(movie));
+        when(screeningTimeline.findClashCandidates(room, startDateTime, newEndDateTime))
+                .thenReturn(List.of(ownSlot, neighbourSlot));
+        doThrow(ScreeningTimeClashException.class)
+                .when(screeningTimeClashService)
+                .check(startDateTime, newEndDateTime, neighbourStart, 100);
+        // when
+        var actual = assertThrows(MovieDurationClashException.class,
+                () -> movieService.updateByTitle(title, "some genre", 90));
+        // then
+        assertEquals(List.of("The screening in room some room at 2021-03-01 12:00 "
+                        + "would clash with the one at 2021-03-01 13:20"),
+                actual.getErrors());
+        // Left as it was, a rejected update must not reach a timeline loaded during the check
+        assertEquals(60, movie.getDurationInMinutes());
+        assertEquals(startDateTime.plusMinutes(60), screening.getEndDateTime());
+        verify(movieRepository, times(1))
+                .findByTitle(title);
+        verifyNoMoreInteractions(movieRepository);
+        verify(screeningTimeClashService, times(1))
+                .check(startDateTime, newEndDateTime, neighbourStart, 100);
+        verifyNoMoreInteractions(screeningTimeClashService);
+        verify(screeningTimeline, times(1))
+                .findClashCandidates(room, startDateTime, newEndDateTime);
+        verifyNoMoreInteractions(screeningTimeline);
+        verifyNoInteractions(catalogueVersions);
+    }
+
+    @Test
+    void givenShorterDuration_whenUpdate_thenSkipClashCheck(){
+        // given
+        var title = "some title";
+        var movie = Movie.builder()
+                .id(1L)
+                .title(title)
+                .genre("some genre")
+                .durationInMinutes(120)
+                .build();
+        var room = Room.builder()
+                .id(2L)
+                .name("some room")
+                .rows(10)
+                .columns(10)
+                .build();
+        var screening = Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(LocalDateTime.of(2021, 3, 1, 12, 0))
+                .build();
+        movie.getScreenings().add(screening);
+        when(movieRepository.findByTitle(title))
+                .thenReturn(Optional.of(movie));
+        // when
+        movieService.updateByTitle(title, "some genre", 90);
+        // then
+        verify(movieRepository, times(1))
+                .save(movie);
+        verify(screeningTimeline, times(1))
+                .remove(screening.getId());
+        verify(screeningTimeline, times(1))
+                .add(screening);
+        verifyNoMoreInteractions(screeningTimeline);
+        verifyNoInteractions(screeningTimeClashService);
     }
 
     @Test
@@ -275,6 +478,12 @@ class DefaultMovieServiceTest {
         verify(movieRepository, times(1))
                 .delete(movie);
         verifyNoMoreInteractions(movieRepository);
+        verify(seatOccupancyIndex, times(1))
+                .evictAllByMovieId(movie.getId());
+        verifyNoMoreInteractions(seatOccupancyIndex);
+        verify(screeningTimeline, times(1))
+                .evictAll();
+        verifyNoMoreInteractions(screeningTimeline);
     }
 
     @Test
@@ -0,0 +1,242 @@
+package com.epam.training.ticketservice.core.price.configuration;
+
+import com.epam.training.ticketservice.core.price.dto.PricingSnapshot;
+import com.epam.training.ticketservice.core.price.entity.PricingConfiguration;
+import com.epam.training.ticketservice.core.price.entity.PricingRule;
+import com.epam.training.ticketservice.core.price.exception.PricingRuleNotValidException;
+import com.epam.training.ticketservice.core.price.repository.PricingConfigurationRepository;
+import com.epam.training.ticketservice.core.price.repository.PricingRuleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityNotFoundException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultPricingConfigurationStoreTest {
+
+    @Mock
+    private PricingConfigurationRepository pricingConfigurationRepository;
+
+    @Mock
+    private PricingRuleRepository pricingRuleRepository;
+
+    private DefaultPricingConfigurationStore pricingConfigurationStore;
+
+    @BeforeEach
+    void setUp() {
+        // Long enough for the background poll never to run during a test
+        pricingConfigurationStore = new DefaultPricingConfigurationStore(pricingConfigurationRepository,
+                pricingRuleRepository,
+                60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pricingConfigurationStore.stop();
+    }
+
+    @Test
+    void givenConfigurationExists_whenStart_thenPublishIt() {
+        // given
+        when(pricingConfigurationRepository.findById(PricingConfiguration.ID))
+                .thenReturn(Optional.of(createConfiguration(3, 2000)));
+        // when
+        pricingConfigurationStore.start();
+        // then
+        assertEquals(createSnapshot(3, 2000), pricingConfigurationStore.current());
+        verify(pricingConfigurationRepository, times(1))
+                .findById(PricingConfiguration.ID);
+        verifyNoMoreInteractions(pricingConfigurationRepository);
+    }
+
+    @Test
+    void givenConfigurationDoesNotExist_whenStart_thenSaveAndPublishDefault() {
+        // given
+        var configuration = PricingConfiguration.builder()
+                .id(PricingConfiguration.ID)
+                .basePrice(PricingConfiguration.DEFAULT_BASE_PRICE)
+                .build();
+        when(pricingConfigurationRepository.findById(PricingConfiguration.ID))
+                .thenReturn(Optional.empty());
+        when(pricingConfigurationRepository.save(configuration))
+                .thenReturn(configuration);
+        // when
+        pricingConfigurationStore.start();
+        // then
+        assertEquals(createSnapshot(0, PricingConfiguration.DEFAULT_BASE_PRICE), pricingConfigurationStore.current());
+        verify(pricingConfigurationRepository, times(1))
+                .save(configuration);
+    }
+
+    @Test
+    void givenStarted_whenUpdateBasePrice_thenPublishSavedVersion() {
+        // given
+        givenStartedWith(createConfiguration(3, 2000));
+        when(pricingConfigurationRepository.saveAndFlush(createConfiguration(3, 2500)))
+                .thenReturn(createConfiguration(4, 2500));
+        // when
+        pricingConfigurationStore.updateBasePrice(2500);
+        // then
+        assertEquals(createSnapshot(4, 2500), pricingConfigurationStore.current());
+    }
+
+    @Test
+    void givenStarted_whenSaveRule_thenPublishIncrementedVersionWithCompiledRules() {
+        // given
+        givenStartedWith(createConfiguration(3, 2000));
+        var rule = PricingRule.builder()
+                .name("evening")
+                .adjustment(200)
+                .daysOfWeek(PricingRule.EVERY_DAY)
+                .startsFrom(LocalTime.of(20, 0))
+                .build();
+        when(pricingConfigurationRepository.findAndIncrementVersionById(PricingConfiguration.ID))
+                .thenReturn(Optional.of(createConfiguration(4, 2000)));
+        when(pricingRuleRepository.findAll())
+                .thenReturn(List.of(rule));
+        // when
+        pricingConfigurationStore.saveRule(rule);
+        // then
+        var current = pricingConfigurationStore.current();
+        assertEquals(4, current.getVersion());
+        assertEquals(200, current.getRules().startAdjustmentFor(LocalDateTime.of(2021, 3, 15, 20, 30)));
+        verify(pricingRuleRepository, times(1))
+                .save(rule);
+        verify(pricingRuleRepository, times(1))
+                .flush();
+    }
+
+    @Test
+    void givenStarted_whenIncrementVersion_thenPublishIncrementedVersionWithoutChangingRules() {
+        // given
+        givenStartedWith(createConfiguration(3, 2000));
+        when(pricingConfigurationRepository.findAndIncrementVersionById(PricingConfiguration.ID))
+                .thenReturn(Optional.of(createConfiguration(4, 2000)));
+        // when
+        pricingConfigurationStore.incrementVersion();
+        // then
+        assertEquals(createSnapshot(4, 2000), pricingConfigurationStore.current());
+        verify(pricingRuleRepository, never())
+                .save(any());
+        verify(pricingRuleRepository, never())
+                .delete(any());
+    }
+
+    @Test
+    void givenRuleCanNeverApply_whenSaveRule_thenThrowAndKeepVersion() {
+        // given
+        givenStartedWith(createConfiguration(3, 2000));
+        var rule = PricingRule.builder()
+                .name("midnight")
+                .adjustment(200)
+                .daysOfWeek(PricingRule.EVERY_DAY)
+                .startsBefore(LocalTime.MIDNIGHT)
+                .occupancyAbovePercent(100)
+                .build();
+        // when
+        var exception = assertThrows(PricingRuleNotValidException.class, () -> pricingConfigurationStore.saveRule(rule));
+        // then
+        assertEquals(List.of("The start window of a pricing rule can't be empty",
+                "The occupancy of a pricing rule must be between 0 and 99 percent"), exception.getErrors());
+        verify(pricingConfigurationRepository, never())
+                .findAndIncrementVersionById(PricingConfiguration.ID);
+        verifyNoInteractions(pricingRuleRepository);
+        assertEquals(3, pricingConfigurationStore.current().getVersion());
+    }
+
+    @Test
+    void givenConfigurationDoesNotExist_whenDeleteRule_thenThrow() {
+        // given
+        givenStartedWith(createConfiguration(3, 2000));
+        var rule = PricingRule.builder()
+                .name("evening")
+                .build();
+        when(pricingConfigurationRepository.findAndIncrementVersionById(PricingConfiguration.ID))
+                .thenReturn(Optional.empty());
+        // when
+        assertThrows(EntityNotFoundException.class, () -> pricingConfigurationStore.deleteRule(rule));
+        // then
+        verify(pricingRuleRepository, never())
+                .delete(rule);
+        assertEquals(3, pricingConfigurationStore.current().getVersion());
+    }
+
+    @Test
+    void givenVersionDidNotChange_whenPoll_thenDoNotLoadConfiguration() {
+        // given
+        givenStartedWith(createConfiguration(3, 2000));
+        when(pricingConfigurationRepository.findVersionById(PricingConfiguration.ID))
+                .thenReturn(Optional.of(3L));
+        // when
+        pricingConfigurationStore.poll();
+        // then
+        assertEquals(createSnapshot(3, 2000), pricingConfigurationStore.current());
+        verify(pricingConfigurationRepository, times(1))
+                .findById(PricingConfiguration.ID);
+        verify(pricingConfigurationRepository, times(1))
+                .findVersionById(PricingConfiguration.ID);
+        verifyNoMoreInteractions(pricingConfigurationRepository);
+    }
+
+    @Test
+    void givenVersionChanged_whenPoll_thenPublishNewConfiguration() {
+        // given
+        givenStartedWith(createConfiguration(3, 2000));
+        when(pricingConfigurationRepository.findVersionById(PricingConfiguration.ID))
+                .thenReturn(Optional.of(4L));
+        when(pricingConfigurationRepository.findById(PricingConfiguration.ID))
+                .thenReturn(Optional.of(createConfiguration(4, 2500)));
+        // when
+        pricingConfigurationStore.poll();
+        // then
+        assertEquals(createSnapshot(4, 2500), pricingConfigurationStore.current());
+    }
+
+    @Test
+    void givenNewerVersionWasPublished_whenPollLoadsOlderConfiguration_thenKeepNewerSnapshot() {
+        // given
+        // The second load stands in for a poll whose read raced with a newer update from this instance
+        when(pricingConfigurationRepository.findById(PricingConfiguration.ID))
+                .thenReturn(Optional.of(createConfiguration(5, 3000)), Optional.of(createConfiguration(4, 2500)));
+        pricingConfigurationStore.start();
+        when(pricingConfigurationRepository.findVersionById(PricingConfiguration.ID))
+                .thenReturn(Optional.of(6L));
+        // when
+        pricingConfigurationStore.poll();
+        // then
+        assertEquals(createSnapshot(5, 3000), pricingConfigurationStore.current());
+    }
+
+    private void givenStartedWith(PricingConfiguration configuration) {
+        when(pricingConfigurationRepository.findById(PricingConfiguration.ID))
+                .thenReturn(Optional.of(configuration));
+        pricingConfigurationStore.start();
+    }
+
+    private PricingConfiguration createConfiguration(long version, int basePrice) {
+        var configuration = PricingConfiguration.builder()
+                .id(PricingConfiguration.ID)
+                .basePrice(basePrice)
+                .build();
+        configuration.setVersion(version);
+        return configuration;
+    }
+
+    private PricingSnapshot createSnapshot(long version, int basePrice) {
+        return PricingSnapshot.builder()
+                .version(version)
+                .basePrice(basePrice)
+                .build();
+    }
+}
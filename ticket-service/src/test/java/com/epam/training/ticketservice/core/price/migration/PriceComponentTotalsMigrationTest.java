@@ -0,0 +1,42 @@
+package com.epam.training.ticketservice.core.price.migration;
+
+import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.room.repository.RoomRepository;
+import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceComponentTotalsMigrationTest {
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    @InjectMocks
+    private PriceComponentTotalsMigration priceComponentTotalsMigration;
+
+    @Test
+    void whenApply_thenRecomputeEveryTable() {
+        // when
+        priceComponentTotalsMigration.apply();
+        // then
+        verify(movieRepository, times(1))
+                .recomputeAllPriceComponentTotals();
+        verify(roomRepository, times(1))
+                .recomputeAllPriceComponentTotals();
+        verify(screeningRepository, times(1))
+                .recomputeAllPriceComponentTotals();
+        verifyNoMoreInteractions(movieRepository, roomRepository, screeningRepository);
+    }
+}
@@ -0,0 +1,76 @@
+package com.epam.training.ticketservice.core.price.repository;
+
+import com.epam.training.ticketservice.core.price.entity.PricingConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class PricingConfigurationRepositoryTest {
+
+    // TestEntityManager is used to catch validation errors
+    // https://github.com/spring-projects/spring-boot/issues/7079
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private PricingConfigurationRepository pricingConfigurationRepository;
+
+    @Test
+    void givenEntityExists_whenFindVersionById_thenReturnVersion() {
+        // given
+        var configuration = PricingConfiguration.builder()
+                .id(PricingConfiguration.ID)
+                .basePrice(1500)
+                .build();
+        var persisted = testEntityManager.persistFlushFind(configuration);
+        // when
+        var result = pricingConfigurationRepository.findVersionById(PricingConfiguration.ID);
+        // then
+        assertTrue(result.isPresent());
+        assertEquals(persisted.getVersion(), result.get());
+    }
+
+    @Test
+    void givenEntityExists_whenBasePriceIsUpdated_thenIncrementVersion() {
+        // given
+        var configuration = testEntityManager.persistFlushFind(PricingConfiguration.builder()
+                .id(PricingConfiguration.ID)
+                .basePrice(1500)
+                .build());
+        var version = configuration.getVersion();
+        configuration.setBasePrice(2000);
+        // when
+        pricingConfigurationRepository.saveAndFlush(configuration);
+        // then
+        assertEquals(version + 1, pricingConfigurationRepository.findVersionById(PricingConfiguration.ID).get());
+    }
+
+    @Test
+    void givenEntityExists_whenFindAndIncrementVersionById_thenIncrementVersionWithoutChange() {
+        // given
+        var version = testEntityManager.persistFlushFind(PricingConfiguration.builder()
+                .id(PricingConfiguration.ID)
+                .basePrice(1500)
+                .build()).getVersion();
+        // when
+        var result = pricingConfigurationRepository.findAndIncrementVersionById(PricingConfiguration.ID);
+        // then
+        assertTrue(result.isPresent());
+        assertEquals(version + 1, result.get().getVersion());
+        assertEquals(version + 1, pricingConfigurationRepository.findVersionById(PricingConfiguration.ID).get());
+    }
+
+    @Test
+    void givenEntityDoesNotExist_whenFindVersionById_thenReturnEmpty() {
+        // given
+        // when
+        var result = pricingConfigurationRepository.findVersionById(PricingConfiguration.ID);
+        // then
+        assertTrue(result.isEmpty());
+    }
+}
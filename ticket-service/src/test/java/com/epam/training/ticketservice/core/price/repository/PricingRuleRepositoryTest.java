@@ -0,0 +1,67 @@
+package com.epam.training.ticketservice.core.price.repository;
+
+import com.epam.training.ticketservice.core.price.entity.PricingRule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class PricingRuleRepositoryTest {
+
+    // TestEntityManager is used to catch validation errors
+    // https://github.com/spring-projects/spring-boot/issues/7079
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private PricingRuleRepository pricingRuleRepository;
+
+    @Test
+    void givenEntityExists_whenFindByName_thenReturnEntity() {
+        // given
+        var rule = PricingRule.builder()
+                .name("evening")
+                .adjustment(200)
+                .daysOfWeek(PricingRule.EVERY_DAY)
+                .startsFrom(LocalTime.of(20, 0))
+                .build();
+        testEntityManager.persist(rule);
+        // when
+        var result = pricingRuleRepository.findByName("evening");
+        // then
+        assertTrue(result.isPresent());
+        var actual = result.get();
+        assertEquals(200, actual.getAdjustment());
+        assertEquals(LocalTime.of(20, 0), actual.getStartsFrom());
+    }
+
+    @Test
+    void givenEntitiesExist_whenFindAllByOrderByName_thenReturnThemByName() {
+        // given
+        testEntityManager.persist(PricingRule.builder()
+                .name("matinee")
+                .adjustment(-300)
+                .daysOfWeek(PricingRule.EVERY_DAY)
+                .build());
+        testEntityManager.persist(PricingRule.builder()
+                .name("busy")
+                .adjustment(500)
+                .daysOfWeek(PricingRule.EVERY_DAY)
+                .occupancyAbovePercent(80)
+                .build());
+        // when
+        var result = pricingRuleRepository.findAllByOrderByName();
+        // then
+        assertEquals(List.of("busy", "matinee"), result.stream()
+                .map(PricingRule::getName)
+                .collect(Collectors.toList()));
+    }
+}
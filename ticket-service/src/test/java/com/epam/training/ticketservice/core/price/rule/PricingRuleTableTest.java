@@ -0,0 +1,139 @@
+package com.epam.training.ticketservice.core.price.rule;
+
+import com.epam.training.ticketservice.core.price.entity.PricingRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingRuleTableTest {
+
+    // 2021-03-15 is a Monday
+    private static final LocalDateTime MONDAY_NOON = LocalDateTime.of(2021, 3, 15, 12, 0);
+
+    @Test
+    void givenNoRules_whenCompile_thenReturnEmptyTable() {
+        // when
+        var result = PricingRuleTable.compile(List.of());
+        // then
+        assertSame(PricingRuleTable.EMPTY, result);
+        assertEquals(0, result.startAdjustmentFor(MONDAY_NOON));
+        assertFalse(result.hasOccupancyRules());
+    }
+
+    @Test
+    void givenWeekdayRule_whenStartAdjustmentFor_thenApplyOnThoseDaysOnly() {
+        // given
+        var table = PricingRuleTable.compile(List.of(createRule(-300,
+                Set.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY),
+                null,
+                LocalTime.of(17, 0))));
+        // when
+        var monday = table.startAdjustmentFor(MONDAY_NOON);
+        var mondayEvening = table.startAdjustmentFor(MONDAY_NOON.withHour(17));
+        var sunday = table.startAdjustmentFor(MONDAY_NOON.minusDays(1));
+        // then
+        assertEquals(-300, monday);
+        assertEquals(0, mondayEvening);
+        assertEquals(0, sunday);
+    }
+
+    @Test
+    void givenWindowWrapsPastMidnight_whenStartAdjustmentFor_thenApplyOnBothSides() {
+        // given
+        var table = PricingRuleTable.compile(List.of(createRule(200, Set.of(), LocalTime.of(22, 0),
+                LocalTime.of(2, 0))));
+        // when
+        var lateEvening = table.startAdjustmentFor(MONDAY_NOON.withHour(23));
+        var afterMidnight = table.startAdjustmentFor(MONDAY_NOON.withHour(1).withMinute(59));
+        var noon = table.startAdjustmentFor(MONDAY_NOON);
+        // then
+        assertEquals(200, lateEvening);
+        assertEquals(200, afterMidnight);
+        assertEquals(0, noon);
+    }
+
+    @Test
+    void givenOverlappingRules_whenStartAdjustmentFor_thenSumThem() {
+        // given
+        var table = PricingRuleTable.compile(List.of(
+                createRule(-300, Set.of(), null, LocalTime.of(17, 0)),
+                createRule(200, Set.of(), LocalTime.of(11, 0), null)));
+        // when
+        var result = table.startAdjustmentFor(MONDAY_NOON);
+        // then
+        assertEquals(-100, result);
+    }
+
+    @Test
+    void givenOccupancyRule_whenOccupancyAdjustmentFor_thenApplyOnlyAboveThreshold() {
+        // given
+        var rule = createRule(500, Set.of(), LocalTime.of(10, 0), null);
+        rule.setOccupancyAbovePercent(80);
+        var table = PricingRuleTable.compile(List.of(rule));
+        // when
+        var atThreshold = table.occupancyAdjustmentFor(MONDAY_NOON, 80, 100);
+        var aboveThreshold = table.occupancyAdjustmentFor(MONDAY_NOON, 81, 100);
+        var outsideWindow = table.occupancyAdjustmentFor(MONDAY_NOON.withHour(9), 81, 100);
+        // then
+        assertTrue(table.hasOccupancyRules());
+        assertEquals(0, table.startAdjustmentFor(MONDAY_NOON));
+        assertEquals(0, atThreshold);
+        assertEquals(500, aboveThreshold);
+        assertEquals(0, outsideWindow);
+    }
+
+    @Test
+    void givenRuleCanApply_whenFindErrors_thenReturnNone() {
+        // given
+        var rule = createRule(200, Set.of(), LocalTime.of(22, 0), LocalTime.of(2, 0));
+        rule.setOccupancyAbovePercent(0);
+        // when
+        var errors = PricingRuleTable.findErrors(rule);
+        // then
+        assertEquals(List.of(), errors);
+    }
+
+    @Test
+    void givenStartWindowIsEmpty_whenFindErrors_thenReportIt() {
+        // given
+        var sameBounds = createRule(200, Set.of(), LocalTime.of(20, 0), LocalTime.of(20, 0));
+        var beforeMidnightOnly = createRule(200, Set.of(), null, LocalTime.MIDNIGHT);
+        // when
+        // then
+        assertEquals(List.of("The start window of a pricing rule can't be empty"),
+                PricingRuleTable.findErrors(sameBounds));
+        assertEquals(List.of("The start window of a pricing rule can't be empty"),
+                PricingRuleTable.findErrors(beforeMidnightOnly));
+    }
+
+    @Test
+    void givenOccupancyIsOutOfRange_whenFindErrors_thenReportIt() {
+        // given
+        var negative = createRule(500, Set.of(), null, null);
+        negative.setOccupancyAbovePercent(-1);
+        var full = createRule(500, Set.of(), null, null);
+        full.setOccupancyAbovePercent(100);
+        // when
+        // then
+        assertEquals(List.of("The occupancy of a pricing rule must be between 0 and 99 percent"),
+                PricingRuleTable.findErrors(negative));
+        assertEquals(List.of("The occupancy of a pricing rule must be between 0 and 99 percent"),
+                PricingRuleTable.findErrors(full));
+    }
+
+    private PricingRule createRule(int adjustment, Set<DayOfWeek> days, LocalTime startsFrom, LocalTime startsBefore) {
+        return PricingRule.builder()
+                .name("rule")
+                .adjustment(adjustment)
+                .daysOfWeek(PricingRule.daysOfWeekOf(days))
+                .startsFrom(startsFrom)
+                .startsBefore(startsBefore)
+                .build();
+    }
+}
@@ -2,8 +2,17 @@ package com.epam.training.ticketservice.core.price.service;
 
 import com.epam.training.ticketservice.core.movie.entity.Movie;
 import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.price.configuration.PricingConfigurationStore;
+import com.epam.training.ticketservice.core.price.dto.PricingRuleRequest;
+import com.epam.training.ticketservice.core.price.dto.PricingSnapshot;
+import com.epam.training.ticketservice.core.price.dto.ScreeningPrice;
+import com.epam.training.ticketservice.core.price.dto.ScreeningPriceQuote;
 import com.epam.training.ticketservice.core.price.entity.PriceComponent;
+import com.epam.training.ticketservice.core.price.entity.PricingRule;
+import com.epam.training.ticketservice.core.price.exception.PricingRuleNotValidException;
 import com.epam.training.ticketservice.core.price.repository.PriceComponentRepository;
+import com.epam.training.ticketservice.core.price.repository.PricingRuleRepository;
+import com.epam.training.ticketservice.core.price.rule.PricingRuleTable;
 import com.epam.training.ticketservice.core.room.entity.Room;
 import com.epam.training.ticketservice.core.room.repository.RoomRepository;
 import com.epam.training.ticketservice.core.screening.entity.Screening;
@@ -13,10 +22,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.persistence.EntityNotFoundException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,6 +51,12 @@ class DefaultPriceServiceTest {
     @Mock
     private PriceComponentRepository priceComponentRepository;
 
+    @Mock
+    private PricingConfigurationStore pricingConfigurationStore;
+
+    @Mock
+    private PricingRuleRepository pricingRuleRepository;
+
     @InjectMocks
     private DefaultPriceService priceService;
 
@@ -43,7 +64,7 @@ class DefaultPriceServiceTest {
     void givenScreeningValidHasNoPriceComponents_whenGetPerSeatPriceByScreening_thenReturnCorrectPrice() {
         // given
         var basePrice = 1000;
-        priceService.updateBasePrice(basePrice);
+        givenBasePrice(basePrice);
         var screening = createScreening();
         // when
         var result = priceService.getPerSeatPriceBy(screening);
@@ -52,17 +73,13 @@ class DefaultPriceServiceTest {
     }
 
     @Test
-    void givenScreeningHasPriceComponents_whenGetPerSeatPriceByScreening_thenReturnCorrectPrice() {
+    void givenScreeningHasPriceComponentTotal_whenGetPerSeatPriceByScreening_thenReturnCorrectPrice() {
         // given
         var basePrice = 1000;
-        priceService.updateBasePrice(basePrice);
+        givenBasePrice(basePrice);
         var screening = createScreening();
         var screeningFee = 1300;
-        var priceComponent = PriceComponent.builder()
-                .name("someComponent")
-                .price(screeningFee)
-                .build();
-        screening.getPriceComponents().add(priceComponent);
+        ReflectionTestUtils.setField(screening, "priceComponentTotal", screeningFee);
         // when
         var result = priceService.getPerSeatPriceBy(screening);
         // then
@@ -70,17 +87,13 @@ class DefaultPriceServiceTest {
     }
 
     @Test
-    void givenRoomHasPriceComponents_whenGetPerSeatPriceByScreening_thenReturnCorrectPrice() {
+    void givenRoomHasPriceComponentTotal_whenGetPerSeatPriceByScreening_thenReturnCorrectPrice() {
         // given
         var basePrice = 1000;
-        priceService.updateBasePrice(basePrice);
+        givenBasePrice(basePrice);
         var screening = createScreening();
         var roomFee = 1300;
-        var priceComponent = PriceComponent.builder()
-                .name("someComponent")
-                .price(roomFee)
-                .build();
-        screening.getRoom().getPriceComponents().add(priceComponent);
+        screening.getRoom().setPriceComponentTotal(roomFee);
         // when
         var result = priceService.getPerSeatPriceBy(screening);
         // then
@@ -88,28 +101,298 @@ class DefaultPriceServiceTest {
     }
 
     @Test
-    void givenMovieHasPriceComponents_whenGetPerSeatPriceByScreening_thenReturnCorrectPrice() {
+    void givenMovieHasPriceComponentTotal_whenGetPerSeatPriceByScreening_thenReturnCorrectPrice() {
         // given
         var basePrice = 1000;
-        priceService.updateBasePrice(basePrice);
+        givenBasePrice(basePrice);
         var screening = createScreening();
         var movieFee = 1300;
-        var priceComponent = PriceComponent.builder()
-                .name("someComponent")
-                .price(movieFee)
-                .build();
-        screening.getMovie().getPriceComponents().add(priceComponent);
+        screening.getMovie().setPriceComponentTotal(movieFee);
         // when
         var result = priceService.getPerSeatPriceBy(screening);
         // then
         assertEquals(basePrice + movieFee, result);
     }
 
+    @Test
+    void givenPriceWasLookedUp_whenGetPerSeatPriceByScreeningAgain_thenReturnCachedPrice() {
+        // given
+        var basePrice = 1000;
+        givenBasePrice(basePrice);
+        var screening = createScreening();
+        priceService.getPerSeatPriceBy(screening);
+        // Not attached through the service, so nothing evicts the cached price
+        ReflectionTestUtils.setField(screening, "priceComponentTotal", 1300);
+        // when
+        var result = priceService.getPerSeatPriceBy(screening);
+        // then
+        assertEquals(basePrice, result);
+    }
+
+    @Test
+    void givenPriceWasLookedUp_whenNewPricingIsPublished_thenReturnNewPrice() {
+        // given
+        when(pricingConfigurationStore.current())
+                .thenReturn(pricing(1, 1000), pricing(2, 1200));
+        var screening = createScreening();
+        priceService.getPerSeatPriceBy(screening);
+        // when
+        var result = priceService.getPerSeatPriceBy(screening);
+        // then
+        assertEquals(1200, result);
+    }
+
+    @Test
+    void whenUpdateBasePrice_thenStoreNewBasePrice() {
+        // when
+        givenBasePrice(1200);
+        // then
+        verify(pricingConfigurationStore, times(1))
+                .updateBasePrice(1200);
+        verifyNoMoreInteractions(pricingConfigurationStore);
+    }
+
+    @Test
+    void givenQuotesExist_whenGetPerSeatPricesByMovie_thenAddBasePriceToEachTotal() {
+        // given
+        givenBasePrice(1000);
+        var start = LocalDateTime.of(2000,12,8,12,3);
+        when(screeningRepository.findAllPriceQuotesByMovieTitle("movieA"))
+                .thenReturn(List.of(new ScreeningPriceQuote("movieA", "roomA", start, 0, 0, 100),
+                        new ScreeningPriceQuote("movieA", "roomB", start.plusHours(4), 250, 0, 100)));
+        // when
+        var result = priceService.getPerSeatPricesByMovie("movieA");
+        // then
+        assertEquals(List.of(createScreeningPrice("movieA", "roomA", start, 1000),
+                createScreeningPrice("movieA", "roomB", start.plusHours(4), 1250)), result);
+        verify(screeningRepository, times(1))
+                .findAllPriceQuotesByMovieTitle("movieA");
+        verifyNoMoreInteractions(screeningRepository);
+    }
+
+    @Test
+    void givenQuotesExist_whenGetPerSeatPricesByRoom_thenAddBasePriceToEachTotal() {
+        // given
+        givenBasePrice(1000);
+        var start = LocalDateTime.of(2000,12,8,12,3);
+        when(screeningRepository.findAllPriceQuotesByRoomName("roomA"))
+                .thenReturn(List.of(new ScreeningPriceQuote("movieA", "roomA", start, 250, 0, 100)));
+        // when
+        var result = priceService.getPerSeatPricesByRoom("roomA");
+        // then
+        assertEquals(List.of(createScreeningPrice("movieA", "roomA", start, 1250)), result);
+    }
+
+    @Test
+    void givenDate_whenGetPerSeatPricesOn_thenQueryThatWholeDay() {
+        // given
+        var date = LocalDate.of(2000,12,8);
+        when(screeningRepository.findAllPriceQuotesStartingBetween(LocalDateTime.of(2000,12,8,0,0),
+                LocalDateTime.of(2000,12,9,0,0)))
+                .thenReturn(List.of());
+        // when
+        var result = priceService.getPerSeatPricesOn(date);
+        // then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(movieRepository, roomRepository);
+    }
+
+    @Test
+    void givenStartTimeRuleMatches_whenGetPerSeatPriceByScreening_thenAddItsAdjustment() {
+        // given
+        // 2000-12-08 is a Friday
+        givenPricing(1000, PricingRule.builder()
+                .name("matinee")
+                .adjustment(-300)
+                .daysOfWeek(PricingRule.daysOfWeekOf(Set.of(DayOfWeek.FRIDAY)))
+                .startsBefore(LocalTime.of(17, 0))
+                .build());
+        var screening = createScreening();
+        // when
+        var result = priceService.getPerSeatPriceBy(screening);
+        // then
+        assertEquals(700, result);
+    }
+
+    @Test
+    void givenOccupancyRule_whenSeatsAreSold_thenPriceFollowsOccupancyDespiteCache() {
+        // given
+        givenPricing(1000, PricingRule.builder()
+                .name("busy")
+                .adjustment(500)
+                .daysOfWeek(PricingRule.EVERY_DAY)
+                .occupancyAbovePercent(80)
+                .build());
+        var screening = createScreening();
+        ReflectionTestUtils.setField(screening, "seatsSold", 80);
+        var belowThreshold = priceService.getPerSeatPriceBy(screening);
+        ReflectionTestUtils.setField(screening, "seatsSold", 81);
+        // when
+        var result = priceService.getPerSeatPriceBy(screening);
+        // then
+        assertEquals(1000, belowThreshold);
+        assertEquals(1500, result);
+    }
+
+    @Test
+    void givenOccupancyRule_whenSeatsWereSoldSinceLoad_thenCountThemToo() {
+        // given
+        givenPricing(1000, PricingRule.builder()
+                .name("busy")
+                .adjustment(500)
+                .daysOfWeek(PricingRule.EVERY_DAY)
+                .occupancyAbovePercent(80)
+                .build());
+        var screening = createScreening();
+        ReflectionTestUtils.setField(screening, "seatsSold", 80);
+        // when
+        var result = priceService.getPerSeatPriceBy(screening, 1);
+        // then
+        assertEquals(1500, result);
+    }
+
+    @Test
+    void givenRulesWouldMakePriceNegative_whenGetPerSeatPriceByScreening_thenReturnZero() {
+        // given
+        givenPricing(100, PricingRule.builder()
+                .name("giveaway")
+                .adjustment(-300)
+                .daysOfWeek(PricingRule.EVERY_DAY)
+                .build());
+        var screening = createScreening();
+        // when
+        var result = priceService.getPerSeatPriceBy(screening);
+        // then
+        assertEquals(0, result);
+    }
+
+    @Test
+    void givenQuotesAndRules_whenGetPerSeatPricesByRoom_thenApplyRulesToEachQuote() {
+        // given
+        givenPricing(1000, PricingRule.builder()
+                .name("busy")
+                .adjustment(500)
+                .daysOfWeek(PricingRule.EVERY_DAY)
+                .occupancyAbovePercent(80)
+                .build());
+        var start = LocalDateTime.of(2000,12,8,12,3);
+        when(screeningRepository.findAllPriceQuotesByRoomName("roomA"))
+                .thenReturn(List.of(new ScreeningPriceQuote("movieA", "roomA", start, 0, 81, 100),
+                        new ScreeningPriceQuote("movieA", "roomA", start.plusHours(4), 0, 80, 100)));
+        // when
+        var result = priceService.getPerSeatPricesByRoom("roomA");
+        // then
+        assertEquals(List.of(createScreeningPrice("movieA", "roomA", start, 1500),
+                createScreeningPrice("movieA", "roomA", start.plusHours(4), 1000)), result);
+    }
+
+    @Test
+    void givenValidRequest_whenCreatePricingRule_thenSaveRuleThroughStore() {
+        // given
+        var request = PricingRuleRequest.builder()
+                .name("evening")
+                .adjustment(200)
+                .days(Set.of())
+                .startsFrom(LocalTime.of(20, 0))
+                .build();
+        when(pricingRuleRepository.findByName("evening"))
+                .thenReturn(Optional.empty());
+        // when
+        priceService.createPricingRule(request);
+        // then
+        verify(pricingConfigurationStore, times(1))
+                .saveRule(PricingRule.builder()
+                        .name("evening")
+                        .adjustment(200)
+                        .daysOfWeek(PricingRule.EVERY_DAY)
+                        .startsFrom(LocalTime.of(20, 0))
+                        .build());
+        verifyNoMoreInteractions(pricingConfigurationStore);
+    }
+
+    @Test
+    void givenInvalidRequest_whenCreatePricingRule_thenThrowWithEveryError() {
+        // given
+        var request = PricingRuleRequest.builder()
+                .name("busy")
+                .adjustment(500)
+                .startsFrom(LocalTime.of(10, 0))
+                .startsBefore(LocalTime.of(10, 0))
+                .occupancyAbovePercent(100)
+                .build();
+        when(pricingRuleRepository.findByName("busy"))
+                .thenReturn(Optional.of(PricingRule.builder()
+                        .name("busy")
+                        .build()));
+        // when
+        var exception = assertThrows(PricingRuleNotValidException.class,
+                () -> priceService.createPricingRule(request));
+        // then
+        assertEquals(List.of("Pricing rule busy already exists",
+                "The start window of a pricing rule can't be empty",
+                "The occupancy of a pricing rule must be between 0 and 99 percent"), exception.getErrors());
+        verifyNoInteractions(pricingConfigurationStore);
+    }
+
+    @Test
+    void givenRuleDoesNotExist_whenDeletePricingRule_thenThrow() {
+        // given
+        when(pricingRuleRepository.findByName("busy"))
+                .thenReturn(Optional.empty());
+        // when
+        assertThrows(EntityNotFoundException.class, () -> priceService.deletePricingRule("busy"));
+        // then
+        verifyNoInteractions(pricingConfigurationStore);
+    }
+
+    @Test
+    void givenRulesExist_whenListPricingRules_thenDescribeEachCondition() {
+        // given
+        when(pricingRuleRepository.findAllByOrderByName())
+                .thenReturn(List.of(PricingRule.builder()
+                                .name("busy")
+                                .adjustment(500)
+                                .daysOfWeek(PricingRule.EVERY_DAY)
+                                .occupancyAbovePercent(80)
+                                .build(),
+                        PricingRule.builder()
+                                .name("matinee")
+                                .adjustment(-300)
+                                .daysOfWeek(PricingRule.daysOfWeekOf(Set.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY)))
+                                .startsFrom(LocalTime.of(10, 0))
+                                .startsBefore(LocalTime.of(17, 0))
+                                .build()));
+        // when
+        var result = priceService.listPricingRules();
+        // then
+        assertEquals(List.of("busy: +500 HUF above 80% occupancy",
+                "matinee: -300 HUF on Mon, Fri starting from 10:00 starting before 17:00"), result);
+    }
+
+    @Test
+    void givenPricesWereLookedUp_whenEvictPerSeatPrice_thenRecomputeOnlyThatScreening() {
+        // given
+        givenBasePrice(1000);
+        var movie = createMovie(1L, "movieA");
+        var room = createRoom(1L, "roomA");
+        var evicted = createScreening(movie, room, LocalDateTime.of(2000,12,8,12,3));
+        var kept = createScreening(movie, room, LocalDateTime.of(2000,12,8,16,3));
+        priceService.getPerSeatPriceBy(evicted);
+        priceService.getPerSeatPriceBy(kept);
+        ReflectionTestUtils.setField(evicted, "priceComponentTotal", 100);
+        ReflectionTestUtils.setField(kept, "priceComponentTotal", 100);
+        // when
+        priceService.evictPerSeatPrice(evicted.getId());
+        // then
+        assertEquals(1100, priceService.getPerSeatPriceBy(evicted));
+        assertEquals(1000, priceService.getPerSeatPriceBy(kept));
+    }
+
     @Test
     void givenScreeningExists_whenGetPerSeatPriceByMovieTitleRoomNameStartDateTime_thenReturnCorrectPrice() {
         // given
         var basePrice = 0;
-        priceService.updateBasePrice(basePrice);
+        givenBasePrice(basePrice);
         var movieTitle = "movieA";
         var movie = createMovie(movieTitle);
         var roomName = "roomA";
@@ -117,14 +400,11 @@ class DefaultPriceServiceTest {
         var startDateTime = LocalDateTime.of(2000,12,8,12,3);
         var screening = createScreening(movie, room, startDateTime);
         var screeningFee = 1;
-        var screeningComponent = createPriceComponent("screeningFee", screeningFee);
         var roomFee = 10;
-        var roomComponent = createPriceComponent("movieFee", roomFee);
         var movieFee = 100;
-        var movieComponent = createPriceComponent("movieFee", movieFee);
-        screening.getPriceComponents().add(screeningComponent);
-        screening.getRoom().getPriceComponents().add(roomComponent);
-        screening.getMovie().getPriceComponents().add(movieComponent);
+        ReflectionTestUtils.setField(screening, "priceComponentTotal", screeningFee);
+        screening.getRoom().setPriceComponentTotal(roomFee);
+        screening.getMovie().setPriceComponentTotal(movieFee);
         when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle,
                 roomName,
                 startDateTime))
@@ -143,23 +423,9 @@ class DefaultPriceServiceTest {
     @Test
     void givenScreeningDoesNotExist_whenGetPerSeatPriceByMovieTitleRoomNameStartDateTime_thenThrow() {
         // given
-        var basePrice = 0;
-        priceService.updateBasePrice(basePrice);
         var movieTitle = "movieA";
-        var movie = createMovie(movieTitle);
         var roomName = "roomA";
-        var room = createRoom(roomName);
         var startDateTime = LocalDateTime.of(2000,12,8,12,3);
-        var screening = createScreening(movie, room, startDateTime);
-        var screeningFee = 1;
-        var screeningComponent = createPriceComponent("screeningFee", screeningFee);
-        var roomFee = 10;
-        var roomComponent = createPriceComponent("movieFee", roomFee);
-        var movieFee = 100;
-        var movieComponent = createPriceComponent("movieFee", movieFee);
-        screening.getPriceComponents().add(screeningComponent);
-        screening.getRoom().getPriceComponents().add(roomComponent);
-        screening.getMovie().getPriceComponents().add(movieComponent);
         when(screeningRepository.findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime))
                 .thenReturn(Optional.empty());
         // when
@@ -188,6 +454,63 @@ class DefaultPriceServiceTest {
         verifyNoMoreInteractions(priceComponentRepository);
     }
 
+    @Test
+    void givenPriceComponentExists_whenUpdatePriceComponent_thenRecomputeTotalsContainingIt() {
+        // given
+        var name = "fee";
+        var priceComponent = createPriceComponent(name, 100);
+        var updated = createPriceComponent(name, 300);
+        when(priceComponentRepository.findByName(name))
+                .thenReturn(Optional.of(priceComponent));
+        // when
+        priceService.updatePriceComponent(name, 300);
+        // then
+        verify(priceComponentRepository, times(1))
+                .findByName(name);
+        verify(priceComponentRepository, times(1))
+                .saveAndFlush(updated);
+        verify(movieRepository, times(1))
+                .recomputePriceComponentTotalsContaining(updated);
+        verify(roomRepository, times(1))
+                .recomputePriceComponentTotalsContaining(updated);
+        verify(screeningRepository, times(1))
+                .recomputePriceComponentTotalsContaining(updated);
+        verify(pricingConfigurationStore, times(1))
+                .incrementVersion();
+        verifyNoMoreInteractions(priceComponentRepository, movieRepository, roomRepository, screeningRepository);
+    }
+
+    @Test
+    void givenPricesWereLookedUp_whenUpdatePriceComponent_thenRecomputePrices() {
+        // given
+        givenBasePrice(1000);
+        var screening = createScreening();
+        priceService.getPerSeatPriceBy(screening);
+        var name = "fee";
+        when(priceComponentRepository.findByName(name))
+                .thenReturn(Optional.of(createPriceComponent(name, 100)));
+        ReflectionTestUtils.setField(screening, "priceComponentTotal", 300);
+        // when
+        priceService.updatePriceComponent(name, 300);
+        // then
+        assertEquals(1300, priceService.getPerSeatPriceBy(screening));
+    }
+
+    @Test
+    void givenPriceComponentNotFound_whenUpdatePriceComponent_thenThrow() {
+        // given
+        var name = "fee";
+        when(priceComponentRepository.findByName(name))
+                .thenReturn(Optional.empty());
+        // when
+        assertThrows(EntityNotFoundException.class, () -> priceService.updatePriceComponent(name, 300));
+        // then
+        verify(priceComponentRepository, times(1))
+                .findByName(name);
+        verifyNoMoreInteractions(priceComponentRepository);
+        verifyNoInteractions(movieRepository, roomRepository, screeningRepository);
+    }
+
     @Test
     void givenValidInputs_whenAttachPriceComponentToMovie_thenAddPriceComponent() {
         // given
@@ -212,10 +535,91 @@ class DefaultPriceServiceTest {
                 .findByTitle(movieTitle);
         verify(movieRepository, times(1))
                 .save(movie);
+        verify(movieRepository, times(1))
+                .addToPriceComponentTotal(movie.getId(), fee);
+        verify(pricingConfigurationStore, times(1))
+                .incrementVersion();
         verifyNoMoreInteractions(priceComponentRepository);
         verifyNoMoreInteractions(movieRepository);
     }
 
+    @Test
+    void givenPricesWereLookedUp_whenAttachPriceComponentToMovie_thenRecomputeScreeningsOfThatMovieOnly() {
+        // given
+        givenBasePrice(1000);
+        var movie = createMovie(1L, "movieA");
+        var otherMovie = createMovie(2L, "movieB");
+        var room = createRoom(1L, "roomA");
+        var startDateTime = LocalDateTime.of(2000,12,8,12,3);
+        var screening = createScreening(movie, room, startDateTime);
+        var otherScreening = createScreening(otherMovie, room, startDateTime.plusHours(4));
+        priceService.getPerSeatPriceBy(screening);
+        priceService.getPerSeatPriceBy(otherScreening);
+        var name = "fee";
+        var priceComponent = createPriceComponent(name, 100);
+        when(priceComponentRepository.findByName(name))
+                .thenReturn(Optional.of(priceComponent));
+        when(movieRepository.findByTitle("movieA"))
+                .thenReturn(Optional.of(movie));
+        // Stands in for the totals the bulk updates would store, the other screening's is changed without the
+        // service knowing, so only an eviction would make it visible
+        movie.setPriceComponentTotal(100);
+        ReflectionTestUtils.setField(otherScreening, "priceComponentTotal", 100);
+        // when
+        priceService.attachPriceComponentToMovie(name, "movieA");
+        // then
+        assertEquals(1100, priceService.getPerSeatPriceBy(screening));
+        assertEquals(1000, priceService.getPerSeatPriceBy(otherScreening));
+    }
+
+    @Test
+    void givenPricesWereLookedUp_whenAttachPriceComponentToRoom_thenRecomputeScreeningsInThatRoomOnly() {
+        // given
+        givenBasePrice(1000);
+        var movie = createMovie(1L, "movieA");
+        var room = createRoom(1L, "roomA");
+        var otherRoom = createRoom(2L, "roomB");
+        var startDateTime = LocalDateTime.of(2000,12,8,12,3);
+        var screening = createScreening(movie, room, startDateTime);
+        var otherScreening = createScreening(movie, otherRoom, startDateTime);
+        priceService.getPerSeatPriceBy(screening);
+        priceService.getPerSeatPriceBy(otherScreening);
+        var name = "fee";
+        var priceComponent = createPriceComponent(name, 100);
+        when(priceComponentRepository.findByName(name))
+                .thenReturn(Optional.of(priceComponent));
+        when(roomRepository.findByName("roomA"))
+                .thenReturn(Optional.of(room));
+        room.setPriceComponentTotal(100);
+        ReflectionTestUtils.setField(otherScreening, "priceComponentTotal", 100);
+        // when
+        priceService.attachPriceComponentToRoom(name, "roomA");
+        // then
+        assertEquals(1100, priceService.getPerSeatPriceBy(screening));
+        assertEquals(1000, priceService.getPerSeatPriceBy(otherScreening));
+    }
+
+    @Test
+    void givenPriceComponentAlreadyAttached_whenAttachPriceComponentToMovie_thenKeepTotal() {
+        // given
+        var movieTitle = "movieA";
+        var movie = createMovie(movieTitle);
+        var name = "fee";
+        var priceComponent = createPriceComponent(name, 100);
+        movie.getPriceComponents().add(priceComponent);
+        when(priceComponentRepository.findByName(name))
+                .thenReturn(Optional.of(priceComponent));
+        when(movieRepository.findByTitle(movieTitle))
+                .thenReturn(Optional.of(movie));
+        // when
+        priceService.attachPriceComponentToMovie(name, movieTitle);
+        // then
+        verify(movieRepository, times(1))
+                .findByTitle(movieTitle);
+        verifyNoMoreInteractions(movieRepository);
+        verifyNoInteractions(pricingConfigurationStore);
+    }
+
     @Test
     void givenMovieNotFound_whenAttachPriceComponentToMovie_thenAddPriceComponent() {
         // given
@@ -278,6 +682,10 @@ class DefaultPriceServiceTest {
                 .findByName(roomName);
         verify(roomRepository, times(1))
                 .save(room);
+        verify(roomRepository, times(1))
+                .addToPriceComponentTotal(room.getId(), fee);
+        verify(pricingConfigurationStore, times(1))
+                .incrementVersion();
         verifyNoMoreInteractions(priceComponentRepository);
         verifyNoMoreInteractions(roomRepository);
     }
@@ -348,6 +756,10 @@ class DefaultPriceServiceTest {
                 .findByMovieTitleAndRoomNameAndIdStartDateTime(movieTitle, roomName, startDateTime);
         verify(screeningRepository, times(1))
                 .save(screening);
+        verify(screeningRepository, times(1))
+                .addToPriceComponentTotal(screening.getId(), fee);
+        verify(pricingConfigurationStore, times(1))
+                .incrementVersion();
         verifyNoMoreInteractions(priceComponentRepository);
         verifyNoMoreInteractions(screeningRepository);
     }
@@ -394,6 +806,39 @@ class DefaultPriceServiceTest {
         verifyNoInteractions(screeningRepository);
     }
 
+    private void givenBasePrice(int basePrice) {
+        when(pricingConfigurationStore.current())
+                .thenReturn(pricing(1, basePrice));
+    }
+
+    private ScreeningPrice createScreeningPrice(String movieTitle,
+                                                String roomName,
+                                                LocalDateTime startDateTime,
+                                                int perSeatPrice) {
+        return ScreeningPrice.builder()
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .perSeatPrice(perSeatPrice)
+                .build();
+    }
+
+    private void givenPricing(int basePrice, PricingRule rule) {
+        when(pricingConfigurationStore.current())
+                .thenReturn(PricingSnapshot.builder()
+                        .version(1)
+                        .basePrice(basePrice)
+                        .rules(PricingRuleTable.compile(List.of(rule)))
+                        .build());
+    }
+
+    private PricingSnapshot pricing(long version, int basePrice) {
+        return PricingSnapshot.builder()
+                .version(version)
+                .basePrice(basePrice)
+                .build();
+    }
+
     private Screening createScreening() {
         return createScreening(createMovie(),
                 createRoom(),
@@ -413,7 +858,12 @@ class DefaultPriceServiceTest {
     }
 
     private Movie createMovie(String title) {
+        return createMovie(null, title);
+    }
+
+    private Movie createMovie(Long id, String title) {
         return Movie.builder()
+                .id(id)
                 .title(title)
                 .genre("genreA")
                 .durationInMinutes(100)
@@ -425,7 +875,12 @@ class DefaultPriceServiceTest {
     }
 
     private Room createRoom(String name) {
+        return createRoom(null, name);
+    }
+
+    private Room createRoom(Long id, String name) {
         return Room.builder()
+                .id(id)
                 .name(name)
                 .rows(10)
                 .columns(10)
@@ -1,5 +1,6 @@
 package com.epam.training.ticketservice.core.room.repository;
 
+import com.epam.training.ticketservice.core.price.entity.PriceComponent;
 import com.epam.training.ticketservice.core.room.entity.Room;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -230,4 +231,38 @@ class RoomRepositoryTest {
         // then
         assertTrue(result.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenComponentsAttached_whenRecomputeAllPriceComponentTotals_thenTotalsMatchTheFees() {
+        // given
+        var fee = testEntityManager.persist(PriceComponent.builder()
+                .name("fee")
+                .price(300)
+                .build());
+        var other = testEntityManager.persist(PriceComponent.builder()
+                .name("other")
+                .price(20)
+                .build());
+        var room = Room.builder()
+                .name("room")
+                .rows(10)
+                .columns(10)
+                .build();
+        room.getPriceComponents().add(fee);
+        room.getPriceComponents().add(other);
+        room = testEntityManager.persist(room);
+        var bare = testEntityManager.persist(Room.builder()
+                .name("bare")
+                .rows(10)
+                .columns(10)
+                .build());
+        testEntityManager.flush();
+        // when
+        var updated = roomRepository.recomputeAllPriceComponentTotals();
+        testEntityManager.clear();
+        // then
+        assertEquals(2, updated);
+        assertEquals(320, testEntityManager.find(Room.class, room.getId()).getPriceComponentTotal());
+        assertEquals(0, testEntityManager.find(Room.class, bare.getId()).getPriceComponentTotal());
+    }
+}
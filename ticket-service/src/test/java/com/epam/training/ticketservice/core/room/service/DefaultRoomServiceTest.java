@@ -1,7 +1,11 @@
 package com.epam.training.ticketservice.core.room.service;
 
+import com.epam.training.ticketservice.core.booking.occupancy.SeatOccupancyIndex;
+import com.epam.training.ticketservice.core.catalogue.CatalogueAggregate;
+import com.epam.training.ticketservice.core.catalogue.CatalogueVersions;
 import com.epam.training.ticketservice.core.room.entity.Room;
 import com.epam.training.ticketservice.core.room.repository.RoomRepository;
+import com.epam.training.ticketservice.core.screening.timeline.ScreeningTimeline;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -23,6 +27,15 @@ class DefaultRoomServiceTest {
     @Mock
     private RoomRepository roomRepository;
 
+    @Mock
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Mock
+    private ScreeningTimeline screeningTimeline;
+
+    @Mock
+    private CatalogueVersions catalogueVersions;
+
     @InjectMocks
     private DefaultRoomService roomService;
 
@@ -77,6 +90,30 @@ class DefaultRoomServiceTest {
         verifyNoMoreInteractions(roomRepository);
     }
 
+    @Test
+    void givenVersionIsUnchanged_whenListTwice_thenQueryOnce() {
+        // given
+        var room = Room.builder()
+                .id(1L)
+                .name("name")
+                .rows(10)
+                .columns(20)
+                .build();
+        when(catalogueVersions.current(CatalogueAggregate.ROOM))
+                .thenReturn(3L);
+        when(roomRepository.findAll())
+                .thenReturn(List.of(room));
+        // when
+        var first = roomService.list();
+        var second = roomService.list();
+        // then
+        assertEquals(List.of("Room name with 200 seats, 10 rows and 20 columns"), first);
+        assertEquals(first, second);
+        verify(roomRepository, times(1))
+                .findAll();
+        verifyNoMoreInteractions(roomRepository);
+    }
+
     @Test
     void givenRoomDoesNotExistByName_whenCreate_thenThrowEntityExistsException() {
         // given
@@ -106,6 +143,8 @@ class DefaultRoomServiceTest {
                 .findByName(name);
         verify(roomRepository, times(1))
                 .save(room);
+        verify(catalogueVersions, times(1))
+                .bump(CatalogueAggregate.ROOM);
         verifyNoMoreInteractions(roomRepository);
     }
 
@@ -273,6 +312,12 @@ class DefaultRoomServiceTest {
         verify(roomRepository, times(1))
                 .delete(room);
         verifyNoMoreInteractions(roomRepository);
+        verify(seatOccupancyIndex, times(1))
+                .evictAllByRoomId(room.getId());
+        verifyNoMoreInteractions(seatOccupancyIndex);
+        verify(screeningTimeline, times(1))
+                .evictAllByRoomId(room.getId());
+        verifyNoMoreInteractions(screeningTimeline);
     }
 
     @Test
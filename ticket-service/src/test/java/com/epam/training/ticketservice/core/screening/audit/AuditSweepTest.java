@@ -0,0 +1,71 @@
+package com.epam.training.ticketservice.core.screening.audit;
+
+import com.epam.training.ticketservice.core.screening.dto.RoomScreeningSlot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditSweepTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2021, 3, 1, 12, 0);
+
+    @Test
+    void givenNoSlots_whenFindClashes_thenReturnEmptyList() {
+        // when
+        var actual = AuditSweep.findClashes(Collections.emptyList());
+        // then
+        assertTrue(actual.isEmpty());
+    }
+
+    @Test
+    void givenSlotsKeepTheBreak_whenFindClashes_thenReturnEmptyList() {
+        // given
+        var slots = List.of(slot(1L, NOON, 60),
+                slot(2L, NOON.plusMinutes(70), 60),
+                slot(3L, NOON.plusMinutes(140), 30));
+        // when
+        var actual = AuditSweep.findClashes(slots);
+        // then
+        assertTrue(actual.isEmpty());
+    }
+
+    @Test
+    void givenSlotStartsInTheBreak_whenFindClashes_thenReportBreakViolation() {
+        // given
+        var first = slot(1L, NOON, 60);
+        var second = slot(2L, NOON.plusMinutes(65), 60);
+        // when
+        var actual = AuditSweep.findClashes(List.of(first, second));
+        // then
+        assertEquals(1, actual.size());
+        assertEquals(first, actual.get(0).getEarlier());
+        assertEquals(second, actual.get(0).getLater());
+        assertFalse(actual.get(0).isOverlapping());
+    }
+
+    @Test
+    void givenLongSlotCoversSeveralOthers_whenFindClashes_thenReportEveryPair() {
+        // given
+        var longSlot = slot(1L, NOON, 300);
+        var first = slot(2L, NOON.plusMinutes(30), 60);
+        var second = slot(3L, NOON.plusMinutes(100), 60);
+        // when
+        var actual = AuditSweep.findClashes(List.of(longSlot, first, second));
+        // then
+        assertEquals(2, actual.size());
+        assertEquals(longSlot, actual.get(0).getEarlier());
+        assertEquals(first, actual.get(0).getLater());
+        assertTrue(actual.get(0).isOverlapping());
+        assertEquals(longSlot, actual.get(1).getEarlier());
+        assertEquals(second, actual.get(1).getLater());
+        assertTrue(actual.get(1).isOverlapping());
+    }
+
+    private RoomScreeningSlot slot(Long movieId, LocalDateTime startDateTime, int durationInMinutes) {
+        return new RoomScreeningSlot(1L, movieId, startDateTime, startDateTime.plusMinutes(durationInMinutes));
+    }
+}
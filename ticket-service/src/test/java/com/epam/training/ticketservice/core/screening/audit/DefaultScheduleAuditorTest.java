@@ -0,0 +1,153 @@
+package com.epam.training.ticketservice.core.screening.audit;
+
+import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.room.repository.RoomRepository;
+import com.epam.training.ticketservice.core.screening.dto.RoomScreeningSlot;
+import com.epam.training.ticketservice.core.screening.dto.ScheduleClash;
+import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultScheduleAuditorTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2021, 3, 1, 12, 0);
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    private DefaultScheduleAuditor scheduleAuditor;
+
+    @BeforeEach
+    void setUp() {
+        scheduleAuditor = new DefaultScheduleAuditor(screeningRepository,
+                movieRepository,
+                roomRepository,
+                new ForkJoinPool(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduleAuditor.stop();
+    }
+
+    @Test
+    void givenNoScreenings_whenAudit_thenReportNothingChecked() {
+        // given
+        when(screeningRepository.streamAllSlotsOrderedByRoom())
+                .thenReturn(Stream.empty());
+        // when
+        var actual = scheduleAuditor.audit();
+        // then
+        assertTrue(actual.getClashes().isEmpty());
+        assertEquals(0, actual.getScreeningsChecked());
+        assertEquals(0, actual.getRoomsChecked());
+        verifyNoInteractions(movieRepository, roomRepository);
+    }
+
+    @Test
+    void givenCleanSchedule_whenAudit_thenDoNotLookUpNames() {
+        // given
+        when(screeningRepository.streamAllSlotsOrderedByRoom())
+                .thenReturn(Stream.of(slot(1L, 1L, NOON, 60),
+                        slot(1L, 1L, NOON.plusMinutes(70), 60),
+                        slot(2L, 1L, NOON, 60)));
+        // when
+        var actual = scheduleAuditor.audit();
+        // then
+        assertTrue(actual.getClashes().isEmpty());
+        assertEquals(3, actual.getScreeningsChecked());
+        assertEquals(2, actual.getRoomsChecked());
+        verifyNoInteractions(movieRepository, roomRepository);
+    }
+
+    @Test
+    void givenClashesInSeveralRooms_whenAudit_thenReportThemSortedByRoomAndStart() {
+        // given
+        var alpha = Movie.builder()
+                .id(1L)
+                .title("Alpha")
+                .genre("genre")
+                .durationInMinutes(60)
+                .build();
+        var beta = Movie.builder()
+                .id(2L)
+                .title("Beta")
+                .genre("genre")
+                .durationInMinutes(60)
+                .build();
+        var roomA = Room.builder()
+                .id(1L)
+                .name("A")
+                .rows(10)
+                .columns(10)
+                .build();
+        var roomB = Room.builder()
+                .id(2L)
+                .name("B")
+                .rows(10)
+                .columns(10)
+                .build();
+        when(screeningRepository.streamAllSlotsOrderedByRoom())
+                .thenReturn(Stream.of(slot(1L, 1L, NOON, 60),
+                        slot(1L, 2L, NOON.plusMinutes(65), 60),
+                        slot(2L, 2L, NOON, 60),
+                        slot(2L, 1L, NOON.plusMinutes(30), 60)));
+        when(movieRepository.findAllById(Set.of(1L, 2L)))
+                .thenReturn(List.of(alpha, beta));
+        when(roomRepository.findAllById(Set.of(1L, 2L)))
+                .thenReturn(List.of(roomA, roomB));
+        var expected = List.of(ScheduleClash.builder()
+                        .roomName("A")
+                        .movieTitle("Alpha")
+                        .startDateTime(NOON)
+                        .clashingMovieTitle("Beta")
+                        .clashingStartDateTime(NOON.plusMinutes(65))
+                        .overlapping(false)
+                        .build(),
+                ScheduleClash.builder()
+                        .roomName("B")
+                        .movieTitle("Beta")
+                        .startDateTime(NOON)
+                        .clashingMovieTitle("Alpha")
+                        .clashingStartDateTime(NOON.plusMinutes(30))
+                        .overlapping(true)
+                        .build());
+        // when
+        var actual = scheduleAuditor.audit();
+        // then
+        assertEquals(expected, actual.getClashes());
+        assertEquals(4, actual.getScreeningsChecked());
+        assertEquals(2, actual.getRoomsChecked());
+        verify(movieRepository, times(1))
+                .findAllById(Set.of(1L, 2L));
+        verify(roomRepository, times(1))
+                .findAllById(Set.of(1L, 2L));
+        verifyNoMoreInteractions(movieRepository, roomRepository);
+    }
+
+    private RoomScreeningSlot slot(Long roomId, Long movieId, LocalDateTime startDateTime, int durationInMinutes) {
+        return new RoomScreeningSlot(roomId, movieId, startDateTime, startDateTime.plusMinutes(durationInMinutes));
+    }
+}
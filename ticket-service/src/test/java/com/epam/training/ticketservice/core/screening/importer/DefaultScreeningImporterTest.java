@@ -0,0 +1,163 @@
+package com.epam.training.ticketservice.core.screening.importer;
+
+import com.epam.training.ticketservice.core.catalogue.CatalogueAggregate;
+import com.epam.training.ticketservice.core.catalogue.CatalogueVersions;
+import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.room.repository.RoomRepository;
+import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.exception.ScreeningImportException;
+import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import com.epam.training.ticketservice.core.screening.timeline.ScreeningTimeline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultScreeningImporterTest {
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    @Mock
+    private ScreeningTimeline screeningTimeline;
+
+    @Mock
+    private CatalogueVersions catalogueVersions;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private DefaultScreeningImporter screeningImporter;
+
+    private final Movie movie = Movie.builder()
+            .id(1L)
+            .title("Movie, the")
+            .genre("genre")
+            .durationInMinutes(60)
+            .build();
+
+    private final Room room = Room.builder()
+            .id(2L)
+            .name("Room")
+            .rows(10)
+            .columns(20)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        screeningImporter = new DefaultScreeningImporter(movieRepository,
+                roomRepository,
+                screeningRepository,
+                screeningTimeline,
+                catalogueVersions,
+                entityManager,
+                2);
+    }
+
+    @Test
+    void givenValidLines_whenImportScreenings_thenPersistInChunksWithOneLookupPerName() throws Exception {
+        // given
+        var csv = "\"Movie, the\",Room,2021-03-01 10:00\n"
+                + "\n"
+                + "\"Movie, the\",Room,2021-03-01 11:10\n"
+                + "\"Movie, the\",Room,2021-03-01 12:20\n";
+        when(movieRepository.findByTitle("Movie, the"))
+                .thenReturn(Optional.of(movie));
+        when(roomRepository.findByName("Room"))
+                .thenReturn(Optional.of(room));
+        when(movieRepository.findLongestDurationInMinutes())
+                .thenReturn(Optional.of(60));
+        when(screeningRepository.findAllSlotsByRoomIdOverlapping(2L,
+                LocalDateTime.of(2021, 3, 1, 8, 50),
+                LocalDateTime.of(2021, 3, 1, 9, 50),
+                LocalDateTime.of(2021, 3, 1, 13, 30)))
+                .thenReturn(Collections.emptyList());
+        when(entityManager.getReference(Movie.class, 1L))
+                .thenReturn(movie);
+        when(entityManager.getReference(Room.class, 2L))
+                .thenReturn(room);
+        // when
+        var imported = screeningImporter.importScreenings(new BufferedReader(new StringReader(csv)));
+        // then
+        assertEquals(3, imported);
+        verify(movieRepository, times(1))
+                .findByTitle("Movie, the");
+        verify(roomRepository, times(1))
+                .findByName("Room");
+        verify(entityManager, times(3))
+                .persist(any(Screening.class));
+        verify(entityManager, times(2))
+                .flush();
+        verify(entityManager, times(2))
+                .clear();
+        verify(screeningTimeline, times(1))
+                .evictAllByRoomId(2L);
+        verify(catalogueVersions, times(1))
+                .bump(CatalogueAggregate.SCREENING);
+    }
+
+    @Test
+    void givenInvalidLines_whenImportScreenings_thenThrowWithAllErrorsAndPersistNothing() {
+        // given
+        var csv = "Unknown,Room,2021-03-01 10:00\n"
+                + "\"Movie, the\",Nowhere,2021-03-01 10:00\n"
+                + "\"Movie, the\",Room,tomorrow\n"
+                + "\"Movie, the\",Room\n"
+                + "\"Movie, the\",Room,2021-03-01 10:00\n"
+                + "\"Movie, the\",Room,2021-03-01 11:05\n";
+        when(movieRepository.findByTitle("Unknown"))
+                .thenReturn(Optional.empty());
+        when(movieRepository.findByTitle("Movie, the"))
+                .thenReturn(Optional.of(movie));
+        when(roomRepository.findByName("Nowhere"))
+                .thenReturn(Optional.empty());
+        when(roomRepository.findByName("Room"))
+                .thenReturn(Optional.of(room));
+        when(movieRepository.findLongestDurationInMinutes())
+                .thenReturn(Optional.of(60));
+        when(screeningRepository.findAllSlotsByRoomIdOverlapping(eq(2L), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        var expected = List.of("Line 1: movie Unknown does not exist",
+                "Line 2: room Nowhere does not exist",
+                "Line 3: start time tomorrow is not in yyyy-MM-dd HH:mm format",
+                "Line 4: expected a movie title, a room name and a start time",
+                "Line 6: clashes with the screening on line 5");
+        // when
+        var exception = assertThrows(ScreeningImportException.class,
+                () -> screeningImporter.importScreenings(new BufferedReader(new StringReader(csv))));
+        // then
+        assertEquals(expected, exception.getErrors());
+        verifyNoInteractions(entityManager);
+        verifyNoInteractions(screeningTimeline);
+        verifyNoInteractions(catalogueVersions);
+    }
+
+    @Test
+    void givenQuotedFields_whenSplitCsvLine_thenKeepCommasAndQuotesInside() {
+        // when
+        var fields = DefaultScreeningImporter.splitCsvLine("\"Say \"\"hi\"\", then\", Room A ,2021-03-01 10:00");
+        // then
+        assertEquals(List.of("Say \"hi\", then", "Room A", "2021-03-01 10:00"), fields);
+    }
+}
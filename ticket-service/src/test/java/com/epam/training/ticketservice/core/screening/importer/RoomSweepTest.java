@@ -0,0 +1,93 @@
+package com.epam.training.ticketservice.core.screening.importer;
+
+import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.screening.dto.ScreeningSlot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomSweepTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2021, 3, 1, 12, 0);
+
+    private final Movie movie = Movie.builder()
+            .id(1L)
+            .title("Movie")
+            .genre("genre")
+            .durationInMinutes(60)
+            .build();
+
+    private final Room room = Room.builder()
+            .id(2L)
+            .name("Room")
+            .rows(10)
+            .columns(20)
+            .build();
+
+    @Test
+    void givenImportedScreeningsKeepTheBreak_whenFindClashes_thenNoErrors() {
+        // given
+        var imported = List.of(imported(1, NOON),
+                imported(2, NOON.plusMinutes(70)),
+                imported(3, NOON.minusMinutes(70)));
+        var errors = new TreeMap<Integer, String>();
+        // when
+        RoomSweep.findClashes(imported, Collections.emptyList(), errors);
+        // then
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void givenImportedScreeningStartsInTheBreak_whenFindClashes_thenReportTheLaterLine() {
+        // given
+        var imported = List.of(imported(1, NOON.plusMinutes(65)), imported(2, NOON));
+        var errors = new TreeMap<Integer, String>();
+        // when
+        RoomSweep.findClashes(imported, Collections.emptyList(), errors);
+        // then
+        assertEquals(Map.of(1, "clashes with the screening on line 2"), errors);
+    }
+
+    @Test
+    void givenExistingScreeningsAround_whenFindClashes_thenReportImportedLinesOnly() {
+        // given
+        // Existing screenings overlap each other, that is not the import's business
+        var existing = List.of(new ScreeningSlot(3L, NOON.minusMinutes(300), 400),
+                new ScreeningSlot(4L, NOON.plusMinutes(100), 30),
+                new ScreeningSlot(5L, NOON.plusMinutes(110), 30));
+        var imported = List.of(imported(1, NOON), imported(2, NOON.plusMinutes(400)));
+        var errors = new TreeMap<Integer, String>();
+        // when
+        RoomSweep.findClashes(imported, existing, errors);
+        // then
+        assertEquals(Map.of(1, "clashes with an existing screening"), errors);
+    }
+
+    @Test
+    void givenExistingScreeningStartsInTheBreakAfterImported_whenFindClashes_thenReportImportedLine() {
+        // given
+        var existing = List.of(new ScreeningSlot(3L, NOON.plusMinutes(65), 30));
+        var imported = List.of(imported(1, NOON));
+        var errors = new TreeMap<Integer, String>();
+        // when
+        RoomSweep.findClashes(imported, existing, errors);
+        // then
+        assertEquals(Map.of(1, "clashes with an existing screening"), errors);
+    }
+
+    private ImportedScreening imported(int lineNumber, LocalDateTime startDateTime) {
+        return ImportedScreening.builder()
+                .lineNumber(lineNumber)
+                .movie(movie)
+                .room(room)
+                .startDateTime(startDateTime)
+                .build();
+    }
+}
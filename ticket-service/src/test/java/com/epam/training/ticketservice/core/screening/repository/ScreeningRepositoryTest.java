@@ -1,16 +1,26 @@
 package com.epam.training.ticketservice.core.screening.repository;
 
+import com.epam.training.ticketservice.core.account.entity.Account;
+import com.epam.training.ticketservice.core.booking.entity.Booking;
+import com.epam.training.ticketservice.core.booking.entity.BookingId;
 import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.price.dto.ScreeningPriceQuote;
+import com.epam.training.ticketservice.core.price.entity.PriceComponent;
 import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.screening.dto.RoomScreeningSlot;
+import com.epam.training.ticketservice.core.screening.dto.ScreeningSlot;
 import com.epam.training.ticketservice.core.screening.entity.Screening;
 import com.epam.training.ticketservice.core.screening.entity.ScreeningId;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -249,4 +259,370 @@ class ScreeningRepositoryTest {
         // then
         assertTrue(result.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenScreeningsInSeveralRooms_whenFindAllSlotsByRoomId_thenReturnSlotsOfThatRoomOnly() {
+        // given
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("Movie")
+                .genre("genreA")
+                .durationInMinutes(60)
+                .build());
+        var roomA = testEntityManager.persist(Room.builder()
+                .name("RoomA")
+                .rows(10)
+                .columns(20)
+                .build());
+        var roomB = testEntityManager.persist(Room.builder()
+                .name("RoomB")
+                .rows(10)
+                .columns(20)
+                .build());
+        var startDateTime0 = LocalDateTime.of(2020,12,14,12,10);
+        var startDateTime1 = LocalDateTime.of(2020,12,14,16,10);
+        testEntityManager.persist(Screening.builder()
+                .movie(movie)
+                .room(roomA)
+                .startDateTime(startDateTime0)
+                .build());
+        testEntityManager.persist(Screening.builder()
+                .movie(movie)
+                .room(roomB)
+                .startDateTime(startDateTime1)
+                .build());
+        var expected = new ScreeningSlot(movie.getId(), startDateTime0, 60);
+        // when
+        var result = screeningRepository.findAllSlotsByRoomId(roomA.getId());
+        // then
+        assertEquals(List.of(expected), result);
+    }
+
+    @Test
+    void givenEntityIsPersisted_whenFindById_thenEndDateTimeIsStored() {
+        // given
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("Movie")
+                .genre("genreA")
+                .durationInMinutes(95)
+                .build());
+        var room = testEntityManager.persist(Room.builder()
+                .name("RoomA")
+                .rows(10)
+                .columns(20)
+                .build());
+        var startDateTime = LocalDateTime.of(2020,12,14,12,10);
+        var screening = testEntityManager.persist(Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(startDateTime)
+                .build());
+        testEntityManager.flush();
+        testEntityManager.clear();
+        // when
+        var result = screeningRepository.findById(screening.getId());
+        // then
+        assertTrue(result.isPresent());
+        assertEquals(LocalDateTime.of(2020,12,14,13,45), result.get().getEndDateTime());
+    }
+
+    @Test
+    void givenScreeningsAroundTheWindow_whenFindAllSlotsByRoomIdOverlapping_thenReturnOnlyOverlapping() {
+        // given
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("Movie")
+                .genre("genreA")
+                .durationInMinutes(60)
+                .build());
+        var roomA = testEntityManager.persist(Room.builder()
+                .name("RoomA")
+                .rows(10)
+                .columns(20)
+                .build());
+        var roomB = testEntityManager.persist(Room.builder()
+                .name("RoomB")
+                .rows(10)
+                .columns(20)
+                .build());
+        var endsBefore = LocalDateTime.of(2020,12,14,10,0);
+        var overlapsStart = LocalDateTime.of(2020,12,14,11,30);
+        var overlapsEnd = LocalDateTime.of(2020,12,14,13,0);
+        var startsAfter = LocalDateTime.of(2020,12,14,14,0);
+        for (var startDateTime : List.of(endsBefore, overlapsStart, overlapsEnd, startsAfter)) {
+            testEntityManager.persist(Screening.builder()
+                    .movie(movie)
+                    .room(roomA)
+                    .startDateTime(startDateTime)
+                    .build());
+        }
+        testEntityManager.persist(Screening.builder()
+                .movie(movie)
+                .room(roomB)
+                .startDateTime(overlapsStart)
+                .build());
+        var windowStart = LocalDateTime.of(2020,12,14,12,0);
+        var windowEnd = LocalDateTime.of(2020,12,14,14,0);
+        var expected = List.of(new ScreeningSlot(movie.getId(), overlapsStart, 60),
+                new ScreeningSlot(movie.getId(), overlapsEnd, 60));
+        // when
+        var result = screeningRepository.findAllSlotsByRoomIdOverlapping(roomA.getId(),
+                windowStart.minusMinutes(60),
+                windowStart,
+                windowEnd);
+        // then
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void givenScreeningsInSeveralRooms_whenStreamAllSlotsOrderedByRoom_thenReturnSlotsGroupedByRoomAndSorted() {
+        // given
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("Movie")
+                .genre("genreA")
+                .durationInMinutes(60)
+                .build());
+        var roomA = testEntityManager.persist(Room.builder()
+                .name("RoomA")
+                .rows(10)
+                .columns(20)
+                .build());
+        var roomB = testEntityManager.persist(Room.builder()
+                .name("RoomB")
+                .rows(10)
+                .columns(20)
+                .build());
+        var early = LocalDateTime.of(2020,12,14,10,0);
+        var late = LocalDateTime.of(2020,12,14,14,0);
+        for (var screening : List.of(Screening.builder().movie(movie).room(roomB).startDateTime(late).build(),
+                Screening.builder().movie(movie).room(roomA).startDateTime(late).build(),
+                Screening.builder().movie(movie).room(roomB).startDateTime(early).build(),
+                Screening.builder().movie(movie).room(roomA).startDateTime(early).build())) {
+            testEntityManager.persist(screening);
+        }
+        var expected = List.of(new RoomScreeningSlot(roomA.getId(), movie.getId(), early, early.plusMinutes(60)),
+                new RoomScreeningSlot(roomA.getId(), movie.getId(), late, late.plusMinutes(60)),
+                new RoomScreeningSlot(roomB.getId(), movie.getId(), early, early.plusMinutes(60)),
+                new RoomScreeningSlot(roomB.getId(), movie.getId(), late, late.plusMinutes(60)));
+        testEntityManager.flush();
+        // when
+        List<RoomScreeningSlot> result;
+        try (var slots = screeningRepository.streamAllSlotsOrderedByRoom()) {
+            result = slots.collect(Collectors.toList());
+        }
+        // then
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void givenEndDateTimeIsMissing_whenBackfillEndDateTimes_thenComputeItFromMovieDuration() {
+        // given
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("Movie")
+                .genre("genreA")
+                .durationInMinutes(95)
+                .build());
+        var room = testEntityManager.persist(Room.builder()
+                .name("RoomA")
+                .rows(10)
+                .columns(20)
+                .build());
+        var screeningId = testEntityManager.persist(Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(LocalDateTime.of(2020,12,14,12,10))
+                .build()).getId();
+        testEntityManager.flush();
+        testEntityManager.getEntityManager()
+                .createNativeQuery("update screenings set end_date_time = null")
+                .executeUpdate();
+        // when
+        var result = screeningRepository.backfillEndDateTimes();
+        // then
+        assertEquals(1, result);
+        testEntityManager.clear();
+        var screening = testEntityManager.find(Screening.class, screeningId);
+        assertEquals(LocalDateTime.of(2020,12,14,13,45), screening.getEndDateTime());
+    }
+
+    @Test
+    void givenBookingsExist_whenRecomputeAllSales_thenCountersMatchTheBookings() {
+        // given
+        var account = testEntityManager.persist(Account.builder()
+                .username("someUsername")
+                .password("somePassword")
+                .build());
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("Movie")
+                .genre("genreA")
+                .durationInMinutes(60)
+                .build());
+        var room = testEntityManager.persist(Room.builder()
+                .name("RoomA")
+                .rows(10)
+                .columns(20)
+                .build());
+        var screening = testEntityManager.persist(Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(LocalDateTime.of(2020,12,14,12,10))
+                .build());
+        for (var column : List.of(1, 2)) {
+            testEntityManager.persist(Booking.builder()
+                    .id(new BookingId(screening.getId(), account.getId(), 1, column))
+                    .screening(screening)
+                    .owner(account)
+                    .price(1500)
+                    .build());
+        }
+        testEntityManager.flush();
+        // when
+        screeningRepository.recomputeAllSales();
+        // then
+        testEntityManager.clear();
+        var actual = testEntityManager.find(Screening.class, screening.getId());
+        assertEquals(2, actual.getSeatsSold());
+        assertEquals(3000L, actual.getGrossRevenue());
+    }
+
+    @Test
+    void givenEntityExists_whenAddSales_thenCountersAreIncrementedInPlace() {
+        // given
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("Movie")
+                .genre("genreA")
+                .durationInMinutes(60)
+                .build());
+        var room = testEntityManager.persist(Room.builder()
+                .name("RoomA")
+                .rows(10)
+                .columns(20)
+                .build());
+        var screeningId = testEntityManager.persist(Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(LocalDateTime.of(2020,12,14,12,10))
+                .build()).getId();
+        testEntityManager.flush();
+        // when
+        screeningRepository.addSales(screeningId, 3, 4500L);
+        screeningRepository.addSales(screeningId, -1, -1500L);
+        // then
+        testEntityManager.clear();
+        var screening = testEntityManager.find(Screening.class, screeningId);
+        assertEquals(2, screening.getSeatsSold());
+        assertEquals(3000L, screening.getGrossRevenue());
+    }
+
+    @Test
+    void givenComponentAttached_whenRecomputePriceComponentTotalsContaining_thenTotalMatchesTheFees() {
+        // given
+        var fee = testEntityManager.persist(PriceComponent.builder()
+                .name("fee")
+                .price(300)
+                .build());
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("Movie")
+                .genre("genreA")
+                .durationInMinutes(60)
+                .build());
+        var room = testEntityManager.persist(Room.builder()
+                .name("RoomA")
+                .rows(10)
+                .columns(20)
+                .build());
+        var screening = Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(LocalDateTime.of(2020,12,14,12,10))
+                .build();
+        screening.getPriceComponents().add(fee);
+        screening = testEntityManager.persist(screening);
+        testEntityManager.flush();
+        // when
+        var updated = screeningRepository.recomputePriceComponentTotalsContaining(fee);
+        testEntityManager.clear();
+        // then
+        assertEquals(1, updated);
+        assertEquals(300, testEntityManager.find(Screening.class, screening.getId()).getPriceComponentTotal());
+    }
+
+    @Test
+    void givenScreeningsOnSeveralDays_whenFindAllPriceQuotesStartingBetween_thenSumTotalsOfThatDayOnly() {
+        // given
+        var movie = Movie.builder()
+                .title("Movie")
+                .genre("genreA")
+                .durationInMinutes(60)
+                .build();
+        movie.setPriceComponentTotal(100);
+        movie = testEntityManager.persist(movie);
+        var room = Room.builder()
+                .name("RoomA")
+                .rows(10)
+                .columns(20)
+                .build();
+        room.setPriceComponentTotal(20);
+        room = testEntityManager.persist(room);
+        var start = LocalDateTime.of(2020,12,14,12,10);
+        var screening = Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(start)
+                .build();
+        ReflectionTestUtils.setField(screening, "priceComponentTotal", 3);
+        testEntityManager.persist(screening);
+        testEntityManager.persist(Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(start.plusDays(1))
+                .build());
+        testEntityManager.flush();
+        // when
+        var result = screeningRepository.findAllPriceQuotesStartingBetween(LocalDateTime.of(2020,12,14,0,0),
+                LocalDateTime.of(2020,12,15,0,0));
+        // then
+        assertEquals(List.of(new ScreeningPriceQuote("Movie", "RoomA", start, 123, 0, 200)), result);
+    }
+
+    @Test
+    void givenScreeningsOfSeveralMovies_whenFindAllPriceQuotesByMovieTitle_thenReturnThatMovieOrderedByStart() {
+        // given
+        var movie = testEntityManager.persist(Movie.builder()
+                .title("Movie")
+                .genre("genreA")
+                .durationInMinutes(60)
+                .build());
+        var otherMovie = testEntityManager.persist(Movie.builder()
+                .title("Other")
+                .genre("genreA")
+                .durationInMinutes(60)
+                .build());
+        var room = testEntityManager.persist(Room.builder()
+                .name("RoomA")
+                .rows(10)
+                .columns(20)
+                .build());
+        var start = LocalDateTime.of(2020,12,14,12,10);
+        testEntityManager.persist(Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(start.plusHours(4))
+                .build());
+        testEntityManager.persist(Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(start)
+                .build());
+        testEntityManager.persist(Screening.builder()
+                .movie(otherMovie)
+                .room(room)
+                .startDateTime(start.plusHours(2))
+                .build());
+        testEntityManager.flush();
+        // when
+        var result = screeningRepository.findAllPriceQuotesByMovieTitle("Movie");
+        // then
+        assertEquals(List.of(start, start.plusHours(4)), result.stream()
+                .map(ScreeningPriceQuote::getStartDateTime)
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,177 @@
+package com.epam.training.ticketservice.core.screening.schedule;
+
+import com.epam.training.ticketservice.core.catalogue.CatalogueAggregate;
+import com.epam.training.ticketservice.core.catalogue.CatalogueVersions;
+import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.room.repository.RoomRepository;
+import com.epam.training.ticketservice.core.screening.dto.MovieQuota;
+import com.epam.training.ticketservice.core.screening.dto.ScheduledScreening;
+import com.epam.training.ticketservice.core.screening.dto.ScreeningSlot;
+import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import com.epam.training.ticketservice.core.screening.timeline.ScreeningTimeline;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityNotFoundException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultScheduleGeneratorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2021, 3, 15);
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    @Mock
+    private ScreeningTimeline screeningTimeline;
+
+    @Mock
+    private CatalogueVersions catalogueVersions;
+
+    @InjectMocks
+    private DefaultScheduleGenerator scheduleGenerator;
+
+    private final Movie movie = Movie.builder()
+            .id(1L)
+            .title("Movie")
+            .genre("genre")
+            .durationInMinutes(60)
+            .build();
+
+    private final Room room = Room.builder()
+            .id(2L)
+            .name("Room")
+            .rows(10)
+            .columns(20)
+            .build();
+
+    @Test
+    void givenExistingScreening_whenGenerate_thenFillTheGapsAroundItAndSaveInOneBatch() {
+        // given
+        // Open 10:00 to 14:00, an existing screening from 11:30 to 12:30 leaves 10:00-11:20 and 12:40-14:00
+        var existing = new ScreeningSlot(3L, DAY.atTime(11, 30), 60);
+        when(roomRepository.findByName("Room"))
+                .thenReturn(Optional.of(room));
+        when(movieRepository.findByTitle("Movie"))
+                .thenReturn(Optional.of(movie));
+        when(movieRepository.findLongestDurationInMinutes())
+                .thenReturn(Optional.of(60));
+        when(screeningRepository.findAllSlotsByRoomIdOverlapping(2L,
+                DAY.atTime(8, 50),
+                DAY.atTime(9, 50),
+                DAY.atTime(14, 10)))
+                .thenReturn(List.of(existing));
+        var quotas = List.of(MovieQuota.builder().movieTitle("Movie").count(5).build());
+        var expected = List.of(scheduled(DAY.atTime(10, 0)), scheduled(DAY.atTime(12, 40)));
+        // when
+        var schedule = scheduleGenerator.generate("Room", DAY, LocalTime.of(10, 0), LocalTime.of(14, 0), quotas);
+        // then
+        assertEquals(expected, schedule.getScreenings());
+        assertEquals(120, schedule.getUsedMinutes());
+        assertEquals(160, schedule.getFreeMinutes());
+        verify(screeningRepository, times(1))
+                .saveAll(anyList());
+        verify(screeningTimeline, times(1))
+                .evictAllByRoomId(2L);
+        verify(catalogueVersions, times(1))
+                .bump(CatalogueAggregate.SCREENING);
+    }
+
+    @Test
+    void givenClosingIsBeforeOpening_whenGenerate_thenScheduleUntilTheNextDay() {
+        // given
+        when(roomRepository.findByName("Room"))
+                .thenReturn(Optional.of(room));
+        when(movieRepository.findByTitle("Movie"))
+                .thenReturn(Optional.of(movie));
+        when(movieRepository.findLongestDurationInMinutes())
+                .thenReturn(Optional.of(60));
+        when(screeningRepository.findAllSlotsByRoomIdOverlapping(2L,
+                DAY.atTime(21, 50),
+                DAY.atTime(22, 50),
+                DAY.plusDays(1).atTime(1, 10)))
+                .thenReturn(Collections.emptyList());
+        var quotas = List.of(MovieQuota.builder().movieTitle("Movie").count(3).build());
+        // when
+        var schedule = scheduleGenerator.generate("Room", DAY, LocalTime.of(23, 0), LocalTime.of(1, 0), quotas);
+        // then
+        assertEquals(List.of(scheduled(DAY.atTime(23, 0))), schedule.getScreenings());
+    }
+
+    @Test
+    void givenNothingFits_whenGenerate_thenSaveNothing() {
+        // given
+        when(roomRepository.findByName("Room"))
+                .thenReturn(Optional.of(room));
+        when(movieRepository.findByTitle("Movie"))
+                .thenReturn(Optional.of(movie));
+        when(movieRepository.findLongestDurationInMinutes())
+                .thenReturn(Optional.of(60));
+        when(screeningRepository.findAllSlotsByRoomIdOverlapping(eq(2L), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        var quotas = List.of(MovieQuota.builder().movieTitle("Movie").count(1).build());
+        // when
+        var schedule = scheduleGenerator.generate("Room", DAY, LocalTime.of(10, 0), LocalTime.of(10, 30), quotas);
+        // then
+        assertTrue(schedule.getScreenings().isEmpty());
+        verify(screeningRepository, never())
+                .saveAll(anyList());
+        verifyNoInteractions(screeningTimeline);
+        verifyNoInteractions(catalogueVersions);
+    }
+
+    @Test
+    void givenMovieDoesNotExist_whenGenerate_thenThrow() {
+        // given
+        when(roomRepository.findByName("Room"))
+                .thenReturn(Optional.of(room));
+        when(movieRepository.findByTitle("Movie"))
+                .thenReturn(Optional.empty());
+        var quotas = List.of(MovieQuota.builder().movieTitle("Movie").count(1).build());
+        // when
+        assertThrows(EntityNotFoundException.class,
+                () -> scheduleGenerator.generate("Room", DAY, LocalTime.of(10, 0), LocalTime.of(14, 0), quotas));
+        // then
+        verifyNoInteractions(screeningRepository);
+    }
+
+    @Test
+    void givenCountIsNotPositive_whenGenerate_thenThrow() {
+        // given
+        var quotas = List.of(MovieQuota.builder().movieTitle("Movie").count(0).build());
+        // when
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduleGenerator.generate("Room", DAY, LocalTime.of(10, 0), LocalTime.of(14, 0), quotas));
+        // then
+        verifyNoInteractions(roomRepository);
+        verifyNoInteractions(screeningRepository);
+    }
+
+    private ScheduledScreening scheduled(LocalDateTime startDateTime) {
+        return ScheduledScreening.builder()
+                .movieTitle("Movie")
+                .startDateTime(startDateTime)
+                .endDateTime(startDateTime.plusMinutes(60))
+                .build();
+    }
+}
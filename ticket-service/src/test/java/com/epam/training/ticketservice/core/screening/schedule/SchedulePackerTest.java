@@ -0,0 +1,54 @@
+package com.epam.training.ticketservice.core.screening.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchedulePackerTest {
+
+    @Test
+    void givenGapFitsEverything_whenPack_thenPickAllCounts() {
+        // when
+        var picked = SchedulePacker.pack(24 * 60, new int[]{90, 120}, new int[]{3, 2});
+        // then
+        assertArrayEquals(new int[]{3, 2}, picked);
+    }
+
+    @Test
+    void givenGapIsTight_whenPack_thenMaximizeMinutesShown() {
+        // given
+        // 100 + 10 + 100 fills 210 exactly, while 150 leaves 60 minutes without a fitting movie
+        var durations = new int[]{150, 100};
+        var counts = new int[]{1, 2};
+        // when
+        var picked = SchedulePacker.pack(210, durations, counts);
+        // then
+        assertArrayEquals(new int[]{0, 2}, picked);
+    }
+
+    @Test
+    void givenLargeCount_whenPack_thenNeverExceedIt() {
+        // when
+        var picked = SchedulePacker.pack(24 * 60, new int[]{60}, new int[]{7});
+        // then
+        assertArrayEquals(new int[]{7}, picked);
+    }
+
+    @Test
+    void givenNothingFits_whenPack_thenPickNothing() {
+        // when
+        var picked = SchedulePacker.pack(59, new int[]{60, 90}, new int[]{1, 1});
+        // then
+        assertArrayEquals(new int[]{0, 0}, picked);
+    }
+
+    @Test
+    void givenPickedCounts_whenArrange_thenAlternateMoviesInGivenOrder() {
+        // when
+        var order = SchedulePacker.arrange(new int[]{2, 0, 3});
+        // then
+        assertEquals(List.of(0, 2, 0, 2, 2), order);
+    }
+}
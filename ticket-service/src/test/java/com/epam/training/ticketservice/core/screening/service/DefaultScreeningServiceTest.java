@@ -1,16 +1,24 @@
 package com.epam.training.ticketservice.core.screening.service;
 
+import com.epam.training.ticketservice.core.booking.occupancy.SeatOccupancyIndex;
+import com.epam.training.ticketservice.core.catalogue.CatalogueAggregate;
+import com.epam.training.ticketservice.core.catalogue.CatalogueVersions;
 import com.epam.training.ticketservice.core.movie.entity.Movie;
 import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.price.service.PriceService;
 import com.epam.training.ticketservice.core.room.entity.Room;
 import com.epam.training.ticketservice.core.room.repository.RoomRepository;
+import com.epam.training.ticketservice.core.screening.dto.ScreeningSlot;
 import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.exception.ScreeningTimeClashException;
 import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import com.epam.training.ticketservice.core.screening.timeline.ScreeningTimeline;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
@@ -36,20 +44,32 @@ class DefaultScreeningServiceTest {
     @Mock
     private ScreeningTimeClashService clashService;
 
+    @Mock
+    private ScreeningTimeline screeningTimeline;
+
+    @Mock
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Mock
+    private PriceService priceService;
+
+    @Mock
+    private CatalogueVersions catalogueVersions;
+
     @InjectMocks
     private DefaultScreeningService screeningService;
 
     @Test
     void givenEntitiesDontExist_whenList_thenReturnEmptyList() {
         // given
-        when(screeningRepository.findAll())
+        when(screeningRepository.findAllWithMovieAndRoom())
                 .thenReturn(Collections.emptyList());
         // when
         var list = screeningService.list();
         // then
         assertTrue(list.isEmpty());
         verify(screeningRepository, times(1))
-                .findAll();
+                .findAllWithMovieAndRoom();
         verifyNoMoreInteractions(screeningRepository);
         verifyNoMoreInteractions(clashService);
         verifyNoMoreInteractions(movieRepository);
@@ -98,14 +118,14 @@ class DefaultScreeningServiceTest {
         var screenings = List.of(screeningA, screeningB);
         var expected = List.of("Movie A (genre A, 10 minutes), screened in room Room A, at 2000-01-01 01:01",
                 "Movie B (genre B, 20 minutes), screened in room Room B, at 2000-01-01 01:02");
-        when(screeningRepository.findAll())
+        when(screeningRepository.findAllWithMovieAndRoom())
                 .thenReturn(screenings);
         // when
         var list = screeningService.list();
         // then
         assertEquals(expected, list);
         verify(screeningRepository, times(1))
-                .findAll();
+                .findAllWithMovieAndRoom();
         verifyNoMoreInteractions(screeningRepository);
         verifyNoMoreInteractions(clashService);
         verifyNoMoreInteractions(movieRepository);
@@ -117,18 +137,68 @@ class DefaultScreeningServiceTest {
         // given
         doThrow(RuntimeException.class)
                 .when(screeningRepository)
-                .findAll();
+                .findAllWithMovieAndRoom();
         // when
         assertThrows(RuntimeException.class, () -> screeningService.list());
         // then
         verify(screeningRepository, times(1))
-                .findAll();
+                .findAllWithMovieAndRoom();
         verifyNoMoreInteractions(screeningRepository);
         verifyNoMoreInteractions(clashService);
         verifyNoMoreInteractions(movieRepository);
         verifyNoMoreInteractions(roomRepository);
     }
 
+    @Test
+    void givenCatalogueIsUnchanged_whenListTwice_thenQueryOnce() {
+        // given
+        when(catalogueVersions.current(CatalogueAggregate.MOVIE, CatalogueAggregate.ROOM, CatalogueAggregate.SCREENING))
+                .thenReturn(7L);
+        when(screeningRepository.findAllWithMovieAndRoom())
+                .thenReturn(Collections.emptyList());
+        // when
+        screeningService.list();
+        screeningService.list();
+        // then
+        verify(screeningRepository, times(1))
+                .findAllWithMovieAndRoom();
+        verifyNoMoreInteractions(screeningRepository);
+    }
+
+    @Test
+    void givenScreeningsHaveSales_whenListWithSales_thenReturnDescriptionsWithCounters() {
+        // given
+        var movie = Movie.builder()
+                .id(1L)
+                .title("Movie A")
+                .genre("genre A")
+                .durationInMinutes(10)
+                .build();
+        var room = Room.builder()
+                .id(2L)
+                .name("Room A")
+                .rows(10)
+                .columns(20)
+                .build();
+        var screening = Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(LocalDateTime.of(2000,1,1,1,1))
+                .build();
+        ReflectionTestUtils.setField(screening, "seatsSold", 3);
+        ReflectionTestUtils.setField(screening, "grossRevenue", 4500L);
+        when(screeningRepository.findAllWithMovieAndRoom())
+                .thenReturn(List.of(screening));
+        // when
+        var list = screeningService.listWithSales();
+        // then
+        assertEquals(List.of("Movie A (genre A, 10 minutes), screened in room Room A, at 2000-01-01 01:01, "
+                + "3 seats sold, 197 seats free, 4500 HUF gross revenue"), list);
+        verify(screeningRepository, times(1))
+                .findAllWithMovieAndRoom();
+        verifyNoMoreInteractions(screeningRepository);
+    }
+
     @Test
     void givenEntityDoesNotExistAlready_whenCreateScreening_thenSaveEntity() {
         // given
@@ -165,7 +235,7 @@ class DefaultScreeningServiceTest {
                 .thenReturn(Optional.of(roomA));
         when(movieRepository.save(movieModified))
                 .thenReturn(movieModified);
-        when(screeningRepository.findAllByRoom(roomA))
+        when(screeningTimeline.findClashCandidates(roomA, startTimeA, startTimeA.plusMinutes(10)))
                 .thenReturn(Collections.emptyList());
         // when
         screeningService.createScreening(title, roomName, startTimeA);
@@ -174,14 +244,73 @@ class DefaultScreeningServiceTest {
                 .findByTitle(title);
         verify(roomRepository, times(1))
                 .findByName(roomName);
-        verify(screeningRepository, times(1))
-                .findAllByRoom(roomA);
+        verify(screeningTimeline, times(1))
+                .findClashCandidates(roomA, startTimeA, startTimeA.plusMinutes(10));
         verify(movieRepository, times(1))
                 .save(movieModified);
+        verify(screeningTimeline, times(1))
+                .add(screeningA);
+        verify(catalogueVersions, times(1))
+                .bump(CatalogueAggregate.SCREENING);
+        verifyNoMoreInteractions(screeningTimeline);
+        verifyNoMoreInteractions(screeningRepository);
+        verifyNoMoreInteractions(clashService);
+        verifyNoMoreInteractions(movieRepository);
+        verifyNoMoreInteractions(roomRepository);
+    }
+
+    @Test
+    void givenCandidateClashes_whenCreateScreening_thenThrowAndDoNotSave() {
+        // given
+        var title = "Movie A";
+        var roomName = "Room A";
+        var movieA = Movie.builder()
+                .id(1L)
+                .title(title)
+                .genre("genre A")
+                .durationInMinutes(10)
+                .build();
+        var roomA = Room.builder()
+                .id(2L)
+                .name(roomName)
+                .rows(10)
+                .columns(20)
+                .build();
+        var startTimeA = LocalDateTime.of(2000,1,1,1,1);
+        var endTimeA = startTimeA.plusMinutes(10);
+        var existingStart = LocalDateTime.of(2000,1,1,1,5);
+        var candidate = ScreeningSlot.builder()
+                .movieId(3L)
+                .startDateTime(existingStart)
+                .durationInMinutes(30)
+                .build();
+        when(movieRepository.findByTitle(title))
+                .thenReturn(Optional.of(movieA));
+        when(roomRepository.findByName(roomName))
+                .thenReturn(Optional.of(roomA));
+        when(screeningTimeline.findClashCandidates(roomA, startTimeA, endTimeA))
+                .thenReturn(List.of(candidate));
+        doThrow(ScreeningTimeClashException.class)
+                .when(clashService)
+                .check(startTimeA, endTimeA, existingStart, 30);
+        // when
+        assertThrows(ScreeningTimeClashException.class,
+                () -> screeningService.createScreening(title, roomName, startTimeA));
+        // then
+        verify(screeningTimeline, times(1))
+                .findClashCandidates(roomA, startTimeA, endTimeA);
+        verify(clashService, times(1))
+                .check(startTimeA, endTimeA, existingStart, 30);
+        verify(movieRepository, times(1))
+                .findByTitle(title);
+        verify(roomRepository, times(1))
+                .findByName(roomName);
+        verifyNoMoreInteractions(screeningTimeline);
         verifyNoMoreInteractions(screeningRepository);
         verifyNoMoreInteractions(clashService);
         verifyNoMoreInteractions(movieRepository);
         verifyNoMoreInteractions(roomRepository);
+        verifyNoInteractions(catalogueVersions);
     }
 
     @Test
@@ -268,7 +397,7 @@ class DefaultScreeningServiceTest {
                 .thenReturn(Optional.of(roomA));
         when(movieRepository.save(movieModified))
                 .thenReturn(movieModified);
-        when(screeningRepository.findAllByRoom(roomA))
+        when(screeningTimeline.findClashCandidates(roomA, startTimeA, startTimeA.plusMinutes(10)))
                 .thenReturn(Collections.emptyList());
         // when
         screeningService.createScreening(title, roomName, startTimeA);
@@ -317,7 +446,7 @@ class DefaultScreeningServiceTest {
                 .thenReturn(Optional.of(movieA));
         when(roomRepository.findByName(roomName))
                 .thenReturn(Optional.of(roomA));
-        when(screeningRepository.findAllByRoom(roomA))
+        when(screeningTimeline.findClashCandidates(roomA, startTimeA, startTimeA.plusMinutes(10)))
                 .thenReturn(Collections.emptyList());
         doThrow(RuntimeException.class)
                 .when(movieRepository)
@@ -329,8 +458,8 @@ class DefaultScreeningServiceTest {
                 .findByTitle(title);
         verify(roomRepository, times(1))
                 .findByName(roomName);
-        verify(screeningRepository, times(1))
-                .findAllByRoom(roomA);
+        verify(screeningTimeline, times(1))
+                .findClashCandidates(roomA, startTimeA, startTimeA.plusMinutes(10));
         verify(movieRepository, times(1))
                 .save(movieModified);
         verifyNoMoreInteractions(screeningRepository);
@@ -345,13 +474,39 @@ class DefaultScreeningServiceTest {
         var title = "Movie A";
         var roomName = "Room A";
         var startTimeA = LocalDateTime.of(2000,1,1,1,1);
+        var movie = Movie.builder()
+                .id(1L)
+                .title(title)
+                .genre("genre")
+                .durationInMinutes(100)
+                .build();
+        var room = Room.builder()
+                .id(2L)
+                .name(roomName)
+                .rows(10)
+                .columns(10)
+                .build();
+        var screening = Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(startTimeA)
+                .build();
         when(screeningRepository.deleteByMovieTitleAndRoomNameAndIdStartDateTime(title, roomName, startTimeA))
-                .thenReturn(1);
+                .thenReturn(List.of(screening));
         // when
         assertDoesNotThrow(() -> screeningService.deleteScreening(title, roomName, startTimeA));
         // then
         verify(screeningRepository, times(1))
                 .deleteByMovieTitleAndRoomNameAndIdStartDateTime(title, roomName, startTimeA);
+        verify(seatOccupancyIndex, times(1))
+                .evict(screening.getId());
+        verify(screeningTimeline, times(1))
+                .remove(screening.getId());
+        verify(priceService, times(1))
+                .evictPerSeatPrice(screening.getId());
+        verifyNoMoreInteractions(seatOccupancyIndex);
+        verifyNoMoreInteractions(screeningTimeline);
+        verifyNoMoreInteractions(priceService);
         verifyNoMoreInteractions(screeningRepository);
         verifyNoMoreInteractions(clashService);
         verifyNoMoreInteractions(movieRepository);
@@ -365,7 +520,7 @@ class DefaultScreeningServiceTest {
         var roomName = "Room A";
         var startTimeA = LocalDateTime.of(2000,1,1,1,1);
         when(screeningRepository.deleteByMovieTitleAndRoomNameAndIdStartDateTime(title, roomName, startTimeA))
-                .thenReturn(0);
+                .thenReturn(Collections.emptyList());
         // when
         assertThrows(EntityNotFoundException.class, () -> screeningService.deleteScreening(title, roomName, startTimeA));
         // then
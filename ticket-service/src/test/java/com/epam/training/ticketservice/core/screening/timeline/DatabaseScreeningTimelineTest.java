@@ -0,0 +1,85 @@
+package com.epam.training.ticketservice.core.screening.timeline;
+
+import com.epam.training.ticketservice.core.movie.repository.MovieRepository;
+import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.screening.dto.ScreeningSlot;
+import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseScreeningTimelineTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2021, 3, 1, 12, 0);
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    @InjectMocks
+    private DatabaseScreeningTimeline screeningTimeline;
+
+    @Test
+    void givenMoviesExist_whenFindClashCandidates_thenQueryPaddedWindowBoundedByLongestDuration() {
+        // given
+        var room = createRoom();
+        var candidate = new ScreeningSlot(1L, NOON.minusMinutes(30), 60);
+        when(movieRepository.findLongestDurationInMinutes())
+                .thenReturn(Optional.of(120));
+        when(screeningRepository.findAllSlotsByRoomIdOverlapping(2L,
+                NOON.minusMinutes(130),
+                NOON.minusMinutes(10),
+                NOON.plusMinutes(100)))
+                .thenReturn(List.of(candidate));
+        // when
+        var result = screeningTimeline.findClashCandidates(room, NOON, NOON.plusMinutes(90));
+        // then
+        assertEquals(List.of(candidate), result);
+        verify(movieRepository, times(1))
+                .findLongestDurationInMinutes();
+        verify(screeningRepository, times(1))
+                .findAllSlotsByRoomIdOverlapping(2L,
+                        NOON.minusMinutes(130),
+                        NOON.minusMinutes(10),
+                        NOON.plusMinutes(100));
+        verifyNoMoreInteractions(movieRepository);
+        verifyNoMoreInteractions(screeningRepository);
+    }
+
+    @Test
+    void givenNoMovieExists_whenFindClashCandidates_thenReturnEmptyWithoutQueryingScreenings() {
+        // given
+        var room = createRoom();
+        when(movieRepository.findLongestDurationInMinutes())
+                .thenReturn(Optional.empty());
+        // when
+        var result = screeningTimeline.findClashCandidates(room, NOON, NOON.plusMinutes(90));
+        // then
+        assertTrue(result.isEmpty());
+        verify(movieRepository, times(1))
+                .findLongestDurationInMinutes();
+        verifyNoMoreInteractions(movieRepository);
+        verifyNoInteractions(screeningRepository);
+    }
+
+    private Room createRoom() {
+        return Room.builder()
+                .id(2L)
+                .name("Room")
+                .rows(10)
+                .columns(20)
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.epam.training.ticketservice.core.screening.timeline;
+
+import com.epam.training.ticketservice.core.movie.entity.Movie;
+import com.epam.training.ticketservice.core.room.entity.Room;
+import com.epam.training.ticketservice.core.screening.dto.ScreeningSlot;
+import com.epam.training.ticketservice.core.screening.entity.Screening;
+import com.epam.training.ticketservice.core.screening.repository.ScreeningRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultScreeningTimelineTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2021, 3, 1, 12, 0);
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    @InjectMocks
+    private DefaultScreeningTimeline screeningTimeline;
+
+    @Test
+    void givenRoomIsNotLoaded_whenFindClashCandidatesTwice_thenLoadSlotsOnce() {
+        // given
+        var room = createRoom(2L);
+        when(screeningRepository.findAllSlotsByRoomId(2L))
+                .thenReturn(Collections.emptyList());
+        // when
+        screeningTimeline.findClashCandidates(room, NOON, NOON.plusMinutes(90));
+        screeningTimeline.findClashCandidates(room, NOON.plusHours(5), NOON.plusHours(6));
+        // then
+        verify(screeningRepository, times(1))
+                .findAllSlotsByRoomId(2L);
+        verifyNoMoreInteractions(screeningRepository);
+    }
+
+    @Test
+    void givenScreeningsAroundTheWindow_whenFindClashCandidates_thenReturnOnlyThoseReachingIntoTheBreak() {
+        // given
+        var room = createRoom(2L);
+        // Ends 10 minutes before noon, the break is exactly kept
+        var endsJustInTime = new ScreeningSlot(1L, NOON.minusMinutes(130), 120);
+        // Ends 5 minutes before noon, inside the break
+        var endsInBreak = new ScreeningSlot(2L, NOON.minusMinutes(65), 60);
+        // Starts 5 minutes after the new one ends, inside the break
+        var startsInBreak = new ScreeningSlot(3L, NOON.plusMinutes(95), 30);
+        // Starts 10 minutes after the new one ends
+        var startsJustInTime = new ScreeningSlot(4L, NOON.plusMinutes(100), 30);
+        // A long screening started long before is still running
+        var longRunning = new ScreeningSlot(5L, NOON.minusMinutes(300), 400);
+        when(screeningRepository.findAllSlotsByRoomId(2L))
+                .thenReturn(List.of(endsJustInTime, endsInBreak, startsInBreak, startsJustInTime, longRunning));
+        // when
+        var result = screeningTimeline.findClashCandidates(room, NOON, NOON.plusMinutes(90));
+        // then
+        assertEquals(List.of(longRunning, endsInBreak, startsInBreak), result);
+    }
+
+    @Test
+    void givenRoomIsLoaded_whenAddAndRemove_thenCandidatesFollowWithoutQuery() {
+        // given
+        var room = createRoom(2L);
+        var movie = Movie.builder()
+                .id(1L)
+                .title("Movie")
+                .genre("genre")
+                .durationInMinutes(90)
+                .build();
+        var screening = Screening.builder()
+                .movie(movie)
+                .room(room)
+                .startDateTime(NOON)
+                .build();
+        when(screeningRepository.findAllSlotsByRoomId(2L))
+                .thenReturn(Collections.emptyList());
+        screeningTimeline.findClashCandidates(room, NOON, NOON.plusMinutes(90));
+        // when
+        screeningTimeline.add(screening);
+        var afterAdd = screeningTimeline.findClashCandidates(room, NOON.plusMinutes(60), NOON.plusMinutes(120));
+        screeningTimeline.remove(screening.getId());
+        var afterRemove = screeningTimeline.findClashCandidates(room, NOON.plusMinutes(60), NOON.plusMinutes(120));
+        // then
+        assertEquals(List.of(new ScreeningSlot(1L, NOON, 90)), afterAdd);
+        assertTrue(afterRemove.isEmpty());
+        verify(screeningRepository, times(1))
+                .findAllSlotsByRoomId(2L);
+        verifyNoMoreInteractions(screeningRepository);
+    }
+
+    @Test
+    void givenRoomIsLoaded_whenEvictAllByRoomId_thenReloadOnNextLookup() {
+        // given
+        var room = createRoom(2L);
+        when(screeningRepository.findAllSlotsByRoomId(2L))
+                .thenReturn(Collections.emptyList());
+        screeningTimeline.findClashCandidates(room, NOON, NOON.plusMinutes(90));
+        // when
+        screeningTimeline.evictAllByRoomId(2L);
+        screeningTimeline.findClashCandidates(room, NOON, NOON.plusMinutes(90));
+        // then
+        verify(screeningRepository, times(2))
+                .findAllSlotsByRoomId(2L);
+        verifyNoMoreInteractions(screeningRepository);
+    }
+
+    @Test
+    void givenRoomIsLoaded_whenEvictAll_thenReloadOnNextLookup() {
+        // given
+        var room = createRoom(2L);
+        when(screeningRepository.findAllSlotsByRoomId(2L))
+                .thenReturn(Collections.emptyList());
+        screeningTimeline.findClashCandidates(room, NOON, NOON.plusMinutes(90));
+        // when
+        screeningTimeline.evictAll();
+        screeningTimeline.findClashCandidates(room, NOON, NOON.plusMinutes(90));
+        // then
+        verify(screeningRepository, times(2))
+                .findAllSlotsByRoomId(2L);
+        verifyNoMoreInteractions(screeningRepository);
+    }
+
+    private Room createRoom(Long id) {
+        return Room.builder()
+                .id(id)
+                .name("Room")
+                .rows(10)
+                .columns(20)
+                .build();
+    }
+}
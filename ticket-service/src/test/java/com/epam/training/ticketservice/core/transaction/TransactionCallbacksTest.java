@@ -0,0 +1,96 @@
+package com.epam.training.ticketservice.core.transaction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransactionCallbacksTest {
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void givenNoTransaction_whenAfterCommit_thenRunNow() {
+        // when
+        TransactionCallbacks.afterCommit(runs::incrementAndGet);
+        // then
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void givenTransaction_whenAfterCommit_thenRunOnCommit() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        // when
+        TransactionCallbacks.afterCommit(runs::incrementAndGet);
+        // then
+        assertEquals(0, runs.get());
+        commit();
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void givenTransaction_whenAfterCommit_thenDoNotRunOnRollback() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        // when
+        TransactionCallbacks.afterCommit(runs::incrementAndGet);
+        // then
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void givenTransaction_whenAfterCompletion_thenRunOnRollbackToo() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        // when
+        TransactionCallbacks.afterCompletion(runs::incrementAndGet);
+        // then
+        assertEquals(0, runs.get());
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void givenTransaction_whenNowAndAfterCompletion_thenRunTwice() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        // when
+        TransactionCallbacks.nowAndAfterCompletion(runs::incrementAndGet);
+        // then
+        assertEquals(1, runs.get());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void givenNoTransaction_whenNowAndAfterCompletion_thenRunOnce() {
+        // when
+        TransactionCallbacks.nowAndAfterCompletion(runs::incrementAndGet);
+        // then
+        assertEquals(1, runs.get());
+    }
+
+    private void commit() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -1,5 +1,6 @@
 package com.epam.training.ticketservice.shell.command.account;
 
+import com.epam.training.ticketservice.core.booking.dto.BookingPage;
 import com.epam.training.ticketservice.core.booking.service.BookingService;
 import com.epam.training.ticketservice.core.security.exception.AccountAlreadyExistsException;
 import com.epam.training.ticketservice.core.security.service.SecurityService;
@@ -185,7 +186,7 @@ class AccountCommandsTest {
         when(securityService.username())
                 .thenReturn(Optional.empty());
         // when
-        var result = accountCommands.describeAccount();
+        var result = accountCommands.describeAccount(20, null);
         // then
         assertEquals(List.of("You are not signed in"), result);
         verify(securityService, times(1))
@@ -206,10 +207,10 @@ class AccountCommandsTest {
                 .thenReturn(Optional.of(username));
         when(securityService.isPrivileged())
                 .thenReturn(false);
-        when(bookingService.listBookingsByAccount(username))
-                .thenReturn(Collections.emptyList());
+        when(bookingService.listBookingsByAccount(username, null, 20))
+                .thenReturn(BookingPage.builder().bookings(Collections.emptyList()).build());
         // when
-        var result = accountCommands.describeAccount();
+        var result = accountCommands.describeAccount(20, null);
         // then
         assertEquals(expected, result);
         verify(securityService, times(1))
@@ -217,7 +218,7 @@ class AccountCommandsTest {
         verify(securityService, times(1))
                 .username();
         verify(bookingService, times(1))
-                .listBookingsByAccount(username);
+                .listBookingsByAccount(username, null, 20);
         verifyNoMoreInteractions(securityService);
         verifyNoMoreInteractions(signInSignOutService);
         verifyNoMoreInteractions(signUpService);
@@ -235,10 +236,10 @@ class AccountCommandsTest {
                 .thenReturn(Optional.of(username));
         when(securityService.isPrivileged())
                 .thenReturn(true);
-        when(bookingService.listBookingsByAccount(username))
-                .thenReturn(Collections.emptyList());
+        when(bookingService.listBookingsByAccount(username, null, 20))
+                .thenReturn(BookingPage.builder().bookings(Collections.emptyList()).build());
         // when
-        var result = accountCommands.describeAccount();
+        var result = accountCommands.describeAccount(20, null);
         // then
         assertEquals(expected, result);
         verify(securityService, times(1))
@@ -246,7 +247,7 @@ class AccountCommandsTest {
         verify(securityService, times(1))
                 .username();
         verify(bookingService, times(1))
-                .listBookingsByAccount(username);
+                .listBookingsByAccount(username, null, 20);
         verifyNoMoreInteractions(securityService);
         verifyNoMoreInteractions(signInSignOutService);
         verifyNoMoreInteractions(signUpService);
@@ -269,10 +270,10 @@ class AccountCommandsTest {
                 .thenReturn(Optional.of(username));
         when(securityService.isPrivileged())
                 .thenReturn(false);
-        when(bookingService.listBookingsByAccount(username))
-                .thenReturn(bookingDescriptions);
+        when(bookingService.listBookingsByAccount(username, null, 20))
+                .thenReturn(BookingPage.builder().bookings(bookingDescriptions).build());
         // when
-        var result = accountCommands.describeAccount();
+        var result = accountCommands.describeAccount(20, null);
         // then
         assertEquals(expected, result);
         verify(securityService, times(1))
@@ -280,10 +281,80 @@ class AccountCommandsTest {
         verify(securityService, times(1))
                 .username();
         verify(bookingService, times(1))
-                .listBookingsByAccount(username);
+                .listBookingsByAccount(username, null, 20);
         verifyNoMoreInteractions(securityService);
         verifyNoMoreInteractions(signInSignOutService);
         verifyNoMoreInteractions(signUpService);
         verifyNoMoreInteractions(bookingService);
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenMoreBookingsThanPageSize_whenDescribeAccount_thenPrintCursorOfNextPage() {
+        // given
+        var username = "username";
+        var bookingDescriptions = List.of(
+                "Seats (5,5), (5,6) on MovieA in room RoomA starting at 2021-03-15 10:45 for 3000 HUF");
+        when(securityService.username())
+                .thenReturn(Optional.of(username));
+        when(securityService.isPrivileged())
+                .thenReturn(false);
+        when(bookingService.listBookingsByAccount(username, "cursor1", 1))
+                .thenReturn(BookingPage.builder().bookings(bookingDescriptions).nextCursor("cursor2").build());
+        // when
+        var result = accountCommands.describeAccount(1, "cursor1");
+        // then
+        assertEquals(List.of("Signed in with account 'username'",
+                "Your previous bookings are",
+                "Seats (5,5), (5,6) on MovieA in room RoomA starting at 2021-03-15 10:45 for 3000 HUF",
+                "There are more bookings, list them with --after cursor2"), result);
+        verify(bookingService, times(1))
+                .listBookingsByAccount(username, "cursor1", 1);
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    void givenCursorPointsPastLastBooking_whenDescribeAccount_thenReturnNoMoreBookingsMessage() {
+        // given
+        var username = "username";
+        when(securityService.username())
+                .thenReturn(Optional.of(username));
+        when(securityService.isPrivileged())
+                .thenReturn(false);
+        when(bookingService.listBookingsByAccount(username, "cursor", 20))
+                .thenReturn(BookingPage.builder().bookings(Collections.emptyList()).build());
+        // when
+        var result = accountCommands.describeAccount(20, "cursor");
+        // then
+        assertEquals(List.of("Signed in with account 'username'", "You have no more bookings"), result);
+    }
+
+    @Test
+    void givenCursorIsMalformed_whenDescribeAccount_thenReturnErrorMessage() {
+        // given
+        var username = "username";
+        when(securityService.username())
+                .thenReturn(Optional.of(username));
+        when(securityService.isPrivileged())
+                .thenReturn(false);
+        doThrow(new IllegalArgumentException("Malformed booking cursor"))
+                .when(bookingService)
+                .listBookingsByAccount(username, "garbage", 20);
+        // when
+        var result = accountCommands.describeAccount(20, "garbage");
+        // then
+        assertEquals(List.of("Signed in with account 'username'",
+                "The --after value is not a valid position in the booking list"), result);
+    }
+
+    @Test
+    void givenPageSizeIsNotPositive_whenDescribeAccount_thenReturnErrorMessage() {
+        // given
+        when(securityService.username())
+                .thenReturn(Optional.of("username"));
+        // when
+        var result = accountCommands.describeAccount(0, null);
+        // then
+        assertEquals(List.of("The page size must be at least 1"), result);
+        verifyNoInteractions(bookingService);
+    }
+}
@@ -3,7 +3,10 @@ package com.epam.training.ticketservice.shell.command.booking;
 import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingRequest;
 import com.epam.training.ticketservice.core.booking.dto.MultiSeatBookingResponse;
 import com.epam.training.ticketservice.core.booking.dto.Seat;
+import com.epam.training.ticketservice.core.booking.dto.SeatHoldResponse;
 import com.epam.training.ticketservice.core.booking.exception.MultiSeatBookingNotPossibleException;
+import com.epam.training.ticketservice.core.booking.pipeline.BookingPipeline;
+import com.epam.training.ticketservice.core.booking.lock.ScreeningLockStatistics;
 import com.epam.training.ticketservice.core.booking.service.BookingService;
 import com.epam.training.ticketservice.core.security.service.SecurityService;
 import org.junit.jupiter.api.Test;
@@ -12,6 +15,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +33,9 @@ class BookingCommandsTest {
     @Mock
     private BookingService bookingService;
 
+    @Mock
+    private BookingPipeline bookingPipeline;
+
     @InjectMocks
     private BookingCommands bookingCommands;
 
@@ -44,12 +51,13 @@ class BookingCommandsTest {
         when(securityService.username())
                 .thenReturn(Optional.empty());
         // when
-        assertThrows(IllegalStateException.class, () -> bookingCommands.book(movieTitle, roomName, startDateTime, seats));
+        assertThrows(IllegalStateException.class, () -> bookingCommands.book(movieTitle, roomName, startDateTime, seats, null));
         // then
         verify(securityService, times(1))
                 .username();
         verifyNoMoreInteractions(securityService);
-        verifyNoMoreInteractions(bookingService);
+        verifyNoInteractions(bookingService);
+        verifyNoInteractions(bookingPipeline);
     }
 
     @Test
@@ -75,18 +83,113 @@ class BookingCommandsTest {
                 .sumPrice(3000)
                 .seats(seats)
                 .build();
-        when(bookingService.book(bookingRequest))
+        when(bookingPipeline.submit(bookingRequest))
                 .thenReturn(bookingResponse);
         // when
-        var output = bookingCommands.book(movieTitle, roomName, startDateTime, seats);
+        var output = bookingCommands.book(movieTitle, roomName, startDateTime, seats, null);
         // then
         assertEquals(List.of("Seats booked: (10,10), (20,20); the price for this booking is 3000 HUF"), output);
         verify(securityService, times(1))
                 .username();
         verifyNoMoreInteractions(securityService);
+        verify(bookingPipeline, times(1))
+                .submit(bookingRequest);
+        verifyNoMoreInteractions(bookingPipeline);
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void givenRequestId_whenBook_thenSubmitItWithTheRequest() {
+        // given
+        var username = "user";
+        var movieTitle = "movie";
+        var roomName = "room";
+        var startDateTime = LocalDateTime.of(2000,1,1, 1, 1);
+        var seats = List.of(Seat.builder().row(10).column(10).build());
+        when(securityService.username())
+                .thenReturn(Optional.of(username));
+        var bookingRequest = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .requestId("r-1")
+                .build();
+        var bookingResponse = MultiSeatBookingResponse.builder()
+                .sumPrice(1500)
+                .seats(seats)
+                .build();
+        when(bookingPipeline.submit(bookingRequest))
+                .thenReturn(bookingResponse);
+        // when
+        var output = bookingCommands.book(movieTitle, roomName, startDateTime, seats, "r-1");
+        // then
+        assertEquals(List.of("Seats booked: (10,10); the price for this booking is 1500 HUF"), output);
+        verify(bookingPipeline, times(1))
+                .submit(bookingRequest);
+        verifyNoMoreInteractions(bookingPipeline);
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void givenServiceCancelsSeats_whenCancelBooking_thenReturnRefund() {
+        // given
+        var username = "user";
+        var movieTitle = "movie";
+        var roomName = "room";
+        var startDateTime = LocalDateTime.of(2000,1,1, 1, 1);
+        var seats = List.of(Seat.of(20, 20), Seat.of(10, 10));
+        when(securityService.username())
+                .thenReturn(Optional.of(username));
+        var request = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .build();
+        var response = MultiSeatBookingResponse.builder()
+                .sumPrice(3000)
+                .seats(seats)
+                .build();
+        when(bookingService.cancel(request))
+                .thenReturn(response);
+        // when
+        var output = bookingCommands.cancelBooking(movieTitle, roomName, startDateTime, seats);
+        // then
+        assertEquals(List.of("Seats cancelled: (10,10), (20,20); 3000 HUF is refunded"), output);
         verify(bookingService, times(1))
-                .book(bookingRequest);
+                .cancel(request);
         verifyNoMoreInteractions(bookingService);
+        verifyNoInteractions(bookingPipeline);
+    }
+
+    @Test
+    void givenServiceThrowsMultiSeatBookingNotPossibleException_whenCancelBooking_thenReturnErrors() {
+        // given
+        var username = "user";
+        var movieTitle = "movie";
+        var roomName = "room";
+        var startDateTime = LocalDateTime.of(2000,1,1, 1, 1);
+        var seats = List.of(Seat.of(10, 10));
+        when(securityService.username())
+                .thenReturn(Optional.of(username));
+        var request = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .build();
+        var errors = List.of("Seat (10,10) is not booked by you");
+        doThrow(new MultiSeatBookingNotPossibleException(errors))
+                .when(bookingService)
+                .cancel(request);
+        // when
+        var output = bookingCommands.cancelBooking(movieTitle, roomName, startDateTime, seats);
+        // then
+        assertEquals(errors, output);
     }
 
     @Test
@@ -110,18 +213,19 @@ class BookingCommandsTest {
                 .build();
         var errors = List.of("error1", "error2");
         doThrow(new MultiSeatBookingNotPossibleException(errors))
-                .when(bookingService)
-                .book(bookingRequest);
+                .when(bookingPipeline)
+                .submit(bookingRequest);
         // when
-        var output = bookingCommands.book(movieTitle, roomName, startDateTime, seats);
+        var output = bookingCommands.book(movieTitle, roomName, startDateTime, seats, null);
         // then
         assertEquals(errors, output);
         verify(securityService, times(1))
                 .username();
         verifyNoMoreInteractions(securityService);
-        verify(bookingService, times(1))
-                .book(bookingRequest);
-        verifyNoMoreInteractions(bookingService);
+        verify(bookingPipeline, times(1))
+                .submit(bookingRequest);
+        verifyNoMoreInteractions(bookingPipeline);
+        verifyNoInteractions(bookingService);
     }
 
     @Test
@@ -144,17 +248,179 @@ class BookingCommandsTest {
                 .seats(seats)
                 .build();
         doThrow(RuntimeException.class)
-                .when(bookingService)
-                .book(bookingRequest);
+                .when(bookingPipeline)
+                .submit(bookingRequest);
         // when
-        var output = bookingCommands.book(movieTitle, roomName, startDateTime, seats);
+        var output = bookingCommands.book(movieTitle, roomName, startDateTime, seats, null);
         // then
         assertEquals(List.of("Booking seats failed due to general error"), output);
         verify(securityService, times(1))
                 .username();
         verifyNoMoreInteractions(securityService);
+        verify(bookingPipeline, times(1))
+                .submit(bookingRequest);
+        verifyNoMoreInteractions(bookingPipeline);
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void givenServiceFindsSeats_whenBookBest_thenReturnBookedSeats() {
+        // given
+        var username = "user";
+        var movieTitle = "movie";
+        var roomName = "room";
+        var startDateTime = LocalDateTime.of(2000,1,1, 1, 1);
+        when(securityService.username())
+                .thenReturn(Optional.of(username));
+        var response = MultiSeatBookingResponse.builder()
+                .sumPrice(3000)
+                .seats(List.of(Seat.of(5, 6), Seat.of(5, 5)))
+                .build();
+        when(bookingService.bookBest(username, movieTitle, roomName, startDateTime, 2))
+                .thenReturn(response);
+        // when
+        var output = bookingCommands.bookBest(movieTitle, roomName, startDateTime, 2);
+        // then
+        assertEquals(List.of("Seats booked: (5,5), (5,6); the price for this booking is 3000 HUF"), output);
+        verify(bookingService, times(1))
+                .bookBest(username, movieTitle, roomName, startDateTime, 2);
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    void givenServiceThrowsMultiSeatBookingNotPossibleException_whenBookBest_thenReturnErrors() {
+        // given
+        var username = "user";
+        var movieTitle = "movie";
+        var roomName = "room";
+        var startDateTime = LocalDateTime.of(2000,1,1, 1, 1);
+        when(securityService.username())
+                .thenReturn(Optional.of(username));
+        var errors = List.of("There are no 11 adjacent free seats in a row");
+        doThrow(new MultiSeatBookingNotPossibleException(errors))
+                .when(bookingService)
+                .bookBest(username, movieTitle, roomName, startDateTime, 11);
+        // when
+        var output = bookingCommands.bookBest(movieTitle, roomName, startDateTime, 11);
+        // then
+        assertEquals(errors, output);
+    }
+
+    @Test
+    void givenServiceHoldsSeats_whenHold_thenReturnHeldSeats() {
+        // given
+        var username = "user";
+        var movieTitle = "movie";
+        var roomName = "room";
+        var startDateTime = LocalDateTime.of(2000,1,1, 1, 1);
+        var seats = List.of(Seat.of(20, 20), Seat.of(10, 10));
+        when(securityService.username())
+                .thenReturn(Optional.of(username));
+        var request = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .build();
+        var response = SeatHoldResponse.builder()
+                .seats(seats)
+                .timeToLive(Duration.ofMinutes(10))
+                .build();
+        when(bookingService.hold(request))
+                .thenReturn(response);
+        // when
+        var output = bookingCommands.hold(movieTitle, roomName, startDateTime, seats);
+        // then
+        assertEquals(List.of("Seats held: (10,10), (20,20); the hold expires in 600 seconds"), output);
+        verify(bookingService, times(1))
+                .hold(request);
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    void givenServiceThrowsMultiSeatBookingNotPossibleException_whenHold_thenReturnErrors() {
+        // given
+        var username = "user";
+        var movieTitle = "movie";
+        var roomName = "room";
+        var startDateTime = LocalDateTime.of(2000,1,1, 1, 1);
+        var seats = List.of(Seat.of(10, 10));
+        when(securityService.username())
+                .thenReturn(Optional.of(username));
+        var request = MultiSeatBookingRequest.builder()
+                .username(username)
+                .movieTitle(movieTitle)
+                .roomName(roomName)
+                .startDateTime(startDateTime)
+                .seats(seats)
+                .build();
+        var errors = List.of("Seat (10,10) is already taken");
+        doThrow(new MultiSeatBookingNotPossibleException(errors))
+                .when(bookingService)
+                .hold(request);
+        // when
+        var output = bookingCommands.hold(movieTitle, roomName, startDateTime, seats);
+        // then
+        assertEquals(errors, output);
+    }
+
+    @Test
+    void givenNoSeatsAreHeld_whenReleaseHold_thenReturnMessage() {
+        // given
+        var username = "user";
+        var movieTitle = "movie";
+        var roomName = "room";
+        var startDateTime = LocalDateTime.of(2000,1,1, 1, 1);
+        when(securityService.username())
+                .thenReturn(Optional.of(username));
+        when(bookingService.releaseHold(username, movieTitle, roomName, startDateTime))
+                .thenReturn(0);
+        // when
+        var output = bookingCommands.releaseHold(movieTitle, roomName, startDateTime);
+        // then
+        assertEquals(List.of("You have no seats held for this screening"), output);
+    }
+
+    @Test
+    void givenSeatsAreHeld_whenReleaseHold_thenReturnEmptyList() {
+        // given
+        var username = "user";
+        var movieTitle = "movie";
+        var roomName = "room";
+        var startDateTime = LocalDateTime.of(2000,1,1, 1, 1);
+        when(securityService.username())
+                .thenReturn(Optional.of(username));
+        when(bookingService.releaseHold(username, movieTitle, roomName, startDateTime))
+                .thenReturn(2);
+        // when
+        var output = bookingCommands.releaseHold(movieTitle, roomName, startDateTime);
+        // then
+        assertEquals(List.of(), output);
+        verify(bookingService, times(1))
+                .releaseHold(username, movieTitle, roomName, startDateTime);
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    void givenServiceReturnsStatistics_whenShowBookingLockStatistics_thenReturnFormattedStatistics() {
+        // given
+        var statistics = ScreeningLockStatistics.builder()
+                .stripes(64)
+                .acquisitions(10)
+                .contendedAcquisitions(2)
+                .busiestStripe(3)
+                .busiestStripeContentions(2)
+                .build();
+        when(bookingService.getLockStatistics())
+                .thenReturn(statistics);
+        // when
+        var output = bookingCommands.showBookingLockStatistics();
+        // then
+        assertEquals(List.of("64 stripes, 10 acquisitions, 2 contended; busiest stripe 3 with 2 contended"), output);
         verify(bookingService, times(1))
-                .book(bookingRequest);
+                .getLockStatistics();
         verifyNoMoreInteractions(bookingService);
+        verifyNoInteractions(securityService);
     }
-}
\ No newline at end of file
+}
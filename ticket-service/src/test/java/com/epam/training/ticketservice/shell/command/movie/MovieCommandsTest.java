@@ -1,5 +1,6 @@
 package com.epam.training.ticketservice.shell.command.movie;
 
+import com.epam.training.ticketservice.core.movie.exception.MovieDurationClashException;
 import com.epam.training.ticketservice.core.movie.service.MovieService;
 import com.epam.training.ticketservice.core.security.service.SecurityService;
 import org.junit.jupiter.api.Test;
@@ -167,6 +168,26 @@ class MovieCommandsTest {
         verifyNoMoreInteractions(securityService);
     }
 
+    @Test
+    void givenDurationClashes_whenUpdateMovie_thenReturnClashErrors() {
+        // given
+        var title = "some title";
+        var genre = "some genre";
+        var duration = 100;
+        var errors = List.of("The screening in room A at 2021-03-01 12:00 would clash with the one at 2021-03-01 13:20");
+        doThrow(new MovieDurationClashException(errors))
+                .when(movieService)
+                .updateByTitle(title, genre, duration);
+        // when
+        var actual = movieCommands.updateMovie(title, genre, duration);
+        // then
+        assertEquals(errors, actual);
+        verify(movieService, times(1))
+                .updateByTitle(title, genre, duration);
+        verifyNoMoreInteractions(movieService);
+        verifyNoMoreInteractions(securityService);
+    }
+
     @Test
     void givenServiceThrows_whenUpdateMovie_thenReturnGeneralErrorStringList() {
         // given
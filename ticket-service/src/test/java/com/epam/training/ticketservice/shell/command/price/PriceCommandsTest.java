@@ -1,6 +1,9 @@
 package com.epam.training.ticketservice.shell.command.price;
 
 import com.epam.training.ticketservice.core.booking.dto.Seat;
+import com.epam.training.ticketservice.core.price.dto.PricingRuleRequest;
+import com.epam.training.ticketservice.core.price.dto.ScreeningPrice;
+import com.epam.training.ticketservice.core.price.exception.PricingRuleNotValidException;
 import com.epam.training.ticketservice.core.price.service.PriceService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,9 +11,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
@@ -35,6 +42,124 @@ class PriceCommandsTest {
         verifyNoMoreInteractions(priceService);
     }
 
+    @Test
+    void givenExceptionOccurs_whenUpdateBasePrice_thenReturnErrorStringList() {
+        // given
+        doThrow(RuntimeException.class)
+                .when(priceService)
+                .updateBasePrice(5000);
+        // when
+        var result = priceCommands.updateBasePrice(5000);
+        // then
+        assertEquals(List.of("Updating base price failed"), result);
+        verify(priceService, times(1))
+                .updateBasePrice(5000);
+        verifyNoMoreInteractions(priceService);
+    }
+
+    @Test
+    void givenPricesExist_whenShowPricesForMovie_thenReturnOneLinePerScreening() {
+        // given
+        var startDateTime = LocalDateTime.of(2000, 12, 1, 12, 0);
+        when(priceService.getPerSeatPricesByMovie("movieA"))
+                .thenReturn(List.of(ScreeningPrice.builder()
+                        .movieTitle("movieA")
+                        .roomName("roomA")
+                        .startDateTime(startDateTime)
+                        .perSeatPrice(1500)
+                        .build()));
+        // when
+        var result = priceCommands.showPricesForMovie("movieA");
+        // then
+        assertEquals(List.of("movieA, screened in room roomA, at 2000-12-01 12:00: 1500 HUF per seat"), result);
+    }
+
+    @Test
+    void givenNoScreenings_whenShowPricesInRoom_thenReturnNoScreenings() {
+        // given
+        when(priceService.getPerSeatPricesByRoom("roomA"))
+                .thenReturn(Collections.emptyList());
+        // when
+        var result = priceCommands.showPricesInRoom("roomA");
+        // then
+        assertEquals(List.of("There are no screenings"), result);
+    }
+
+    @Test
+    void givenExceptionOccurs_whenShowPricesOn_thenReturnErrorStringList() {
+        // given
+        var date = LocalDate.of(2000, 12, 1);
+        when(priceService.getPerSeatPricesOn(date))
+                .thenThrow(RuntimeException.class);
+        // when
+        var result = priceCommands.showPricesOn(date);
+        // then
+        assertEquals(List.of("Showing prices failed"), result);
+    }
+
+    @Test
+    void givenDaysAreAbbreviated_whenCreatePricingRule_thenPassParsedDays() {
+        // given
+        var from = LocalTime.of(10, 0);
+        // when
+        var result = priceCommands.createPricingRule("matinee", -300, "mon, Fri", from, null, null);
+        // then
+        assertEquals(Collections.emptyList(), result);
+        verify(priceService, times(1))
+                .createPricingRule(PricingRuleRequest.builder()
+                        .name("matinee")
+                        .adjustment(-300)
+                        .days(Set.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY))
+                        .startsFrom(from)
+                        .build());
+        verifyNoMoreInteractions(priceService);
+    }
+
+    @Test
+    void givenUnknownDay_whenCreatePricingRule_thenReturnWhichDayIsUnknown() {
+        // when
+        var result = priceCommands.createPricingRule("matinee", -300, "mo", null, null, null);
+        // then
+        assertEquals(List.of("Unknown day: mo"), result);
+        verifyNoInteractions(priceService);
+    }
+
+    @Test
+    void givenRuleIsNotValid_whenCreatePricingRule_thenReturnErrors() {
+        // given
+        var errors = List.of("Pricing rule busy already exists");
+        doThrow(new PricingRuleNotValidException(errors))
+                .when(priceService)
+                .createPricingRule(any());
+        // when
+        var result = priceCommands.createPricingRule("busy", 500, null, null, null, 80);
+        // then
+        assertEquals(errors, result);
+    }
+
+    @Test
+    void givenExceptionOccurs_whenDeletePricingRule_thenReturnErrorStringList() {
+        // given
+        doThrow(RuntimeException.class)
+                .when(priceService)
+                .deletePricingRule("busy");
+        // when
+        var result = priceCommands.deletePricingRule("busy");
+        // then
+        assertEquals(List.of("Deleting pricing rule failed"), result);
+    }
+
+    @Test
+    void givenNoRules_whenListPricingRules_thenReturnNoRules() {
+        // given
+        when(priceService.listPricingRules())
+                .thenReturn(Collections.emptyList());
+        // when
+        var result = priceCommands.listPricingRules();
+        // then
+        assertEquals(List.of("There are no pricing rules"), result);
+    }
+
     @Test
     void givenNoExceptionsOccur_whenShowPriceFor_thenReturnCorrectAnswer() {
         // given
@@ -212,4 +337,35 @@ class PriceCommandsTest {
                 .createPriceComponent(priceName, price);
         verifyNoMoreInteractions(priceService);
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenServiceThrows_whenUpdatePriceComponent_thenReturnErrorStrings() {
+        // given
+        var priceName = "fee";
+        var price = 10;
+        doThrow(RuntimeException.class)
+                .when(priceService)
+                .updatePriceComponent(priceName, price);
+        // when
+        var result = priceCommands.updatePriceComponent(priceName, price);
+        // then
+        assertEquals(List.of("Updating price component failed"), result);
+        verify(priceService, times(1))
+                .updatePriceComponent(priceName, price);
+        verifyNoMoreInteractions(priceService);
+    }
+
+    @Test
+    void givenNoExceptionOccurs_whenUpdatePriceComponent_thenReturnEmptyList() {
+        // given
+        var priceName = "fee";
+        var price = 10;
+        // when
+        var result = priceCommands.updatePriceComponent(priceName, price);
+        // then
+        assertEquals(Collections.emptyList(), result);
+        verify(priceService, times(1))
+                .updatePriceComponent(priceName, price);
+        verifyNoMoreInteractions(priceService);
+    }
+}
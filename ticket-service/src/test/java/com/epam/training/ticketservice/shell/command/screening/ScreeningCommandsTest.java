@@ -1,15 +1,31 @@
 package com.epam.training.ticketservice.shell.command.screening;
 
+import com.epam.training.ticketservice.core.screening.audit.ScheduleAuditor;
+import com.epam.training.ticketservice.core.screening.dto.GeneratedSchedule;
+import com.epam.training.ticketservice.core.screening.dto.MovieQuota;
+import com.epam.training.ticketservice.core.screening.dto.ScheduleAudit;
+import com.epam.training.ticketservice.core.screening.dto.ScheduleClash;
+import com.epam.training.ticketservice.core.screening.dto.ScheduledScreening;
+import com.epam.training.ticketservice.core.screening.exception.ScreeningImportException;
 import com.epam.training.ticketservice.core.screening.exception.ScreeningTimeClashException;
+import com.epam.training.ticketservice.core.screening.importer.ScreeningImporter;
+import com.epam.training.ticketservice.core.screening.schedule.ScheduleGenerator;
 import com.epam.training.ticketservice.core.screening.service.ScreeningService;
 import com.epam.training.ticketservice.core.security.service.SecurityService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.BufferedReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.persistence.EntityNotFoundException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -26,6 +42,15 @@ class ScreeningCommandsTest {
     @Mock
     private SecurityService securityService;
 
+    @Mock
+    private ScreeningImporter screeningImporter;
+
+    @Mock
+    private ScheduleGenerator scheduleGenerator;
+
+    @Mock
+    private ScheduleAuditor scheduleAuditor;
+
     @InjectMocks
     private ScreeningCommands screeningCommands;
 
@@ -35,7 +60,7 @@ class ScreeningCommandsTest {
         when(screeningService.list())
                 .thenReturn(Collections.emptyList());
         // when
-        var actual = screeningCommands.listScreenings();
+        var actual = screeningCommands.listScreenings(false);
         // then
         assertEquals(List.of("There are no screenings"), actual);
         verify(screeningService, times(1))
@@ -50,7 +75,7 @@ class ScreeningCommandsTest {
         when(screeningService.list())
                 .thenReturn(list);
         // when
-        var actual = screeningCommands.listScreenings();
+        var actual = screeningCommands.listScreenings(false);
         // then
         assertEquals(list, actual);
         verify(screeningService, times(1))
@@ -66,7 +91,7 @@ class ScreeningCommandsTest {
                 .when(screeningService)
                 .list();
         // when
-        var actual = screeningCommands.listScreenings();
+        var actual = screeningCommands.listScreenings(false);
         // then
         assertEquals(list, actual);
         verify(screeningService, times(1))
@@ -74,6 +99,39 @@ class ScreeningCommandsTest {
         verifyNoMoreInteractions(screeningService);
     }
 
+    @Test
+    void givenPrivilegedAccount_whenListScreeningsWithSales_thenReturnListWithSales() {
+        // given
+        var list = List.of("Something, 1 seats sold, 199 seats free, 1500 HUF gross revenue");
+        when(securityService.isAuthenticated())
+                .thenReturn(true);
+        when(securityService.isPrivileged())
+                .thenReturn(true);
+        when(screeningService.listWithSales())
+                .thenReturn(list);
+        // when
+        var actual = screeningCommands.listScreenings(true);
+        // then
+        assertEquals(list, actual);
+        verify(screeningService, times(1))
+                .listWithSales();
+        verifyNoMoreInteractions(screeningService);
+    }
+
+    @Test
+    void givenNonPrivilegedAccount_whenListScreeningsWithSales_thenReturnError() {
+        // given
+        when(securityService.isAuthenticated())
+                .thenReturn(true);
+        when(securityService.isPrivileged())
+                .thenReturn(false);
+        // when
+        var actual = screeningCommands.listScreenings(true);
+        // then
+        assertEquals(List.of("You must have privileges to list sales"), actual);
+        verifyNoInteractions(screeningService);
+    }
+
     @Test
     void givenServiceDoesNotThrow_whenCreateScreenings_thenReturnEmptyList() {
         // given
@@ -161,4 +219,154 @@ class ScreeningCommandsTest {
                 .deleteScreening(movie, room, dateTime);
         verifyNoMoreInteractions(screeningService);
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenImporterSucceeds_whenImportScreenings_thenReturnNumberOfImportedScreenings(@TempDir Path directory)
+            throws Exception {
+        // given
+        var file = Files.writeString(directory.resolve("screenings.csv"), "Movie,Room,2021-03-01 10:00\n");
+        when(screeningImporter.importScreenings(any(BufferedReader.class)))
+                .thenReturn(1);
+        // when
+        var actual = screeningCommands.importScreenings(file.toString());
+        // then
+        assertEquals(List.of("1 screenings imported"), actual);
+        verify(screeningImporter, times(1))
+                .importScreenings(any(BufferedReader.class));
+        verifyNoMoreInteractions(screeningImporter);
+    }
+
+    @Test
+    void givenImporterRejectsLines_whenImportScreenings_thenReturnErrors(@TempDir Path directory) throws Exception {
+        // given
+        var file = Files.writeString(directory.resolve("screenings.csv"), "Movie,Room\n");
+        var errors = List.of("Line 1: expected a movie title, a room name and a start time");
+        when(screeningImporter.importScreenings(any(BufferedReader.class)))
+                .thenThrow(new ScreeningImportException(errors));
+        // when
+        var actual = screeningCommands.importScreenings(file.toString());
+        // then
+        assertEquals(errors, actual);
+    }
+
+    @Test
+    void givenFileDoesNotExist_whenImportScreenings_thenReturnReadError(@TempDir Path directory) {
+        // given
+        var fileName = directory.resolve("missing.csv").toString();
+        // when
+        var actual = screeningCommands.importScreenings(fileName);
+        // then
+        assertEquals(List.of("Failed to read " + fileName), actual);
+        verifyNoInteractions(screeningImporter);
+    }
+
+    @Test
+    void givenGeneratorSchedulesScreenings_whenGenerateSchedule_thenReturnScreeningsAndSummary() {
+        // given
+        var date = LocalDate.of(2021, 3, 15);
+        var opening = LocalTime.of(10, 0);
+        var closing = LocalTime.of(12, 0);
+        var quotas = List.of(MovieQuota.builder().movieTitle("Movie").count(2).build());
+        var schedule = GeneratedSchedule.builder()
+                .screenings(List.of(ScheduledScreening.builder()
+                        .movieTitle("Movie")
+                        .startDateTime(date.atTime(10, 0))
+                        .endDateTime(date.atTime(11, 30))
+                        .build()))
+                .usedMinutes(90)
+                .freeMinutes(120)
+                .build();
+        when(scheduleGenerator.generate("Room", date, opening, closing, quotas))
+                .thenReturn(schedule);
+        var expected = List.of("Movie from 2021-03-15 10:00 to 2021-03-15 11:30",
+                "1 screenings scheduled, 90 of 120 free minutes used");
+        // when
+        var actual = screeningCommands.generateSchedule("Room", date, opening, closing, quotas);
+        // then
+        assertEquals(expected, actual);
+        verify(scheduleGenerator, times(1))
+                .generate("Room", date, opening, closing, quotas);
+        verifyNoMoreInteractions(scheduleGenerator);
+    }
+
+    @Test
+    void givenNothingFits_whenGenerateSchedule_thenReturnMessage() {
+        // given
+        var date = LocalDate.of(2021, 3, 15);
+        var opening = LocalTime.of(10, 0);
+        var closing = LocalTime.of(10, 30);
+        var quotas = List.of(MovieQuota.builder().movieTitle("Movie").count(2).build());
+        when(scheduleGenerator.generate("Room", date, opening, closing, quotas))
+                .thenReturn(GeneratedSchedule.builder()
+                        .screenings(Collections.emptyList())
+                        .freeMinutes(30)
+                        .build());
+        // when
+        var actual = screeningCommands.generateSchedule("Room", date, opening, closing, quotas);
+        // then
+        assertEquals(List.of("No screening fits into the opening hours"), actual);
+    }
+
+    @Test
+    void givenRoomDoesNotExist_whenGenerateSchedule_thenReturnExceptionMessage() {
+        // given
+        var date = LocalDate.of(2021, 3, 15);
+        var opening = LocalTime.of(10, 0);
+        var closing = LocalTime.of(12, 0);
+        var quotas = List.of(MovieQuota.builder().movieTitle("Movie").count(2).build());
+        when(scheduleGenerator.generate("Room", date, opening, closing, quotas))
+                .thenThrow(new EntityNotFoundException("Room Room does not exist"));
+        // when
+        var actual = screeningCommands.generateSchedule("Room", date, opening, closing, quotas);
+        // then
+        assertEquals(List.of("Room Room does not exist"), actual);
+    }
+
+    @Test
+    void givenClashesFound_whenAuditSchedule_thenReturnClashesAndSummary() {
+        // given
+        var start = LocalDateTime.of(2021, 3, 15, 10, 0);
+        when(scheduleAuditor.audit())
+                .thenReturn(ScheduleAudit.builder()
+                        .clashes(List.of(ScheduleClash.builder()
+                                        .roomName("A")
+                                        .movieTitle("Alpha")
+                                        .startDateTime(start)
+                                        .clashingMovieTitle("Beta")
+                                        .clashingStartDateTime(start.plusMinutes(30))
+                                        .overlapping(true)
+                                        .build(),
+                                ScheduleClash.builder()
+                                        .roomName("B")
+                                        .movieTitle("Beta")
+                                        .startDateTime(start)
+                                        .clashingMovieTitle("Alpha")
+                                        .clashingStartDateTime(start.plusMinutes(65))
+                                        .overlapping(false)
+                                        .build()))
+                        .screeningsChecked(10)
+                        .roomsChecked(3)
+                        .build());
+        var expected = List.of("Room A: Alpha at 2021-03-15 10:00 overlaps Beta at 2021-03-15 10:30",
+                "Room B: Beta at 2021-03-15 10:00 leaves no break before Alpha at 2021-03-15 11:05",
+                "2 clashes found among 10 screenings in 3 rooms");
+        // when
+        var actual = screeningCommands.auditSchedule();
+        // then
+        assertEquals(expected, actual);
+        verify(scheduleAuditor, times(1))
+                .audit();
+        verifyNoMoreInteractions(scheduleAuditor);
+    }
+
+    @Test
+    void givenAuditorThrows_whenAuditSchedule_thenReturnGeneralError() {
+        // given
+        when(scheduleAuditor.audit())
+                .thenThrow(RuntimeException.class);
+        // when
+        var actual = screeningCommands.auditSchedule();
+        // then
+        assertEquals(List.of("Failed to audit schedule due to general error"), actual);
+    }
+}
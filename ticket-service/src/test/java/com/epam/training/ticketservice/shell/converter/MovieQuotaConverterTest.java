@@ -0,0 +1,61 @@
+package com.epam.training.ticketservice.shell.converter;
+
+import com.epam.training.ticketservice.core.screening.dto.MovieQuota;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MovieQuotaConverterTest {
+
+    private MovieQuotaConverter movieQuotaConverter;
+
+    @BeforeEach
+    void init() {
+        movieQuotaConverter = new MovieQuotaConverter();
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideValidMovieQuotaLists")
+    void givenValidString_whenConvert_thenReturnListOfMovieQuotas(String input, List<MovieQuota> expected) {
+        assertEquals(expected, movieQuotaConverter.convert(input));
+    }
+
+    static Stream<Arguments> provideValidMovieQuotaLists() {
+        return Stream.of(
+                Arguments.of("Movie:1", List.of(quota("Movie", 1))),
+                Arguments.of("Movie A:3;Movie B:2", List.of(quota("Movie A", 3), quota("Movie B", 2))),
+                Arguments.of("Alien: Resurrection : 2", List.of(quota("Alien: Resurrection", 2)))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideInvalidMovieQuotaLists")
+    void givenInvalidString_whenConvert_thenThrow(String input) {
+        assertThrows(RuntimeException.class, () -> movieQuotaConverter.convert(input));
+    }
+
+    static Stream<Arguments> provideInvalidMovieQuotaLists() {
+        return Stream.of(
+                Arguments.of(""),
+                Arguments.of("Movie"),
+                Arguments.of(":2"),
+                Arguments.of("Movie:"),
+                Arguments.of("Movie:two"),
+                Arguments.of("Movie A:3;;Movie B:2")
+        );
+    }
+
+    private static MovieQuota quota(String movieTitle, int count) {
+        return MovieQuota.builder()
+                .movieTitle(movieTitle)
+                .count(count)
+                .build();
+    }
+}